@@ -0,0 +1,95 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.Iterator;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+
+/**
+ * Compares the throughput of the prefetching blocking iterator with an unbounded
+ * LinkedBlockingQueue-based iteration (the previous implementation) when the values 
+ * are produced on another thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class BlockingIteratorPerf {
+    
+    @Param({ "1000", "1000000" })
+    public int times;
+    
+    @Param({ "16", "128", "1024" })
+    public int prefetch;
+    
+    Observable<Integer> source;
+    
+    static final Object COMPLETE = new Object();
+    
+    @Setup
+    public void setup() {
+        source = Observable.range(1, times).subscribeOn(Schedulers.computation());
+    }
+    
+    @Benchmark
+    public void prefetching(Blackhole bh) {
+        Iterator<Integer> it = source.toBlocking().iterator(prefetch);
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+    
+    @Benchmark
+    public void unbounded(Blackhole bh) throws InterruptedException {
+        final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+        
+        source.subscribe(new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(Integer t) {
+                queue.offer(t);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                queue.offer(t);
+            }
+            
+            @Override
+            public void onComplete() {
+                queue.offer(COMPLETE);
+            }
+        });
+        
+        for (;;) {
+            Object o = queue.take();
+            if (o == COMPLETE || o instanceof Throwable) {
+                break;
+            }
+            bh.consume(o);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.internal.schedulers.*;
+
+/**
+ * Measures the latency distribution of bursts of short-lived Workers (such as the
+ * ones created by many short observeOn subscriptions) on the computation scheduler
+ * with the different event loop selection policies, while some long-lived Workers keep
+ * an uneven background load on the event loops.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class ComputationSelectionPerf {
+    
+    @Param({ "round-robin", "least-loaded", "two-choices" })
+    public String policy;
+    
+    /** Number of short-lived Workers created per burst. */
+    @Param({ "100", "1000" })
+    public int burst;
+    
+    /** Number of long-lived Workers running a periodic background task. */
+    @Param({ "0", "16" })
+    public int background;
+    
+    Scheduler scheduler;
+    
+    Scheduler.Worker[] backgroundWorkers;
+    
+    @Setup
+    public void setup() {
+        scheduler = new ComputationScheduler(EventLoopSelectionPolicies.fromName(policy));
+        
+        backgroundWorkers = new Scheduler.Worker[background];
+        for (int i = 0; i < background; i++) {
+            final int work = 1000 * (1 + i % 4);
+            Scheduler.Worker w = scheduler.createWorker();
+            w.schedulePeriodically(new Runnable() {
+                @Override
+                public void run() {
+                    Blackhole.consumeCPU(work);
+                }
+            }, 1, 1, TimeUnit.MILLISECONDS);
+            backgroundWorkers[i] = w;
+        }
+    }
+    
+    @TearDown
+    public void teardown() {
+        for (Scheduler.Worker w : backgroundWorkers) {
+            w.dispose();
+        }
+        scheduler.shutdown();
+    }
+    
+    @Benchmark
+    public void churn() throws InterruptedException {
+        int n = burst;
+        final CountDownLatch cdl = new CountDownLatch(n);
+        
+        for (int i = 0; i < n; i++) {
+            final Scheduler.Worker w = scheduler.createWorker();
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    Blackhole.consumeCPU(100);
+                    w.dispose();
+                    cdl.countDown();
+                }
+            });
+        }
+        
+        cdl.await();
+    }
+}
@@ -13,7 +13,8 @@
 
 package hu.akarnokd.rxjava2;
 
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
@@ -42,6 +43,21 @@ public class EachTypeFlatMapPerf {
     Observable<Integer> bpRangeMapRange;
     NbpObservable<Integer> nbpRangeMapRange;
 
+    Observable<Integer> bpRangeMapIterable;
+    NbpObservable<Integer> nbpRangeMapIterable;
+
+    Observable<Integer> bpRangeMapEmpty;
+    NbpObservable<Integer> nbpRangeMapEmpty;
+
+    Observable<Integer> bpRangeMapCallable;
+    NbpObservable<Integer> nbpRangeMapCallable;
+
+    Observable<Integer> bpRangeConcatMapJust;
+    NbpObservable<Integer> nbpRangeConcatMapJust;
+
+    Observable<Integer> bpRangeSwitchMapJust;
+    NbpObservable<Integer> nbpRangeSwitchMapJust;
+
     @Setup
     public void setup() {
         bpRange = Observable.range(1, times);
@@ -73,6 +89,66 @@ public class EachTypeFlatMapPerf {
             }
         });
 
+        Function<Integer, Iterable<Integer>> toList = new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                return Arrays.asList(v, v + 1);
+            }
+        };
+        bpRangeMapIterable = bpRange.flatMapIterable(toList);
+        nbpRangeMapIterable = nbpRange.flatMapIterable(toList);
+
+        Function<Integer, Publisher<Integer>> bpJust = new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.just(v);
+            }
+        };
+        Function<Integer, NbpObservable<Integer>> nbpJust = new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return NbpObservable.just(v);
+            }
+        };
+
+        bpRangeMapEmpty = bpRange.flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.empty();
+            }
+        });
+        nbpRangeMapEmpty = nbpRange.flatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return NbpObservable.empty();
+            }
+        });
+
+        final Callable<Integer> callable = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 1;
+            }
+        };
+        bpRangeMapCallable = bpRange.flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.fromCallable(callable);
+            }
+        });
+        nbpRangeMapCallable = nbpRange.flatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return NbpObservable.fromCallable(callable);
+            }
+        });
+
+        bpRangeConcatMapJust = bpRange.concatMap(bpJust);
+        nbpRangeConcatMapJust = nbpRange.concatMap(nbpJust);
+
+        bpRangeSwitchMapJust = bpRange.switchMap(bpJust);
+        nbpRangeSwitchMapJust = nbpRange.switchMap(nbpJust);
+
         singleJust = Single.just(1);
         singleJustMapJust = singleJust.flatMap(new Function<Integer, Single<Integer>>() {
             @Override
@@ -95,6 +171,31 @@ public class EachTypeFlatMapPerf {
         bpRangeMapRange.subscribe(new LatchedObserver<Integer>(bh));
     }
 
+    @Benchmark
+    public void bpRangeMapIterable(Blackhole bh) {
+        bpRangeMapIterable.subscribe(new LatchedObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void bpRangeMapEmpty(Blackhole bh) {
+        bpRangeMapEmpty.subscribe(new LatchedObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void bpRangeMapCallable(Blackhole bh) {
+        bpRangeMapCallable.subscribe(new LatchedObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void bpRangeConcatMapJust(Blackhole bh) {
+        bpRangeConcatMapJust.subscribe(new LatchedObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void bpRangeSwitchMapJust(Blackhole bh) {
+        bpRangeSwitchMapJust.subscribe(new LatchedObserver<Integer>(bh));
+    }
+
     @Benchmark
     public void nbpRange(Blackhole bh) {
         nbpRange.subscribe(new LatchedNbpObserver<Integer>(bh));
@@ -108,6 +209,31 @@ public class EachTypeFlatMapPerf {
         nbpRangeMapRange.subscribe(new LatchedNbpObserver<Integer>(bh));
     }
 
+    @Benchmark
+    public void nbpRangeMapIterable(Blackhole bh) {
+        nbpRangeMapIterable.subscribe(new LatchedNbpObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void nbpRangeMapEmpty(Blackhole bh) {
+        nbpRangeMapEmpty.subscribe(new LatchedNbpObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void nbpRangeMapCallable(Blackhole bh) {
+        nbpRangeMapCallable.subscribe(new LatchedNbpObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void nbpRangeConcatMapJust(Blackhole bh) {
+        nbpRangeConcatMapJust.subscribe(new LatchedNbpObserver<Integer>(bh));
+    }
+
+    @Benchmark
+    public void nbpRangeSwitchMapJust(Blackhole bh) {
+        nbpRangeSwitchMapJust.subscribe(new LatchedNbpObserver<Integer>(bh));
+    }
+
     @Benchmark
     public void singleJust(Blackhole bh) {
         singleJust.subscribe(new LatchedSingleObserver<Integer>(bh));
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.functions.*;
+
+/**
+ * Measures the cost of map/filter chains of increasing length which get
+ * collapsed into a single stage at assembly time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class MapFilterChainPerf {
+    @Param({ "1000", "1000000" })
+    public int times;
+    
+    @Param({ "1", "4", "16" })
+    public int stages;
+    
+    Observable<Integer> chain;
+    
+    NbpObservable<Integer> chainNbp;
+    
+    static final Function<Integer, Integer> IDENTITY = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer v) {
+            return v;
+        }
+    };
+    
+    static final Predicate<Integer> ALWAYS_TRUE = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer v) {
+            return true;
+        }
+    };
+    
+    @Setup
+    public void setup() {
+        Observable<Integer> o = Observable.range(1, times);
+        NbpObservable<Integer> no = NbpObservable.range(1, times);
+        
+        for (int i = 0; i < stages; i++) {
+            o = o.map(IDENTITY).filter(ALWAYS_TRUE);
+            no = no.map(IDENTITY).filter(ALWAYS_TRUE);
+        }
+        
+        chain = o;
+        chainNbp = no;
+    }
+    
+    @Benchmark
+    public Object chain(Blackhole bh) {
+        LatchedObserver<Integer> lo = new LatchedObserver<Integer>(bh);
+        
+        chain.subscribe(lo);
+        
+        return lo;
+    }
+    
+    @Benchmark
+    public Object chainNbp(Blackhole bh) {
+        LatchedNbpObserver<Integer> lo = new LatchedNbpObserver<Integer>(bh);
+        
+        chainNbp.subscribe(lo);
+        
+        return lo;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.observables.GroupedObservable;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+
+/**
+ * Compares parallel().runOn().map().sequential() with the groupBy-based workaround
+ * of splitting a sequence into rails and observing each group on the computation scheduler.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class ParallelPerf {
+    @Param({ "10000", "1000000" })
+    public int count;
+    
+    @Param({ "1", "2", "4" })
+    public int parallelism;
+    
+    /** The amount of busy work (Blackhole tokens) per item. */
+    @Param({ "0", "100" })
+    public int compute;
+    
+    Observable<Integer> groupBy;
+    
+    Observable<Integer> parallel;
+    
+    @Setup
+    public void setup() {
+        final int c = compute;
+        final int p = parallelism;
+        
+        final Function<Integer, Integer> work = new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                Blackhole.consumeCPU(c);
+                return v;
+            }
+        };
+        
+        Observable<Integer> source = Observable.range(1, count);
+        
+        groupBy = source.groupBy(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return v % p;
+            }
+        }).flatMap(new Function<GroupedObservable<Integer, Integer>, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(GroupedObservable<Integer, Integer> g) {
+                return g.observeOn(Schedulers.computation()).map(work);
+            }
+        });
+        
+        parallel = source.parallel(p)
+                .runOn(Schedulers.computation())
+                .map(work)
+                .sequential();
+    }
+    
+    void run(Observable<Integer> o, Blackhole bh) throws InterruptedException {
+        LatchedObserver<Integer> lo = new LatchedObserver<Integer>(bh);
+        
+        o.subscribe(lo);
+        
+        lo.latch.await();
+    }
+    
+    @Benchmark
+    public void groupBy(Blackhole bh) throws InterruptedException {
+        run(groupBy, bh);
+    }
+    
+    @Benchmark
+    public void parallel(Blackhole bh) throws InterruptedException {
+        run(parallel, bh);
+    }
+}
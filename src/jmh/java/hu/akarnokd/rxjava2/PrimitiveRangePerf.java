@@ -0,0 +1,146 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.IntObservable.IntSubscriber;
+import hu.akarnokd.rxjava2.functions.*;
+
+/**
+ * Compares the boxed range of {@link RangePerf} and a map-filter-sum pipeline on it 
+ * with their primitive IntObservable counterparts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class PrimitiveRangePerf {
+    @Param({ "1", "1000", "1000000" })
+    public int times;
+    
+    Observable<Integer> range;
+    
+    Observable<Integer> rangePipeline;
+
+    IntObservable intRange;
+
+    IntObservable intRangePipeline;
+    
+    @Setup
+    public void setup() {
+        range = Observable.range(1, times);
+        
+        rangePipeline = range.map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer t) {
+                return t + 1;
+            }
+        }).filter(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer t) {
+                return (t & 1) == 0;
+            }
+        }).reduce(new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer t1, Integer t2) {
+                return t1 + t2;
+            }
+        });
+        
+        intRange = IntObservable.range(1, times);
+        
+        intRangePipeline = intRange.map(new IntUnaryOperator() {
+            @Override
+            public int apply(int t) {
+                return t + 1;
+            }
+        }).filter(new IntPredicate() {
+            @Override
+            public boolean test(int t) {
+                return (t & 1) == 0;
+            }
+        }).sum();
+    }
+    
+    @Benchmark
+    public Object rangeSync(Blackhole bh) {
+        LatchedObserver<Integer> lo = new LatchedObserver<Integer>(bh);
+        
+        range.subscribe(lo);
+        
+        return lo;
+    }
+
+    @Benchmark
+    public Object rangeSyncPipeline(Blackhole bh) {
+        LatchedObserver<Integer> lo = new LatchedObserver<Integer>(bh);
+        
+        rangePipeline.subscribe(lo);
+        
+        return lo;
+    }
+
+    @Benchmark
+    public Object intRangeSync(Blackhole bh) {
+        BlackholeIntSubscriber s = new BlackholeIntSubscriber(bh);
+        
+        intRange.subscribe(s);
+        
+        return s;
+    }
+
+    @Benchmark
+    public Object intRangeSyncPipeline(Blackhole bh) {
+        BlackholeIntSubscriber s = new BlackholeIntSubscriber(bh);
+        
+        intRangePipeline.subscribe(s);
+        
+        return s;
+    }
+    
+    static final class BlackholeIntSubscriber implements IntSubscriber {
+        final Blackhole bh;
+        
+        public BlackholeIntSubscriber(Blackhole bh) {
+            this.bh = bh;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            s.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(int t) {
+            bh.consume(t);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            bh.consume(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            bh.consume(true);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.internal.queue.*;
+
+/**
+ * Measures the throughput of transferring a fixed number of items from the benchmark
+ * thread through the multi-consumer queues to 1, 2, 4 and 8 consumer threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class QueueFanOutPerf {
+    
+    /** The queue implementation, the array queue is bounded, the other is unbounded. */
+    @Param({ "spmc-array", "concurrent-linked" })
+    public String type;
+    
+    /** Number of consumer threads. */
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+    
+    @Param({ "1024" })
+    public int capacity;
+    
+    /** Total number of items transferred per invocation. */
+    @Param({ "100000" })
+    public int count;
+    
+    ExecutorService exec;
+    
+    static final Integer ITEM = 777;
+    
+    @Setup
+    public void setup() {
+        exec = Executors.newFixedThreadPool(threads);
+    }
+    
+    @TearDown
+    public void teardown() {
+        exec.shutdownNow();
+    }
+    
+    Queue<Integer> createQueue() {
+        if ("spmc-array".equals(type)) {
+            return new SpmcArrayQueue<Integer>(capacity);
+        }
+        return new ConcurrentLinkedQueue<Integer>();
+    }
+    
+    @Benchmark
+    public void fanOut(final Blackhole bh) throws InterruptedException {
+        final Queue<Integer> q = createQueue();
+        int n = threads;
+        int total = count - count % n;
+        final int perThread = total / n;
+        final CountDownLatch cdl = new CountDownLatch(n);
+        
+        for (int i = 0; i < n; i++) {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int received = 0;
+                    while (received != perThread) {
+                        Integer v = q.poll();
+                        if (v != null) {
+                            bh.consume(v);
+                            received++;
+                        }
+                    }
+                    cdl.countDown();
+                }
+            });
+        }
+        
+        for (int j = 0; j < total; j++) {
+            while (!q.offer(ITEM)) {
+                Thread.yield();
+            }
+        }
+        
+        cdl.await();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.observables.ConnectableObservable;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subjects.ReplaySubject;
+
+/**
+ * Measures filling the size and the size-and-time bound replay buffers of
+ * replay() and ReplaySubject and replaying their content to a late subscriber.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class ReplayPerf {
+    
+    @Param({ "1000", "1000000" })
+    public int count;
+    
+    @Param({ "16", "1000" })
+    public int bufferSize;
+    
+    @Param({ "false", "true" })
+    public boolean timed;
+    
+    Observable<Integer> source;
+    
+    @Setup
+    public void setup() {
+        source = Observable.range(1, count);
+    }
+    
+    ReplaySubject<Integer> createSubject() {
+        if (timed) {
+            return ReplaySubject.createWithTimeAndSize(1, TimeUnit.DAYS, Schedulers.trampoline(), bufferSize);
+        }
+        return ReplaySubject.createWithSize(bufferSize);
+    }
+    
+    @Benchmark
+    public void replaySubject(Blackhole bh) {
+        ReplaySubject<Integer> rs = createSubject();
+        source.subscribe(rs);
+        rs.subscribe(new LatchedObserver<Integer>(bh));
+    }
+    
+    @Benchmark
+    public void replayOperator(Blackhole bh) {
+        ConnectableObservable<Integer> co = timed 
+                ? source.replay(bufferSize, 1, TimeUnit.DAYS, Schedulers.trampoline()) 
+                : source.replay(bufferSize);
+        co.connect();
+        co.subscribe(new LatchedObserver<Integer>(bh));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.internal.schedulers.ComputationScheduler;
+import hu.akarnokd.rxjava2.plugins.*;
+
+/**
+ * Compares the computation scheduler's throughput with and without a
+ * SchedulerMetricsRecorder; the enabled overhead should stay within single-digit percent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class SchedulerMetricsPerf {
+    
+    @Param({ "false", "true" })
+    public boolean enabled;
+    
+    @Param({ "1000" })
+    public int count;
+    
+    ComputationScheduler scheduler;
+    
+    Worker worker;
+    
+    Observable<Integer> observeOn;
+    
+    @Setup
+    public void setup() {
+        if (enabled) {
+            RxJavaPlugins.setSchedulerMetrics(new SchedulerMetricsRecorder());
+        }
+        // the metrics are picked up when the threads and workers are created
+        scheduler = new ComputationScheduler();
+        worker = scheduler.createWorker();
+        observeOn = Observable.range(1, count).observeOn(scheduler);
+    }
+    
+    @TearDown
+    public void teardown() {
+        worker.dispose();
+        scheduler.shutdown();
+        RxJavaPlugins.reset();
+    }
+    
+    @Benchmark
+    public void schedule(final Blackhole bh) throws InterruptedException {
+        final CountDownLatch cdl = new CountDownLatch(count);
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                bh.consume(this);
+                cdl.countDown();
+            }
+        };
+        Worker w = worker;
+        for (int i = 0; i < count; i++) {
+            w.schedule(r);
+        }
+        cdl.await();
+    }
+    
+    @Benchmark
+    public void observeOn(Blackhole bh) throws InterruptedException {
+        LatchedObserver<Integer> o = new LatchedObserver<Integer>(bh);
+        observeOn.subscribe(o);
+        o.latch.await();
+    }
+}
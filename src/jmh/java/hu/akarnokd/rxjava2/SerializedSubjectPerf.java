@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.subjects.*;
+
+/**
+ * Measures the throughput of a serialized PublishSubject with the blocking and the
+ * lock-free serialization modes when 1 to 16 threads emit into it concurrently.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class SerializedSubjectPerf {
+    
+    @Param({ "BLOCKING", "LOCK_FREE" })
+    public SerializationMode mode;
+    
+    @Param({ "1", "2", "4", "8", "16" })
+    public int threads;
+    
+    /** Total number of values emitted per invocation. */
+    @Param({ "100000" })
+    public int count;
+    
+    ExecutorService exec;
+    
+    static final Integer ITEM = 777;
+    
+    @Setup
+    public void setup() {
+        exec = Executors.newFixedThreadPool(threads);
+    }
+    
+    @TearDown
+    public void teardown() {
+        exec.shutdownNow();
+    }
+    
+    @Benchmark
+    public void emit(final Blackhole bh) throws InterruptedException {
+        final Subject<Integer, Integer> subject = PublishSubject.<Integer>create().toSerialized(mode);
+        
+        final CountDownLatch done = new CountDownLatch(1);
+        
+        subject.subscribe(new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(Integer t) {
+                bh.consume(t);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                t.printStackTrace();
+                done.countDown();
+            }
+            
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        
+        int n = threads;
+        final int perThread = count / n;
+        final CountDownLatch emitted = new CountDownLatch(n);
+        
+        for (int i = 0; i < n; i++) {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; j++) {
+                        subject.onNext(ITEM);
+                    }
+                    emitted.countDown();
+                }
+            });
+        }
+        
+        emitted.await();
+        subject.onComplete();
+        done.await();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.internal.schedulers.*;
+
+/**
+ * Measures the latency distribution of short tasks when some of the Workers
+ * run long tasks, comparing the round-robin computation scheduler with the
+ * work-stealing variant.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class SkewedLoadSchedulerPerf {
+    
+    @Param({ "roundrobin", "stealing" })
+    public String type;
+    
+    /** Number of Workers per available processor. */
+    @Param({ "4" })
+    public int workersPerCpu;
+    
+    /** Every skew-th Worker gets a long task. */
+    @Param({ "8" })
+    public int skew;
+    
+    /** Blackhole tokens spent by a long task. */
+    @Param({ "100000" })
+    public int longWork;
+    
+    /** Blackhole tokens spent by a short task. */
+    @Param({ "100" })
+    public int shortWork;
+    
+    Scheduler scheduler;
+    
+    Scheduler.Worker[] workers;
+    
+    /** Completes when the long tasks of the last invocation have finished. */
+    CountDownLatch longTasks;
+    
+    @Setup
+    public void setup() {
+        if ("stealing".equals(type)) {
+            scheduler = new WorkStealingComputationScheduler();
+        } else {
+            scheduler = new ComputationScheduler();
+        }
+        int n = Runtime.getRuntime().availableProcessors() * workersPerCpu;
+        workers = new Scheduler.Worker[n];
+        for (int i = 0; i < n; i++) {
+            workers[i] = scheduler.createWorker();
+        }
+    }
+    
+    /**
+     * Waits for the long tasks outside the measurement so they don't pile up.
+     * @throws InterruptedException if the wait is interrupted
+     */
+    @TearDown(Level.Invocation)
+    public void awaitLongTasks() throws InterruptedException {
+        CountDownLatch lt = longTasks;
+        if (lt != null) {
+            lt.await();
+        }
+    }
+    
+    @TearDown
+    public void teardown() {
+        for (Scheduler.Worker w : workers) {
+            w.dispose();
+        }
+        scheduler.shutdown();
+    }
+    
+    /**
+     * Schedules a long task on every skew-th Worker and a short task on each Worker, 
+     * then waits until all the short tasks of the unskewed Workers have completed.
+     * @throws InterruptedException if the wait is interrupted
+     */
+    @Benchmark
+    public void skewed() throws InterruptedException {
+        Scheduler.Worker[] ws = workers;
+        int n = ws.length;
+        final int lw = longWork;
+        final int sw = shortWork;
+        
+        int longCount = (n + skew - 1) / skew;
+        final CountDownLatch cdl = new CountDownLatch(n - longCount);
+        final CountDownLatch lt = new CountDownLatch(longCount);
+        longTasks = lt;
+        
+        Runnable longTask = new Runnable() {
+            @Override
+            public void run() {
+                Blackhole.consumeCPU(lw);
+                lt.countDown();
+            }
+        };
+        
+        Runnable shortTask = new Runnable() {
+            @Override
+            public void run() {
+                Blackhole.consumeCPU(sw);
+                cdl.countDown();
+            }
+        };
+        
+        for (int i = 0; i < n; i++) {
+            if (i % skew == 0) {
+                ws[i].schedule(longTask);
+            } else {
+                ws[i].schedule(shortTask);
+            }
+        }
+        
+        cdl.await();
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+
+/**
+ * Compares the cost of arming and cancelling timers on the computation scheduler
+ * with the hashed-wheel timer scheduler, directly and through the timeout operator
+ * which arms a new timer for each element.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class TimerSchedulerPerf {
+    
+    @Param({ "computation", "wheel" })
+    public String type;
+    
+    @Param({ "1000", "100000" })
+    public int times;
+    
+    Scheduler scheduler;
+    
+    Scheduler.Worker worker;
+    
+    Observable<Integer> timeout;
+    
+    static final Runnable EMPTY = new Runnable() {
+        @Override
+        public void run() {
+            
+        }
+    };
+    
+    @Setup
+    public void setup() {
+        if ("wheel".equals(type)) {
+            scheduler = Schedulers.newHashedWheelTimer();
+        } else {
+            scheduler = Schedulers.computation();
+        }
+        worker = scheduler.createWorker();
+        
+        timeout = Observable.range(1, times).timeout(1, TimeUnit.MINUTES, scheduler);
+    }
+    
+    @TearDown
+    public void teardown() {
+        worker.dispose();
+        if ("wheel".equals(type)) {
+            scheduler.shutdown();
+        }
+    }
+    
+    @Benchmark
+    public void armCancel(Blackhole bh) {
+        Scheduler.Worker w = worker;
+        for (int i = 0; i < times; i++) {
+            Disposable d = w.schedule(EMPTY, 1, TimeUnit.MINUTES);
+            d.dispose();
+            bh.consume(d);
+        }
+    }
+    
+    @Benchmark
+    public void timeout(Blackhole bh) throws InterruptedException {
+        LatchedObserver<Integer> o = new LatchedObserver<Integer>(bh);
+        timeout.subscribe(o);
+        o.latch.await();
+    }
+}
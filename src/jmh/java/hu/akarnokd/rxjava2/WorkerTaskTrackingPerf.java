@@ -0,0 +1,174 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.internal.disposables.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+
+/**
+ * Measures the per-task cost of tracking scheduled tasks in a worker:
+ * the bare add+delete pair of the composite implementations, the
+ * schedule+complete round trip of the computation and io workers and
+ * the schedule+cancel of many pending delayed tasks on a single worker.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class WorkerTaskTrackingPerf {
+    
+    @Param({ "1000" })
+    public int count;
+    
+    Worker computation;
+    
+    Worker io;
+    
+    /**
+     * Holds the composite under test; its parameter only applies to the
+     * benchmarks which use this state.
+     */
+    @State(Scope.Thread)
+    public static class CompositeState {
+        @Param({ "set", "list", "striped" })
+        public String type;
+        
+        CompositeResource<Disposable> composite;
+        
+        @Setup
+        public void setup() {
+            if ("set".equals(type)) {
+                composite = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            } else
+            if ("list".equals(type)) {
+                composite = new ListCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            } else {
+                composite = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            }
+        }
+    }
+    
+    /**
+     * Holds the number of delayed tasks kept pending at once on a single worker,
+     * as a delay or timeout with many items in flight does.
+     */
+    @State(Scope.Thread)
+    public static class PendingState {
+        @Param({ "10000", "200000" })
+        public int pending;
+        
+        Disposable[] tasks;
+        
+        @Setup
+        public void setup() {
+            tasks = new Disposable[pending];
+        }
+    }
+    
+    Disposable[] tasks;
+    
+    @Setup
+    public void setup() {
+        tasks = new Disposable[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = new BooleanDisposable();
+        }
+        computation = Schedulers.computation().createWorker();
+        io = Schedulers.io().createWorker();
+    }
+    
+    @TearDown
+    public void teardown() {
+        computation.dispose();
+        io.dispose();
+    }
+    
+    @Benchmark
+    public void addDelete(CompositeState state) {
+        CompositeResource<Disposable> c = state.composite;
+        for (Disposable d : tasks) {
+            c.add(d);
+            c.delete(d);
+        }
+    }
+    
+    @Benchmark
+    public void addAllDeleteAll(CompositeState state) {
+        CompositeResource<Disposable> c = state.composite;
+        Disposable[] a = tasks;
+        for (Disposable d : a) {
+            c.add(d);
+        }
+        for (Disposable d : a) {
+            c.delete(d);
+        }
+    }
+    
+    void scheduleComplete(Worker w, final Blackhole bh) throws InterruptedException {
+        final CountDownLatch cdl = new CountDownLatch(count);
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                bh.consume(this);
+                cdl.countDown();
+            }
+        };
+        for (int i = 0; i < count; i++) {
+            w.schedule(r);
+        }
+        cdl.await();
+    }
+    
+    @Benchmark
+    public void computationScheduleComplete(Blackhole bh) throws InterruptedException {
+        scheduleComplete(computation, bh);
+    }
+    
+    @Benchmark
+    public void ioScheduleComplete(Blackhole bh) throws InterruptedException {
+        scheduleComplete(io, bh);
+    }
+    
+    void schedulePendingCancel(Worker w, PendingState state) {
+        Runnable r = Functions.emptyRunnable();
+        Disposable[] a = state.tasks;
+        int n = a.length;
+        for (int i = 0; i < n; i++) {
+            a[i] = w.schedule(r, 1, TimeUnit.HOURS);
+        }
+        for (int i = 0; i < n; i++) {
+            a[i].dispose();
+        }
+    }
+    
+    @Benchmark
+    public void computationSchedulePendingCancel(PendingState state) {
+        schedulePendingCancel(computation, state);
+    }
+    
+    @Benchmark
+    public void ioSchedulePendingCancel(PendingState state) {
+        schedulePendingCancel(io, state);
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * Holds the strategies available to a bounded buffer when it is full and a new value arrives.
+ */
+@Experimental
+public enum BackpressureOverflow {
+    ;
+    
+    /**
+     * The action taken by a full bounded buffer.
+     */
+    public enum Strategy {
+        /**
+         * Cancels the upstream and signals a MissingBackpressureException.
+         */
+        ERROR,
+        /**
+         * Drops the oldest value in the buffer and appends the new value.
+         */
+        DROP_OLDEST,
+        /**
+         * Drops the new value, keeping the buffer as is.
+         */
+        DROP_LATEST
+    }
+}
@@ -13,8 +13,29 @@
 
 package hu.akarnokd.rxjava2;
 
+/**
+ * Indicates how a non-backpressured source should be adapted to a backpressure-aware consumer.
+ */
 public enum BackpressureStrategy {
+    /** Buffers all values until the downstream requests them. */
     BUFFER,
+    /** Drops the values the downstream hasn't requested. */
     DROP,
-    LATEST
+    /** Keeps only the latest value until the downstream requests it. */
+    LATEST,
+    /** 
+     * Buffers up to {@link Observable#bufferSize()} values and signals a MissingBackpressureException
+     * if the buffer overflows; see {@link BackpressureOverflow.Strategy#ERROR}.
+     */
+    ERROR,
+    /**
+     * Buffers up to {@link Observable#bufferSize()} values and drops the oldest one on overflow; 
+     * see {@link BackpressureOverflow.Strategy#DROP_OLDEST}.
+     */
+    DROP_OLDEST,
+    /**
+     * Buffers up to {@link Observable#bufferSize()} values and drops the new one on overflow; 
+     * see {@link BackpressureOverflow.Strategy#DROP_LATEST}.
+     */
+    DROP_LATEST
 }
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2;
+
+import java.nio.ByteBuffer;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * Converts elements to and from bytes so they can be stored outside the Java heap,
+ * for example by the off-heap replay storage of {@code ReplaySubject} and {@code cache()}.
+ * <p>
+ * Implementations should be stateless as they may be called from multiple threads concurrently.
+ *
+ * @param <T> the element type
+ */
+@Experimental
+public interface ElementSerializer<T> {
+    /**
+     * Returns the exact number of bytes {@link #serialize(Object, ByteBuffer)} writes for the element.
+     * @param element the element, not null
+     * @return the number of bytes, non-negative
+     */
+    int size(T element);
+    
+    /**
+     * Writes the element into the buffer at its current position, advancing the position
+     * by exactly {@link #size(Object)} bytes.
+     * @param element the element, not null
+     * @param out the target buffer with at least {@link #size(Object)} bytes remaining
+     */
+    void serialize(T element, ByteBuffer out);
+    
+    /**
+     * Reads back an element from the buffer whose remaining bytes are exactly the
+     * ones written by {@link #serialize(Object, ByteBuffer)}.
+     * @param in the source buffer, owned by the caller and valid only during the call
+     * @return the element, not null
+     */
+    T deserialize(ByteBuffer in);
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.annotations.*;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+import hu.akarnokd.rxjava2.internal.operators.primitives.*;
+
+/**
+ * A backpressured sequence of primitive int values which are carried through
+ * map, filter, scan and the aggregating operators without boxing.
+ * <p>
+ * Use {@link #boxed()} or {@link #mapToObj(IntFunction)} to continue with
+ * an {@link Observable}.
+ */
+@Experimental
+public abstract class IntObservable {
+    
+    /**
+     * The consumer of an IntObservable, similar to {@link Subscriber} but receiving
+     * primitive int values.
+     */
+    public interface IntSubscriber {
+        void onSubscribe(Subscription s);
+        
+        void onNext(int t);
+        
+        void onError(Throwable t);
+        
+        void onComplete();
+    }
+    
+    static final IntBinaryOperator SUM = new IntBinaryOperator() {
+        @Override
+        public int apply(int t1, int t2) {
+            return t1 + t2;
+        }
+    };
+
+    static final IntBinaryOperator MIN = new IntBinaryOperator() {
+        @Override
+        public int apply(int t1, int t2) {
+            return Math.min(t1, t2);
+        }
+    };
+
+    static final IntBinaryOperator MAX = new IntBinaryOperator() {
+        @Override
+        public int apply(int t1, int t2) {
+            return Math.max(t1, t2);
+        }
+    };
+    
+    static final IntFunction<Integer> BOX = new IntFunction<Integer>() {
+        @Override
+        public Integer apply(int i) {
+            return i;
+        }
+    };
+    
+    /**
+     * Subscribes the IntSubscriber to this sequence.
+     * @param s the IntSubscriber, not null
+     */
+    public abstract void subscribe(IntSubscriber s);
+    
+    /**
+     * Emits count int values starting from start.
+     * @param start the first value
+     * @param count the number of values, non-negative
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public static IntObservable range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count > 1 && start > Integer.MAX_VALUE - (count - 1)) {
+            throw new IllegalArgumentException("Integer overflow");
+        }
+        return new IntRange(start, count);
+    }
+    
+    /**
+     * Unboxes the values of the given Publisher.
+     * @param source the source Publisher, not null
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public static IntObservable fromPublisher(Publisher<? extends Integer> source) {
+        Objects.requireNonNull(source, "source is null");
+        return new IntFromPublisher(source);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable map(IntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        return new IntMap(this, mapper);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable filter(IntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate is null");
+        return new IntFilter(this, predicate);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable scan(IntBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator is null");
+        return new IntScan(this, accumulator);
+    }
+    
+    /**
+     * Reduces the values into a single value, emitted when this sequence completes; 
+     * empty if this sequence is empty.
+     * @param reducer the function combining the previous result with the next value
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable reduce(IntBinaryOperator reducer) {
+        Objects.requireNonNull(reducer, "reducer is null");
+        return new IntReduce(this, reducer);
+    }
+
+    /**
+     * Reduces the values, starting with the seed, into a single value emitted when 
+     * this sequence completes.
+     * @param seed the initial value
+     * @param reducer the function combining the previous result with the next value
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable reduce(int seed, IntBinaryOperator reducer) {
+        Objects.requireNonNull(reducer, "reducer is null");
+        return new IntReduce(this, seed, reducer);
+    }
+    
+    /**
+     * Emits the sum of the values, zero if this sequence is empty.
+     * <p>The sum may overflow; use {@code asLong().sum()} for a wider result.
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable sum() {
+        return reduce(0, SUM);
+    }
+
+    /**
+     * Emits the smallest value, empty if this sequence is empty.
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable min() {
+        return reduce(MIN);
+    }
+
+    /**
+     * Emits the largest value, empty if this sequence is empty.
+     * @return the new IntObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final IntObservable max() {
+        return reduce(MAX);
+    }
+    
+    /**
+     * Widens the values into long values.
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable asLong() {
+        return new IntAsLong(this);
+    }
+    
+    /**
+     * Boxes the values into an Observable.
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<Integer> boxed() {
+        return mapToObj(BOX);
+    }
+    
+    /**
+     * Maps the values into objects and continues with an Observable.
+     * @param <R> the result value type
+     * @param mapper the function mapping the values into non-null objects
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final <R> Observable<R> mapToObj(IntFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        return Observable.create(new IntMapToObj<R>(this, mapper));
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.annotations.*;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+import hu.akarnokd.rxjava2.internal.operators.primitives.*;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+
+/**
+ * A backpressured sequence of primitive long values which are carried through
+ * map, filter, scan and the aggregating operators without boxing.
+ * <p>
+ * Use {@link #boxed()} or {@link #mapToObj(LongFunction)} to continue with
+ * an {@link Observable}.
+ */
+@Experimental
+public abstract class LongObservable {
+    
+    /**
+     * The consumer of a LongObservable, similar to {@link Subscriber} but receiving
+     * primitive long values.
+     */
+    public interface LongSubscriber {
+        void onSubscribe(Subscription s);
+        
+        void onNext(long t);
+        
+        void onError(Throwable t);
+        
+        void onComplete();
+    }
+    
+    static final LongBinaryOperator SUM = new LongBinaryOperator() {
+        @Override
+        public long apply(long t1, long t2) {
+            return t1 + t2;
+        }
+    };
+
+    static final LongBinaryOperator MIN = new LongBinaryOperator() {
+        @Override
+        public long apply(long t1, long t2) {
+            return Math.min(t1, t2);
+        }
+    };
+
+    static final LongBinaryOperator MAX = new LongBinaryOperator() {
+        @Override
+        public long apply(long t1, long t2) {
+            return Math.max(t1, t2);
+        }
+    };
+    
+    static final LongFunction<Long> BOX = new LongFunction<Long>() {
+        @Override
+        public Long apply(long i) {
+            return i;
+        }
+    };
+    
+    /**
+     * Subscribes the LongSubscriber to this sequence.
+     * @param s the LongSubscriber, not null
+     */
+    public abstract void subscribe(LongSubscriber s);
+    
+    /**
+     * Emits count long values starting from start.
+     * @param start the first value
+     * @param count the number of values, non-negative
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public static LongObservable range(long start, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count > 1 && start > Long.MAX_VALUE - (count - 1)) {
+            throw new IllegalArgumentException("Long overflow");
+        }
+        return new LongRange(start, count);
+    }
+    
+    /**
+     * Emits an ever increasing long value, starting from zero, periodically on the
+     * computation Scheduler.
+     * @param initialDelay the delay before the first value
+     * @param period the period between the subsequent values
+     * @param unit the time unit of the delay and period
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerKind.COMPUTATION)
+    public static LongObservable interval(long initialDelay, long period, TimeUnit unit) {
+        return interval(initialDelay, period, unit, Schedulers.computation());
+    }
+
+    /**
+     * Emits an ever increasing long value, starting from zero, periodically on the
+     * given Scheduler.
+     * @param initialDelay the delay before the first value
+     * @param period the period between the subsequent values
+     * @param unit the time unit of the delay and period
+     * @param scheduler the scheduler to emit the values on
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.ERROR)
+    @SchedulerSupport(SchedulerKind.CUSTOM)
+    public static LongObservable interval(long initialDelay, long period, TimeUnit unit, Scheduler scheduler) {
+        if (initialDelay < 0) {
+            initialDelay = 0L;
+        }
+        if (period < 0) {
+            period = 0L;
+        }
+        Objects.requireNonNull(unit, "unit is null");
+        Objects.requireNonNull(scheduler, "scheduler is null");
+        return new LongInterval(initialDelay, period, unit, scheduler);
+    }
+    
+    /**
+     * Unboxes the values of the given Publisher.
+     * @param source the source Publisher, not null
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public static LongObservable fromPublisher(Publisher<? extends Long> source) {
+        Objects.requireNonNull(source, "source is null");
+        return new LongFromPublisher(source);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable map(LongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        return new LongMap(this, mapper);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable filter(LongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate is null");
+        return new LongFilter(this, predicate);
+    }
+    
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable scan(LongBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator is null");
+        return new LongScan(this, accumulator);
+    }
+    
+    /**
+     * Reduces the values into a single value, emitted when this sequence completes; 
+     * empty if this sequence is empty.
+     * @param reducer the function combining the previous result with the next value
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable reduce(LongBinaryOperator reducer) {
+        Objects.requireNonNull(reducer, "reducer is null");
+        return new LongReduce(this, reducer);
+    }
+
+    /**
+     * Reduces the values, starting with the seed, into a single value emitted when 
+     * this sequence completes.
+     * @param seed the initial value
+     * @param reducer the function combining the previous result with the next value
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable reduce(long seed, LongBinaryOperator reducer) {
+        Objects.requireNonNull(reducer, "reducer is null");
+        return new LongReduce(this, seed, reducer);
+    }
+    
+    /**
+     * Emits the sum of the values, zero if this sequence is empty.
+     * <p>The sum may overflow.
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable sum() {
+        return reduce(0, SUM);
+    }
+
+    /**
+     * Emits the smallest value, empty if this sequence is empty.
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable min() {
+        return reduce(MIN);
+    }
+
+    /**
+     * Emits the largest value, empty if this sequence is empty.
+     * @return the new LongObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final LongObservable max() {
+        return reduce(MAX);
+    }
+    
+    /**
+     * Boxes the values into an Observable.
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<Long> boxed() {
+        return mapToObj(BOX);
+    }
+    
+    /**
+     * Maps the values into objects and continues with an Observable.
+     * @param <R> the result value type
+     * @param mapper the function mapping the values into non-null objects
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final <R> Observable<R> mapToObj(LongFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        return Observable.create(new LongMapToObj<R>(this, mapper));
+    }
+}
@@ -418,7 +418,7 @@ public class NbpObservable<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public static <T> NbpObservable<T> fromCallable(Callable<? extends T> supplier) {
         Objects.requireNonNull(supplier, "supplier is null");
-        return create(new NbpOnSubscribeScalarAsyncSource<T>(supplier));
+        return new NbpObservableCallableSource<T>(supplier);
     }
 
     /*
@@ -1366,28 +1366,66 @@ public class NbpObservable<T> {
         if (prefetch <= 0) {
             throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
         }
+        if (this == empty()) {
+            return empty();
+        }
+        if (this instanceof NbpObservableScalarSource) {
+            NbpObservableScalarSource<T> scalar = (NbpObservableScalarSource<T>) this;
+            return create(scalar.scalarFlatMap(mapper));
+        }
         return lift(new NbpOperatorConcatMap<T, R>(mapper, prefetch));
     }
 
+    /**
+     * Maps each value into an NbpObservable, subscribes to all of them at once, buffers their values 
+     * and relays them in the order of the original values.
+     * @param <R> the result value type
+     * @param mapper the function mapping each value into an NbpObservable
+     * @return the new NbpObservable instance
+     */
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <R> NbpObservable<R> concatMapEager(Function<? super T, ? extends NbpObservable<? extends R>> mapper) {
+        return concatMapEager(mapper, Integer.MAX_VALUE, bufferSize());
+    }
+
+    /**
+     * Maps each value into an NbpObservable, subscribes to up to maxConcurrency of them at once, 
+     * buffers their values and relays them in the order of the original values.
+     * @param <R> the result value type
+     * @param mapper the function mapping each value into an NbpObservable
+     * @param maxConcurrency the maximum number of NbpObservables subscribed to at once
+     * @param prefetch the capacity hint of the buffer of each NbpObservable
+     * @return the new NbpObservable instance
+     */
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <R> NbpObservable<R> concatMapEager(Function<? super T, ? extends NbpObservable<? extends R>> mapper, 
+            int maxConcurrency, int prefetch) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
+        }
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return lift(new NbpOperatorConcatMapEager<T, R>(mapper, maxConcurrency, prefetch));
+    }
+
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> NbpObservable<U> concatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper) {
         Objects.requireNonNull(mapper, "mapper is null");
-        return concatMap(new Function<T, NbpObservable<U>>() {
-            @Override
-            public NbpObservable<U> apply(T v) {
-                return fromIterable(mapper.apply(v));
-            }
-        });
+        return lift(new NbpOperatorFlattenIterable<T, U>(mapper));
     }
 
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> NbpObservable<U> concatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper, int prefetch) {
-        return concatMap(new Function<T, NbpObservable<U>>() {
-            @Override
-            public NbpObservable<U> apply(T v) {
-                return fromIterable(mapper.apply(v));
-            }
-        }, prefetch);
+        Objects.requireNonNull(mapper, "mapper is null");
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        // the Iterables are consumed synchronously so there is nothing to prefetch
+        return lift(new NbpOperatorFlattenIterable<T, U>(mapper));
     }
 
     @SchedulerSupport(SchedulerKind.NONE)
@@ -1747,6 +1785,10 @@ public class NbpObservable<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public final NbpObservable<T> filter(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate, "predicate is null");
+        NbpOnSubscribe<T> fused = NbpOperatorMapFilter.fuse(onSubscribe, predicate, true);
+        if (fused != null) {
+            return create(fused);
+        }
         return lift(new NbpOperatorFilter<T>(predicate));
     }
 
@@ -1787,6 +1829,9 @@ public class NbpObservable<T> {
             throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
         }
         validateBufferSize(bufferSize);
+        if (this == empty()) {
+            return empty();
+        }
         if (this instanceof NbpObservableScalarSource) {
             NbpObservableScalarSource<T> scalar = (NbpObservableScalarSource<T>) this;
             return create(scalar.scalarFlatMap(mapper));
@@ -1864,12 +1909,7 @@ public class NbpObservable<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> NbpObservable<U> flatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper) {
         Objects.requireNonNull(mapper, "mapper is null");
-        return flatMap(new Function<T, NbpObservable<U>>() {
-            @Override
-            public NbpObservable<U> apply(T v) {
-                return fromIterable(mapper.apply(v));
-            }
-        });
+        return lift(new NbpOperatorFlattenIterable<T, U>(mapper));
     }
 
     @SchedulerSupport(SchedulerKind.NONE)
@@ -1884,12 +1924,10 @@ public class NbpObservable<T> {
 
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> NbpObservable<U> flatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper, int bufferSize) {
-        return flatMap(new Function<T, NbpObservable<U>>() {
-            @Override
-            public NbpObservable<U> apply(T v) {
-                return fromIterable(mapper.apply(v));
-            }
-        }, false, bufferSize);
+        Objects.requireNonNull(mapper, "mapper is null");
+        validateBufferSize(bufferSize);
+        // the Iterables are consumed synchronously so there is nothing to buffer
+        return lift(new NbpOperatorFlattenIterable<T, U>(mapper));
     }
 
     @SchedulerSupport(SchedulerKind.NONE)
@@ -2040,6 +2078,10 @@ public class NbpObservable<T> {
 
     public final <R> NbpObservable<R> map(Function<? super T, ? extends R> mapper) {
         Objects.requireNonNull(mapper, "mapper is null");
+        NbpOnSubscribe<R> fused = NbpOperatorMapFilter.fuse(onSubscribe, mapper, false);
+        if (fused != null) {
+            return create(fused);
+        }
         return lift(new NbpOperatorMap<T, R>(mapper));
     }
 
@@ -2672,6 +2714,13 @@ public class NbpObservable<T> {
     public final <R> NbpObservable<R> switchMap(Function<? super T, ? extends NbpObservable<? extends R>> mapper, int bufferSize) {
         Objects.requireNonNull(mapper, "mapper is null");
         validateBufferSize(bufferSize);
+        if (this == empty()) {
+            return empty();
+        }
+        if (this instanceof NbpObservableScalarSource) {
+            NbpObservableScalarSource<T> scalar = (NbpObservableScalarSource<T>) this;
+            return create(scalar.scalarFlatMap(mapper));
+        }
         return lift(new NbpOperatorSwitchMap<T, R>(mapper, bufferSize));
     }
 
@@ -3111,8 +3160,45 @@ public class NbpObservable<T> {
         });
     }
     
+    /**
+     * Converts this NbpObservable into a backpressure-aware Observable which buffers up to the
+     * given number of values and applies the given strategy on overflow.
+     * @param capacity the maximum number of values buffered
+     * @param overflowStrategy the action to take on overflow
+     * @return the new Observable instance
+     */
+    @Experimental
+    public final Observable<T> toObservable(int capacity, BackpressureOverflow.Strategy overflowStrategy) {
+        return toObservableIgnoreRequests().onBackpressureBuffer(capacity, Functions.emptyRunnable(), overflowStrategy);
+    }
+    
     public final Observable<T> toObservable(BackpressureStrategy strategy) {
-        Observable<T> o = Observable.create(new Publisher<T>() {
+        Observable<T> o = toObservableIgnoreRequests();
+        
+        switch (strategy) {
+        case BUFFER:
+            return o.onBackpressureBuffer();
+        case DROP:
+            return o.onBackpressureDrop();
+        case LATEST:
+            return o.onBackpressureLatest();
+        case ERROR:
+            return o.onBackpressureBuffer(bufferSize(), Functions.emptyRunnable(), BackpressureOverflow.Strategy.ERROR);
+        case DROP_OLDEST:
+            return o.onBackpressureBuffer(bufferSize(), Functions.emptyRunnable(), BackpressureOverflow.Strategy.DROP_OLDEST);
+        case DROP_LATEST:
+            return o.onBackpressureBuffer(bufferSize(), Functions.emptyRunnable(), BackpressureOverflow.Strategy.DROP_LATEST);
+        default:
+            return o;
+        }
+    }
+    
+    /**
+     * Wraps this NbpObservable into an Observable which ignores the downstream requests.
+     * @return the new Observable instance
+     */
+    final Observable<T> toObservableIgnoreRequests() {
+        return Observable.create(new Publisher<T>() {
             @Override
             public void subscribe(final Subscriber<? super T> s) {
                 NbpObservable.this.subscribe(new NbpSubscriber<T>() {
@@ -3152,17 +3238,6 @@ public class NbpObservable<T> {
                 });
             }
         });
-        
-        switch (strategy) {
-        case BUFFER:
-            return o.onBackpressureBuffer();
-        case DROP:
-            return o.onBackpressureDrop();
-        case LATEST:
-            return o.onBackpressureLatest();
-        default:
-            return o;
-        }
     }
     
     @SchedulerSupport(SchedulerKind.NONE)
@@ -13,6 +13,7 @@
 package hu.akarnokd.rxjava2;
 
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
@@ -27,6 +28,7 @@ import hu.akarnokd.rxjava2.internal.functions.Objects;
 import hu.akarnokd.rxjava2.internal.operators.*;
 import hu.akarnokd.rxjava2.internal.subscribers.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+import hu.akarnokd.rxjava2.internal.util.OffHeapAppendList;
 import hu.akarnokd.rxjava2.observables.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 import hu.akarnokd.rxjava2.schedulers.*;
@@ -439,7 +441,7 @@ public class Observable<T> implements Publisher<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public static <T> Observable<T> fromCallable(Callable<? extends T> supplier) {
         Objects.requireNonNull(supplier, "supplier is null");
-        return create(new PublisherScalarAsyncSource<T>(supplier));
+        return new ObservableCallableSource<T>(supplier);
     }
 
     /*
@@ -1403,6 +1405,44 @@ public class Observable<T> implements Publisher<T> {
         return CachedObservable.from(this, capacityHint);
     }
 
+    /**
+     * Caches the values serialized in direct ByteBuffers of the given size outside the Java heap
+     * and deserializes them for each Subscriber.
+     * @param serializer the value serializer
+     * @param chunkSize the size of each direct ByteBuffer in bytes
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final Observable<T> cache(ElementSerializer<T> serializer, int chunkSize) {
+        Objects.requireNonNull(serializer, "serializer is null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+        }
+        return CachedObservable.from(this, new OffHeapAppendList<T>(serializer, chunkSize, null));
+    }
+
+    /**
+     * Caches the values serialized in the given file, memory-mapped in regions of the given size,
+     * and deserializes them for each Subscriber; the file is overwritten and not deleted afterwards.
+     * @param serializer the value serializer
+     * @param file the file to store the values in
+     * @param chunkSize the size of each mapped region in bytes
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final Observable<T> cache(ElementSerializer<T> serializer, File file, int chunkSize) {
+        Objects.requireNonNull(serializer, "serializer is null");
+        Objects.requireNonNull(file, "file is null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+        }
+        return CachedObservable.from(this, new OffHeapAppendList<T>(serializer, chunkSize, file));
+    }
+
     @BackpressureSupport(BackpressureKind.PASS_THROUGH)
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> cast(final Class<U> clazz) {
@@ -1455,9 +1495,55 @@ public class Observable<T> implements Publisher<T> {
         if (prefetch <= 0) {
             throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
         }
+        if (this == empty()) {
+            return empty();
+        }
+        if (this instanceof ObservableScalarSource) {
+            ObservableScalarSource<T> scalar = (ObservableScalarSource<T>) this;
+            return create(scalar.scalarFlatMap(mapper));
+        }
         return lift(new OperatorConcatMap<T, R>(mapper, prefetch));
     }
 
+    /**
+     * Maps each value into a Publisher, subscribes to up to {@link #bufferSize()} of them at once, 
+     * buffers their values and relays them in the order of the original values.
+     * @param <R> the result value type
+     * @param mapper the function mapping each value into a Publisher
+     * @return the new Observable instance
+     * @see #concatMapEager(Function, int, int)
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <R> Observable<R> concatMapEager(Function<? super T, ? extends Publisher<? extends R>> mapper) {
+        return concatMapEager(mapper, bufferSize(), bufferSize());
+    }
+
+    /**
+     * Maps each value into a Publisher, subscribes to up to maxConcurrency of them at once, 
+     * buffers their values and relays them in the order of the original values.
+     * @param <R> the result value type
+     * @param mapper the function mapping each value into a Publisher
+     * @param maxConcurrency the maximum number of Publishers subscribed to at once
+     * @param prefetch the number of values prefetched from each Publisher
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <R> Observable<R> concatMapEager(Function<? super T, ? extends Publisher<? extends R>> mapper, 
+            int maxConcurrency, int prefetch) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
+        }
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return lift(new OperatorConcatMapEager<T, R>(mapper, maxConcurrency, prefetch));
+    }
+
     @BackpressureSupport(BackpressureKind.FULL)
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> concatMapIterable(Function<? super T, ? extends Iterable<? extends U>> mapper) {
@@ -1468,12 +1554,10 @@ public class Observable<T> implements Publisher<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> concatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper, int prefetch) {
         Objects.requireNonNull(mapper, "mapper is null");
-        return concatMap(new Function<T, Publisher<U>>() {
-            @Override
-            public Publisher<U> apply(T v) {
-                return new PublisherIterableSource<U>(mapper.apply(v));
-            }
-        }, prefetch);
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return lift(new OperatorFlattenIterable<T, U>(mapper, prefetch));
     }
 
     @BackpressureSupport(BackpressureKind.FULL)
@@ -1888,6 +1972,10 @@ public class Observable<T> implements Publisher<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public final Observable<T> filter(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate, "predicate is null");
+        Publisher<T> fused = OperatorMapFilter.fuse(onSubscribe, predicate, true);
+        if (fused != null) {
+            return create(fused);
+        }
         return lift(new OperatorFilter<T>(predicate));
     }
 
@@ -1936,6 +2024,9 @@ public class Observable<T> implements Publisher<T> {
             throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
         }
         validateBufferSize(bufferSize);
+        if (this == empty()) {
+            return empty();
+        }
         if (this instanceof ObservableScalarSource) {
             ObservableScalarSource<T> scalar = (ObservableScalarSource<T>) this;
             return create(scalar.scalarFlatMap(mapper));
@@ -2020,13 +2111,7 @@ public class Observable<T> implements Publisher<T> {
     @BackpressureSupport(BackpressureKind.FULL)
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> flatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper) {
-        Objects.requireNonNull(mapper, "mapper is null");
-        return flatMap(new Function<T, Publisher<U>>() {
-            @Override
-            public Publisher<U> apply(T v) {
-                return new PublisherIterableSource<U>(mapper.apply(v));
-            }
-        });
+        return flatMapIterable(mapper, bufferSize());
     }
 
     @BackpressureSupport(BackpressureKind.FULL)
@@ -2045,12 +2130,9 @@ public class Observable<T> implements Publisher<T> {
     @BackpressureSupport(BackpressureKind.FULL)
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> flatMapIterable(final Function<? super T, ? extends Iterable<? extends U>> mapper, int bufferSize) {
-        return flatMap(new Function<T, Publisher<U>>() {
-            @Override
-            public Publisher<U> apply(T v) {
-                return new PublisherIterableSource<U>(mapper.apply(v));
-            }
-        }, false, bufferSize);
+        Objects.requireNonNull(mapper, "mapper is null");
+        validateBufferSize(bufferSize);
+        return lift(new OperatorFlattenIterable<T, U>(mapper, bufferSize));
     }
 
     @BackpressureSupport(BackpressureKind.NONE)
@@ -2135,6 +2217,63 @@ public class Observable<T> implements Publisher<T> {
         return lift(new OperatorGroupBy<T, K, V>(keySelector, valueSelector, bufferSize, delayError));
     }
 
+    /**
+     * Groups the values of this Observable by the given key selector, keeping the groups in
+     * a map created by the given factory which may evict groups, completing them.
+     * <p>
+     * The factory receives a callback the map has to call with the evicted groups (the map values).
+     * The map is accessed only from the thread delivering the source's signals, therefore it 
+     * doesn't have to be thread-safe; the callback may be called from any thread.
+     * See {@link GroupByMaps} for LRU and expiring map factories.
+     * @param <K> the key type
+     * @param <V> the value type of the groups
+     * @param keySelector the function returning the group key of a source value
+     * @param valueSelector the function returning the value to emit to the group
+     * @param bufferSize the number of values prefetched from the source and buffered per group
+     * @param evictingMapFactory the function receiving the eviction callback and returning the group map
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <K, V> Observable<GroupedObservable<K, V>> groupBy(Function<? super T, ? extends K> keySelector, 
+            Function<? super T, ? extends V> valueSelector, int bufferSize,
+            Function<? super Consumer<Object>, ? extends Map<Object, Object>> evictingMapFactory) {
+        return groupBy(keySelector, valueSelector, false, bufferSize, evictingMapFactory);
+    }
+
+    /**
+     * Groups the values of this Observable by the given key selector, keeping the groups in
+     * a map created by the given factory which may evict groups, completing them.
+     * <p>
+     * The factory receives a callback the map has to call with the evicted groups (the map values).
+     * The map is accessed only from the thread delivering the source's signals, therefore it 
+     * doesn't have to be thread-safe; the callback may be called from any thread.
+     * See {@link GroupByMaps} for LRU and expiring map factories.
+     * @param <K> the key type
+     * @param <V> the value type of the groups
+     * @param keySelector the function returning the group key of a source value
+     * @param valueSelector the function returning the value to emit to the group
+     * @param delayError if true, the groups emit an error after their buffered values
+     * @param bufferSize the number of values prefetched from the source and buffered per group
+     * @param evictingMapFactory the function receiving the eviction callback and returning the group map
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final <K, V> Observable<GroupedObservable<K, V>> groupBy(Function<? super T, ? extends K> keySelector, 
+            Function<? super T, ? extends V> valueSelector, 
+            boolean delayError, int bufferSize,
+            Function<? super Consumer<Object>, ? extends Map<Object, Object>> evictingMapFactory) {
+        Objects.requireNonNull(keySelector, "keySelector is null");
+        Objects.requireNonNull(valueSelector, "valueSelector is null");
+        validateBufferSize(bufferSize);
+        Objects.requireNonNull(evictingMapFactory, "evictingMapFactory is null");
+
+        return lift(new OperatorGroupBy<T, K, V>(keySelector, valueSelector, bufferSize, delayError, evictingMapFactory));
+    }
+
     @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
     @SchedulerSupport(SchedulerKind.NONE)
     public final Observable<T> ignoreElements() {
@@ -2176,6 +2315,10 @@ public class Observable<T> implements Publisher<T> {
     @SchedulerSupport(SchedulerKind.NONE)
     public final <R> Observable<R> map(Function<? super T, ? extends R> mapper) {
         Objects.requireNonNull(mapper, "mapper is null");
+        Publisher<R> fused = OperatorMapFilter.fuse(onSubscribe, mapper, false);
+        if (fused != null) {
+            return create(fused);
+        }
         return lift(new OperatorMap<T, R>(mapper));
     }
 
@@ -2219,6 +2362,47 @@ public class Observable<T> implements Publisher<T> {
         return lift(new OperatorObserveOn<T>(scheduler, delayError, bufferSize));
     }
 
+    /**
+     * Emits the events of this Observable on the given Scheduler, prefetching bufferSize
+     * values and requesting more from this Observable once limit values have been emitted.
+     * @param scheduler the scheduler to emit the events on
+     * @param delayError delay an error until all the values before it have been emitted?
+     * @param bufferSize the number of values to prefetch, positive
+     * @param limit the replenishment batch size, between 1 and bufferSize
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.CUSTOM)
+    public final Observable<T> observeOn(Scheduler scheduler, boolean delayError, int bufferSize, int limit) {
+        return observeOn(scheduler, delayError, bufferSize, limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Emits the events of this Observable on the given Scheduler, prefetching bufferSize
+     * values, requesting more from this Observable once limit values have been emitted and
+     * emitting at most emitBatch values per scheduled run before letting other tasks of the
+     * Scheduler's worker run.
+     * @param scheduler the scheduler to emit the events on
+     * @param delayError delay an error until all the values before it have been emitted?
+     * @param bufferSize the number of values to prefetch, positive
+     * @param limit the replenishment batch size, between 1 and bufferSize
+     * @param emitBatch the maximum number of values emitted per scheduled run, positive
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.CUSTOM)
+    public final Observable<T> observeOn(Scheduler scheduler, boolean delayError, int bufferSize, int limit, int emitBatch) {
+        Objects.requireNonNull(scheduler, "scheduler is null");
+        validateBufferSize(bufferSize);
+        if (limit <= 0 || limit > bufferSize) {
+            throw new IllegalArgumentException("0 < limit <= bufferSize required but it was " + limit);
+        }
+        if (emitBatch <= 0) {
+            throw new IllegalArgumentException("emitBatch > 0 required but it was " + emitBatch);
+        }
+        return lift(new OperatorObserveOn<T>(scheduler, delayError, bufferSize, limit, emitBatch));
+    }
+
     @BackpressureSupport(BackpressureKind.PASS_THROUGH)
     @SchedulerSupport(SchedulerKind.NONE)
     public final <U> Observable<U> ofType(final Class<U> clazz) {
@@ -2275,6 +2459,24 @@ public class Observable<T> implements Publisher<T> {
         return onBackpressureBuffer(bufferSize, false, false, onOverflow);
     }
 
+    /**
+     * Buffers up to the given number of values in a fixed ring buffer until the downstream 
+     * requests them and applies the given strategy if a value arrives while the buffer is full.
+     * @param capacity the maximum number of values buffered
+     * @param onOverflow the action called on each overflow, before the strategy is applied
+     * @param overflowStrategy the action to take on overflow
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final Observable<T> onBackpressureBuffer(int capacity, Runnable onOverflow, BackpressureOverflow.Strategy overflowStrategy) {
+        validateBufferSize(capacity);
+        Objects.requireNonNull(onOverflow, "onOverflow is null");
+        Objects.requireNonNull(overflowStrategy, "overflowStrategy is null");
+        return lift(new OperatorOnBackpressureBufferStrategy<T>(capacity, onOverflow, overflowStrategy));
+    }
+
     @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
     @SchedulerSupport(SchedulerKind.NONE)
     public final Observable<T> onBackpressureDrop() {
@@ -2345,6 +2547,49 @@ public class Observable<T> implements Publisher<T> {
         }, true));
     }
 
+    /**
+     * Splits this Observable into as many 'rails' as there are CPUs and dispatches
+     * the values to them in a round-robin fashion.
+     * @return the new ParallelObservable instance
+     * @see ParallelObservable
+     */
+    @Experimental
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final ParallelObservable<T> parallel() {
+        return ParallelObservable.from(this);
+    }
+
+    /**
+     * Splits this Observable into the given number of 'rails' and dispatches
+     * the values to them in a round-robin fashion.
+     * @param parallelism the number of rails, positive
+     * @return the new ParallelObservable instance
+     * @see ParallelObservable
+     */
+    @Experimental
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final ParallelObservable<T> parallel(int parallelism) {
+        return ParallelObservable.from(this, parallelism);
+    }
+
+    /**
+     * Splits this Observable into the given number of 'rails' and dispatches
+     * the values to them in a round-robin fashion, prefetching the given
+     * number of values from this Observable.
+     * @param parallelism the number of rails, positive
+     * @param prefetch the number of values to prefetch from this Observable, positive
+     * @return the new ParallelObservable instance
+     * @see ParallelObservable
+     */
+    @Experimental
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final ParallelObservable<T> parallel(int parallelism, int prefetch) {
+        return ParallelObservable.from(this, parallelism, prefetch);
+    }
+
     @BackpressureSupport(BackpressureKind.FULL)
     @SchedulerSupport(SchedulerKind.NONE)
     public final ConnectableObservable<T> publish() {
@@ -2372,6 +2617,26 @@ public class Observable<T> implements Publisher<T> {
         return OperatorPublish.create(this, bufferSize);
     }
 
+    /**
+     * Returns a ConnectableObservable that shares the source among its subscribers where each
+     * subscriber consumes from its own bounded buffer so a slow subscriber doesn't throttle 
+     * the others; values arriving to a full subscriber buffer are handled by the given strategy
+     * for that subscriber alone.
+     * @param bufferSize the prefetch amount from the source
+     * @param subscriberCapacity the maximum number of values buffered per subscriber
+     * @param overflowStrategy the action to take when a subscriber's buffer is full
+     * @return the new ConnectableObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.SPECIAL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    @Experimental
+    public final ConnectableObservable<T> publish(int bufferSize, int subscriberCapacity, BackpressureOverflow.Strategy overflowStrategy) {
+        validateBufferSize(bufferSize);
+        validateBufferSize(subscriberCapacity);
+        Objects.requireNonNull(overflowStrategy, "overflowStrategy is null");
+        return OperatorPublish.create(this, bufferSize, subscriberCapacity, overflowStrategy);
+    }
+
     @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
     @SchedulerSupport(SchedulerKind.NONE)
     public final Observable<T> reduce(BiFunction<T, T, T> reducer) {
@@ -3003,6 +3268,13 @@ public class Observable<T> implements Publisher<T> {
     public final <R> Observable<R> switchMap(Function<? super T, ? extends Publisher<? extends R>> mapper, int bufferSize) {
         Objects.requireNonNull(mapper, "mapper is null");
         validateBufferSize(bufferSize);
+        if (this == empty()) {
+            return empty();
+        }
+        if (this instanceof ObservableScalarSource) {
+            ObservableScalarSource<T> scalar = (ObservableScalarSource<T>) this;
+            return create(scalar.scalarFlatMap(mapper));
+        }
         return lift(new OperatorSwitchMap<T, R>(mapper, bufferSize));
     }
 
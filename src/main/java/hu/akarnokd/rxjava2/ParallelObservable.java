@@ -0,0 +1,298 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.Comparator;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.annotations.*;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+import hu.akarnokd.rxjava2.internal.operators.*;
+import hu.akarnokd.rxjava2.internal.operators.parallel.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+
+/**
+ * Abstract base class for parallel publishing of events signalled to an array of Subscribers,
+ * called rails.
+ * <p>
+ * Use {@link #from(Publisher)} or {@link Observable#parallel()} to start processing a regular
+ * Publisher in 'rails', {@link #runOn(Scheduler)} to introduce where each rail should run,
+ * and {@link #sequential()} or the reducing/sorting operators to merge the rails back into
+ * a single Observable.
+ *
+ * @param <T> the value type
+ */
+@Experimental
+public abstract class ParallelObservable<T> {
+    
+    /**
+     * Subscribes an array of Subscribers to this ParallelObservable and triggers
+     * the execution chain for all 'rails'.
+     * 
+     * @param subscribers the subscribers array to run in parallel, the number
+     * of items must be equal to the parallelism level of this ParallelObservable
+     */
+    public abstract void subscribe(Subscriber<? super T>[] subscribers);
+    
+    /**
+     * Returns the number of expected parallel Subscribers.
+     * @return the number of expected parallel Subscribers
+     */
+    public abstract int parallelism();
+    
+    /**
+     * Validates the number of subscribers and returns true if their number
+     * matches the parallelism level of this ParallelObservable.
+     * <p>
+     * In case of a mismatch, each Subscriber receives an IllegalArgumentException.
+     * 
+     * @param subscribers the array of Subscribers
+     * @return true if the number of subscribers equals to the parallelism level
+     */
+    protected final boolean validate(Subscriber<?>[] subscribers) {
+        int p = parallelism();
+        if (subscribers.length != p) {
+            IllegalArgumentException iae = new IllegalArgumentException("parallelism = " + p + ", subscribers = " + subscribers.length);
+            for (Subscriber<?> s : subscribers) {
+                EmptySubscription.error(iae, s);
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Take a Publisher and prepare to consume it on multiple 'rails' (number of CPUs)
+     * in a round-robin fashion.
+     * @param <T> the value type
+     * @param source the source Publisher
+     * @return the ParallelObservable instance
+     */
+    public static <T> ParallelObservable<T> from(Publisher<? extends T> source) {
+        return from(source, Runtime.getRuntime().availableProcessors(), Observable.bufferSize());
+    }
+
+    /**
+     * Take a Publisher and prepare to consume it on parallelism number of 'rails' in a round-robin fashion.
+     * @param <T> the value type
+     * @param source the source Publisher
+     * @param parallelism the number of parallel rails
+     * @return the ParallelObservable instance
+     */
+    public static <T> ParallelObservable<T> from(Publisher<? extends T> source, int parallelism) {
+        return from(source, parallelism, Observable.bufferSize());
+    }
+
+    /**
+     * Take a Publisher and prepare to consume it on parallelism number of 'rails' in a
+     * round-robin fashion and use a custom prefetch amount for dealing with the source
+     * Publisher's values.
+     * @param <T> the value type
+     * @param source the source Publisher
+     * @param parallelism the number of parallel rails
+     * @param prefetch the number of values to prefetch from the source and hold
+     * until there is a rail ready to process it
+     * @return the new ParallelObservable instance
+     */
+    public static <T> ParallelObservable<T> from(Publisher<? extends T> source, int parallelism, int prefetch) {
+        Objects.requireNonNull(source, "source is null");
+        validate(parallelism, "parallelism");
+        validate(prefetch, "prefetch");
+        return new ParallelFromPublisher<T>(source, parallelism, prefetch);
+    }
+    
+    static void validate(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " > 0 required but it was " + value);
+        }
+    }
+
+    /**
+     * Maps the source values on each 'rail' to another value.
+     * <p>
+     * Note that the same mapper function may be called from multiple threads concurrently.
+     * @param <R> the output value type
+     * @param mapper the mapper function turning Ts into Rs.
+     * @return the new ParallelObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final <R> ParallelObservable<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper is null");
+        return lift(new OperatorMap<T, R>(mapper));
+    }
+    
+    /**
+     * Filters the source values on each 'rail'.
+     * <p>
+     * Note that the same predicate may be called from multiple threads concurrently.
+     * @param predicate the function returning true to keep a value or false to drop a value
+     * @return the new ParallelObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.PASS_THROUGH)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final ParallelObservable<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate is null");
+        return lift(new OperatorFilter<T>(predicate));
+    }
+    
+    /**
+     * Applies the given Operator to each 'rail' individually.
+     * @param <R> the output value type
+     * @param lifter the operator applied to each rail's Subscriber
+     * @return the new ParallelObservable instance
+     */
+    public final <R> ParallelObservable<R> lift(Operator<? extends R, ? super T> lifter) {
+        Objects.requireNonNull(lifter, "lifter is null");
+        return new ParallelLift<T, R>(this, lifter);
+    }
+    
+    /**
+     * Specifies where each 'rail' will observe its incoming values with
+     * the default prefetch amount.
+     * <p>
+     * This operator uses the default prefetch size returned by {@code Observable.bufferSize()}.
+     * <p>
+     * The operator will call {@code Scheduler.createWorker()} as many
+     * times as this ParallelObservable's parallelism level is.
+     * 
+     * @param scheduler the scheduler to use
+     * @return the new ParallelObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.CUSTOM)
+    public final ParallelObservable<T> runOn(Scheduler scheduler) {
+        return runOn(scheduler, Observable.bufferSize());
+    }
+
+    /**
+     * Specifies where each 'rail' will observe its incoming values with
+     * the given prefetch amount.
+     * <p>
+     * The operator will call {@code Scheduler.createWorker()} as many
+     * times as this ParallelObservable's parallelism level is.
+     * 
+     * @param scheduler the scheduler to use
+     * @param prefetch the number of values to request on each 'rail' from the source
+     * @return the new ParallelObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.CUSTOM)
+    public final ParallelObservable<T> runOn(Scheduler scheduler, int prefetch) {
+        Objects.requireNonNull(scheduler, "scheduler is null");
+        validate(prefetch, "prefetch");
+        return new ParallelRunOn<T>(this, scheduler, prefetch);
+    }
+
+    /**
+     * Reduces all values within a 'rail' and across 'rails' with a reducer function into a single
+     * sequential value.
+     * <p>
+     * Note that the same reducer function may be called from multiple threads concurrently.
+     * @param reducer the function to reduce two values into one.
+     * @return the new Observable instance emitting the reduced value or empty if the ParallelObservable was empty
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<T> reduce(BiFunction<T, T, T> reducer) {
+        Objects.requireNonNull(reducer, "reducer is null");
+        return Observable.create(new ParallelReduceFull<T>(this, reducer));
+    }
+    
+    /**
+     * Reduces all values within a 'rail' to a single value (with a possibly different type) via
+     * a reducer function that is initialized on each rail from an initialSupplier value.
+     * <p>
+     * Note that the same reducer function may be called from multiple threads concurrently.
+     * @param <R> the reduced output type
+     * @param initialSupplier the supplier for the initial value
+     * @param reducer the function to reduce a previous output of reduce (or the initial value supplied)
+     * with a current source value.
+     * @return the new ParallelObservable instance
+     */
+    @BackpressureSupport(BackpressureKind.UNBOUNDED_IN)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final <R> ParallelObservable<R> reduce(Supplier<R> initialSupplier, BiFunction<R, ? super T, R> reducer) {
+        Objects.requireNonNull(initialSupplier, "initialSupplier is null");
+        Objects.requireNonNull(reducer, "reducer is null");
+        return new ParallelReduce<T, R>(this, initialSupplier, reducer);
+    }
+    
+    /**
+     * Sorts the 'rails' of this ParallelObservable and returns an Observable that sequentially
+     * picks the smallest next value from the rails.
+     * <p>
+     * This operator requires a finite source ParallelObservable.
+     * 
+     * @param comparator the comparator to use
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<T> sorted(Comparator<? super T> comparator) {
+        return sorted(comparator, 16);
+    }
+
+    /**
+     * Sorts the 'rails' of this ParallelObservable and returns an Observable that sequentially
+     * picks the smallest next value from the rails.
+     * <p>
+     * This operator requires a finite source ParallelObservable.
+     * 
+     * @param comparator the comparator to use
+     * @param capacityHint the expected number of total elements
+     * @return the new Observable instance
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<T> sorted(Comparator<? super T> comparator, int capacityHint) {
+        Objects.requireNonNull(comparator, "comparator is null");
+        validate(capacityHint, "capacityHint");
+        int ch = capacityHint / parallelism() + 1;
+        return Observable.create(new ParallelSortedJoin<T>(this, comparator, ch));
+    }
+
+    /**
+     * Merges the values from each 'rail' in a round-robin fashion and
+     * exposes it as a regular Observable sequence, running with a default prefetch value
+     * for the rails.
+     * <p>
+     * This operator uses the default prefetch size returned by {@code Observable.bufferSize()}.
+     * @return the new Observable instance
+     * @see ParallelObservable#sequential(int)
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<T> sequential() {
+        return sequential(Observable.bufferSize());
+    }
+
+    /**
+     * Merges the values from each 'rail' in a round-robin fashion and
+     * exposes it as a regular Observable sequence, running with a given prefetch value
+     * for the rails.
+     * @param prefetch the prefetch amount to use for each rail
+     * @return the new Observable instance
+     * @see ParallelObservable#sequential()
+     */
+    @BackpressureSupport(BackpressureKind.FULL)
+    @SchedulerSupport(SchedulerKind.NONE)
+    public final Observable<T> sequential(int prefetch) {
+        validate(prefetch, "prefetch");
+        return Observable.create(new ParallelJoin<T>(this, prefetch));
+    }
+}
@@ -496,13 +496,7 @@ public class Single<T> {
 
     public static <T> Single<T> just(final T value) {
         Objects.requireNonNull(value, "value is null");
-        return create(new SingleOnSubscribe<T>() {
-            @Override
-            public void accept(SingleSubscriber<? super T> s) {
-                s.onSubscribe(EmptyDisposable.INSTANCE);
-                s.onSuccess(value);
-            }
-        });
+        return new SingleScalarSource<T>(value);
     }
 
     public static <T> Observable<T> merge(Iterable<? extends Single<? extends T>> sources) {
@@ -1319,6 +1313,10 @@ public class Single<T> {
 
     public final <R> Single<R> flatMap(Function<? super T, ? extends Single<? extends R>> mapper) {
         Objects.requireNonNull(mapper, "mapper is null");
+        if (this instanceof SingleScalarSource) {
+            SingleScalarSource<T> scalar = (SingleScalarSource<T>) this;
+            return create(scalar.scalarFlatMap(mapper));
+        }
         return lift(new SingleOperatorFlatMap<T, R>(mapper));   
     }
 
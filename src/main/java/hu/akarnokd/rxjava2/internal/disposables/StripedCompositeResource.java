@@ -0,0 +1,323 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.disposables;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.exceptions.CompositeException;
+import hu.akarnokd.rxjava2.functions.Consumer;
+import hu.akarnokd.rxjava2.internal.util.*;
+
+/**
+ * A composite resource which spreads its resources over a fixed number of stripes selected
+ * by the identity hash of the resource.
+ * <p>
+ * A stripe starts out as a copy-on-write array, adding and removing resources is a single
+ * CAS on it and never takes a lock; this covers the common case of a Scheduler.Worker with a
+ * few outstanding tasks. Once a stripe holds more than {@link #ARRAY_LIMIT} resources, it is
+ * replaced by an open hash set guarded by its own monitor so the cost of adding and removing
+ * stays constant with many pending (i.e., delayed) tasks instead of copying the whole stripe.
+ * <p>
+ * Resources are expected to use identity equality.
+ *
+ * <p>Note that since the implementation leaks the methods of AtomicReferenceArray, one must be
+ * careful to only call the CompositeResource and Disposable methods on it.
+ *
+ * @param <T> the resource type
+ */
+public final class StripedCompositeResource<T> extends AtomicReferenceArray<Object> implements CompositeResource<T>, Disposable {
+    /** */
+    private static final long serialVersionUID = -2957383733614869137L;
+
+    /** The default number of stripes. */
+    public static final int DEFAULT_STRIPES = 4;
+
+    /** The maximum number of resources in a copy-on-write array stripe. */
+    public static final int ARRAY_LIMIT = 16;
+    
+    /** Indicates a stripe has been disposed. */
+    static final Object[] DISPOSED = new Object[0];
+    
+    final Consumer<? super T> disposer;
+    
+    final int mask;
+    
+    public StripedCompositeResource(Consumer<? super T> disposer) {
+        this(disposer, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs a StripedCompositeResource with the given disposer and number of stripes.
+     * @param disposer the callback to dispose resources
+     * @param stripes the number of stripes, rounded up to the next power of 2
+     */
+    public StripedCompositeResource(Consumer<? super T> disposer, int stripes) {
+        super(stripeCount(stripes));
+        this.disposer = disposer;
+        this.mask = length() - 1;
+    }
+    
+    static int stripeCount(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes > 0 required but it was " + stripes);
+        }
+        return Pow2.roundToPowerOfTwo(stripes);
+    }
+    
+    int stripe(Object resource) {
+        int h = System.identityHashCode(resource);
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    /**
+     * Adds a new resource to this composite or disposes it if the composite has been disposed.
+     * @param newResource the new resource to add, not-null (not checked)
+     * @return true if the add succeeded, false if this container was disposed
+     */
+    @Override
+    public boolean add(T newResource) {
+        int i = stripe(newResource);
+        for (;;) {
+            Object o = get(i);
+            if (o == DISPOSED) {
+                disposer.accept(newResource);
+                return false;
+            }
+            if (o instanceof HashStripe) {
+                HashStripe hs = (HashStripe)o;
+                synchronized (hs) {
+                    if (!hs.retired) {
+                        hs.set.add(newResource);
+                        return true;
+                    }
+                }
+                // the stripe has been cleared or disposed, retry with its replacement
+                continue;
+            }
+            Object[] a = (Object[])o;
+            Object b;
+            if (a == null) {
+                b = new Object[] { newResource };
+            } else {
+                int n = a.length;
+                if (n >= ARRAY_LIMIT) {
+                    b = new HashStripe(a, newResource);
+                } else {
+                    Object[] c = new Object[n + 1];
+                    System.arraycopy(a, 0, c, 0, n);
+                    c[n] = newResource;
+                    b = c;
+                }
+            }
+            if (compareAndSet(i, a, b)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Removes the given resource from this composite and calls the disposer if the resource
+     * was indeed in the composite.
+     * @param resource the resource to remove, not-null (not verified)
+     * @return true if the resource was removed, false otherwise
+     */
+    @Override
+    public boolean remove(T resource) {
+        if (delete(resource)) {
+            disposer.accept(resource);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Removes the given resource if contained within this composite but doesn't call the disposer for it.
+     * @param resource the resource to delete, not-null (not verified)
+     * @return true if the delete succeeded, false if this container was disposed
+     */
+    @Override
+    public boolean delete(T resource) {
+        int i = stripe(resource);
+        for (;;) {
+            Object o = get(i);
+            if (o == DISPOSED || o == null) {
+                return false;
+            }
+            if (o instanceof HashStripe) {
+                HashStripe hs = (HashStripe)o;
+                synchronized (hs) {
+                    if (!hs.retired) {
+                        return hs.set.remove(resource);
+                    }
+                }
+                continue;
+            }
+            Object[] a = (Object[])o;
+            int n = a.length;
+            int j = -1;
+            for (int k = 0; k < n; k++) {
+                if (a[k] == resource) {
+                    j = k;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return false;
+            }
+            Object[] b;
+            if (n == 1) {
+                b = null;
+            } else {
+                b = new Object[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (compareAndSet(i, a, b)) {
+                return true;
+            }
+        }
+    }
+    
+    public int size() {
+        int c = 0;
+        int n = length();
+        for (int i = 0; i < n; i++) {
+            Object o = get(i);
+            if (o instanceof HashStripe) {
+                HashStripe hs = (HashStripe)o;
+                synchronized (hs) {
+                    if (!hs.retired) {
+                        c += hs.set.size();
+                    }
+                }
+            } else
+            if (o != null) {
+                c += ((Object[])o).length;
+            }
+        }
+        return c;
+    }
+    
+    @Override
+    public void dispose() {
+        if (get(0) != DISPOSED) {
+            CompositeException ex = null;
+            int n = length();
+            for (int i = 0; i < n; i++) {
+                Object o = get(i);
+                if (o != DISPOSED) {
+                    o = getAndSet(i, DISPOSED);
+                    if (o != DISPOSED && o != null) {
+                        ex = disposeStripe(o, ex);
+                    }
+                }
+            }
+            propagate(ex);
+        }
+    }
+    
+    public boolean isDisposed() {
+        return get(0) == DISPOSED;
+    }
+    
+    /**
+     * Disposes the current resources but keeps this composite usable.
+     */
+    public void clear() {
+        CompositeException ex = null;
+        int n = length();
+        for (int i = 0; i < n; i++) {
+            for (;;) {
+                Object o = get(i);
+                if (o == DISPOSED || o == null) {
+                    break;
+                }
+                if (compareAndSet(i, o, null)) {
+                    ex = disposeStripe(o, ex);
+                    break;
+                }
+            }
+        }
+        propagate(ex);
+    }
+    
+    /**
+     * Disposes the resources of a stripe that has been swapped out of this composite.
+     * @param stripe the array or HashStripe
+     * @param ex the exceptions so far, may be null
+     * @return the exceptions so far, may be null
+     */
+    CompositeException disposeStripe(Object stripe, CompositeException ex) {
+        Object[] a;
+        if (stripe instanceof HashStripe) {
+            HashStripe hs = (HashStripe)stripe;
+            synchronized (hs) {
+                // concurrent operations holding onto this stripe will retry with its replacement
+                hs.retired = true;
+            }
+            // no one modifies a retired stripe
+            a = hs.set.keys();
+        } else {
+            a = (Object[])stripe;
+        }
+        return disposeAll(a, ex);
+    }
+    
+    @SuppressWarnings("unchecked")
+    CompositeException disposeAll(Object[] a, CompositeException ex) {
+        for (Object o : a) {
+            if (o == null) {
+                continue;
+            }
+            try {
+                disposer.accept((T)o);
+            } catch (Throwable e) {
+                if (ex == null) {
+                    ex = new CompositeException();
+                }
+                ex.suppress(e);
+            }
+        }
+        return ex;
+    }
+    
+    static void propagate(CompositeException ex) {
+        if (ex != null) {
+            if (ex.size() == 1) {
+                Exceptions.propagate(ex.getExceptions().get(0));
+            }
+            Exceptions.propagate(ex);
+        }
+    }
+    
+    /**
+     * A stripe with more than ARRAY_LIMIT resources.
+     */
+    static final class HashStripe {
+        /** Guarded by this. */
+        final OpenHashSet<Object> set;
+        /** Set when the stripe has been swapped out by clear or dispose, guarded by this. */
+        boolean retired;
+        
+        public HashStripe(Object[] a, Object newResource) {
+            OpenHashSet<Object> s = new OpenHashSet<Object>(a.length * 4);
+            for (Object o : a) {
+                s.add(o);
+            }
+            s.add(newResource);
+            this.set = s;
+        }
+    }
+}
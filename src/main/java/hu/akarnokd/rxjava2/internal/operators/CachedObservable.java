@@ -54,7 +54,20 @@ public final class CachedObservable<T> extends Observable<T> {
         if (capacityHint < 1) {
             throw new IllegalArgumentException("capacityHint > 0 required");
         }
-        CacheState<T> state = new CacheState<T>(source, capacityHint);
+        CacheState<T> state = new CacheState<T>(source, capacityHint, null);
+        CachedSubscribe<T> onSubscribe = new CachedSubscribe<T>(state);
+        return new CachedObservable<T>(onSubscribe, state);
+    }
+    
+    /**
+     * Creates a cached Observable which stores the values serialized outside the Java heap.
+     * @param <T> the value type
+     * @param source the source Observable to cache
+     * @param offHeap the off-heap list to store the values in
+     * @return the CachedObservable instance
+     */
+    public static <T> CachedObservable<T> from(Observable<? extends T> source, OffHeapAppendList<T> offHeap) {
+        CacheState<T> state = new CacheState<T>(source, 16, offHeap);
         CachedSubscribe<T> onSubscribe = new CachedSubscribe<T>(state);
         return new CachedObservable<T>(onSubscribe, state);
     }
@@ -91,6 +104,10 @@ public final class CachedObservable<T> extends Observable<T> {
      * @return
      */
     /* public */ int cachedEventCount() {
+        OffHeapAppendList<T> offHeap = state.offHeap;
+        if (offHeap != null) {
+            return offHeap.size() + (state.terminal != null ? 1 : 0);
+        }
         return state.size();
     }
     
@@ -116,10 +133,15 @@ public final class CachedObservable<T> extends Observable<T> {
          * Observable was forcefully terminated.
          */
         boolean sourceDone;
+        /** If not null, the values are stored here instead of this list. */
+        final OffHeapAppendList<T> offHeap;
+        /** The terminal event in the off-heap mode, written after the last value. */
+        volatile Object terminal;
         
-        public CacheState(Observable<? extends T> source, int capacityHint) {
+        public CacheState(Observable<? extends T> source, int capacityHint, OffHeapAppendList<T> offHeap) {
             super(capacityHint);
             this.source = source;
+            this.offHeap = offHeap;
             this.producers = EMPTY;
             this.connection = new SerialResource<Subscription>(SubscriptionHelper.consumeAndCancel());
         }
@@ -186,8 +208,18 @@ public final class CachedObservable<T> extends Observable<T> {
         @Override
         public void onNext(T t) {
             if (!sourceDone) {
-                Object o = NotificationLite.next(t);
-                add(o);
+                OffHeapAppendList<T> oh = offHeap;
+                if (oh != null) {
+                    try {
+                        oh.add(t);
+                    } catch (Throwable ex) {
+                        onError(ex);
+                        return;
+                    }
+                } else {
+                    Object o = NotificationLite.next(t);
+                    add(o);
+                }
                 dispatch();
             }
         }
@@ -195,8 +227,7 @@ public final class CachedObservable<T> extends Observable<T> {
         public void onError(Throwable e) {
             if (!sourceDone) {
                 sourceDone = true;
-                Object o = NotificationLite.error(e);
-                add(o);
+                addTerminal(NotificationLite.error(e));
                 connection.dispose();
                 dispatch();
             }
@@ -205,12 +236,18 @@ public final class CachedObservable<T> extends Observable<T> {
         public void onComplete() {
             if (!sourceDone) {
                 sourceDone = true;
-                Object o = NotificationLite.complete();
-                add(o);
+                addTerminal(NotificationLite.complete());
                 connection.dispose();
                 dispatch();
             }
         }
+        void addTerminal(Object o) {
+            if (offHeap != null) {
+                terminal = o;
+            } else {
+                add(o);
+            }
+        }
         /**
          * Signals all known children there is work to do.
          */
@@ -274,6 +311,8 @@ public final class CachedObservable<T> extends Observable<T> {
          * Accessed after reading state.size() and when emitting == true.
          */
         int currentIndexInBuffer;
+        /** The replay position in the off-heap mode; accessed when emitting == true. */
+        OffHeapAppendList.Cursor cursor;
         /**
          * Contains the absolute index up until the values have been replayed so far.
          */
@@ -364,6 +403,15 @@ public final class CachedObservable<T> extends Observable<T> {
                         return;
                     }
                         
+                    // the off-heap mode never adds to the buffer below, leaving its size zero
+                    OffHeapAppendList<T> offHeap = state.offHeap;
+                    if (offHeap != null) {
+                        if (replayOffHeap(offHeap, r)) {
+                            skipFinal = true;
+                            return;
+                        }
+                    }
+                    
                     // read the size, if it is non-zero, we can safely read the head and
                     // read values up to the given absolute index
                     int s = state.size();
@@ -458,5 +506,62 @@ public final class CachedObservable<T> extends Observable<T> {
                 }
             }
         }
+        
+        /**
+         * Replays the values stored off-heap and the terminal event.
+         * @param offHeap the off-heap list of values
+         * @param r the current requested amount
+         * @return true if the replay has terminated
+         */
+        boolean replayOffHeap(OffHeapAppendList<T> offHeap, long r) {
+            final Subscriber<? super T> child = this.child;
+            OffHeapAppendList.Cursor c = cursor;
+            if (c == null) {
+                c = offHeap.cursor();
+                cursor = c;
+            }
+            int valuesProduced = 0;
+            
+            for (;;) {
+                if (cancelled) {
+                    return true;
+                }
+                // read the terminal first: it is set after the last value has been added
+                Object t = state.terminal;
+                if (c.index == offHeap.size()) {
+                    if (t != null) {
+                        NotificationLite.accept(t, child);
+                        dispose();
+                        return true;
+                    }
+                    break;
+                }
+                if (r == 0L) {
+                    break;
+                }
+                T v;
+                try {
+                    v = offHeap.next(c);
+                } catch (Throwable ex) {
+                    dispose();
+                    child.onError(ex);
+                    return true;
+                }
+                try {
+                    child.onNext(v);
+                } catch (Throwable err) {
+                    dispose();
+                    child.onError(err);
+                    return true;
+                }
+                r--;
+                valuesProduced++;
+            }
+            
+            if (valuesProduced != 0) {
+                produced(valuesProduced);
+            }
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
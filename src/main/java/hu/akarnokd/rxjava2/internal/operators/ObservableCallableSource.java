@@ -0,0 +1,37 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import java.util.concurrent.Callable;
+
+import hu.akarnokd.rxjava2.Observable;
+
+/**
+ * Represents a value computed lazily by a Callable for each Subscriber.
+ * <p>
+ * Mapping operators may check for this type and call the Callable directly
+ * instead of subscribing to it.
+ * @param <T> the value type
+ */
+public final class ObservableCallableSource<T> extends Observable<T> {
+    private final Callable<? extends T> callable;
+    public ObservableCallableSource(Callable<? extends T> callable) {
+        super(new PublisherScalarAsyncSource<T>(callable));
+        this.callable = callable;
+    }
+    
+    public Callable<? extends T> callable() {
+        return callable;
+    }
+}
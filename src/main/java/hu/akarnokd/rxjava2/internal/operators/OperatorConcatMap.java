@@ -17,10 +17,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.queue.*;
-import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionArbiter;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.Pow2;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 import hu.akarnokd.rxjava2.subscribers.SerializedSubscriber;
@@ -157,6 +158,38 @@ public final class OperatorConcatMap<T, U> implements Operator<U, T> {
                 return;
             }
             
+            if (p == Observable.empty()) {
+                index++;
+                inner.onComplete();
+                return;
+            }
+            
+            if (p instanceof ObservableScalarSource) {
+                U v = ((ObservableScalarSource<? extends U>)p).value();
+                index++;
+                inner.onSubscribe(new ScalarSubscription<U>(inner, v));
+                return;
+            }
+            
+            if (p instanceof ObservableCallableSource) {
+                U v;
+                try {
+                    v = ((ObservableCallableSource<? extends U>)p).callable().call();
+                } catch (Throwable e) {
+                    cancel();
+                    actual.onError(e);
+                    return;
+                }
+                if (v == null) {
+                    cancel();
+                    actual.onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                index++;
+                inner.onSubscribe(new ScalarSubscription<U>(inner, v));
+                return;
+            }
+            
             index++;
             // this is not RS but since our Subscriber doesn't hold state by itself,
             // subscribing it to each source is safe and saves allocation
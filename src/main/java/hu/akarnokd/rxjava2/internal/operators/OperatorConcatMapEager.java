@@ -0,0 +1,408 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps each upstream value into a Publisher, subscribes to up to maxConcurrency of them
+ * at once, buffers their values and relays them in the order of the upstream values.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+public final class OperatorConcatMapEager<T, R> implements Operator<R, T> {
+    final Function<? super T, ? extends Publisher<? extends R>> mapper;
+    final int maxConcurrency;
+    final int prefetch;
+    
+    public OperatorConcatMapEager(Function<? super T, ? extends Publisher<? extends R>> mapper, 
+            int maxConcurrency, int prefetch) {
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public Subscriber<? super T> apply(Subscriber<? super R> t) {
+        return new ConcatMapEagerSubscriber<T, R>(t, mapper, maxConcurrency, prefetch);
+    }
+    
+    static final class ConcatMapEagerSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+        /** */
+        private static final long serialVersionUID = -4255299542215038287L;
+        
+        final Subscriber<? super R> actual;
+        final Function<? super T, ? extends Publisher<? extends R>> mapper;
+        final int maxConcurrency;
+        final int prefetch;
+        
+        /** The upstream values not yet mapped and subscribed to. */
+        final Queue<T> sources;
+        
+        /** The active inner subscribers in the order of the upstream values, accessed from drain() only. */
+        final ArrayDeque<InnerSubscriber<R>> inners;
+        
+        Subscription s;
+        
+        volatile boolean done;
+        
+        volatile boolean cancelled;
+        
+        volatile Throwable error;
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<ConcatMapEagerSubscriber, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(ConcatMapEagerSubscriber.class, Throwable.class, "error");
+        
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<ConcatMapEagerSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ConcatMapEagerSubscriber.class, "requested");
+        
+        public ConcatMapEagerSubscriber(Subscriber<? super R> actual, 
+                Function<? super T, ? extends Publisher<? extends R>> mapper, int maxConcurrency, int prefetch) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+            this.sources = new SpscLinkedArrayQueue<T>(Math.max(16, Math.min(maxConcurrency, prefetch)));
+            this.inners = new ArrayDeque<InnerSubscriber<R>>();
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+            s.request(maxConcurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : maxConcurrency);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (!sources.offer(t)) {
+                s.cancel();
+                onError(new MissingBackpressureException("Source queue is full?!"));
+                return;
+            }
+            drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            if (!ERROR.compareAndSet(this, null, t)) {
+                RxJavaPlugins.onError(t);
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            BackpressureHelper.add(REQUESTED, this, n);
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                s.cancel();
+                if (getAndIncrement() == 0) {
+                    cleanup();
+                }
+            }
+        }
+        
+        void innerError(Throwable e) {
+            if (!ERROR.compareAndSet(this, null, e)) {
+                RxJavaPlugins.onError(e);
+            }
+        }
+        
+        void cleanup() {
+            sources.clear();
+            InnerSubscriber<R> inner;
+            while ((inner = inners.poll()) != null) {
+                inner.cancel();
+            }
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            int missed = 1;
+            final Subscriber<? super R> a = actual;
+            final ArrayDeque<InnerSubscriber<R>> q = inners;
+            
+            for (;;) {
+                if (cancelled) {
+                    cleanup();
+                    return;
+                }
+                
+                Throwable ex = error;
+                if (ex != null) {
+                    s.cancel();
+                    cleanup();
+                    a.onError(ex);
+                    return;
+                }
+                
+                boolean d = done;
+                
+                while (q.size() < maxConcurrency) {
+                    T t = sources.poll();
+                    if (t == null) {
+                        break;
+                    }
+                    
+                    Publisher<? extends R> p;
+                    
+                    try {
+                        p = mapper.apply(t);
+                    } catch (Throwable e) {
+                        s.cancel();
+                        cleanup();
+                        a.onError(e);
+                        return;
+                    }
+                    
+                    if (p == null) {
+                        s.cancel();
+                        cleanup();
+                        a.onError(new NullPointerException("The publisher returned is null"));
+                        return;
+                    }
+                    
+                    InnerSubscriber<R> inner = new InnerSubscriber<R>(this, prefetch);
+                    q.offer(inner);
+                    p.subscribe(inner);
+                    
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                }
+                
+                InnerSubscriber<R> inner = q.peek();
+                
+                if (inner == null) {
+                    if (d && sources.isEmpty()) {
+                        a.onComplete();
+                        return;
+                    }
+                } else {
+                    long r = requested;
+                    long e = 0L;
+                    boolean innerDone = false;
+                    
+                    Queue<R> iq = inner.queue;
+                    
+                    while (e != r) {
+                        if (cancelled) {
+                            cleanup();
+                            return;
+                        }
+                        
+                        ex = error;
+                        if (ex != null) {
+                            s.cancel();
+                            cleanup();
+                            a.onError(ex);
+                            return;
+                        }
+                        
+                        boolean id = inner.done;
+                        R v = iq.poll();
+                        boolean empty = v == null;
+                        
+                        if (id && empty) {
+                            innerDone = true;
+                            break;
+                        }
+                        
+                        if (empty) {
+                            break;
+                        }
+                        
+                        a.onNext(v);
+                        
+                        e++;
+                        
+                        inner.requestOne();
+                    }
+                    
+                    if (e == r && !innerDone) {
+                        if (cancelled) {
+                            cleanup();
+                            return;
+                        }
+                        
+                        if (inner.done && iq.isEmpty()) {
+                            innerDone = true;
+                        }
+                    }
+                    
+                    if (e != 0L && r != Long.MAX_VALUE) {
+                        REQUESTED.addAndGet(this, -e);
+                    }
+                    
+                    if (innerDone) {
+                        q.poll();
+                        if (maxConcurrency != Integer.MAX_VALUE) {
+                            s.request(1);
+                        }
+                        continue;
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    static final class InnerSubscriber<R> extends AtomicReference<Subscription> implements Subscriber<R> {
+        /** */
+        private static final long serialVersionUID = 2408622569573549744L;
+        
+        final ConcatMapEagerSubscriber<?, R> parent;
+        final Queue<R> queue;
+        final int prefetch;
+        final int limit;
+        
+        int produced;
+        
+        volatile boolean done;
+        
+        static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long n) {
+                
+            }
+            
+            @Override
+            public void cancel() {
+                
+            }
+        };
+        
+        public InnerSubscriber(ConcatMapEagerSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            if (Pow2.isPowerOfTwo(prefetch)) {
+                this.queue = new SpscArrayQueue<R>(prefetch);
+            } else {
+                this.queue = new SpscExactArrayQueue<R>(prefetch);
+            }
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (!compareAndSet(null, s)) {
+                s.cancel();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportSubscriptionSet();
+                }
+                return;
+            }
+            s.request(prefetch);
+        }
+        
+        @Override
+        public void onNext(R t) {
+            if (!queue.offer(t)) {
+                cancel();
+                onError(new MissingBackpressureException("Inner queue is full?!"));
+                return;
+            }
+            parent.drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(t);
+            done = true;
+            parent.drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+        
+        /**
+         * Called by the parent's drain loop after it consumed a value; 
+         * replenishes the inner source in batches.
+         */
+        void requestOne() {
+            int p = produced + 1;
+            if (p == limit) {
+                produced = 0;
+                get().request(p);
+            } else {
+                produced = p;
+            }
+        }
+        
+        void cancel() {
+            Subscription s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.cancel();
+                }
+            }
+        }
+    }
+}
@@ -52,7 +52,7 @@ public enum OperatorDematerialize implements Operator<Object, Try<Optional<Objec
             
             this.s = s;
             
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
@@ -21,7 +21,7 @@ import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.exceptions.CompositeException;
 import hu.akarnokd.rxjava2.functions.*;
 import hu.akarnokd.rxjava2.internal.functions.*;
-import hu.akarnokd.rxjava2.internal.subscribers.CancelledSubscriber;
+import hu.akarnokd.rxjava2.internal.subscribers.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.*;
 
 public final class OperatorDistinct<T, K> implements Operator<T, T> {
@@ -126,8 +126,10 @@ public final class OperatorDistinct<T, K> implements Operator<T, T> {
         return new DistinctSubscriber<T, K>(t, keySelector, coll);
     }
     
-    static final class DistinctSubscriber<T, K> implements Subscriber<T> {
+    static final class DistinctSubscriber<T, K> implements ConditionalSubscriber<T> {
         final Subscriber<? super T> actual;
+        /** The downstream if it is a ConditionalSubscriber, null otherwise. */
+        final ConditionalSubscriber<? super T> conditional;
         final Predicate<? super K> predicate;
         final Function<? super T, K> keySelector;
         
@@ -137,6 +139,8 @@ public final class OperatorDistinct<T, K> implements Operator<T, T> {
             this.actual = actual;
             this.keySelector = keySelector;
             this.predicate = predicate;
+            this.conditional = actual instanceof ConditionalSubscriber 
+                    ? (ConditionalSubscriber<? super T>)actual : null;
         }
 
         @Override
@@ -145,11 +149,18 @@ public final class OperatorDistinct<T, K> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
         public void onNext(T t) {
+            if (!onNextIf(t)) {
+                s.request(1);
+            }
+        }
+        
+        @Override
+        public boolean onNextIf(T t) {
             K key;
             
             try {
@@ -157,13 +168,13 @@ public final class OperatorDistinct<T, K> implements Operator<T, T> {
             } catch (Throwable e) {
                 s.cancel();
                 actual.onError(e);
-                return;
+                return true;
             }
             
             if (key == null) {
                 s.cancel();
                 actual.onError(new NullPointerException("Null key supplied"));
-                return;
+                return true;
             }
             
             
@@ -173,14 +184,18 @@ public final class OperatorDistinct<T, K> implements Operator<T, T> {
             } catch (Throwable e) {
                 s.cancel();
                 actual.onError(e);
-                return;
+                return true;
             }
             
-            if (b) {
-                actual.onNext(t);
-            } else {
-                s.request(1);
+            if (!b) {
+                return false;
+            }
+            ConditionalSubscriber<? super T> c = conditional;
+            if (c != null) {
+                return c.onNextIf(t);
             }
+            actual.onNext(t);
+            return true;
         }
         
         @Override
@@ -16,6 +16,7 @@ package hu.akarnokd.rxjava2.internal.operators;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
 public final class OperatorDoAfterTerminate<T> implements Operator<T, T> {
@@ -42,7 +43,7 @@ public final class OperatorDoAfterTerminate<T> implements Operator<T, T> {
         
         @Override
         public void onSubscribe(Subscription s) {
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
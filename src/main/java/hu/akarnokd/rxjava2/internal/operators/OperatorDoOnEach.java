@@ -72,7 +72,7 @@ public final class OperatorDoOnEach<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
@@ -34,12 +34,16 @@ public final class OperatorFilter<T> implements Operator<T, T> {
     static final class FilterSubscriber<T> implements ConditionalSubscriber<T> {
         final Predicate<? super T> filter;
         final Subscriber<? super T> actual;
+        /** The downstream if it is a ConditionalSubscriber, null otherwise. */
+        final ConditionalSubscriber<? super T> conditional;
         
         Subscription subscription;
         
         public FilterSubscriber(Subscriber<? super T> actual, Predicate<? super T> filter) {
             this.actual = actual;
             this.filter = filter;
+            this.conditional = actual instanceof ConditionalSubscriber 
+                    ? (ConditionalSubscriber<? super T>)actual : null;
         }
         
         @Override
@@ -48,7 +52,7 @@ public final class OperatorFilter<T> implements Operator<T, T> {
                 return;
             }
             subscription = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
@@ -69,6 +73,10 @@ public final class OperatorFilter<T> implements Operator<T, T> {
                 return true;
             }
             if (b) {
+                ConditionalSubscriber<? super T> c = conditional;
+                if (c != null) {
+                    return c.onNextIf(t);
+                }
                 actual.onNext(t);
             }
             return b;
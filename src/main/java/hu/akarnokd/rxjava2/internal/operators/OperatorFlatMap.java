@@ -18,13 +18,16 @@ import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.disposables.Disposable;
 import hu.akarnokd.rxjava2.exceptions.*;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.queue.*;
-import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.subscribers.MetricsSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.plugins.*;
 
 public final class OperatorFlatMap<T, U> implements Operator<U, T> {
     final Function<? super T, ? extends Publisher<? extends U>> mapper;
@@ -43,6 +46,18 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
     
     @Override
     public Subscriber<? super T> apply(Subscriber<? super U> t) {
+        OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+        if (m != null) {
+            MetricsSubscriber<U> ms = new MetricsSubscriber<U>(t, m, "flatMap");
+            final MergeSubscriber<T, U> parent = new MergeSubscriber<T, U>(ms, mapper, delayErrors, maxConcurrency, bufferSize);
+            ms.setGauge(new MetricsSubscriber.Gauge() {
+                @Override
+                public int queueSize() {
+                    return parent.queueSize();
+                }
+            });
+            return parent;
+        }
         return new MergeSubscriber<T, U>(t, mapper, delayErrors, maxConcurrency, bufferSize);
     }
     
@@ -134,6 +149,25 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
             }
             if (p instanceof ObservableScalarSource) {
                 tryEmitScalar(((ObservableScalarSource<? extends U>)p).value());
+            } else
+            if (p == Observable.empty()) {
+                if (maxConcurrency != Integer.MAX_VALUE && !cancelled) {
+                    s.request(1);
+                }
+            } else
+            if (p instanceof ObservableCallableSource) {
+                U v;
+                try {
+                    v = ((ObservableCallableSource<? extends U>)p).callable().call();
+                } catch (Throwable e) {
+                    onError(e);
+                    return;
+                }
+                if (v == null) {
+                    onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                tryEmitScalar(v);
             } else {
                 InnerSubscriber<T, U> inner = new InnerSubscriber<T, U>(this, uniqueId++);
                 addInner(inner);
@@ -438,7 +472,17 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
                                 if (q == null) {
                                     break;
                                 }
-                                o = q.poll();
+                                try {
+                                    o = q.poll();
+                                } catch (Throwable ex) {
+                                    // only a fused inner queue can throw here
+                                    is.dispose();
+                                    getErrorQueue().offer(ex);
+                                    is.queue = null;
+                                    is.done = true;
+                                    o = null;
+                                    break;
+                                }
                                 if (o == null) {
                                     break;
                                 }
@@ -552,6 +596,26 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
             }
         }
         
+        /**
+         * Returns the number of values waiting in the main and the inner queues;
+         * meant for monitoring purposes.
+         * @return the number of values waiting
+         */
+        int queueSize() {
+            int n = 0;
+            Queue<U> q = queue;
+            if (q != null) {
+                n = q.size();
+            }
+            for (InnerSubscriber<?, ?> inner : subscribers) {
+                Queue<?> iq = inner.queue;
+                if (iq != null) {
+                    n += iq.size();
+                }
+            }
+            return n;
+        }
+        
         Queue<Throwable> getErrorQueue() {
             for (;;) {
                 Queue<Throwable> q = errors;
@@ -579,6 +643,9 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
         volatile Queue<U> queue;
         int outstanding;
         
+        /** The fusion mode established with the inner source. */
+        int fusionMode;
+        
         static final Subscription CANCELLED = new Subscription() {
             @Override
             public void request(long n) {
@@ -606,11 +673,33 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
                 }
                 return;
             }
+            if (s instanceof QueueSubscription) {
+                @SuppressWarnings("unchecked")
+                QueueSubscription<U> qs = (QueueSubscription<U>) s;
+                
+                int m = qs.requestFusion(QueueSubscription.ANY | QueueSubscription.BOUNDARY);
+                if (m == QueueSubscription.SYNC) {
+                    fusionMode = m;
+                    queue = qs;
+                    done = true;
+                    parent.drain();
+                    return;
+                }
+                if (m == QueueSubscription.ASYNC) {
+                    fusionMode = m;
+                    queue = qs;
+                }
+            }
             outstanding = bufferSize;
             s.request(outstanding);
         }
         @Override
         public void onNext(U t) {
+            if (fusionMode == QueueSubscription.ASYNC) {
+                // the value is in the fused queue already
+                parent.drain();
+                return;
+            }
             parent.tryEmit(t, this);
         }
         @Override
@@ -626,6 +715,9 @@ public final class OperatorFlatMap<T, U> implements Operator<U, T> {
         }
         
         void requestMore(long n) {
+            if (fusionMode == QueueSubscription.SYNC) {
+                return;
+            }
             int r = outstanding - (int)n;
             if (r > limit) {
                 outstanding = r;
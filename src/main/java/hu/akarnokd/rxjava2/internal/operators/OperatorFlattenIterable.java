@@ -0,0 +1,360 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
+import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps each upstream value into an Iterable and emits the elements of the Iterables in order.
+ * <p>
+ * The upstream values are prefetched into a single queue and the Iterables are consumed
+ * directly in the drain loop, without an inner Publisher or an inner queue per value.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+public final class OperatorFlattenIterable<T, R> implements Operator<R, T> {
+    final Function<? super T, ? extends Iterable<? extends R>> mapper;
+    final int prefetch;
+    
+    public OperatorFlattenIterable(Function<? super T, ? extends Iterable<? extends R>> mapper, int prefetch) {
+        this.mapper = mapper;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public Subscriber<? super T> apply(Subscriber<? super R> t) {
+        return new FlattenIterableSubscriber<T, R>(t, mapper, prefetch);
+    }
+    
+    static final class FlattenIterableSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+        /** */
+        private static final long serialVersionUID = -3096000382929934955L;
+        
+        final Subscriber<? super R> actual;
+        final Function<? super T, ? extends Iterable<? extends R>> mapper;
+        final int prefetch;
+        final int limit;
+        
+        Subscription s;
+        
+        /** The prefetch queue or the upstream's QueueSubscription if fusion was established. */
+        Queue<T> queue;
+        
+        /** The fusion mode established with the upstream. */
+        int sourceMode;
+        
+        /** The number of upstream values consumed since the last replenishment, accessed from drain() only. */
+        int consumed;
+        
+        /** The Iterator being emitted, accessed from drain() only. */
+        Iterator<? extends R> current;
+        
+        volatile boolean done;
+        
+        volatile boolean cancelled;
+        
+        volatile Throwable error;
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<FlattenIterableSubscriber, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(FlattenIterableSubscriber.class, Throwable.class, "error");
+        
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<FlattenIterableSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(FlattenIterableSubscriber.class, "requested");
+        
+        public FlattenIterableSubscriber(Subscriber<? super R> actual, 
+                Function<? super T, ? extends Iterable<? extends R>> mapper, int prefetch) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            
+            if (s instanceof QueueSubscription) {
+                @SuppressWarnings("unchecked")
+                QueueSubscription<T> qs = (QueueSubscription<T>) s;
+                
+                int m = qs.requestFusion(QueueSubscription.ANY | QueueSubscription.BOUNDARY);
+                
+                if (m == QueueSubscription.SYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    done = true;
+                    
+                    actual.onSubscribe(this);
+                    return;
+                } else
+                if (m == QueueSubscription.ASYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    
+                    actual.onSubscribe(this);
+                    
+                    s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+                    return;
+                }
+            }
+            
+            if (prefetch == Integer.MAX_VALUE) {
+                queue = new SpscLinkedArrayQueue<T>(Observable.bufferSize());
+            } else
+            if (Pow2.isPowerOfTwo(prefetch)) {
+                queue = new SpscArrayQueue<T>(prefetch);
+            } else {
+                queue = new SpscExactArrayQueue<T>(prefetch);
+            }
+            
+            actual.onSubscribe(this);
+            
+            s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (sourceMode != QueueSubscription.ASYNC && !queue.offer(t)) {
+                s.cancel();
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done || !ERROR.compareAndSet(this, null, t)) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            BackpressureHelper.add(REQUESTED, this, n);
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                
+                s.cancel();
+                
+                if (getAndIncrement() == 0) {
+                    current = null;
+                    queue.clear();
+                }
+            }
+        }
+        
+        void fail(Throwable ex, Subscriber<? super R> a, Queue<?> q) {
+            current = null;
+            s.cancel();
+            q.clear();
+            a.onError(ex);
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            final Subscriber<? super R> a = actual;
+            final Queue<T> q = queue;
+            final boolean replenish = sourceMode != QueueSubscription.SYNC;
+            
+            int missed = 1;
+            
+            Iterator<? extends R> it = current;
+            
+            for (;;) {
+                
+                if (it == null) {
+                    boolean d = done;
+                    
+                    T t;
+                    
+                    try {
+                        t = q.poll();
+                    } catch (Throwable ex) {
+                        fail(ex, a, q);
+                        return;
+                    }
+                    
+                    if (checkTerminated(d, t == null, a, q)) {
+                        return;
+                    }
+                    
+                    if (t != null) {
+                        boolean b;
+                        
+                        try {
+                            Iterable<? extends R> iterable = mapper.apply(t);
+                            
+                            it = iterable.iterator();
+                            
+                            b = it.hasNext();
+                        } catch (Throwable ex) {
+                            fail(ex, a, q);
+                            return;
+                        }
+                        
+                        if (!b) {
+                            it = null;
+                            consumedOne(replenish);
+                            continue;
+                        }
+                        
+                        current = it;
+                    }
+                }
+                
+                if (it != null) {
+                    long r = requested;
+                    long e = 0L;
+                    
+                    while (e != r) {
+                        if (checkTerminated(false, false, a, q)) {
+                            return;
+                        }
+                        
+                        R v;
+                        
+                        try {
+                            v = it.next();
+                        } catch (Throwable ex) {
+                            fail(ex, a, q);
+                            return;
+                        }
+                        
+                        if (v == null) {
+                            fail(new NullPointerException("The iterator returned a null value"), a, q);
+                            return;
+                        }
+                        
+                        a.onNext(v);
+                        
+                        e++;
+                        
+                        boolean b;
+                        
+                        try {
+                            b = it.hasNext();
+                        } catch (Throwable ex) {
+                            fail(ex, a, q);
+                            return;
+                        }
+                        
+                        if (!b) {
+                            consumedOne(replenish);
+                            it = null;
+                            current = null;
+                            break;
+                        }
+                    }
+                    
+                    if (e == r) {
+                        if (checkTerminated(done, it == null && q.isEmpty(), a, q)) {
+                            return;
+                        }
+                    }
+                    
+                    if (e != 0L && r != Long.MAX_VALUE) {
+                        REQUESTED.addAndGet(this, -e);
+                    }
+                    
+                    if (it == null) {
+                        continue;
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        void consumedOne(boolean replenish) {
+            if (replenish) {
+                int c = consumed + 1;
+                if (c == limit) {
+                    consumed = 0;
+                    s.request(c);
+                } else {
+                    consumed = c;
+                }
+            }
+        }
+        
+        boolean checkTerminated(boolean d, boolean empty, Subscriber<? super R> a, Queue<?> q) {
+            if (cancelled) {
+                current = null;
+                q.clear();
+                return true;
+            }
+            Throwable ex = error;
+            if (ex != null) {
+                current = null;
+                q.clear();
+                a.onError(ex);
+                return true;
+            }
+            if (d && empty) {
+                a.onComplete();
+                return true;
+            }
+            return false;
+        }
+    }
+}
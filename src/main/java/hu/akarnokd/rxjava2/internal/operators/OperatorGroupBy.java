@@ -20,29 +20,94 @@ import java.util.concurrent.atomic.*;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
-import hu.akarnokd.rxjava2.functions.Function;
-import hu.akarnokd.rxjava2.internal.queue.SpscLinkedArrayQueue;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscribers.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
 import hu.akarnokd.rxjava2.observables.GroupedObservable;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.*;
 
 public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservable<K, V>, T>{
     final Function<? super T, ? extends K> keySelector;
     final Function<? super T, ? extends V> valueSelector;
     final int bufferSize;
     final boolean delayError;
+    /** Creates the map holding the groups given an eviction callback, null means a ConcurrentHashMap. */
+    final Function<? super Consumer<Object>, ? extends Map<Object, Object>> evictingMapFactory;
     
     public OperatorGroupBy(Function<? super T, ? extends K> keySelector, Function<? super T, ? extends V> valueSelector, int bufferSize, boolean delayError) {
+        this(keySelector, valueSelector, bufferSize, delayError, null);
+    }
+
+    public OperatorGroupBy(Function<? super T, ? extends K> keySelector, Function<? super T, ? extends V> valueSelector, int bufferSize, boolean delayError,
+            Function<? super Consumer<Object>, ? extends Map<Object, Object>> evictingMapFactory) {
         this.keySelector = keySelector;
         this.valueSelector = valueSelector;
         this.bufferSize = bufferSize;
         this.delayError = delayError;
+        this.evictingMapFactory = evictingMapFactory;
     }
     
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public Subscriber<? super T> apply(Subscriber<? super GroupedObservable<K, V>> t) {
-        return new GroupBySubscriber<T, K, V>(t, keySelector, valueSelector, bufferSize, delayError);
+        Map<Object, GroupedUnicast<K, V>> groups;
+        Queue<GroupedUnicast<K, V>> evictedGroups;
+        if (evictingMapFactory == null) {
+            groups = new ConcurrentHashMap<Object, GroupedUnicast<K, V>>();
+            evictedGroups = null;
+        } else {
+            evictedGroups = new MpscLinkedQueue<GroupedUnicast<K, V>>();
+            Map<Object, Object> map;
+            try {
+                map = evictingMapFactory.apply(new EvictionAction<K, V>(evictedGroups));
+            } catch (Throwable e) {
+                EmptySubscription.error(e, t);
+                return CancelledSubscriber.INSTANCE;
+            }
+            if (map == null) {
+                EmptySubscription.error(new NullPointerException("The evictingMapFactory returned a null map"), t);
+                return CancelledSubscriber.INSTANCE;
+            }
+            groups = (Map)map;
+        }
+        
+        OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+        if (m != null) {
+            MetricsSubscriber<GroupedObservable<K, V>> ms = new MetricsSubscriber<GroupedObservable<K, V>>(t, m, "groupBy");
+            final GroupBySubscriber<T, K, V> parent = new GroupBySubscriber<T, K, V>(ms, keySelector, valueSelector, bufferSize, delayError, 
+                    groups, evictedGroups);
+            ms.setGauge(new MetricsSubscriber.Gauge() {
+                @Override
+                public int queueSize() {
+                    return parent.queueSize();
+                }
+            });
+            return parent;
+        }
+        return new GroupBySubscriber<T, K, V>(t, keySelector, valueSelector, bufferSize, delayError, groups, evictedGroups);
+    }
+    
+    /**
+     * Called by the evicting map with the groups it removed; the groups are queued
+     * because the map may evict from any thread.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    static final class EvictionAction<K, V> implements Consumer<Object> {
+        final Queue<GroupedUnicast<K, V>> evictedGroups;
+        
+        public EvictionAction(Queue<GroupedUnicast<K, V>> evictedGroups) {
+            this.evictedGroups = evictedGroups;
+        }
+        
+        @SuppressWarnings("unchecked")
+        @Override
+        public void accept(Object group) {
+            evictedGroups.offer((GroupedUnicast<K, V>)group);
+        }
     }
     
     public static final class GroupBySubscriber<T, K, V> 
@@ -58,6 +123,13 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         final boolean delayError;
         final Map<Object, GroupedUnicast<K, V>> groups;
         final Queue<GroupedObservable<K, V>> queue;
+        /** The groups evicted by a custom map, waiting to be completed; null with the default map. */
+        final Queue<GroupedUnicast<K, V>> evictedGroups;
+        /** 
+         * The groups cancelled by their subscribers, waiting to be removed from a custom map 
+         * by the onNext thread as such a map need not be thread-safe; null with the default map. 
+         */
+        final Queue<State<V, K>> cancelledGroups;
         
         static final Object NULL_KEY = new Object();
         
@@ -82,12 +154,19 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         volatile boolean done;
         
         public GroupBySubscriber(Subscriber<? super GroupedObservable<K, V>> actual, Function<? super T, ? extends K> keySelector, Function<? super T, ? extends V> valueSelector, int bufferSize, boolean delayError) {
+            this(actual, keySelector, valueSelector, bufferSize, delayError, new ConcurrentHashMap<Object, GroupedUnicast<K, V>>(), null);
+        }
+        
+        public GroupBySubscriber(Subscriber<? super GroupedObservable<K, V>> actual, Function<? super T, ? extends K> keySelector, Function<? super T, ? extends V> valueSelector, int bufferSize, boolean delayError,
+                Map<Object, GroupedUnicast<K, V>> groups, Queue<GroupedUnicast<K, V>> evictedGroups) {
             this.actual = actual;
             this.keySelector = keySelector;
             this.valueSelector = valueSelector;
             this.bufferSize = bufferSize;
             this.delayError = delayError;
-            this.groups = new ConcurrentHashMap<Object, GroupedUnicast<K, V>>();
+            this.groups = groups;
+            this.evictedGroups = evictedGroups;
+            this.cancelledGroups = evictedGroups != null ? new MpscLinkedQueue<State<V, K>>() : null;
             this.queue = new SpscLinkedArrayQueue<GroupedObservable<K, V>>(bufferSize);
             GROUP_COUNT.lazySet(this, 1);
         }
@@ -121,6 +200,10 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
                 return;
             }
             
+            if (cancelledGroups != null) {
+                removeCancelled();
+            }
+            
             boolean notNew = true;
             Object mapKey = key != null ? key : NULL_KEY;
             GroupedUnicast<K, V> group = groups.get(mapKey);
@@ -137,6 +220,10 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
                     q.offer(group);
                     drain();
                 } else {
+                    // the lookup may have expired other groups
+                    if (evictedGroups != null) {
+                        completeEvictions();
+                    }
                     return;
                 }
             }
@@ -158,6 +245,10 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
 
             group.onNext(v);
 
+            if (evictedGroups != null) {
+                completeEvictions();
+            }
+            
             if (notNew) {
                 s.request(1);
             }
@@ -206,14 +297,65 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
             }
         }
         
-        public void cancel(K key) {
-            Object mapKey = key != null ? key : NULL_KEY;
-            groups.remove(mapKey);
+        public void cancel(State<V, K> group) {
+            // an evicted group has already been accounted for
+            if (!group.detach()) {
+                return;
+            }
+            if (cancelledGroups != null) {
+                cancelledGroups.offer(group);
+            } else {
+                K key = group.key;
+                Object mapKey = key != null ? key : NULL_KEY;
+                groups.remove(mapKey);
+            }
             if (GROUP_COUNT.decrementAndGet(this) == 0) {
                 s.cancel();
             }
         }
         
+        /**
+         * Removes the groups cancelled since the last call from the map, unless the map 
+         * has since evicted them or replaced them with a new group of the same key.
+         */
+        void removeCancelled() {
+            final Queue<State<V, K>> q = cancelledGroups;
+            for (;;) {
+                State<V, K> g = q.poll();
+                if (g == null) {
+                    break;
+                }
+                K key = g.key;
+                Object mapKey = key != null ? key : NULL_KEY;
+                GroupedUnicast<K, V> u = groups.get(mapKey);
+                if (u != null && u.state == g) {
+                    groups.remove(mapKey);
+                }
+            }
+        }
+        
+        /**
+         * Completes the groups the map evicted, unless their subscriber has cancelled
+         * them in the meantime.
+         */
+        void completeEvictions() {
+            final Queue<GroupedUnicast<K, V>> q = evictedGroups;
+            int c = 0;
+            for (;;) {
+                GroupedUnicast<K, V> g = q.poll();
+                if (g == null) {
+                    break;
+                }
+                if (g.state.detach()) {
+                    g.onComplete();
+                    c++;
+                }
+            }
+            if (c != 0 && GROUP_COUNT.addAndGet(this, -c) == 0) {
+                s.cancel();
+            }
+        }
+        
         void drain() {
             if (getAndIncrement() != 0) {
                 return;
@@ -269,8 +411,28 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
             }
         }
         
+        /**
+         * Returns the number of groups waiting to be emitted plus the number of values
+         * waiting in the active groups; meant for monitoring purposes.
+         * @return the number of groups and values waiting
+         */
+        int queueSize() {
+            int n = queue.size();
+            try {
+                for (GroupedUnicast<K, V> g : groups.values()) {
+                    n += g.state.queue.size();
+                }
+            } catch (RuntimeException ex) {
+                // a custom map need not be thread-safe; report what we could count
+            }
+            return n;
+        }
+        
         void errorAll(Subscriber<? super GroupedObservable<K, V>> a, Queue<?> q, Throwable ex) {
             q.clear();
+            if (evictedGroups != null) {
+                completeEvictions();
+            }
             List<GroupedUnicast<K, V>> list = new ArrayList<GroupedUnicast<K, V>>(groups.values());
             groups.clear();
             
@@ -290,6 +452,9 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
                     return true;
                 } else
                 if (empty) {
+                    if (evictedGroups != null) {
+                        completeEvictions();
+                    }
                     List<GroupedUnicast<K, V>> list = new ArrayList<GroupedUnicast<K, V>>(groups.values());
                     groups.clear();
                     
@@ -332,7 +497,7 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         }
     }
     
-    static final class State<T, K> extends AtomicInteger implements Subscription, Publisher<T> {
+    static final class State<T, K> extends BasicIntQueueSubscription<T> implements Publisher<T> {
         /** */
         private static final long serialVersionUID = -3852313036005250360L;
 
@@ -364,6 +529,18 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         static final AtomicIntegerFieldUpdater<State> ONCE =
                 AtomicIntegerFieldUpdater.newUpdater(State.class, "once");
 
+        /** Set once the group is no longer counted by the parent, either by cancellation or eviction. */
+        volatile int detached;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<State> DETACHED =
+                AtomicIntegerFieldUpdater.newUpdater(State.class, "detached");
+
+        /** Indicates the downstream polls the group's queue directly. */
+        boolean outputFused;
+        
+        /** The number of values polled by a fused downstream, not yet requested from the main source. */
+        int produced;
+
         public State(int bufferSize, GroupBySubscriber<?, K, T> parent, K key, boolean delayError) {
             this.queue = new SpscLinkedArrayQueue<T>(bufferSize);
             this.parent = parent;
@@ -384,11 +561,19 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         public void cancel() {
             if (CANCELLED.compareAndSet(this, 0, 1)) {
                 if (getAndIncrement() == 0) {
-                    parent.cancel(key);
+                    parent.cancel(this);
                 }
             }
         }
         
+        /**
+         * Atomically marks this group as detached from the parent.
+         * @return true if this call detached the group
+         */
+        boolean detach() {
+            return detached == 0 && DETACHED.compareAndSet(this, 0, 1);
+        }
+        
         @Override
         public void subscribe(Subscriber<? super T> s) {
             if (ONCE.compareAndSet(this, 0, 1)) {
@@ -425,6 +610,62 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
             if (getAndIncrement() != 0) {
                 return;
             }
+            if (outputFused) {
+                drainFused();
+            } else {
+                drainNormal();
+            }
+        }
+        
+        void drainFused() {
+            int missed = 1;
+            
+            final Queue<T> q = queue;
+            Subscriber<? super T> a = actual;
+            
+            for (;;) {
+                if (a != null) {
+                    if (cancelled != 0) {
+                        q.clear();
+                        parent.cancel(this);
+                        return;
+                    }
+                    
+                    boolean d = done;
+                    
+                    if (d && !delayError) {
+                        Throwable ex = error;
+                        if (ex != null) {
+                            q.clear();
+                            a.onError(ex);
+                            return;
+                        }
+                    }
+                    
+                    a.onNext(null);
+                    
+                    if (d) {
+                        Throwable ex = error;
+                        if (ex != null) {
+                            a.onError(ex);
+                        } else {
+                            a.onComplete();
+                        }
+                        return;
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+                if (a == null) {
+                    a = actual;
+                }
+            }
+        }
+        
+        void drainNormal() {
             int missed = 1;
             
             final Queue<T> q = queue;
@@ -480,7 +721,7 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
         boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a, boolean delayError) {
             if (cancelled != 0) {
                 queue.clear();
-                parent.cancel(key);
+                parent.cancel(this);
                 return true;
             }
             
@@ -511,5 +752,45 @@ public final class OperatorGroupBy<T, K, V> implements Operator<GroupedObservabl
             
             return false;
         }
+        
+        @Override
+        public int requestFusion(int mode) {
+            if ((mode & ASYNC) != 0) {
+                outputFused = true;
+                return ASYNC;
+            }
+            return NONE;
+        }
+        
+        @Override
+        public T poll() {
+            T v = queue.poll();
+            if (v != null) {
+                produced++;
+                return v;
+            }
+            // replenish the main source with the amount consumed so far
+            int p = produced;
+            if (p != 0) {
+                produced = 0;
+                parent.s.request(p);
+            }
+            return null;
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+        
+        @Override
+        public int size() {
+            return queue.size();
+        }
+        
+        @Override
+        public void clear() {
+            queue.clear();
+        }
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ package hu.akarnokd.rxjava2.internal.operators;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 
 public enum OperatorIgnoreElements implements Operator<Object, Object> {
     INSTANCE;
@@ -29,7 +30,7 @@ public enum OperatorIgnoreElements implements Operator<Object, Object> {
         return new Subscriber<Object>() {
             @Override
             public void onSubscribe(Subscription s) {
-                t.onSubscribe(s);
+                t.onSubscribe(SubscriptionHelper.hideFusion(s));
                 s.request(Long.MAX_VALUE);
             }
             
@@ -50,7 +50,7 @@ public final class OperatorMap<T, U> implements Operator<U, T> {
                 return;
             }
             subscription = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         @Override
         public void onNext(T t) {
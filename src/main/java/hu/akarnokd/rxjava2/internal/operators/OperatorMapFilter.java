@@ -0,0 +1,202 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Executes a sequence of consecutive map and filter stages in a single Subscriber,
+ * avoiding the per-stage onNext and request(1) hops of individually lifted
+ * OperatorMap and OperatorFilter instances.
+ * 
+ * <p>Use {@link #fuse(Publisher, Object, boolean)} at assembly time to 
+ * collapse a new map or filter stage into the preceding stages.
+ * 
+ * @param <T> the upstream value type
+ * @param <R> the downstream value type
+ */
+public final class OperatorMapFilter<T, R> implements Operator<R, T> {
+    /** The stages in application order, each a Function or a Predicate. */
+    final Object[] stages;
+    /** Indicates which of the stages are filters (Predicates). */
+    final boolean[] filters;
+    
+    OperatorMapFilter(Object[] stages, boolean[] filters) {
+        this.stages = stages;
+        this.filters = filters;
+    }
+    
+    /**
+     * Collapses the given map (Function) or filter (Predicate) stage into the source 
+     * if the source is a lifted OperatorMap, OperatorFilter or OperatorMapFilter.
+     * @param <T> the source value type
+     * @param <R> the result value type
+     * @param source the source Publisher
+     * @param stage the Function or Predicate to append
+     * @param filter true if the stage is a Predicate
+     * @return the new Publisher or null if the source is not a fusable stage
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static <T, R> Publisher<R> fuse(Publisher<T> source, Object stage, boolean filter) {
+        if (source instanceof PublisherLift) {
+            PublisherLift<?, ?> lift = (PublisherLift<?, ?>) source;
+            Operator<?, ?> op = lift.operator();
+            
+            Object[] stages;
+            boolean[] filters;
+            if (op instanceof OperatorMap) {
+                stages = new Object[] { ((OperatorMap<?, ?>)op).function, stage };
+                filters = new boolean[] { false, filter };
+            } else
+            if (op instanceof OperatorFilter) {
+                stages = new Object[] { ((OperatorFilter<?>)op).predicate, stage };
+                filters = new boolean[] { true, filter };
+            } else
+            if (op instanceof OperatorMapFilter) {
+                OperatorMapFilter<?, ?> mf = (OperatorMapFilter<?, ?>) op;
+                int n = mf.stages.length;
+                
+                stages = new Object[n + 1];
+                System.arraycopy(mf.stages, 0, stages, 0, n);
+                stages[n] = stage;
+                
+                filters = new boolean[n + 1];
+                System.arraycopy(mf.filters, 0, filters, 0, n);
+                filters[n] = filter;
+            } else {
+                return null;
+            }
+            return new PublisherLift(lift.source(), new OperatorMapFilter(stages, filters));
+        }
+        return null;
+    }
+    
+    @Override
+    public Subscriber<? super T> apply(Subscriber<? super R> t) {
+        return new MapFilterSubscriber<T, R>(t, stages, filters);
+    }
+    
+    static final class MapFilterSubscriber<T, R> implements ConditionalSubscriber<T> {
+        final Subscriber<? super R> actual;
+        /** The downstream if it is a ConditionalSubscriber, null otherwise. */
+        final ConditionalSubscriber<? super R> conditional;
+        final Object[] stages;
+        final boolean[] filters;
+        
+        Subscription subscription;
+        
+        boolean done;
+        
+        public MapFilterSubscriber(Subscriber<? super R> actual, Object[] stages, boolean[] filters) {
+            this.actual = actual;
+            this.stages = stages;
+            this.filters = filters;
+            this.conditional = actual instanceof ConditionalSubscriber 
+                    ? (ConditionalSubscriber<? super R>)actual : null;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.subscription, s)) {
+                return;
+            }
+            subscription = s;
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (!onNextIf(t) && !done) {
+                subscription.request(1);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean onNextIf(T t) {
+            if (done) {
+                return true;
+            }
+            final Object[] stages = this.stages;
+            final boolean[] filters = this.filters;
+            final int n = stages.length;
+            
+            Object v = t;
+            
+            for (int i = 0; i < n; i++) {
+                if (filters[i]) {
+                    boolean b;
+                    try {
+                        b = ((Predicate<Object>)stages[i]).test(v);
+                    } catch (Throwable e) {
+                        fail(e);
+                        return true;
+                    }
+                    if (!b) {
+                        return false;
+                    }
+                } else {
+                    try {
+                        v = ((Function<Object, Object>)stages[i]).apply(v);
+                    } catch (Throwable e) {
+                        fail(e);
+                        return true;
+                    }
+                    if (v == null) {
+                        fail(new NullPointerException("Value returned by the function is null"));
+                        return true;
+                    }
+                }
+            }
+            
+            ConditionalSubscriber<? super R> c = conditional;
+            if (c != null) {
+                return c.onNextIf((R)v);
+            }
+            actual.onNext((R)v);
+            return true;
+        }
+        
+        void fail(Throwable e) {
+            done = true;
+            subscription.cancel();
+            actual.onError(e);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+    }
+}
@@ -23,18 +23,38 @@ import hu.akarnokd.rxjava2.Scheduler;
 import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
 import hu.akarnokd.rxjava2.internal.queue.*;
 import hu.akarnokd.rxjava2.internal.schedulers.TrampolineScheduler;
-import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.subscribers.MetricsSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.*;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.*;
 
 public final class OperatorObserveOn<T> implements Operator<T, T> {
     final Scheduler scheduler;
     final boolean delayError;
     final int bufferSize;
+    final int limit;
+    final int emitBatch;
+    
     public OperatorObserveOn(Scheduler scheduler, boolean delayError, int bufferSize) {
+        this(scheduler, delayError, bufferSize, bufferSize - (bufferSize >> 2), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Constructs an instance with the given replenishment and emission batch sizes.
+     * @param scheduler the scheduler to emit the events on
+     * @param delayError delay the error until all the values have been emitted?
+     * @param bufferSize the number of values to prefetch
+     * @param limit the number of values emitted after which the same amount is requested from
+     * the upstream, between 1 and bufferSize
+     * @param emitBatch the maximum number of values emitted in one scheduled run before the
+     * drain yields the worker and reschedules itself, Integer.MAX_VALUE for unbounded
+     */
+    public OperatorObserveOn(Scheduler scheduler, boolean delayError, int bufferSize, int limit, int emitBatch) {
         this.scheduler = scheduler;
         this.delayError = delayError;
         this.bufferSize = bufferSize;
+        this.limit = limit;
+        this.emitBatch = emitBatch;
     }
     
     @Override
@@ -45,13 +65,28 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
         
         Scheduler.Worker w = scheduler.createWorker();
         
-        return new ObserveOnSubscriber<T>(t, w, delayError, bufferSize);
+        OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+        if (m != null) {
+            MetricsSubscriber<T> ms = new MetricsSubscriber<T>(t, m, "observeOn");
+            final ObserveOnSubscriber<T> parent = new ObserveOnSubscriber<T>(ms, w, delayError, bufferSize, limit, emitBatch);
+            ms.setGauge(new MetricsSubscriber.Gauge() {
+                @Override
+                public int queueSize() {
+                    Queue<T> q = parent.queue;
+                    return q != null ? q.size() : 0;
+                }
+            });
+            return parent;
+        }
+        
+        return new ObserveOnSubscriber<T>(t, w, delayError, bufferSize, limit, emitBatch);
     }
     
     /**
      * Pads the base atomic integer used for wip counting.
+     * @param <T> the value type
      */
-    static class Padding0 extends AtomicInteger {
+    static abstract class Padding0<T> extends BasicIntQueueSubscription<T> {
         /** */
         private static final long serialVersionUID = 3172843496016154809L;
         
@@ -60,12 +95,14 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
     
     /**
      * Contains the requested amount.
+     * @param <T> the value type
      */
-    static class Padding1 extends Padding0 {
+    static abstract class Padding1<T> extends Padding0<T> {
         /** */
         private static final long serialVersionUID = 7659422588548271214L;
         
         volatile long requested;
+        @SuppressWarnings("rawtypes")
         static final AtomicLongFieldUpdater<Padding1> REQUESTED =
                 AtomicLongFieldUpdater.newUpdater(Padding1.class, "requested");
         
@@ -73,22 +110,29 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
     
     /**
      * Pads the requested amount away from the effectively constant fields
+     * @param <T> the value type
      */
-    static class Padding2 extends Padding1 {
+    static abstract class Padding2<T> extends Padding1<T> {
         /** */
         private static final long serialVersionUID = 227348361328175380L;
         volatile long p11, p12, p13, p14, p15, p16, p17;
     }
     
-    static final class ObserveOnSubscriber<T> extends Padding2 implements Subscriber<T>, Subscription, Runnable {
+    static final class ObserveOnSubscriber<T> extends Padding2<T> implements Subscriber<T>, Runnable {
         /** */
         private static final long serialVersionUID = 6576896619930983584L;
         final Subscriber<? super T> actual;
         final Scheduler.Worker worker;
         final boolean delayError;
         final int bufferSize;
-        final Queue<T> queue;
         final int limit;
+        final int emitBatch;
+        
+        /** 
+         * The queue holding the values, either an own SPSC queue or the upstream's 
+         * QueueSubscription if fusion was established. 
+         */
+        Queue<T> queue;
         
         Subscription s;
         
@@ -99,19 +143,20 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
         
         long emitted;
         
-        public ObserveOnSubscriber(Subscriber<? super T> actual, Scheduler.Worker worker, boolean delayError, int bufferSize) {
+        /** The fusion mode established with the upstream. */
+        int sourceMode;
+        
+        /** Indicates the downstream polls this operator's queue directly. */
+        boolean outputFused;
+        
+        public ObserveOnSubscriber(Subscriber<? super T> actual, Scheduler.Worker worker, boolean delayError, 
+                int bufferSize, int limit, int emitBatch) {
             this.actual = actual;
             this.worker = worker;
             this.delayError = delayError;
             this.bufferSize = bufferSize;
-            this.limit = bufferSize - (bufferSize >> 2);
-            Queue<T> q;
-            if (Pow2.isPowerOfTwo(bufferSize)) {
-                q = new SpscArrayQueue<T>(bufferSize);
-            } else {
-                q = new SpscExactArrayQueue<T>(bufferSize);
-            }
-            this.queue = q;
+            this.limit = limit;
+            this.emitBatch = emitBatch;
         }
         
         @Override
@@ -120,6 +165,40 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
+            
+            if (s instanceof QueueSubscription) {
+                @SuppressWarnings("unchecked")
+                QueueSubscription<T> qs = (QueueSubscription<T>) s;
+                
+                int m = qs.requestFusion(QueueSubscription.ANY | QueueSubscription.BOUNDARY);
+                
+                if (m == QueueSubscription.SYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    done = true;
+                    
+                    actual.onSubscribe(this);
+                    return;
+                } else
+                if (m == QueueSubscription.ASYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    
+                    actual.onSubscribe(this);
+                    
+                    s.request(bufferSize);
+                    return;
+                }
+            }
+            
+            Queue<T> q;
+            if (Pow2.isPowerOfTwo(bufferSize)) {
+                q = new SpscArrayQueue<T>(bufferSize);
+            } else {
+                q = new SpscExactArrayQueue<T>(bufferSize);
+            }
+            this.queue = q;
+            
             actual.onSubscribe(this);
             s.request(bufferSize);
         }
@@ -129,6 +208,11 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
             if (done) {
                 return;
             }
+            if (sourceMode == QueueSubscription.ASYNC) {
+                // the value is in the upstream's queue already
+                schedule();
+                return;
+            }
             
             if (!queue.offer(t)) {
                 s.cancel();
@@ -184,6 +268,17 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
         
         @Override
         public void run() {
+            if (outputFused) {
+                runBackfused();
+            } else
+            if (sourceMode == QueueSubscription.SYNC) {
+                runSync();
+            } else {
+                runAsync();
+            }
+        }
+        
+        void runAsync() {
             int missed = 1;
             
             long currentEmission = emitted;
@@ -193,6 +288,8 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
             // of the constant fields
             final Queue<T> q = this.queue;
             final Subscriber<? super T> localChild = this.actual;
+            final int batch = emitBatch;
+            int emittedInRun = 0;
             
             // requested and counter are not included to avoid JIT issues with register spilling
             // and their access is is amortized because they are part of the outer loop which runs
@@ -203,7 +300,19 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
                 
                 while (requestAmount != currentEmission) {
                     boolean done = this.done;
-                    T v = q.poll();
+                    T v;
+                    
+                    try {
+                        v = q.poll();
+                    } catch (Throwable ex) {
+                        // only a fused upstream queue can throw here
+                        s.cancel();
+                        q.clear();
+                        localChild.onError(ex);
+                        worker.dispose();
+                        return;
+                    }
+                    
                     boolean empty = v == null;
                     
                     if (checkTerminated(done, empty, localChild, q)) {
@@ -222,6 +331,12 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
                         s.request(currentEmission);
                         currentEmission = 0L;
                     }
+                    
+                    if (++emittedInRun == batch) {
+                        emitted = currentEmission;
+                        yieldWorker();
+                        return;
+                    }
                 }
                 
                 if (requestAmount == currentEmission) {
@@ -238,6 +353,119 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
             }
         }
         
+        /**
+         * Reschedules the drain without leaving it so the other tasks of the
+         * worker get a chance to run; the work-in-progress count is kept non-zero 
+         * thus no other thread will start a drain meanwhile.
+         */
+        void yieldWorker() {
+            if (!cancelled) {
+                worker.schedule(this);
+            }
+        }
+        
+        /**
+         * Drains a synchronously fused upstream: there are no onXXX calls, the
+         * upstream is exhausted when poll() returns null and no replenishment is needed.
+         */
+        void runSync() {
+            int missed = 1;
+            
+            long e = emitted;
+            
+            final Queue<T> q = this.queue;
+            final Subscriber<? super T> a = this.actual;
+            final int batch = emitBatch;
+            int emittedInRun = 0;
+            
+            for (;;) {
+                long r = requested;
+                
+                while (r != e) {
+                    T v;
+                    
+                    try {
+                        v = q.poll();
+                    } catch (Throwable ex) {
+                        s.cancel();
+                        a.onError(ex);
+                        worker.dispose();
+                        return;
+                    }
+                    
+                    if (cancelled) {
+                        return;
+                    }
+                    
+                    if (v == null) {
+                        a.onComplete();
+                        worker.dispose();
+                        return;
+                    }
+                    
+                    a.onNext(v);
+                    
+                    e++;
+                    
+                    if (++emittedInRun == batch) {
+                        emitted = e;
+                        yieldWorker();
+                        return;
+                    }
+                }
+                
+                if (cancelled) {
+                    return;
+                }
+                
+                if (q.isEmpty()) {
+                    a.onComplete();
+                    worker.dispose();
+                    return;
+                }
+                
+                emitted = e;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        /**
+         * Signals the availability of values to a downstream which polls this
+         * operator's queue directly.
+         */
+        void runBackfused() {
+            int missed = 1;
+            
+            for (;;) {
+                if (cancelled) {
+                    return;
+                }
+                
+                boolean d = done;
+                
+                actual.onNext(null);
+                
+                if (d) {
+                    Throwable e = error;
+                    if (e != null) {
+                        actual.onError(e);
+                    } else {
+                        actual.onComplete();
+                    }
+                    worker.dispose();
+                    return;
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
         boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a, Queue<?> q) {
             if (cancelled) {
                 s.cancel();
@@ -273,5 +501,44 @@ public final class OperatorObserveOn<T> implements Operator<T, T> {
             }
             return false;
         }
+        
+        @Override
+        public int requestFusion(int mode) {
+            if ((mode & ASYNC) != 0) {
+                outputFused = true;
+                return ASYNC;
+            }
+            return NONE;
+        }
+        
+        @Override
+        public T poll() {
+            T v = queue.poll();
+            if (v != null && sourceMode != SYNC) {
+                long p = emitted + 1;
+                if (p == limit) {
+                    emitted = 0L;
+                    s.request(p);
+                } else {
+                    emitted = p;
+                }
+            }
+            return v;
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+        
+        @Override
+        public int size() {
+            return queue.size();
+        }
+        
+        @Override
+        public void clear() {
+            queue.clear();
+        }
     }
 }
@@ -21,8 +21,10 @@ import org.reactivestreams.*;
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
 import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscribers.MetricsSubscriber;
 import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.plugins.*;
 
 public final class OperatorOnBackpressureBuffer<T> implements Operator<T, T> {
     final int bufferSize;
@@ -39,6 +41,23 @@ public final class OperatorOnBackpressureBuffer<T> implements Operator<T, T> {
     
     @Override
     public Subscriber<? super T> apply(Subscriber<? super T> t) {
+        OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+        if (m != null) {
+            MetricsSubscriber<T> ms = new MetricsSubscriber<T>(t, m, "onBackpressureBuffer");
+            final BackpressureBufferSubscriber<T> parent = new BackpressureBufferSubscriber<T>(ms, bufferSize, unbounded, delayError, onOverflow);
+            ms.setGauge(new MetricsSubscriber.Gauge() {
+                @Override
+                public int queueSize() {
+                    return parent.queue.size();
+                }
+                
+                @Override
+                public long dropped() {
+                    return 0L;
+                }
+            });
+            return parent;
+        }
         return new BackpressureBufferSubscriber<T>(t, bufferSize, unbounded, delayError, onOverflow);
     }
     
@@ -0,0 +1,313 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.BackpressureOverflow;
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.internal.subscribers.MetricsSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
+import hu.akarnokd.rxjava2.plugins.*;
+
+/**
+ * Buffers up to a fixed number of values in a ring buffer and applies an overflow strategy
+ * when the buffer is full.
+ * 
+ * @param <T> the value type
+ */
+public final class OperatorOnBackpressureBufferStrategy<T> implements Operator<T, T> {
+    final int capacity;
+    final Runnable onOverflow;
+    final BackpressureOverflow.Strategy strategy;
+    
+    public OperatorOnBackpressureBufferStrategy(int capacity, Runnable onOverflow, BackpressureOverflow.Strategy strategy) {
+        this.capacity = capacity;
+        this.onOverflow = onOverflow;
+        this.strategy = strategy;
+    }
+    
+    @Override
+    public Subscriber<? super T> apply(Subscriber<? super T> t) {
+        OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+        if (m != null) {
+            MetricsSubscriber<T> ms = new MetricsSubscriber<T>(t, m, "onBackpressureBuffer");
+            final BackpressureBufferStrategySubscriber<T> parent = new BackpressureBufferStrategySubscriber<T>(ms, capacity, onOverflow, strategy);
+            ms.setGauge(new MetricsSubscriber.Gauge() {
+                @Override
+                public int queueSize() {
+                    return parent.size();
+                }
+                
+                @Override
+                public long dropped() {
+                    return parent.dropped;
+                }
+            });
+            return parent;
+        }
+        return new BackpressureBufferStrategySubscriber<T>(t, capacity, onOverflow, strategy);
+    }
+    
+    static final class BackpressureBufferStrategySubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription {
+        /** */
+        private static final long serialVersionUID = 3240706908776709697L;
+        
+        final Subscriber<? super T> actual;
+        final Runnable onOverflow;
+        final BackpressureOverflow.Strategy strategy;
+        
+        /** The ring buffer, guarded by this. */
+        final Object[] ring;
+        /** The index of the oldest value in the ring, guarded by this. */
+        int head;
+        /** The number of values in the ring, guarded by this. */
+        int count;
+        
+        Subscription s;
+        
+        volatile boolean cancelled;
+        
+        volatile boolean done;
+        Throwable error;
+        
+        volatile long requested;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BackpressureBufferStrategySubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BackpressureBufferStrategySubscriber.class, "requested");
+        
+        /** The number of values dropped so far, written by onNext only. */
+        volatile long dropped;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BackpressureBufferStrategySubscriber> DROPPED =
+                AtomicLongFieldUpdater.newUpdater(BackpressureBufferStrategySubscriber.class, "dropped");
+        
+        public BackpressureBufferStrategySubscriber(Subscriber<? super T> actual, int capacity,
+                Runnable onOverflow, BackpressureOverflow.Strategy strategy) {
+            this.actual = actual;
+            this.onOverflow = onOverflow;
+            this.strategy = strategy;
+            this.ring = new Object[capacity];
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            boolean overflow;
+            synchronized (this) {
+                Object[] a = ring;
+                int n = a.length;
+                int c = count;
+                if (c == n) {
+                    overflow = true;
+                    if (strategy == BackpressureOverflow.Strategy.DROP_OLDEST) {
+                        int h = head;
+                        a[h] = t;
+                        head = h + 1 == n ? 0 : h + 1;
+                    }
+                } else {
+                    overflow = false;
+                    int idx = head + c;
+                    a[idx >= n ? idx - n : idx] = t;
+                    count = c + 1;
+                }
+            }
+            if (overflow) {
+                if (strategy == BackpressureOverflow.Strategy.ERROR) {
+                    s.cancel();
+                    MissingBackpressureException ex = new MissingBackpressureException("Buffer is full");
+                    try {
+                        onOverflow.run();
+                    } catch (Throwable e) {
+                        ex.initCause(e);
+                    }
+                    onError(ex);
+                    return;
+                }
+                DROPPED.lazySet(this, dropped + 1);
+                try {
+                    onOverflow.run();
+                } catch (Throwable e) {
+                    s.cancel();
+                    onError(e);
+                    return;
+                }
+            }
+            drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            BackpressureHelper.add(REQUESTED, this, n);
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                
+                if (getAndIncrement() == 0) {
+                    clear();
+                    s.cancel();
+                }
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        synchronized T poll() {
+            int c = count;
+            if (c == 0) {
+                return null;
+            }
+            Object[] a = ring;
+            int h = head;
+            Object v = a[h];
+            a[h] = null;
+            head = h + 1 == a.length ? 0 : h + 1;
+            count = c - 1;
+            return (T)v;
+        }
+        
+        synchronized int size() {
+            return count;
+        }
+        
+        synchronized void clear() {
+            Object[] a = ring;
+            int n = a.length;
+            int h = head;
+            for (int i = count; i > 0; i--) {
+                a[h] = null;
+                h = h + 1 == n ? 0 : h + 1;
+            }
+            head = 0;
+            count = 0;
+        }
+        
+        void drain() {
+            if (getAndIncrement() == 0) {
+                int missed = 1;
+                final Subscriber<? super T> a = actual;
+                for (;;) {
+                    
+                    if (checkTerminated(done, size() == 0, a)) {
+                        return;
+                    }
+                    
+                    long r = requested;
+                    boolean unbounded = r == Long.MAX_VALUE;
+                    
+                    long e = 0L;
+                    
+                    while (r != 0L) {
+                        boolean d = done;
+                        T v = poll();
+                        boolean empty = v == null;
+                        
+                        if (checkTerminated(d, empty, a)) {
+                            return;
+                        }
+                        
+                        if (empty) {
+                            break;
+                        }
+                        
+                        a.onNext(v);
+                        
+                        r--;
+                        e--;
+                    }
+                    
+                    // the request may have been exactly what the finished upstream left in the buffer
+                    if (r == 0L && checkTerminated(done, size() == 0, a)) {
+                        return;
+                    }
+                    
+                    if (e != 0L) {
+                        if (!unbounded) {
+                            REQUESTED.addAndGet(this, e);
+                        }
+                    }
+                    
+                    missed = addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        
+        boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a) {
+            if (cancelled) {
+                s.cancel();
+                clear();
+                return true;
+            }
+            if (d) {
+                Throwable e = error;
+                if (e != null) {
+                    clear();
+                    a.onError(e);
+                    return true;
+                } else
+                if (empty) {
+                    a.onComplete();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -18,14 +18,17 @@ import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
-import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
+import hu.akarnokd.rxjava2.internal.operators.OperatorOnBackpressureBufferStrategy.BackpressureBufferStrategySubscriber;
 import hu.akarnokd.rxjava2.internal.queue.SpscArrayQueue;
+import hu.akarnokd.rxjava2.internal.subscribers.MetricsSubscriber;
 import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.NotificationLite;
 import hu.akarnokd.rxjava2.observables.ConnectableObservable;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.*;
 
 /**
  * A connectable observable which shares an underlying source and dispatches source values to subscribers in a backpressure-aware
@@ -49,11 +52,40 @@ public final class OperatorPublish<T> extends ConnectableObservable<T> {
      * @return the connectable observable
      */
     public static <T> ConnectableObservable<T> create(Observable<? extends T> source, final int bufferSize) {
+        return create(source, bufferSize, 0, null);
+    }
+
+    /**
+     * Creates a OperatorPublish instance to publish values of the given source observable
+     * where, if subscriberCapacity is positive, each child subscriber is isolated by its
+     * own bounded buffer so a slow child doesn't throttle the others; overflowing values are
+     * handled per child by the given strategy.
+     * @param <T> the source value type
+     * @param source the source observable
+     * @param bufferSize the size of the prefetch buffer
+     * @param subscriberCapacity the per-child buffer size, zero disables the isolation
+     * @param overflowStrategy the strategy applied when a child's buffer is full
+     * @return the connectable observable
+     */
+    public static <T> ConnectableObservable<T> create(Observable<? extends T> source, final int bufferSize,
+            final int subscriberCapacity, final BackpressureOverflow.Strategy overflowStrategy) {
         // the current connection to source needs to be shared between the operator and its onSubscribe call
         final AtomicReference<PublishSubscriber<T>> curr = new AtomicReference<PublishSubscriber<T>>();
         Publisher<T> onSubscribe = new Publisher<T>() {
             @Override
             public void subscribe(Subscriber<? super T> child) {
+                MetricsSubscriber<T> ms = null;
+                OperatorMetrics m = RxJavaPlugins.getOperatorMetrics();
+                if (m != null) {
+                    ms = new MetricsSubscriber<T>(child, m, "publish");
+                    child = ms;
+                }
+                if (subscriberCapacity > 0) {
+                    // the child consumes at its own pace from its own buffer while
+                    // the dispatch loop sees it as an unbounded requester
+                    child = new BackpressureBufferStrategySubscriber<T>(child, subscriberCapacity, 
+                            Functions.emptyRunnable(), overflowStrategy);
+                }
                 // concurrent connection/disconnection may change the state, 
                 // we loop to be atomic while the child subscribes
                 for (;;) {
@@ -110,6 +142,15 @@ public final class OperatorPublish<T> extends ConnectableObservable<T> {
                     // at least it will receive the next terminal event
                     // setting the producer will trigger the first request to be considered by 
                     // the subscriber-to-source.
+                    if (ms != null) {
+                        final PublishSubscriber<T> parent = r;
+                        ms.setGauge(new MetricsSubscriber.Gauge() {
+                            @Override
+                            public int queueSize() {
+                                return parent.queue.size();
+                            }
+                        });
+                    }
                     child.onSubscribe(inner);
                     break;
                 }
@@ -215,10 +256,10 @@ public final class OperatorPublish<T> extends ConnectableObservable<T> {
          */
         final AtomicBoolean shouldConnect;
         
-        /** Guarded by this. */
-        boolean emitting;
-        /** Guarded by this. */
-        boolean missed;
+        /** Counts the dispatch requests; only the thread incrementing it from zero emits. */
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<PublishSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(PublishSubscriber.class, "wip");
         
         volatile Subscription s;
         static final AtomicReferenceFieldUpdater<PublishSubscriber, Subscription> S =
@@ -468,25 +509,21 @@ public final class OperatorPublish<T> extends ConnectableObservable<T> {
          * requesting more.
          */
         void dispatch() {
-            // standard construct of emitter loop (blocking)
-            // if there is an emission going on, indicate that more work needs to be done
+            // standard queue-drain construct (non-blocking)
+            // if there is an emission going on, the increment indicates that more work needs to be done
             // the exact nature of this work needs to be determined from other data structures
-            synchronized (this) {
-                if (emitting) {
-                    missed = true;
-                    return;
-                }
-                // there was no emission going on, we won and will start emitting
-                emitting = true;
-                missed = false;
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
             }
+            // there was no emission going on, we won and will start emitting
+            int missed = 1;
             /*
-             * In case an exception is thrown in the loop, we need to set emitting back to false
-             * on the way out (the exception will propagate up) so if it bounces back and
+             * In case an exception is thrown in the loop, we need to reset the work-in-progress
+             * counter on the way out (the exception will propagate up) so if it bounces back and
              * onError is called, its dispatch() call will have the opportunity to emit it.
-             * However, if we want to exit regularly, we will set the emitting to false (+ other operations)
-             * atomically so we want to prevent the finally part to accidentally unlock some other
-             * emissions happening between the two synchronized blocks.
+             * However, if we want to exit regularly, the counter is decremented atomically
+             * so we want to prevent the finally part to accidentally unlock some other
+             * emissions happening concurrently.
              */
             boolean skipFinal = false;
             try {
@@ -619,28 +656,21 @@ public final class OperatorPublish<T> extends ConnectableObservable<T> {
                     
                     // we did what we could: either the queue is empty or child subscribers
                     // haven't requested more (or both), let's try to finish dispatching
-                    synchronized (this) {
-                        // since missed is changed atomically, if we see it as true
-                        // it means some state has changed and we need to loop again
-                        // and handle that case
-                        if (!missed) {
-                            // but if no missed dispatch happened, let's stop emitting
-                            emitting = false;
-                            // and skip the emitting = false in the finally block as well
-                            skipFinal = true;
-                            return;
-                        }
-                        // we acknowledge the missed changes so far
-                        missed = false;
+                    // we acknowledge the missed changes so far; if the counter is still
+                    // non-zero, some state has changed and we need to loop again
+                    // and handle that case
+                    missed = WIP.addAndGet(this, -missed);
+                    if (missed == 0) {
+                        // no missed dispatch happened, skip the reset in the finally block
+                        skipFinal = true;
+                        return;
                     }
                 }
             } finally {
                 // unless returned cleanly (i.e., some method above threw)
                 if (!skipFinal) {
                     // we stop emitting so the error can propagate back down through onError
-                    synchronized (this) {
-                        emitting = false;
-                    }
+                    WIP.lazySet(this, 0);
                 }
             }
         }
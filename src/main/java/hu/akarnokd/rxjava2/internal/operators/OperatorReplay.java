@@ -25,9 +25,9 @@ import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.functions.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.internal.util.ChunkedReplayList.Cursor;
 import hu.akarnokd.rxjava2.observables.ConnectableObservable;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
-import hu.akarnokd.rxjava2.schedulers.Timed;
 
 public final class OperatorReplay<T> extends ConnectableObservable<T> {
     /** The source observable. */
@@ -834,102 +834,71 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
     }
     
     /**
-     * Represents a node in a bounded replay buffer's linked list.
-     */
-    static final class Node extends AtomicReference<Node> {
-        /** */
-        private static final long serialVersionUID = 245354315435971818L;
-        final Object value;
-        final long index;
-        public Node(Object value, long index) {
-            this.value = value;
-            this.index = index;
-        }
-    }
-    
-    /**
-     * Base class for bounded buffering with options to specify an
-     * enter and leave transforms and custom truncation behavior.
+     * Base class for bounded buffering, storing the events and their optional
+     * timestamps in array chunks, with custom truncation behavior.
      *
      * @param <T> the value type
      */
-    static class BoundedReplayBuffer<T> extends AtomicReference<Node> implements ReplayBuffer<T> {
-        /** */
-        private static final long serialVersionUID = 2346567790059478686L;
+    static class BoundedReplayBuffer<T> implements ReplayBuffer<T> {
+        /** Holds the events in array chunks; the absolute index of an event is its sequence number. */
+        final ChunkedReplayList list;
         
-        Node tail;
-        int size;
+        /** The last event added, for the test methods. */
+        Object last;
         
-        long index;
+        /** The number of live events, accessed by the producer only. */
+        int size;
         
         public BoundedReplayBuffer() {
-            Node n = new Node(null, 0);
-            tail = n;
-            set(n);
+            this(ChunkedReplayList.DEFAULT_CHUNK_SIZE, false);
+        }
+        
+        BoundedReplayBuffer(int chunkSize, boolean timed) {
+            this.list = new ChunkedReplayList(chunkSize, timed);
         }
         
         /**
-         * Add a new node to the linked list.
-         * @param n
+         * Add a new event to the end of the list.
+         * @param value the NotificationLite event
          */
-        final void addLast(Node n) {
-            tail.set(n);
-            tail = n;
+        final void addLast(Object value) {
+            list.add(value, now());
+            last = value;
             size++;
         }
         /**
-         * Remove the first node from the linked list.
+         * Remove the first event from the list.
          */
         final void removeFirst() {
-            Node head = get();
-            Node next = head.get();
-            if (next == null) {
+            if (size == 0) {
                 throw new IllegalStateException("Empty list!");
             }
             size--;
-            // can't just move the head because it would retain the very first value
-            // can't null out the head's value because of late replayers would see null
-            setFirst(next);
+            // the dropped value is not cleared because late replayers may still read it
+            ChunkedReplayList l = list;
+            l.moveStart(l.start() + 1);
         }
         /* test */ final void removeSome(int n) {
-            Node head = get();
-            while (n > 0) {
-                head = head.get();
-                n--;
-                size--;
-            }
-            
-            setFirst(head);
-        }
-        /**
-         * Arranges the given node is the new head from now on.
-         * @param n
-         */
-        final void setFirst(Node n) {
-            set(n);
+            size -= n;
+            ChunkedReplayList l = list;
+            l.moveStart(l.start() + n);
         }
         
         @Override
         public final void next(T value) {
-            Object o = enterTransform(NotificationLite.next(value));
-            Node n = new Node(o, ++index);
-            addLast(n);
+            addLast(NotificationLite.next(value));
             truncate();
         }
 
         @Override
         public final void error(Throwable e) {
-            Object o = enterTransform(NotificationLite.error(e));
-            Node n = new Node(o, ++index);
-            addLast(n);
+            addLast(NotificationLite.error(e));
             truncateFinal();
         }
 
         @Override
         public final void complete() {
-            Object o = enterTransform(NotificationLite.complete());
-            Node n = new Node(o, ++index);
-            addLast(n);
+            addLast(NotificationLite.complete());
             truncateFinal();
         }
 
@@ -942,6 +911,7 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
                 }
                 output.emitting = true;
             }
+            final ChunkedReplayList l = list;
             for (;;) {
                 if (output.isDisposed()) {
                     return;
@@ -951,44 +921,45 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
                 boolean unbounded = r == Long.MAX_VALUE;
                 long e = 0L;
                 
-                Node node = output.index();
-                if (node == null) {
-                    node = get();
-                    output.index = node;
+                Cursor cursor = output.index();
+                if (cursor == null) {
+                    cursor = l.cursor();
+                    output.index = cursor;
 
-                    BackpressureHelper.add(output.totalRequested, node.index);
+                    BackpressureHelper.add(output.totalRequested, cursor.index);
                 }
                 
+                long end = l.end();
                 while (r != 0) {
-                    Node v = node.get();
-                    if (v != null) {
-                        Object o = leaveTransform(v.value);
-                        try {
-                            if (NotificationLite.accept(o, output.child)) {
-                                output.index = null;
-                                return;
-                            }
-                        } catch (Throwable err) {
+                    if (cursor.index == end) {
+                        end = l.end();
+                        if (cursor.index == end) {
+                            break;
+                        }
+                    }
+                    Object o = l.value(cursor);
+                    try {
+                        if (NotificationLite.accept(o, output.child)) {
                             output.index = null;
-                            output.dispose();
-                            if (!NotificationLite.isError(o) && !NotificationLite.isComplete(o)) {
-                                output.child.onError(err);
-                            }
                             return;
                         }
-                        e++;
-                        r--;
-                        node = v;
-                    } else {
-                        break;
+                    } catch (Throwable err) {
+                        output.index = null;
+                        output.dispose();
+                        if (!NotificationLite.isError(o) && !NotificationLite.isComplete(o)) {
+                            output.child.onError(err);
+                        }
+                        return;
                     }
+                    e++;
+                    r--;
+                    cursor.index++;
                     if (output.isDisposed()) {
                         return;
                     }
                 }
 
                 if (e != 0L) {
-                    output.index = node;
                     if (!unbounded) {
                         output.produced(e);
                     }
@@ -1006,22 +977,11 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
         }
         
         /**
-         * Override this to wrap the NotificationLite object into a
-         * container to be used later by truncate.
-         * @param value
-         * @return
-         */
-        Object enterTransform(Object value) {
-            return value;
-        }
-        /**
-         * Override this to unwrap the transformed value into a
-         * NotificationLite object.
-         * @param value
-         * @return
+         * Override this to provide the timestamp stored along with the events.
+         * @return the timestamp
          */
-        Object leaveTransform(Object value) {
-            return value;
+        long now() {
+            return 0L;
         }
         /**
          * Override this method to truncate a non-terminated buffer
@@ -1038,27 +998,23 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
             
         }
         /* test */ final  void collect(Collection<? super T> output) {
-            Node n = get();
-            for (;;) {
-                Node next = n.get();
-                if (next != null) {
-                    Object o = next.value;
-                    Object v = leaveTransform(o);
-                    if (NotificationLite.isComplete(v) || NotificationLite.isError(v)) {
-                        break;
-                    }
-                    output.add(NotificationLite.<T>getValue(v));
-                    n = next;
-                } else {
+            ChunkedReplayList l = list;
+            Cursor c = l.cursor();
+            long end = l.end();
+            while (c.index != end) {
+                Object v = l.value(c);
+                if (NotificationLite.isComplete(v) || NotificationLite.isError(v)) {
                     break;
                 }
+                output.add(NotificationLite.<T>getValue(v));
+                c.index++;
             }
         }
         /* test */ boolean hasError() {
-            return tail.value != null && NotificationLite.isError(leaveTransform(tail.value));
+            return last != null && NotificationLite.isError(last);
         }
         /* test */ boolean hasCompleted() {
-            return tail.value != null && NotificationLite.isComplete(leaveTransform(tail.value));
+            return last != null && NotificationLite.isComplete(last);
         }
     }
     
@@ -1068,11 +1024,9 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
      * @param <T> the value type
      */
     static final class SizeBoundReplayBuffer<T> extends BoundedReplayBuffer<T> {
-        /** */
-        private static final long serialVersionUID = -5898283885385201806L;
-        
         final int limit;
         public SizeBoundReplayBuffer(int limit) {
+            super(ChunkedReplayList.chunkSizeFor(limit), false);
             this.limit = limit;
         }
         
@@ -1093,13 +1047,12 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
      * @param <T> the buffered value type
      */
     static final class SizeAndTimeBoundReplayBuffer<T> extends BoundedReplayBuffer<T> {
-        /** */
-        private static final long serialVersionUID = 3457957419649567404L;
         final Scheduler scheduler;
         final long maxAge;
         final TimeUnit unit;
         final int limit;
         public SizeAndTimeBoundReplayBuffer(int limit, long maxAge, TimeUnit unit, Scheduler scheduler) {
+            super(ChunkedReplayList.chunkSizeFor(limit), true);
             this.scheduler = scheduler;
             this.limit = limit;
             this.maxAge = maxAge;
@@ -1107,75 +1060,31 @@ public final class OperatorReplay<T> extends ConnectableObservable<T> {
         }
         
         @Override
-        Object enterTransform(Object value) {
-            return new Timed<Object>(value, scheduler.now(unit), unit);
-        }
-        
-        @Override
-        Object leaveTransform(Object value) {
-            return ((Timed<?>)value).value();
+        long now() {
+            return scheduler.now(unit);
         }
         
         @Override
         void truncate() {
             long timeLimit = scheduler.now(unit) - maxAge;
+            ChunkedReplayList l = list;
             
-            Node prev = get();
-            Node next = prev.get();
-            
-            int e = 0;
-            for (;;) {
-                if (next != null) {
-                    if (size > limit) {
-                        e++;
-                        size--;
-                        prev = next;
-                        next = next.get();
-                    } else {
-                        Timed<?> v = (Timed<?>)next.value;
-                        if (v.time() <= timeLimit) {
-                            e++;
-                            size--;
-                            prev = next;
-                            next = next.get();
-                        } else {
-                            break;
-                        }
-                    }
+            while (size != 0) {
+                if (size > limit || l.timeAt(l.start()) <= timeLimit) {
+                    removeFirst();
                 } else {
                     break;
                 }
             }
-            if (e != 0) {
-                setFirst(prev);
-            }
         }
         @Override
         void truncateFinal() {
             long timeLimit = scheduler.now(unit) - maxAge;
+            ChunkedReplayList l = list;
             
-            Node prev = get();
-            Node next = prev.get();
-            
-            int e = 0;
-            for (;;) {
-                if (next != null && size > 1) {
-                    Timed<?> v = (Timed<?>)next.value;
-                    if (v.time() <= timeLimit) {
-                        e++;
-                        size--;
-                        prev = next;
-                        next = next.get();
-                    } else {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            if (e != 0) {
-                setFirst(prev);
+            while (size > 1 && l.timeAt(l.start()) <= timeLimit) {
+                removeFirst();
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -49,7 +49,7 @@ public final class OperatorScan<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
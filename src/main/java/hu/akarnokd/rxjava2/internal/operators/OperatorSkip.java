@@ -16,6 +16,7 @@ package hu.akarnokd.rxjava2.internal.operators;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 
 public final class OperatorSkip<T> implements Operator<T, T> {
     final long n;
@@ -39,7 +40,7 @@ public final class OperatorSkip<T> implements Operator<T, T> {
         @Override
         public void onSubscribe(Subscription s) {
             long n = remaining;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
             s.request(n);
         }
         
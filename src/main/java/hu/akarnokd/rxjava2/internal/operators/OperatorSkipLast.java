@@ -18,6 +18,7 @@ import java.util.ArrayDeque;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
 public final class OperatorSkipLast<T> implements Operator<T, T> {
@@ -54,7 +55,7 @@ public final class OperatorSkipLast<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
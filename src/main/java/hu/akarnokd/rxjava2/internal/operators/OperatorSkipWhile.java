@@ -17,6 +17,8 @@ import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.functions.Predicate;
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
 public final class OperatorSkipWhile<T> implements Operator<T, T> {
@@ -30,14 +32,18 @@ public final class OperatorSkipWhile<T> implements Operator<T, T> {
         return new SkipWhileSubscriber<T>(s, predicate);
     }
     
-    static final class SkipWhileSubscriber<T> implements Subscriber<T> {
+    static final class SkipWhileSubscriber<T> implements ConditionalSubscriber<T> {
         final Subscriber<? super T> actual;
+        /** The downstream if it is a ConditionalSubscriber, null otherwise. */
+        final ConditionalSubscriber<? super T> conditional;
         final Predicate<? super T> predicate;
         Subscription s;
         boolean notSkipping;
         public SkipWhileSubscriber(Subscriber<? super T> actual, Predicate<? super T> predicate) {
             this.actual = actual;
             this.predicate = predicate;
+            this.conditional = actual instanceof ConditionalSubscriber 
+                    ? (ConditionalSubscriber<? super T>)actual : null;
         }
 
         @Override
@@ -48,29 +54,38 @@ public final class OperatorSkipWhile<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
         public void onNext(T t) {
-            if (notSkipping) {
-                actual.onNext(t);
-            } else {
+            if (!onNextIf(t)) {
+                s.request(1);
+            }
+        }
+        
+        @Override
+        public boolean onNextIf(T t) {
+            if (!notSkipping) {
                 boolean b;
                 try {
                     b = predicate.test(t);
                 } catch (Throwable e) {
                     s.cancel();
                     actual.onError(e);
-                    return;
+                    return true;
                 }
                 if (b) {
-                    s.request(1);
-                } else {
-                    notSkipping = true;
-                    actual.onNext(t);
+                    return false;
                 }
+                notSkipping = true;
+            }
+            ConditionalSubscriber<? super T> c = conditional;
+            if (c != null) {
+                return c.onNextIf(t);
             }
+            actual.onNext(t);
+            return true;
         }
         
         @Override
@@ -18,10 +18,11 @@ import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.queue.*;
-import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -112,6 +113,34 @@ public final class OperatorSwitchMap<T, R> implements Operator<R, T> {
                 return;
             }
             
+            if (p == Observable.empty()) {
+                switchToEmpty();
+                return;
+            }
+            
+            if (p instanceof ObservableScalarSource) {
+                switchToScalar(c, ((ObservableScalarSource<? extends R>)p).value());
+                return;
+            }
+            
+            if (p instanceof ObservableCallableSource) {
+                R v;
+                try {
+                    v = ((ObservableCallableSource<? extends R>)p).callable().call();
+                } catch (Throwable e) {
+                    s.cancel();
+                    onError(e);
+                    return;
+                }
+                if (v == null) {
+                    s.cancel();
+                    onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                switchToScalar(c, v);
+                return;
+            }
+            
             SwitchMapInnerSubscriber<T, R> nextInner = new SwitchMapInnerSubscriber<T, R>(this, c, bufferSize);
             
             for (;;) {
@@ -126,6 +155,42 @@ public final class OperatorSwitchMap<T, R> implements Operator<R, T> {
             }
         }
         
+        /**
+         * Clears the active inner without subscribing to anything.
+         */
+        void switchToEmpty() {
+            for (;;) {
+                SwitchMapInnerSubscriber<T, R> inner = active;
+                if (inner == CANCELLED) {
+                    return;
+                }
+                if (ACTIVE.compareAndSet(this, inner, null)) {
+                    drain();
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Installs an inner with a single-slot queue and hands it the value directly.
+         * @param c the index of the new inner
+         * @param value the value to emit
+         */
+        void switchToScalar(long c, R value) {
+            SwitchMapInnerSubscriber<T, R> nextInner = new SwitchMapInnerSubscriber<T, R>(this, c, 1);
+            
+            for (;;) {
+                SwitchMapInnerSubscriber<T, R> inner = active;
+                if (inner == CANCELLED) {
+                    return;
+                }
+                if (ACTIVE.compareAndSet(this, inner, nextInner)) {
+                    nextInner.onSubscribe(new ScalarSubscription<R>(nextInner, value));
+                    return;
+                }
+            }
+        }
+        
         @Override
         public void onError(Throwable t) {
             if (done) {
@@ -278,6 +343,11 @@ public final class OperatorSwitchMap<T, R> implements Operator<R, T> {
                         }
                     }
                     
+                    if (!retry && r == 0L && inner.done && q.isEmpty()) {
+                        // the last value has been consumed, don't wait for another request to move on
+                        retry = true;
+                    }
+                    
                     if (retry) {
                         continue;
                     }
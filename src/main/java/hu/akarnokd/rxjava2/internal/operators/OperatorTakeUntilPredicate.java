@@ -17,6 +17,7 @@ import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.functions.Predicate;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
 public final class OperatorTakeUntilPredicate<T> implements Operator<T, T> {
@@ -48,7 +49,7 @@ public final class OperatorTakeUntilPredicate<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
@@ -17,6 +17,7 @@ import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.functions.Predicate;
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
 import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 
 public final class OperatorTakeWhile<T> implements Operator<T, T> {
@@ -30,8 +31,10 @@ public final class OperatorTakeWhile<T> implements Operator<T, T> {
         return new TakeWhileSubscriber<T>(t, predicate);
     }
     
-    static final class TakeWhileSubscriber<T> implements Subscriber<T> {
+    static final class TakeWhileSubscriber<T> implements ConditionalSubscriber<T> {
         final Subscriber<? super T> actual;
+        /** The downstream if it is a ConditionalSubscriber, null otherwise. */
+        final ConditionalSubscriber<? super T> conditional;
         final Predicate<? super T> predicate;
         
         Subscription s;
@@ -41,6 +44,8 @@ public final class OperatorTakeWhile<T> implements Operator<T, T> {
         public TakeWhileSubscriber(Subscriber<? super T> actual, Predicate<? super T> predicate) {
             this.actual = actual;
             this.predicate = predicate;
+            this.conditional = actual instanceof ConditionalSubscriber 
+                    ? (ConditionalSubscriber<? super T>)actual : null;
         }
         
         @Override
@@ -49,13 +54,20 @@ public final class OperatorTakeWhile<T> implements Operator<T, T> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
         public void onNext(T t) {
+            if (!onNextIf(t)) {
+                s.request(1);
+            }
+        }
+        
+        @Override
+        public boolean onNextIf(T t) {
             if (done) {
-                return;
+                return true;
             }
             boolean b;
             try {
@@ -64,17 +76,22 @@ public final class OperatorTakeWhile<T> implements Operator<T, T> {
                 done = true;
                 s.cancel();
                 actual.onError(e);
-                return;
+                return true;
             }
             
             if (!b) {
                 done = true;
                 s.cancel();
                 actual.onComplete();
-                return;
+                return true;
             }
             
+            ConditionalSubscriber<? super T> c = conditional;
+            if (c != null) {
+                return c.onNextIf(t);
+            }
             actual.onNext(t);
+            return true;
         }
         
         @Override
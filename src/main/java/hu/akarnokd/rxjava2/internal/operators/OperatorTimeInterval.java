@@ -19,6 +19,7 @@ import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable.Operator;
 import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.schedulers.Timed;
 
 public final class OperatorTimeInterval<T> implements Operator<Timed<T>, T> {
@@ -51,7 +52,7 @@ public final class OperatorTimeInterval<T> implements Operator<Timed<T>, T> {
         @Override
         public void onSubscribe(Subscription s) {
             lastTime = scheduler.now(unit);
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
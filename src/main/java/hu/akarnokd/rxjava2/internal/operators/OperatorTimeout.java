@@ -110,11 +110,11 @@ public final class OperatorTimeout<T, U, V> implements Operator<T, T> {
                 TimeoutInnerSubscriber<T, U, V> tis = new TimeoutInnerSubscriber<T, U, V>(this, 0);
                 
                 if (TIMEOUT.compareAndSet(this, null, tis)) {
-                    a.onSubscribe(s);
+                    a.onSubscribe(SubscriptionHelper.hideFusion(s));
                     p.subscribe(tis);
                 }
             } else {
-                a.onSubscribe(s);
+                a.onSubscribe(SubscriptionHelper.hideFusion(s));
             }
         }
         
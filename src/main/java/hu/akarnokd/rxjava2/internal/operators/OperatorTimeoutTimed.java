@@ -235,7 +235,7 @@ public final class OperatorTimeoutTimed<T> implements Operator<T, T> {
             }
             
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
             scheduleTimeout(0L);
         }
         
@@ -13,12 +13,10 @@
 
 package hu.akarnokd.rxjava2.internal.operators;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
-import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
 
 public final class PublisherArraySource<T> implements Publisher<T> {
@@ -39,18 +37,73 @@ public final class PublisherArraySource<T> implements Publisher<T> {
         }
     }
     
-    static final class ArraySourceSubscription<T> extends AtomicLong implements Subscription {
+    /**
+     * Holds the array and index and offers synchronous fusion
+     * over the remaining elements.
+     * @param <T> the value type
+     */
+    static abstract class BaseArraySubscription<T> extends BasicQueueSubscription<T> {
         /** */
-        private static final long serialVersionUID = -225561973532207332L;
-        
+        private static final long serialVersionUID = -3637284434578226062L;
+
         final T[] array;
-        final Subscriber<? super T> subscriber;
         
         int index;
         volatile boolean cancelled;
         
-        public ArraySourceSubscription(T[] array, Subscriber<? super T> subscriber) {
+        public BaseArraySubscription(T[] array) {
             this.array = array;
+        }
+        
+        @Override
+        public final void cancel() {
+            cancelled = true;
+        }
+        
+        @Override
+        public final int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+        
+        @Override
+        public final T poll() {
+            int i = index;
+            T[] a = array;
+            if (i == a.length) {
+                return null;
+            }
+            index = i + 1;
+            T t = a[i];
+            if (t == null) {
+                throw new NullPointerException("The " + i + "th array element is null");
+            }
+            return t;
+        }
+        
+        @Override
+        public final boolean isEmpty() {
+            return index == array.length;
+        }
+        
+        @Override
+        public final int size() {
+            return array.length - index;
+        }
+        
+        @Override
+        public final void clear() {
+            index = array.length;
+        }
+    }
+    
+    static final class ArraySourceSubscription<T> extends BaseArraySubscription<T> {
+        /** */
+        private static final long serialVersionUID = -225561973532207332L;
+        
+        final Subscriber<? super T> subscriber;
+        
+        public ArraySourceSubscription(T[] array, Subscriber<? super T> subscriber) {
+            super(array);
             this.subscriber = subscriber;
         }
         
@@ -113,24 +166,16 @@ public final class PublisherArraySource<T> implements Publisher<T> {
                 }
             }
         }
-        @Override
-        public void cancel() {
-            cancelled = true;
-        }
     }
     
-    static final class ConditionalArraySourceSubscription<T> extends AtomicLong implements Subscription {
+    static final class ConditionalArraySourceSubscription<T> extends BaseArraySubscription<T> {
         /** */
         private static final long serialVersionUID = -225561973532207332L;
         
-        final T[] array;
         final ConditionalSubscriber<? super T> subscriber;
         
-        int index;
-        volatile boolean cancelled;
-        
         public ConditionalArraySourceSubscription(T[] array, ConditionalSubscriber<? super T> subscriber) {
-            this.array = array;
+            super(array);
             this.subscriber = subscriber;
         }
         
@@ -190,9 +235,5 @@ public final class PublisherArraySource<T> implements Publisher<T> {
                 }
             }
         }
-        @Override
-        public void cancel() {
-            cancelled = true;
-        }
     }
 }
@@ -18,6 +18,7 @@ import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
 import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
 
@@ -50,19 +51,82 @@ public final class PublisherIterableSource<T> extends AtomicBoolean implements P
             EmptySubscription.complete(s);
             return;
         }
-        s.onSubscribe(new IteratorSourceSubscription<T>(it, s));
+        if (s instanceof ConditionalSubscriber) {
+            s.onSubscribe(new ConditionalIteratorSourceSubscription<T>(it, (ConditionalSubscriber<? super T>)s));
+        } else {
+            s.onSubscribe(new IteratorSourceSubscription<T>(it, s));
+        }
     }
     
-    static final class IteratorSourceSubscription<T> extends AtomicLong implements Subscription {
+    /**
+     * Holds the iterator and offers synchronous fusion over its remaining elements.
+     * @param <T> the value type
+     */
+    static abstract class BaseIteratorSubscription<T> extends BasicQueueSubscription<T> {
         /** */
-        private static final long serialVersionUID = 8931425802102883003L;
+        private static final long serialVersionUID = 5894317213432716283L;
         final Iterator<? extends T> it;
-        final Subscriber<? super T> subscriber;
         
         volatile boolean cancelled;
         
-        public IteratorSourceSubscription(Iterator<? extends T> it, Subscriber<? super T> subscriber) {
+        /** Indicates the first element has been polled so hasNext() has to be checked. */
+        boolean once;
+        /** Indicates the fused queue has been cleared. */
+        boolean cleared;
+        
+        public BaseIteratorSubscription(Iterator<? extends T> it) {
             this.it = it;
+        }
+        
+        @Override
+        public final void cancel() {
+            cancelled = true;
+        }
+        
+        @Override
+        public final int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+        
+        @Override
+        public final T poll() {
+            if (cleared) {
+                return null;
+            }
+            Iterator<? extends T> it = this.it;
+            // subscribe() has already established the first element exists
+            if (once) {
+                if (!it.hasNext()) {
+                    return null;
+                }
+            } else {
+                once = true;
+            }
+            T v = it.next();
+            if (v == null) {
+                throw new NullPointerException("Iterator returned a null element");
+            }
+            return v;
+        }
+        
+        @Override
+        public final boolean isEmpty() {
+            return cleared || (once && !it.hasNext());
+        }
+        
+        @Override
+        public final void clear() {
+            cleared = true;
+        }
+    }
+    
+    static final class IteratorSourceSubscription<T> extends BaseIteratorSubscription<T> {
+        /** */
+        private static final long serialVersionUID = 8931425802102883003L;
+        final Subscriber<? super T> subscriber;
+        
+        public IteratorSourceSubscription(Iterator<? extends T> it, Subscriber<? super T> subscriber) {
+            super(it);
             this.subscriber = subscriber;
         }
         @Override
@@ -126,9 +190,80 @@ public final class PublisherIterableSource<T> extends AtomicBoolean implements P
                 }
             }
         }
+    }
+    
+    static final class ConditionalIteratorSourceSubscription<T> extends BaseIteratorSubscription<T> {
+        /** */
+        private static final long serialVersionUID = -6022804439787574216L;
+        final ConditionalSubscriber<? super T> subscriber;
+        
+        public ConditionalIteratorSourceSubscription(Iterator<? extends T> it, ConditionalSubscriber<? super T> subscriber) {
+            super(it);
+            this.subscriber = subscriber;
+        }
         @Override
-        public void cancel() {
-            cancelled = true;
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            if (BackpressureHelper.add(this, n) != 0L) {
+                return;
+            }
+            long r = n;
+            long r0 = n;
+            final ConditionalSubscriber<? super T> subscriber = this.subscriber;
+            final Iterator<? extends T> it = this.it;
+            for (;;) {
+                if (cancelled) {
+                    return;
+                }
+
+                long e = 0L;
+                while (r != 0L) {
+                    T v;
+                    try {
+                        v = it.next();
+                    } catch (Throwable ex) {
+                        subscriber.onError(ex);
+                        return;
+                    }
+                    
+                    if (v == null) {
+                        subscriber.onError(new NullPointerException("Iterator returned a null element"));
+                        return;
+                    }
+                    
+                    boolean b = subscriber.onNextIf(v);
+                    
+                    if (cancelled) {
+                        return;
+                    }
+                    
+                    boolean hasNext;
+                    try {
+                        hasNext = it.hasNext();
+                    } catch (Throwable ex) {
+                        subscriber.onError(ex);
+                        return;
+                    }
+                    if (!hasNext) {
+                        subscriber.onComplete();
+                        return;
+                    }
+                    
+                    // rejected values don't count towards the requested amount
+                    if (b) {
+                        r--;
+                        e--;
+                    }
+                }
+                if (e != 0L && r0 != Long.MAX_VALUE) {
+                    r = addAndGet(e);
+                }
+                if (r == 0L) {
+                    break;
+                }
+            }
         }
     }
 }
@@ -13,10 +13,10 @@
 
 package hu.akarnokd.rxjava2.internal.operators;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -32,25 +32,32 @@ public final class PublisherRangeSource implements Publisher<Integer> {
     }
     @Override
     public void subscribe(Subscriber<? super Integer> s) {
-        s.onSubscribe(new RangeSubscription(s, start, end));
+        if (s instanceof ConditionalSubscriber) {
+            s.onSubscribe(new ConditionalRangeSubscription((ConditionalSubscriber<? super Integer>)s, start, end));
+        } else {
+            s.onSubscribe(new RangeSubscription(s, start, end));
+        }
     }
     
-    static final class RangeSubscription extends AtomicLong implements Subscription {
+    /**
+     * Holds the index and the requested amount, dispatches between the unbounded and the
+     * bounded emission loops and offers synchronous fusion over the remaining values.
+     */
+    static abstract class BaseRangeSubscription extends BasicQueueSubscription<Integer> {
         /** */
-        private static final long serialVersionUID = 7600071995978874818L;
+        private static final long serialVersionUID = -2252972430506210021L;
         final long end;
-        final Subscriber<? super Integer> actual;
 
         long index;
         volatile boolean cancelled;
         
-        public RangeSubscription(Subscriber<? super Integer> actual, int start, long end) {
-            this.actual = actual;
+        public BaseRangeSubscription(int start, long end) {
             this.index = start;
             this.end = end;
         }
+        
         @Override
-        public void request(long n) {
+        public final void request(long n) {
             if (n == Long.MAX_VALUE && compareAndSet(0L, Long.MAX_VALUE)) {
                 fastpath();
             } else
@@ -63,6 +70,57 @@ public final class PublisherRangeSource implements Publisher<Integer> {
             }
         }
         
+        abstract void fastpath();
+        
+        abstract void slowpath(long r);
+        
+        @Override
+        public final void cancel() {
+            cancelled = true;
+        }
+        
+        @Override
+        public final int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+        
+        @Override
+        public final Integer poll() {
+            long i = index;
+            if (i == end + 1) {
+                return null;
+            }
+            index = i + 1;
+            return (int)i;
+        }
+        
+        @Override
+        public final boolean isEmpty() {
+            return index == end + 1;
+        }
+        
+        @Override
+        public final int size() {
+            return (int)(end + 1 - index);
+        }
+        
+        @Override
+        public final void clear() {
+            index = end + 1;
+        }
+    }
+    
+    static final class RangeSubscription extends BaseRangeSubscription {
+        /** */
+        private static final long serialVersionUID = 7600071995978874818L;
+        final Subscriber<? super Integer> actual;
+
+        public RangeSubscription(Subscriber<? super Integer> actual, int start, long end) {
+            super(start, end);
+            this.actual = actual;
+        }
+        
+        @Override
         void fastpath() {
             final long e = end + 1L;
             final Subscriber<? super Integer> actual = this.actual;
@@ -77,6 +135,7 @@ public final class PublisherRangeSource implements Publisher<Integer> {
             }
         }
         
+        @Override
         void slowpath(long r) {
             long idx = index;
             
@@ -119,10 +178,73 @@ public final class PublisherRangeSource implements Publisher<Integer> {
                 }
             }
         }
+    }
+    
+    static final class ConditionalRangeSubscription extends BaseRangeSubscription {
+        /** */
+        private static final long serialVersionUID = 2587302975077663557L;
+        final ConditionalSubscriber<? super Integer> actual;
+
+        public ConditionalRangeSubscription(ConditionalSubscriber<? super Integer> actual, int start, long end) {
+            super(start, end);
+            this.actual = actual;
+        }
+        
+        @Override
+        void fastpath() {
+            final long e = end + 1L;
+            final ConditionalSubscriber<? super Integer> actual = this.actual;
+            for (long i = index; i != e; i++) {
+                if (cancelled) {
+                    return;
+                }
+                actual.onNextIf((int)i);
+            }
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
         
         @Override
-        public void cancel() {
-            cancelled = true;
+        void slowpath(long r) {
+            final long f = end + 1L;
+            final ConditionalSubscriber<? super Integer> a = this.actual;
+
+            long idx = index;
+            long e = 0L;
+            
+            for (;;) {
+                
+                // only the accepted values count towards the requested amount
+                while (e != r && idx != f) {
+                    if (cancelled) {
+                        return;
+                    }
+                    
+                    if (a.onNextIf((int)idx)) {
+                        e++;
+                    }
+                    
+                    idx++;
+                }
+                
+                if (idx == f) {
+                    if (!cancelled) {
+                        a.onComplete();
+                    }
+                    return;
+                }
+                
+                r = get();
+                if (e == r) {
+                    index = idx;
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
         }
     }
 }
@@ -13,14 +13,14 @@
 
 package hu.akarnokd.rxjava2.internal.operators;
 
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.queue.*;
-import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.internal.util.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -139,8 +139,12 @@ public final class PublisherZip<T, R> implements Publisher<R> {
         void clear() {
             for (ZipSubscriber<?, ?> zs : subscribers) {
                 zs.cancel();
-                zs.queue.clear();
+                Queue<?> q = zs.queue;
+                if (q != null) {
+                    q.clear();
+                }
             }
+            Arrays.fill(row, null);
         }
         
         public void drain() {
@@ -165,30 +169,45 @@ public final class PublisherZip<T, R> implements Publisher<R> {
                     int i = 0;
                     int emptyCount = 0;
                     for (ZipSubscriber<T, R> z : zs) {
-                        boolean d = z.done;
-                        T v = z.queue.peek();
-                        boolean empty = v == null;
-                        
-                        if (checkTerminated(d, empty, a, delayError, z)) {
-                            return;
-                        }
-                        
-                        if (empty) {
-                            emptyCount++;
-                            continue;
+                        // the row retains the values already polled from the faster sources
+                        if (os[i] == null) {
+                            boolean d = z.done;
+                            Queue<T> q = z.queue;
+                            T v = null;
+                            
+                            if (q != null) {
+                                try {
+                                    v = q.poll();
+                                } catch (Throwable ex) {
+                                    // only a fused upstream queue can throw here
+                                    clear();
+                                    a.onError(ex);
+                                    return;
+                                }
+                            }
+                            
+                            boolean empty = v == null;
+                            
+                            if (checkTerminated(d, empty, a, delayError, z)) {
+                                return;
+                            }
+                            
+                            if (empty) {
+                                emptyCount++;
+                            } else {
+                                os[i] = v;
+                            }
+                        } else {
+                            if (checkTerminated(z.done, false, a, delayError, z)) {
+                                return;
+                            }
                         }
-                        
-                        os[i] = v;
                         i++;
                     }
                     
                     if (emptyCount != 0) {
                         break;
                     }
-                    // consume the row
-                    for (ZipSubscriber<T, R> z : zs) {
-                        z.queue.poll();
-                    }
 
                     R v;
                     try {
@@ -199,6 +218,8 @@ public final class PublisherZip<T, R> implements Publisher<R> {
                         return;
                     }
                     
+                    Arrays.fill(os, null);
+                    
                     if (v == null) {
                         clear();
                         a.onError(new NullPointerException("The zipper returned null"));
@@ -270,7 +291,14 @@ public final class PublisherZip<T, R> implements Publisher<R> {
         
         final ZipCoordinator<T, R> parent;
         final int bufferSize;
-        final Queue<T> queue;
+        /** 
+         * The queue holding the values, either an own SPSC queue or the upstream's 
+         * QueueSubscription if fusion was established. 
+         */
+        volatile Queue<T> queue;
+        
+        /** The fusion mode established with the upstream. */
+        int sourceMode;
         
         volatile boolean done;
         Throwable error;
@@ -297,13 +325,6 @@ public final class PublisherZip<T, R> implements Publisher<R> {
         public ZipSubscriber(ZipCoordinator<T, R> parent, int bufferSize) {
             this.parent = parent;
             this.bufferSize = bufferSize;
-            Queue<T> q;
-            if (Pow2.isPowerOfTwo(bufferSize)) {
-                q = new SpscArrayQueue<T>(bufferSize);
-            } else {
-                q = new SpscExactArrayQueue<T>(bufferSize);
-            }
-            this.queue = q;
         }
         @Override
         public void onSubscribe(Subscription s) {
@@ -320,6 +341,36 @@ public final class PublisherZip<T, R> implements Publisher<R> {
                     return;
                 }
                 if (S.compareAndSet(this, null, s)) {
+                    if (s instanceof QueueSubscription) {
+                        @SuppressWarnings("unchecked")
+                        QueueSubscription<T> qs = (QueueSubscription<T>) s;
+                        
+                        int m = qs.requestFusion(QueueSubscription.ANY | QueueSubscription.BOUNDARY);
+                        
+                        if (m == QueueSubscription.SYNC) {
+                            sourceMode = m;
+                            queue = qs;
+                            done = true;
+                            parent.drain();
+                            return;
+                        }
+                        if (m == QueueSubscription.ASYNC) {
+                            sourceMode = m;
+                            queue = qs;
+                            lazySet(bufferSize);
+                            s.request(bufferSize);
+                            return;
+                        }
+                    }
+                    
+                    Queue<T> q;
+                    if (Pow2.isPowerOfTwo(bufferSize)) {
+                        q = new SpscArrayQueue<T>(bufferSize);
+                    } else {
+                        q = new SpscExactArrayQueue<T>(bufferSize);
+                    }
+                    queue = q;
+                    
                     lazySet(bufferSize);
                     s.request(bufferSize);
                     return;
@@ -332,6 +383,11 @@ public final class PublisherZip<T, R> implements Publisher<R> {
         
         @Override
         public void onNext(T t) {
+            if (sourceMode == QueueSubscription.ASYNC) {
+                // the value is in the fused queue already
+                parent.drain();
+                return;
+            }
             if (t == null) {
                 s.cancel();
                 onError(new NullPointerException());
@@ -360,6 +416,9 @@ public final class PublisherZip<T, R> implements Publisher<R> {
         
         @Override
         public void request(long n) {
+            if (sourceMode == QueueSubscription.SYNC) {
+                return;
+            }
             lazySet(BackpressureHelper.addCap(get(), n));
             // this method is only called if s is no longer null;
             if (cachedS == null) {
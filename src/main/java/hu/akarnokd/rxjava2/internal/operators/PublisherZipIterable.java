@@ -89,7 +89,7 @@ public final class PublisherZipIterable<T, U, V> implements Publisher<V> {
                 return;
             }
             this.s = s;
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         }
         
         @Override
@@ -144,6 +144,40 @@ public final class NbpOperatorConcatMap<T, U> implements NbpOperator<U, T> {
                 return;
             }
             
+            if (p == NbpObservable.empty()) {
+                index++;
+                inner.onComplete();
+                return;
+            }
+            
+            if (p instanceof NbpObservableScalarSource) {
+                U v = ((NbpObservableScalarSource<? extends U>)p).value();
+                index++;
+                inner.onNext(v);
+                inner.onComplete();
+                return;
+            }
+            
+            if (p instanceof NbpObservableCallableSource) {
+                U v;
+                try {
+                    v = ((NbpObservableCallableSource<? extends U>)p).callable().call();
+                } catch (Throwable e) {
+                    cancel();
+                    actual.onError(e);
+                    return;
+                }
+                if (v == null) {
+                    cancel();
+                    actual.onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                index++;
+                inner.onNext(v);
+                inner.onComplete();
+                return;
+            }
+            
             index++;
             // this is not RS but since our Subscriber doesn't hold state by itself,
             // subscribing it to each source is safe and saves allocation
@@ -0,0 +1,327 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import hu.akarnokd.rxjava2.NbpObservable;
+import hu.akarnokd.rxjava2.NbpObservable.*;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.queue.SpscLinkedArrayQueue;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps each upstream value into an NbpObservable, subscribes to up to maxConcurrency of them
+ * at once, buffers their values and relays them in the order of the upstream values.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+public final class NbpOperatorConcatMapEager<T, R> implements NbpOperator<R, T> {
+    final Function<? super T, ? extends NbpObservable<? extends R>> mapper;
+    final int maxConcurrency;
+    final int prefetch;
+    
+    public NbpOperatorConcatMapEager(Function<? super T, ? extends NbpObservable<? extends R>> mapper, 
+            int maxConcurrency, int prefetch) {
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public NbpSubscriber<? super T> apply(NbpSubscriber<? super R> t) {
+        return new ConcatMapEagerSubscriber<T, R>(t, mapper, maxConcurrency, prefetch);
+    }
+    
+    static final class ConcatMapEagerSubscriber<T, R> extends AtomicInteger implements NbpSubscriber<T>, Disposable {
+        /** */
+        private static final long serialVersionUID = 8080567949447303262L;
+        
+        final NbpSubscriber<? super R> actual;
+        final Function<? super T, ? extends NbpObservable<? extends R>> mapper;
+        final int maxConcurrency;
+        final int prefetch;
+        
+        /** The upstream values not yet mapped and subscribed to. */
+        final Queue<T> sources;
+        
+        /** The active inner subscribers in the order of the upstream values, accessed from drain() only. */
+        final ArrayDeque<InnerSubscriber<R>> inners;
+        
+        Disposable s;
+        
+        volatile boolean done;
+        
+        volatile boolean cancelled;
+        
+        volatile Throwable error;
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<ConcatMapEagerSubscriber, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(ConcatMapEagerSubscriber.class, Throwable.class, "error");
+        
+        public ConcatMapEagerSubscriber(NbpSubscriber<? super R> actual, 
+                Function<? super T, ? extends NbpObservable<? extends R>> mapper, int maxConcurrency, int prefetch) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+            this.sources = new SpscLinkedArrayQueue<T>(Math.max(16, Math.min(maxConcurrency, prefetch)));
+            this.inners = new ArrayDeque<InnerSubscriber<R>>();
+        }
+        
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (SubscriptionHelper.validateDisposable(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            sources.offer(t);
+            drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            if (!ERROR.compareAndSet(this, null, t)) {
+                RxJavaPlugins.onError(t);
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void dispose() {
+            if (!cancelled) {
+                cancelled = true;
+                s.dispose();
+                if (getAndIncrement() == 0) {
+                    cleanup();
+                }
+            }
+        }
+        
+        void innerError(Throwable e) {
+            if (!ERROR.compareAndSet(this, null, e)) {
+                RxJavaPlugins.onError(e);
+            }
+        }
+        
+        void cleanup() {
+            sources.clear();
+            InnerSubscriber<R> inner;
+            while ((inner = inners.poll()) != null) {
+                inner.dispose();
+            }
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            int missed = 1;
+            final NbpSubscriber<? super R> a = actual;
+            final ArrayDeque<InnerSubscriber<R>> q = inners;
+            
+            for (;;) {
+                if (cancelled) {
+                    cleanup();
+                    return;
+                }
+                
+                Throwable ex = error;
+                if (ex != null) {
+                    s.dispose();
+                    cleanup();
+                    a.onError(ex);
+                    return;
+                }
+                
+                boolean d = done;
+                
+                while (q.size() < maxConcurrency) {
+                    T t = sources.poll();
+                    if (t == null) {
+                        break;
+                    }
+                    
+                    NbpObservable<? extends R> p;
+                    
+                    try {
+                        p = mapper.apply(t);
+                    } catch (Throwable e) {
+                        s.dispose();
+                        cleanup();
+                        a.onError(e);
+                        return;
+                    }
+                    
+                    if (p == null) {
+                        s.dispose();
+                        cleanup();
+                        a.onError(new NullPointerException("The NbpObservable returned is null"));
+                        return;
+                    }
+                    
+                    InnerSubscriber<R> inner = new InnerSubscriber<R>(this, prefetch);
+                    q.offer(inner);
+                    p.subscribe(inner);
+                    
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                }
+                
+                InnerSubscriber<R> inner = q.peek();
+                
+                if (inner == null) {
+                    if (d && sources.isEmpty()) {
+                        a.onComplete();
+                        return;
+                    }
+                } else {
+                    Queue<R> iq = inner.queue;
+                    boolean innerDone = false;
+                    
+                    for (;;) {
+                        if (cancelled) {
+                            cleanup();
+                            return;
+                        }
+                        
+                        ex = error;
+                        if (ex != null) {
+                            s.dispose();
+                            cleanup();
+                            a.onError(ex);
+                            return;
+                        }
+                        
+                        boolean id = inner.done;
+                        R v = iq.poll();
+                        boolean empty = v == null;
+                        
+                        if (id && empty) {
+                            innerDone = true;
+                            break;
+                        }
+                        
+                        if (empty) {
+                            break;
+                        }
+                        
+                        a.onNext(v);
+                    }
+                    
+                    if (innerDone) {
+                        q.poll();
+                        continue;
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    static final class InnerSubscriber<R> extends AtomicReference<Disposable> implements NbpSubscriber<R>, Disposable {
+        /** */
+        private static final long serialVersionUID = 5458434019459357960L;
+        
+        final ConcatMapEagerSubscriber<?, R> parent;
+        final Queue<R> queue;
+        
+        volatile boolean done;
+        
+        static final Disposable CANCELLED = new Disposable() {
+            @Override
+            public void dispose() { }
+        };
+        
+        public InnerSubscriber(ConcatMapEagerSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.queue = new SpscLinkedArrayQueue<R>(prefetch);
+        }
+        
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (!compareAndSet(null, s)) {
+                s.dispose();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportDisposableSet();
+                }
+                return;
+            }
+        }
+        
+        @Override
+        public void onNext(R t) {
+            queue.offer(t);
+            parent.drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(t);
+            done = true;
+            parent.drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+        
+        @Override
+        public void dispose() {
+            Disposable s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.dispose();
+                }
+            }
+        }
+    }
+}
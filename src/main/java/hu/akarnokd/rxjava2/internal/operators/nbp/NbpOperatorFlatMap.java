@@ -124,6 +124,23 @@ public final class NbpOperatorFlatMap<T, U> implements NbpOperator<U, T> {
             }
             if (p instanceof NbpObservableScalarSource) {
                 tryEmitScalar(((NbpObservableScalarSource<? extends U>)p).value());
+            } else
+            if (p == NbpObservable.empty()) {
+                // nothing to subscribe to
+            } else
+            if (p instanceof NbpObservableCallableSource) {
+                U v;
+                try {
+                    v = ((NbpObservableCallableSource<? extends U>)p).callable().call();
+                } catch (Throwable e) {
+                    onError(e);
+                    return;
+                }
+                if (v == null) {
+                    onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                tryEmitScalar(v);
             } else {
                 if (maxConcurrency == Integer.MAX_VALUE) {
                     subscribeInner(p);
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import java.util.Iterator;
+
+import hu.akarnokd.rxjava2.NbpObservable.*;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps each upstream value into an Iterable and emits the elements of the Iterables in order,
+ * directly from within onNext.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+public final class NbpOperatorFlattenIterable<T, R> implements NbpOperator<R, T> {
+    final Function<? super T, ? extends Iterable<? extends R>> mapper;
+    
+    public NbpOperatorFlattenIterable(Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        this.mapper = mapper;
+    }
+    
+    @Override
+    public NbpSubscriber<? super T> apply(NbpSubscriber<? super R> t) {
+        return new FlattenIterableSubscriber<T, R>(t, mapper);
+    }
+    
+    static final class FlattenIterableSubscriber<T, R> implements NbpSubscriber<T>, Disposable {
+        final NbpSubscriber<? super R> actual;
+        final Function<? super T, ? extends Iterable<? extends R>> mapper;
+        
+        Disposable s;
+        
+        boolean done;
+        
+        volatile boolean cancelled;
+        
+        public FlattenIterableSubscriber(NbpSubscriber<? super R> actual, 
+                Function<? super T, ? extends Iterable<? extends R>> mapper) {
+            this.actual = actual;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (SubscriptionHelper.validateDisposable(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            
+            final NbpSubscriber<? super R> a = actual;
+            
+            Iterator<? extends R> it;
+            
+            try {
+                it = mapper.apply(t).iterator();
+            } catch (Throwable ex) {
+                fail(ex);
+                return;
+            }
+            
+            for (;;) {
+                if (cancelled) {
+                    return;
+                }
+                
+                boolean b;
+                
+                try {
+                    b = it.hasNext();
+                } catch (Throwable ex) {
+                    fail(ex);
+                    return;
+                }
+                
+                if (!b) {
+                    break;
+                }
+                
+                R v;
+                
+                try {
+                    v = it.next();
+                } catch (Throwable ex) {
+                    fail(ex);
+                    return;
+                }
+                
+                if (v == null) {
+                    fail(new NullPointerException("The iterator returned a null value"));
+                    return;
+                }
+                
+                a.onNext(v);
+            }
+        }
+        
+        void fail(Throwable ex) {
+            s.dispose();
+            onError(ex);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+        
+        @Override
+        public void dispose() {
+            cancelled = true;
+            s.dispose();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import hu.akarnokd.rxjava2.NbpObservable.*;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Executes a sequence of consecutive map and filter stages in a single NbpSubscriber,
+ * avoiding the per-stage onNext hops of individually lifted
+ * NbpOperatorMap and NbpOperatorFilter instances.
+ * 
+ * <p>Use {@link #fuse(NbpOnSubscribe, Object, boolean)} at assembly time to 
+ * collapse a new map or filter stage into the preceding stages.
+ * 
+ * @param <T> the upstream value type
+ * @param <R> the downstream value type
+ */
+public final class NbpOperatorMapFilter<T, R> implements NbpOperator<R, T> {
+    /** The stages in application order, each a Function or a Predicate. */
+    final Object[] stages;
+    /** Indicates which of the stages are filters (Predicates). */
+    final boolean[] filters;
+    
+    NbpOperatorMapFilter(Object[] stages, boolean[] filters) {
+        this.stages = stages;
+        this.filters = filters;
+    }
+    
+    /**
+     * Collapses the given map (Function) or filter (Predicate) stage into the source 
+     * if the source is a lifted NbpOperatorMap, NbpOperatorFilter or NbpOperatorMapFilter.
+     * @param <T> the source value type
+     * @param <R> the result value type
+     * @param source the source NbpOnSubscribe
+     * @param stage the Function or Predicate to append
+     * @param filter true if the stage is a Predicate
+     * @return the new NbpOnSubscribe or null if the source is not a fusable stage
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static <T, R> NbpOnSubscribe<R> fuse(NbpOnSubscribe<T> source, Object stage, boolean filter) {
+        if (source instanceof NbpOnSubscribeLift) {
+            NbpOnSubscribeLift<?, ?> lift = (NbpOnSubscribeLift<?, ?>) source;
+            NbpOperator<?, ?> op = lift.operator();
+            
+            Object[] stages;
+            boolean[] filters;
+            if (op instanceof NbpOperatorMap) {
+                stages = new Object[] { ((NbpOperatorMap<?, ?>)op).function, stage };
+                filters = new boolean[] { false, filter };
+            } else
+            if (op instanceof NbpOperatorFilter) {
+                stages = new Object[] { ((NbpOperatorFilter<?>)op).predicate, stage };
+                filters = new boolean[] { true, filter };
+            } else
+            if (op instanceof NbpOperatorMapFilter) {
+                NbpOperatorMapFilter<?, ?> mf = (NbpOperatorMapFilter<?, ?>) op;
+                int n = mf.stages.length;
+                
+                stages = new Object[n + 1];
+                System.arraycopy(mf.stages, 0, stages, 0, n);
+                stages[n] = stage;
+                
+                filters = new boolean[n + 1];
+                System.arraycopy(mf.filters, 0, filters, 0, n);
+                filters[n] = filter;
+            } else {
+                return null;
+            }
+            return new NbpOnSubscribeLift(lift.source(), new NbpOperatorMapFilter(stages, filters));
+        }
+        return null;
+    }
+    
+    @Override
+    public NbpSubscriber<? super T> apply(NbpSubscriber<? super R> t) {
+        return new MapFilterSubscriber<T, R>(t, stages, filters);
+    }
+    
+    static final class MapFilterSubscriber<T, R> implements NbpSubscriber<T> {
+        final NbpSubscriber<? super R> actual;
+        final Object[] stages;
+        final boolean[] filters;
+        
+        Disposable subscription;
+        
+        boolean done;
+        
+        public MapFilterSubscriber(NbpSubscriber<? super R> actual, Object[] stages, boolean[] filters) {
+            this.actual = actual;
+            this.stages = stages;
+            this.filters = filters;
+        }
+        
+        @Override
+        public void onSubscribe(Disposable s) {
+            if (SubscriptionHelper.validateDisposable(this.subscription, s)) {
+                return;
+            }
+            subscription = s;
+            actual.onSubscribe(s);
+        }
+        
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            final Object[] stages = this.stages;
+            final boolean[] filters = this.filters;
+            final int n = stages.length;
+            
+            Object v = t;
+            
+            for (int i = 0; i < n; i++) {
+                if (filters[i]) {
+                    boolean b;
+                    try {
+                        b = ((Predicate<Object>)stages[i]).test(v);
+                    } catch (Throwable e) {
+                        fail(e);
+                        return;
+                    }
+                    if (!b) {
+                        return;
+                    }
+                } else {
+                    try {
+                        v = ((Function<Object, Object>)stages[i]).apply(v);
+                    } catch (Throwable e) {
+                        fail(e);
+                        return;
+                    }
+                    if (v == null) {
+                        fail(new NullPointerException("Value returned by the function is null"));
+                        return;
+                    }
+                }
+            }
+            
+            actual.onNext((R)v);
+        }
+        
+        void fail(Throwable e) {
+            done = true;
+            subscription.dispose();
+            actual.onError(e);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+    }
+}
@@ -212,10 +212,10 @@ public final class NbpOperatorPublish<T> extends NbpConnectableObservable<T> {
          */
         final AtomicBoolean shouldConnect;
         
-        /** Guarded by this. */
-        boolean emitting;
-        /** Guarded by this. */
-        boolean missed;
+        /** Counts the dispatch requests; only the thread incrementing it from zero emits. */
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<PublishSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(PublishSubscriber.class, "wip");
         
         volatile Disposable s;
         static final AtomicReferenceFieldUpdater<PublishSubscriber, Disposable> S =
@@ -457,25 +457,21 @@ public final class NbpOperatorPublish<T> extends NbpConnectableObservable<T> {
          * requesting more.
          */
         void dispatch() {
-            // standard construct of emitter loop (blocking)
-            // if there is an emission going on, indicate that more work needs to be done
+            // standard queue-drain construct (non-blocking)
+            // if there is an emission going on, the increment indicates that more work needs to be done
             // the exact nature of this work needs to be determined from other data structures
-            synchronized (this) {
-                if (emitting) {
-                    missed = true;
-                    return;
-                }
-                // there was no emission going on, we won and will start emitting
-                emitting = true;
-                missed = false;
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
             }
+            // there was no emission going on, we won and will start emitting
+            int missed = 1;
             /*
-             * In case an exception is thrown in the loop, we need to set emitting back to false
-             * on the way out (the exception will propagate up) so if it bounces back and
+             * In case an exception is thrown in the loop, we need to reset the work-in-progress
+             * counter on the way out (the exception will propagate up) so if it bounces back and
              * onError is called, its dispatch() call will have the opportunity to emit it.
-             * However, if we want to exit regularly, we will set the emitting to false (+ other operations)
-             * atomically so we want to prevent the finally part to accidentally unlock some other
-             * emissions happening between the two synchronized blocks.
+             * However, if we want to exit regularly, the counter is decremented atomically
+             * so we want to prevent the finally part to accidentally unlock some other
+             * emissions happening concurrently.
              */
             boolean skipFinal = false;
             try {
@@ -588,28 +584,21 @@ public final class NbpOperatorPublish<T> extends NbpConnectableObservable<T> {
                     
                     // we did what we could: either the queue is empty or child subscribers
                     // haven't requested more (or both), let's try to finish dispatching
-                    synchronized (this) {
-                        // since missed is changed atomically, if we see it as true
-                        // it means some state has changed and we need to loop again
-                        // and handle that case
-                        if (!missed) {
-                            // but if no missed dispatch happened, let's stop emitting
-                            emitting = false;
-                            // and skip the emitting = false in the finally block as well
-                            skipFinal = true;
-                            return;
-                        }
-                        // we acknowledge the missed changes so far
-                        missed = false;
+                    // we acknowledge the missed changes so far; if the counter is still
+                    // non-zero, some state has changed and we need to loop again
+                    // and handle that case
+                    missed = WIP.addAndGet(this, -missed);
+                    if (missed == 0) {
+                        // no missed dispatch happened, skip the reset in the finally block
+                        skipFinal = true;
+                        return;
                     }
                 }
             } finally {
                 // unless returned cleanly (i.e., some method above threw)
                 if (!skipFinal) {
                     // we stop emitting so the error can propagate back down through onError
-                    synchronized (this) {
-                        emitting = false;
-                    }
+                    WIP.lazySet(this, 0);
                 }
             }
         }
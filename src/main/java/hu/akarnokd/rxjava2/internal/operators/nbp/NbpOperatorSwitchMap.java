@@ -22,6 +22,7 @@ import hu.akarnokd.rxjava2.NbpObservable;
 import hu.akarnokd.rxjava2.NbpObservable.*;
 import hu.akarnokd.rxjava2.disposables.Disposable;
 import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.disposables.EmptyDisposable;
 import hu.akarnokd.rxjava2.internal.queue.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.Pow2;
@@ -109,6 +110,34 @@ public final class NbpOperatorSwitchMap<T, R> implements NbpOperator<R, T> {
                 return;
             }
             
+            if (p == NbpObservable.empty()) {
+                switchToEmpty();
+                return;
+            }
+            
+            if (p instanceof NbpObservableScalarSource) {
+                switchToScalar(c, ((NbpObservableScalarSource<? extends R>)p).value());
+                return;
+            }
+            
+            if (p instanceof NbpObservableCallableSource) {
+                R v;
+                try {
+                    v = ((NbpObservableCallableSource<? extends R>)p).callable().call();
+                } catch (Throwable e) {
+                    s.dispose();
+                    onError(e);
+                    return;
+                }
+                if (v == null) {
+                    s.dispose();
+                    onError(new NullPointerException("The callable returned a null value"));
+                    return;
+                }
+                switchToScalar(c, v);
+                return;
+            }
+            
             SwitchMapInnerSubscriber<T, R> nextInner = new SwitchMapInnerSubscriber<T, R>(this, c, bufferSize);
             
             for (;;) {
@@ -123,6 +152,44 @@ public final class NbpOperatorSwitchMap<T, R> implements NbpOperator<R, T> {
             }
         }
         
+        /**
+         * Clears the active inner without subscribing to anything.
+         */
+        void switchToEmpty() {
+            for (;;) {
+                SwitchMapInnerSubscriber<T, R> inner = active;
+                if (inner == CANCELLED) {
+                    return;
+                }
+                if (ACTIVE.compareAndSet(this, inner, null)) {
+                    drain();
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Installs an inner with a single-slot queue and hands it the value directly.
+         * @param c the index of the new inner
+         * @param value the value to emit
+         */
+        void switchToScalar(long c, R value) {
+            SwitchMapInnerSubscriber<T, R> nextInner = new SwitchMapInnerSubscriber<T, R>(this, c, 1);
+            
+            for (;;) {
+                SwitchMapInnerSubscriber<T, R> inner = active;
+                if (inner == CANCELLED) {
+                    return;
+                }
+                if (ACTIVE.compareAndSet(this, inner, nextInner)) {
+                    nextInner.onSubscribe(EmptyDisposable.INSTANCE);
+                    nextInner.onNext(value);
+                    nextInner.onComplete();
+                    return;
+                }
+            }
+        }
+        
         @Override
         public void onError(Throwable t) {
             if (done) {
@@ -0,0 +1,445 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
+import hu.akarnokd.rxjava2.internal.util.*;
+
+/**
+ * Dispatches the values from upstream in a round robin fashion to subscribers which are
+ * ready to consume elements. A value from upstream is sent to only one of the subscribers.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelFromPublisher<T> extends ParallelObservable<T> {
+    final Publisher<? extends T> source;
+    
+    final int parallelism;
+    
+    final int prefetch;
+    
+    public ParallelFromPublisher(Publisher<? extends T> source, int parallelism, int prefetch) {
+        this.source = source;
+        this.parallelism = parallelism;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super T>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+        
+        source.subscribe(new ParallelDispatcher<T>(subscribers, prefetch));
+    }
+    
+    static final class ParallelDispatcher<T> extends AtomicInteger implements Subscriber<T> {
+        /** */
+        private static final long serialVersionUID = -4470634016609963609L;
+
+        final Subscriber<? super T>[] subscribers;
+        
+        /** The requested amount of each rail. */
+        final AtomicLongArray requests;
+
+        /** The number of items emitted to each rail. */
+        final long[] emissions;
+
+        final int prefetch;
+        
+        final int limit;
+        
+        Subscription s;
+        
+        /** 
+         * The queue holding the values, either an own SPSC queue or the upstream's 
+         * QueueSubscription if fusion was established. 
+         */
+        Queue<T> queue;
+        
+        Throwable error;
+        
+        volatile boolean done;
+        
+        /** The next rail to try to emit to. */
+        int index;
+        
+        volatile boolean cancelled;
+        
+        /** Counts how many rails have cancelled; the upstream is cancelled once all did. */
+        final AtomicInteger cancelledRails = new AtomicInteger();
+        
+        /** 
+         * Counts how many subscribers were setup to delay triggering the
+         * drain of upstream until all of them have been setup.
+         */
+        volatile int subscriberCount;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<ParallelDispatcher> SUBSCRIBER_COUNT =
+                AtomicIntegerFieldUpdater.newUpdater(ParallelDispatcher.class, "subscriberCount");
+        
+        /** The number of items consumed from upstream since the last replenishment. */
+        int produced;
+        
+        /** The fusion mode established with the upstream. */
+        int sourceMode;
+
+        public ParallelDispatcher(Subscriber<? super T>[] subscribers, int prefetch) {
+            this.subscribers = subscribers;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.requests = new AtomicLongArray(subscribers.length);
+            this.emissions = new long[subscribers.length];
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            
+            if (s instanceof QueueSubscription) {
+                @SuppressWarnings("unchecked")
+                QueueSubscription<T> qs = (QueueSubscription<T>) s;
+                
+                int m = qs.requestFusion(QueueSubscription.ANY);
+                
+                if (m == QueueSubscription.SYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    done = true;
+                    setupSubscribers();
+                    drain();
+                    return;
+                } else
+                if (m == QueueSubscription.ASYNC) {
+                    sourceMode = m;
+                    queue = qs;
+                    
+                    setupSubscribers();
+                    
+                    s.request(prefetch);
+                    return;
+                }
+            }
+            
+            if (Pow2.isPowerOfTwo(prefetch)) {
+                queue = new SpscArrayQueue<T>(prefetch);
+            } else {
+                queue = new SpscExactArrayQueue<T>(prefetch);
+            }
+            
+            setupSubscribers();
+            
+            s.request(prefetch);
+        }
+        
+        void setupSubscribers() {
+            final int m = subscribers.length;
+            
+            for (int i = 0; i < m; i++) {
+                if (cancelled) {
+                    return;
+                }
+
+                SUBSCRIBER_COUNT.lazySet(this, i + 1);
+                
+                subscribers[i].onSubscribe(new RailSubscription(i));
+            }
+        }
+        
+        /**
+         * The Subscription handed to a particular rail, tracking its requested amount
+         * in the dispatcher's shared requests array.
+         */
+        final class RailSubscription implements Subscription {
+            final int j;
+            
+            boolean railCancelled;
+            
+            public RailSubscription(int j) {
+                this.j = j;
+            }
+            
+            @Override
+            public void request(long n) {
+                if (SubscriptionHelper.validateRequest(n)) {
+                    return;
+                }
+                AtomicLongArray ra = requests;
+                for (;;) {
+                    long r = ra.get(j);
+                    if (r == Long.MAX_VALUE) {
+                        return;
+                    }
+                    long u = BackpressureHelper.addCap(r, n);
+                    if (ra.compareAndSet(j, r, u)) {
+                        break;
+                    }
+                }
+                if (subscriberCount == subscribers.length) {
+                    drain();
+                }
+            }
+            
+            @Override
+            public void cancel() {
+                if (!railCancelled) {
+                    railCancelled = true;
+                    if (cancelledRails.incrementAndGet() == subscribers.length) {
+                        ParallelDispatcher.this.cancel();
+                    }
+                }
+            }
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (sourceMode == QueueSubscription.NONE) {
+                if (!queue.offer(t)) {
+                    s.cancel();
+                    onError(new MissingBackpressureException("Queue is full?"));
+                    return;
+                }
+            }
+            drain();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            done = true;
+            drain();
+        }
+        
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+        
+        void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                this.s.cancel();
+                
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+        
+        void drainAsync() {
+            int missed = 1;
+            
+            final Queue<T> q = queue;
+            final Subscriber<? super T>[] a = this.subscribers;
+            final AtomicLongArray r = this.requests;
+            final long[] e = this.emissions;
+            final int n = e.length;
+            int idx = index;
+            int consumed = produced;
+            
+            for (;;) {
+
+                int notReady = 0;
+                
+                for (;;) {
+                    if (cancelled) {
+                        q.clear();
+                        return;
+                    }
+                    
+                    boolean d = done;
+                    if (d) {
+                        Throwable ex = error;
+                        if (ex != null) {
+                            q.clear();
+                            for (Subscriber<? super T> s : a) {
+                                s.onError(ex);
+                            }
+                            return;
+                        }
+                    }
+                    
+                    boolean empty = q.isEmpty();
+                    
+                    if (d && empty) {
+                        for (Subscriber<? super T> s : a) {
+                            s.onComplete();
+                        }
+                        return;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+                    
+                    long ridx = r.get(idx);
+                    long eidx = e[idx];
+                    if (ridx != eidx) {
+
+                        T v;
+                        
+                        try {
+                            v = q.poll();
+                        } catch (Throwable ex) {
+                            s.cancel();
+                            for (Subscriber<? super T> s : a) {
+                                s.onError(ex);
+                            }
+                            return;
+                        }
+                        
+                        if (v == null) {
+                            break;
+                        }
+                        
+                        a[idx].onNext(v);
+                        
+                        e[idx] = eidx + 1;
+                        
+                        int c = ++consumed;
+                        if (c == limit) {
+                            consumed = 0;
+                            s.request(c);
+                        }
+                        notReady = 0;
+                    } else {
+                        notReady++;
+                    }
+                    
+                    idx++;
+                    if (idx == n) {
+                        idx = 0;
+                    }
+                    
+                    if (notReady == n) {
+                        break;
+                    }
+                }
+                
+                index = idx;
+                produced = consumed;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        void drainSync() {
+            int missed = 1;
+            
+            final Queue<T> q = queue;
+            final Subscriber<? super T>[] a = this.subscribers;
+            final AtomicLongArray r = this.requests;
+            final long[] e = this.emissions;
+            final int n = e.length;
+            int idx = index;
+            
+            for (;;) {
+
+                int notReady = 0;
+                
+                for (;;) {
+                    if (cancelled) {
+                        q.clear();
+                        return;
+                    }
+                    
+                    if (q.isEmpty()) {
+                        for (Subscriber<? super T> s : a) {
+                            s.onComplete();
+                        }
+                        return;
+                    }
+                    
+                    long ridx = r.get(idx);
+                    long eidx = e[idx];
+                    if (ridx != eidx) {
+
+                        T v;
+                        
+                        try {
+                            v = q.poll();
+                        } catch (Throwable ex) {
+                            s.cancel();
+                            for (Subscriber<? super T> s : a) {
+                                s.onError(ex);
+                            }
+                            return;
+                        }
+                        
+                        if (v == null) {
+                            for (Subscriber<? super T> s : a) {
+                                s.onComplete();
+                            }
+                            return;
+                        }
+                        
+                        a[idx].onNext(v);
+                        
+                        e[idx] = eidx + 1;
+                        
+                        notReady = 0;
+                    } else {
+                        notReady++;
+                    }
+                    
+                    idx++;
+                    if (idx == n) {
+                        idx = 0;
+                    }
+                    
+                    if (notReady == n) {
+                        break;
+                    }
+                }
+                
+                index = idx;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            if (sourceMode == QueueSubscription.SYNC) {
+                drainSync();
+            } else {
+                drainAsync();
+            }
+        }
+    }
+}
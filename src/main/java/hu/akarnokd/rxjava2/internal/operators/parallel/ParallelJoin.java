@@ -0,0 +1,363 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.internal.queue.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Merges the 'rails' of the source ParallelObservable into a single sequence
+ * by polling the per-rail queues in a round-robin fashion.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelJoin<T> implements Publisher<T> {
+    
+    final ParallelObservable<? extends T> source;
+    
+    final int prefetch;
+    
+    public ParallelJoin(ParallelObservable<? extends T> source, int prefetch) {
+        this.source = source;
+        this.prefetch = prefetch;
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super T> s) {
+        JoinSubscription<T> parent = new JoinSubscription<T>(s, source.parallelism(), prefetch);
+        s.onSubscribe(parent);
+        source.subscribe(parent.subscribers);
+    }
+    
+    static final class JoinSubscription<T> extends AtomicInteger implements Subscription {
+        /** */
+        private static final long serialVersionUID = 3100232009247827843L;
+
+        final Subscriber<? super T> actual;
+        
+        final JoinInnerSubscriber<T>[] subscribers;
+        
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        
+        final AtomicLong requested = new AtomicLong();
+        
+        volatile boolean cancelled;
+        
+        final AtomicInteger done = new AtomicInteger();
+        
+        public JoinSubscription(Subscriber<? super T> actual, int n, int prefetch) {
+            this.actual = actual;
+            @SuppressWarnings("unchecked")
+            JoinInnerSubscriber<T>[] a = new JoinInnerSubscriber[n];
+            
+            for (int i = 0; i < n; i++) {
+                a[i] = new JoinInnerSubscriber<T>(this, prefetch);
+            }
+            
+            this.subscribers = a;
+            done.lazySet(n);
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            BackpressureHelper.add(requested, n);
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                
+                cancelAll();
+                
+                if (getAndIncrement() == 0) {
+                    cleanup();
+                }
+            }
+        }
+        
+        void cancelAll() {
+            for (JoinInnerSubscriber<T> s : subscribers) {
+                s.cancel();
+            }
+        }
+        
+        void cleanup() {
+            for (JoinInnerSubscriber<T> s : subscribers) {
+                s.queue.clear(); 
+            }
+        }
+        
+        void onNext(JoinInnerSubscriber<T> inner, T value) {
+            if (get() == 0 && compareAndSet(0, 1)) {
+                if (requested.get() != 0) {
+                    actual.onNext(value);
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    inner.requestOne();
+                } else {
+                    if (!inner.queue.offer(value)) {
+                        onError(new MissingBackpressureException("Queue full?!"));
+                    }
+                }
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                if (!inner.queue.offer(value)) {
+                    onError(new MissingBackpressureException("Queue full?!"));
+                    return;
+                }
+                
+                if (getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            
+            drainLoop();
+        }
+        
+        void onError(Throwable e) {
+            if (error.compareAndSet(null, e)) {
+                cancelAll();
+                drain();
+            } else
+            if (error.get() != e) {
+                // the same error arriving on multiple rails is reported only once
+                RxJavaPlugins.onError(e);
+            }
+        }
+        
+        void onComplete() {
+            done.decrementAndGet();
+            drain();
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            drainLoop();
+        }
+        
+        void drainLoop() {
+            int missed = 1;
+            
+            JoinInnerSubscriber<T>[] s = this.subscribers;
+            int n = s.length;
+            Subscriber<? super T> a = this.actual;
+            
+            for (;;) {
+                
+                long r = requested.get();
+                long e = 0;
+                
+                middle:
+                while (e != r) {
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                    
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        cleanup();
+                        a.onError(ex);
+                        return;
+                    }
+                    
+                    boolean d = done.get() == 0;
+                    
+                    boolean empty = true;
+                    
+                    for (int i = 0; i < n; i++) {
+                        JoinInnerSubscriber<T> inner = s[i];
+                        
+                        T v = inner.queue.poll();
+                        
+                        if (v != null) {
+                            empty = false;
+                            a.onNext(v);
+                            inner.requestOne();
+                            if (++e == r) {
+                                break middle;
+                            }
+                        }
+                    }
+                    
+                    if (d && empty) {
+                        a.onComplete();
+                        return;
+                    }
+                    
+                    if (empty) {
+                        break;
+                    }
+                }
+                
+                if (e == r) {
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                    
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        cleanup();
+                        a.onError(ex);
+                        return;
+                    }
+                    
+                    boolean d = done.get() == 0;
+                    
+                    boolean empty = true;
+                    
+                    for (int i = 0; i < n; i++) {
+                        JoinInnerSubscriber<T> inner = s[i];
+                        
+                        if (!inner.queue.isEmpty()) {
+                            empty = false;
+                            break;
+                        }
+                    }
+                    
+                    if (d && empty) {
+                        a.onComplete();
+                        return;
+                    }
+                }
+                
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                
+                int w = get();
+                if (w == missed) {
+                    missed = addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+    
+    static final class JoinInnerSubscriber<T> 
+    extends AtomicReference<Subscription>
+    implements Subscriber<T> {
+        /** */
+        private static final long serialVersionUID = 8410034718427740355L;
+
+        static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long n) {
+                
+            }
+            
+            @Override
+            public void cancel() {
+                
+            }
+        };
+
+        final JoinSubscription<T> parent;
+        
+        final int prefetch;
+        
+        final int limit;
+        
+        final Queue<T> queue;
+        
+        long produced;
+        
+        public JoinInnerSubscriber(JoinSubscription<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            if (Pow2.isPowerOfTwo(prefetch)) {
+                this.queue = new SpscArrayQueue<T>(prefetch);
+            } else {
+                this.queue = new SpscExactArrayQueue<T>(prefetch);
+            }
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (compareAndSet(null, s)) {
+                s.request(prefetch);
+            } else {
+                s.cancel();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportSubscriptionSet();
+                }
+            }
+        }
+        
+        @Override
+        public void onNext(T t) {
+            parent.onNext(this, t);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            parent.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            parent.onComplete();
+        }
+        
+        /**
+         * Counts a value taken from this rail and replenishes the 
+         * upstream once the limit has been reached.
+         */
+        void requestOne() {
+            long p = produced + 1;
+            if (p == limit) {
+                produced = 0;
+                get().request(p);
+            } else {
+                produced = p;
+            }
+        }
+        
+        void cancel() {
+            Subscription s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.cancel();
+                }
+            }
+        }
+    }
+}
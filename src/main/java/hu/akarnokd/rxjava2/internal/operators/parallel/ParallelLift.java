@@ -0,0 +1,81 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import org.reactivestreams.Subscriber;
+
+import hu.akarnokd.rxjava2.Observable.Operator;
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+
+/**
+ * Applies an Operator to each 'rail' of the source ParallelObservable.
+ *
+ * @param <T> the input value type
+ * @param <R> the output value type
+ */
+public final class ParallelLift<T, R> extends ParallelObservable<R> {
+    final ParallelObservable<T> source;
+    
+    final Operator<? extends R, ? super T> lifter;
+    
+    public ParallelLift(ParallelObservable<T> source, Operator<? extends R, ? super T> lifter) {
+        this.source = source;
+        this.lifter = lifter;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+        
+        int n = subscribers.length;
+        @SuppressWarnings("unchecked")
+        Subscriber<? super T>[] parents = new Subscriber[n];
+        
+        for (int i = 0; i < n; i++) {
+            Subscriber<? super T> p;
+            try {
+                p = lifter.apply(subscribers[i]);
+            } catch (Throwable ex) {
+                for (int j = i; j < n; j++) {
+                    EmptySubscription.error(ex, subscribers[j]);
+                }
+                for (int j = 0; j < i; j++) {
+                    EmptySubscription.error(ex, parents[j]);
+                }
+                return;
+            }
+            if (p == null) {
+                NullPointerException npe = new NullPointerException("Operator " + lifter + " returned a null Subscriber");
+                for (int j = i; j < n; j++) {
+                    EmptySubscription.error(npe, subscribers[j]);
+                }
+                for (int j = 0; j < i; j++) {
+                    EmptySubscription.error(npe, parents[j]);
+                }
+                return;
+            }
+            parents[i] = p;
+        }
+        
+        source.subscribe(parents);
+    }
+
+    @Override
+    public int parallelism() {
+        return source.parallelism();
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Reduce the sequence of values in each 'rail' to a single value.
+ *
+ * @param <T> the input value type
+ * @param <R> the result value type
+ */
+public final class ParallelReduce<T, R> extends ParallelObservable<R> {
+    
+    final ParallelObservable<? extends T> source;
+    
+    final Supplier<R> initialSupplier;
+    
+    final BiFunction<R, ? super T, R> reducer;
+    
+    public ParallelReduce(ParallelObservable<? extends T> source, Supplier<R> initialSupplier, BiFunction<R, ? super T, R> reducer) {
+        this.source = source;
+        this.initialSupplier = initialSupplier;
+        this.reducer = reducer;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+        
+        int n = subscribers.length;
+        @SuppressWarnings("unchecked")
+        Subscriber<T>[] parents = new Subscriber[n];
+        
+        for (int i = 0; i < n; i++) {
+            
+            R initialValue;
+            
+            try {
+                initialValue = initialSupplier.get();
+            } catch (Throwable ex) {
+                reportError(subscribers, ex);
+                return;
+            }
+            
+            if (initialValue == null) {
+                reportError(subscribers, new NullPointerException("The initialSupplier returned a null value"));
+                return;
+            }
+            
+            parents[i] = new ParallelReduceSubscriber<T, R>(subscribers[i], initialValue, reducer);
+        }
+        
+        source.subscribe(parents);
+    }
+    
+    void reportError(Subscriber<?>[] subscribers, Throwable ex) {
+        for (Subscriber<?> s : subscribers) {
+            EmptySubscription.error(ex, s);
+        }
+    }
+
+    @Override
+    public int parallelism() {
+        return source.parallelism();
+    }
+
+    static final class ParallelReduceSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+        final Subscriber<? super R> actual;
+        
+        final BiFunction<R, ? super T, R> reducer;
+
+        Subscription s;
+        
+        R accumulator;
+        
+        boolean done;
+        
+        public ParallelReduceSubscriber(Subscriber<? super R> actual, R initialValue, BiFunction<R, ? super T, R> reducer) {
+            this.actual = actual;
+            this.accumulator = initialValue;
+            this.reducer = reducer;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            
+            R v;
+            
+            try {
+                v = reducer.apply(accumulator, t);
+            } catch (Throwable ex) {
+                s.cancel();
+                onError(ex);
+                return;
+            }
+            
+            if (v == null) {
+                s.cancel();
+                onError(new NullPointerException("The reducer returned a null value"));
+                return;
+            }
+            
+            accumulator = v;
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            accumulator = null;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            
+            R a = accumulator;
+            accumulator = null;
+            actual.onNext(a);
+            actual.onComplete();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            s.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
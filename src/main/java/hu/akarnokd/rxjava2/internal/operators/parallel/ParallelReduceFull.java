@@ -0,0 +1,257 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.functions.BiFunction;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Reduces all 'rails' into a single value which then gets reduced into a single
+ * Publisher sequence.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelReduceFull<T> implements Publisher<T> {
+
+    final ParallelObservable<? extends T> source;
+    
+    final BiFunction<T, T, T> reducer;
+    
+    public ParallelReduceFull(ParallelObservable<? extends T> source, BiFunction<T, T, T> reducer) {
+        this.source = source;
+        this.reducer = reducer;
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super T> s) {
+        ParallelReduceFullMainSubscriber<T> parent = new ParallelReduceFullMainSubscriber<T>(s, source.parallelism(), reducer);
+        s.onSubscribe(parent);
+        
+        source.subscribe(parent.subscribers);
+    }
+    
+    static final class ParallelReduceFullMainSubscriber<T> implements Subscription {
+        
+        final Subscriber<? super T> actual;
+
+        final ParallelReduceFullInnerSubscriber<T>[] subscribers;
+        
+        final BiFunction<T, T, T> reducer;
+        
+        final ScalarAsyncSubscription<T> scalar;
+        
+        /** The rails' values combined so far, guarded by this. */
+        T value;
+        
+        final AtomicInteger remaining = new AtomicInteger();
+        
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        
+        public ParallelReduceFullMainSubscriber(Subscriber<? super T> subscriber, int n, BiFunction<T, T, T> reducer) {
+            this.actual = subscriber;
+            this.scalar = new ScalarAsyncSubscription<T>(subscriber);
+            @SuppressWarnings("unchecked")
+            ParallelReduceFullInnerSubscriber<T>[] a = new ParallelReduceFullInnerSubscriber[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = new ParallelReduceFullInnerSubscriber<T>(this, reducer);
+            }
+            this.subscribers = a;
+            this.reducer = reducer;
+            remaining.lazySet(n);
+        }
+        
+        void innerComplete(T value) {
+            if (value != null) {
+                Throwable failure = null;
+                synchronized (this) {
+                    T v = this.value;
+                    if (v != null) {
+                        try {
+                            v = reducer.apply(v, value);
+                        } catch (Throwable ex) {
+                            failure = ex;
+                        }
+                        
+                        if (failure == null && v == null) {
+                            failure = new NullPointerException("The reducer returned a null value");
+                        }
+                    } else {
+                        v = value;
+                    }
+                    this.value = v;
+                }
+                if (failure != null) {
+                    innerError(failure);
+                    return;
+                }
+            }
+            
+            if (remaining.decrementAndGet() == 0) {
+                T v;
+                synchronized (this) {
+                    v = this.value;
+                    this.value = null;
+                }
+                if (error.get() != null) {
+                    return;
+                }
+                if (v != null) {
+                    scalar.setValue(v);
+                } else {
+                    actual.onComplete();
+                }
+            }
+        }
+        
+        void innerError(Throwable ex) {
+            if (error.compareAndSet(null, ex)) {
+                cancelAll();
+                actual.onError(ex);
+            } else
+            if (error.get() != ex) {
+                // the same error arriving on multiple rails is reported only once
+                RxJavaPlugins.onError(ex);
+            }
+        }
+        
+        @Override
+        public void request(long n) {
+            scalar.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            scalar.cancel();
+            cancelAll();
+        }
+        
+        void cancelAll() {
+            for (ParallelReduceFullInnerSubscriber<T> inner : subscribers) {
+                inner.cancel();
+            }
+        }
+    }
+    
+    static final class ParallelReduceFullInnerSubscriber<T> 
+    extends AtomicReference<Subscription>
+    implements Subscriber<T> {
+        /** */
+        private static final long serialVersionUID = -7954444275102466525L;
+
+        static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long n) {
+                
+            }
+            
+            @Override
+            public void cancel() {
+                
+            }
+        };
+
+        final ParallelReduceFullMainSubscriber<T> parent;
+        
+        final BiFunction<T, T, T> reducer;
+        
+        T value;
+        
+        boolean done;
+        
+        public ParallelReduceFullInnerSubscriber(ParallelReduceFullMainSubscriber<T> parent, BiFunction<T, T, T> reducer) {
+            this.parent = parent;
+            this.reducer = reducer;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (compareAndSet(null, s)) {
+                s.request(Long.MAX_VALUE);
+            } else {
+                s.cancel();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportSubscriptionSet();
+                }
+            }
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            T v = value;
+            
+            if (v == null) {
+                value = t;
+            } else {
+                
+                try {
+                    v = reducer.apply(v, t);
+                } catch (Throwable ex) {
+                    get().cancel();
+                    onError(ex);
+                    return;
+                }
+                
+                if (v == null) {
+                    get().cancel();
+                    onError(new NullPointerException("The reducer returned a null value"));
+                    return;
+                }
+                
+                value = v;
+            }
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            value = null;
+            parent.innerError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            
+            T v = value;
+            value = null;
+            parent.innerComplete(v);
+        }
+        
+        void cancel() {
+            Subscription s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.cancel();
+                }
+            }
+        }
+    }
+}
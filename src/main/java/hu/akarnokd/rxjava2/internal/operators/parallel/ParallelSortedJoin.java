@@ -0,0 +1,359 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.parallel;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.ParallelObservable;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Collects each 'rail' into a List, sorts it on the rail's own thread and
+ * then merges the sorted Lists by picking the smallest available value
+ * from each List on demand.
+ *
+ * @param <T> the value type
+ */
+public final class ParallelSortedJoin<T> implements Publisher<T> {
+
+    final ParallelObservable<? extends T> source;
+    
+    final Comparator<? super T> comparator;
+    
+    final int capacityHint;
+    
+    public ParallelSortedJoin(ParallelObservable<? extends T> source, Comparator<? super T> comparator, int capacityHint) {
+        this.source = source;
+        this.comparator = comparator;
+        this.capacityHint = capacityHint;
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super T> s) {
+        SortedJoinSubscription<T> parent = new SortedJoinSubscription<T>(s, source.parallelism(), comparator, capacityHint);
+        s.onSubscribe(parent);
+        
+        source.subscribe(parent.subscribers);
+    }
+    
+    static final class SortedJoinSubscription<T> extends AtomicInteger implements Subscription {
+        /** */
+        private static final long serialVersionUID = 3481980673745556697L;
+
+        final Subscriber<? super T> actual;
+        
+        final SortedJoinInnerSubscriber<T>[] subscribers;
+        
+        /** The sorted list of each rail, set once the rail completes. */
+        final List<T>[] lists;
+        
+        /** The index of the next value to emit from each rail's list. */
+        final int[] indexes;
+        
+        final Comparator<? super T> comparator;
+        
+        final AtomicLong requested = new AtomicLong();
+        
+        volatile boolean cancelled;
+        
+        final AtomicInteger remaining = new AtomicInteger();
+        
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        
+        @SuppressWarnings("unchecked")
+        public SortedJoinSubscription(Subscriber<? super T> actual, int n, Comparator<? super T> comparator, int capacityHint) {
+            this.actual = actual;
+            this.comparator = comparator;
+            
+            SortedJoinInnerSubscriber<T>[] s = new SortedJoinInnerSubscriber[n];
+            
+            for (int i = 0; i < n; i++) {
+                s[i] = new SortedJoinInnerSubscriber<T>(this, i, comparator, capacityHint);
+            }
+            this.subscribers = s;
+            this.lists = new List[n];
+            this.indexes = new int[n];
+            remaining.lazySet(n);
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            BackpressureHelper.add(requested, n);
+            if (remaining.get() == 0) {
+                drain();
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+                if (getAndIncrement() == 0) {
+                    Arrays.fill(lists, null);
+                }
+            }
+        }
+        
+        void cancelAll() {
+            for (SortedJoinInnerSubscriber<T> s : subscribers) {
+                s.cancel();
+            }
+        }
+        
+        void innerNext(List<T> value, int index) {
+            lists[index] = value;
+            if (remaining.decrementAndGet() == 0) {
+                drain();
+            }
+        }
+        
+        void innerError(Throwable e) {
+            if (error.compareAndSet(null, e)) {
+                drain();
+            } else
+            if (error.get() != e) {
+                // the same error arriving on multiple rails is reported only once
+                RxJavaPlugins.onError(e);
+            }
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            
+            int missed = 1;
+            Subscriber<? super T> a = actual;
+            List<T>[] lists = this.lists;
+            int[] indexes = this.indexes;
+            int n = indexes.length;
+            
+            for (;;) {
+                
+                long r = requested.get();
+                long e = 0L;
+                
+                while (e != r) {
+                    if (cancelled) {
+                        Arrays.fill(lists, null);
+                        return;
+                    }
+                    
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        cancelAll();
+                        Arrays.fill(lists, null);
+                        a.onError(ex);
+                        return;
+                    }
+                    
+                    T min = null;
+                    int minIndex = -1;
+                    
+                    for (int i = 0; i < n; i++) {
+                        List<T> list = lists[i];
+                        int index = indexes[i];
+                        
+                        if (list.size() != index) {
+                            if (min == null) {
+                                min = list.get(index);
+                                minIndex = i;
+                            } else {
+                                T b = list.get(index);
+                                
+                                boolean smaller;
+                                
+                                try {
+                                    smaller = comparator.compare(min, b) > 0;
+                                } catch (Throwable exc) {
+                                    cancelAll();
+                                    Arrays.fill(lists, null);
+                                    if (!error.compareAndSet(null, exc)) {
+                                        RxJavaPlugins.onError(exc);
+                                    }
+                                    a.onError(error.get());
+                                    return;
+                                }
+                                if (smaller) {
+                                    min = b;
+                                    minIndex = i;
+                                }
+                            }
+                        }
+                    }
+                    
+                    if (min == null) {
+                        Arrays.fill(lists, null);
+                        a.onComplete();
+                        return;
+                    }
+                    
+                    a.onNext(min);
+                    
+                    indexes[minIndex]++;
+                    
+                    e++;
+                }
+                
+                if (e == r) {
+                    if (cancelled) {
+                        Arrays.fill(lists, null);
+                        return;
+                    }
+                    
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        cancelAll();
+                        Arrays.fill(lists, null);
+                        a.onError(ex);
+                        return;
+                    }
+                    
+                    boolean empty = true;
+                    
+                    for (int i = 0; i < n; i++) {
+                        if (indexes[i] != lists[i].size()) {
+                            empty = false;
+                            break;
+                        }
+                    }
+                    
+                    if (empty) {
+                        Arrays.fill(lists, null);
+                        a.onComplete();
+                        return;
+                    }
+                }
+                
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                
+                int w = get();
+                if (w == missed) {
+                    missed = addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+    
+    static final class SortedJoinInnerSubscriber<T>
+    extends AtomicReference<Subscription>
+    implements Subscriber<T> {
+        /** */
+        private static final long serialVersionUID = 6751017204873808094L;
+
+        static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long n) {
+                
+            }
+            
+            @Override
+            public void cancel() {
+                
+            }
+        };
+
+        final SortedJoinSubscription<T> parent;
+        
+        final int index;
+        
+        final Comparator<? super T> comparator;
+        
+        List<T> list;
+        
+        boolean done;
+        
+        public SortedJoinInnerSubscriber(SortedJoinSubscription<T> parent, int index, Comparator<? super T> comparator, int capacityHint) {
+            this.parent = parent;
+            this.index = index;
+            this.comparator = comparator;
+            this.list = new ArrayList<T>(capacityHint);
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (compareAndSet(null, s)) {
+                s.request(Long.MAX_VALUE);
+            } else {
+                s.cancel();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportSubscriptionSet();
+                }
+            }
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (!done) {
+                list.add(t);
+            }
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            list = null;
+            parent.innerError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            List<T> a = list;
+            list = null;
+            
+            try {
+                Collections.sort(a, comparator);
+            } catch (Throwable ex) {
+                parent.innerError(ex);
+                return;
+            }
+            
+            parent.innerNext(a, index);
+        }
+        
+        void cancel() {
+            Subscription s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.cancel();
+                }
+            }
+        }
+    }
+}
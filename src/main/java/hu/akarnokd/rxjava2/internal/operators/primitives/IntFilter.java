@@ -0,0 +1,113 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.IntObservable;
+import hu.akarnokd.rxjava2.functions.IntPredicate;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Relays those int values of the source which pass a predicate.
+ */
+public final class IntFilter extends IntObservable {
+    final IntObservable source;
+    
+    final IntPredicate predicate;
+    
+    public IntFilter(IntObservable source, IntPredicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+    
+    @Override
+    public void subscribe(IntSubscriber s) {
+        source.subscribe(new FilterSubscriber(s, predicate));
+    }
+    
+    static final class FilterSubscriber implements IntSubscriber, Subscription {
+        final IntSubscriber actual;
+        
+        final IntPredicate predicate;
+        
+        Subscription s;
+        
+        boolean done;
+        
+        public FilterSubscriber(IntSubscriber actual, IntPredicate predicate) {
+            this.actual = actual;
+            this.predicate = predicate;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(int t) {
+            if (done) {
+                return;
+            }
+            boolean b;
+            try {
+                b = predicate.test(t);
+            } catch (Throwable e) {
+                s.cancel();
+                onError(e);
+                return;
+            }
+            if (b) {
+                actual.onNext(t);
+            } else {
+                s.request(1);
+            }
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+        
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
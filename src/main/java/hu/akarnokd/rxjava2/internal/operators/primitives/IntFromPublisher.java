@@ -0,0 +1,62 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.IntObservable;
+
+/**
+ * Unboxes the Integer values of a Publisher.
+ */
+public final class IntFromPublisher extends IntObservable {
+    final Publisher<? extends Integer> source;
+    
+    public IntFromPublisher(Publisher<? extends Integer> source) {
+        this.source = source;
+    }
+    
+    @Override
+    public void subscribe(IntSubscriber s) {
+        source.subscribe(new UnboxingSubscriber(s));
+    }
+    
+    static final class UnboxingSubscriber implements Subscriber<Integer> {
+        final IntSubscriber actual;
+        
+        public UnboxingSubscriber(IntSubscriber actual) {
+            this.actual = actual;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+        
+        @Override
+        public void onNext(Integer t) {
+            actual.onNext(t);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
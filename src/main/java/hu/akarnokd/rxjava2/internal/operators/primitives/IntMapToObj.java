@@ -0,0 +1,116 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.IntObservable;
+import hu.akarnokd.rxjava2.IntObservable.IntSubscriber;
+import hu.akarnokd.rxjava2.functions.IntFunction;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps the int values of the source into objects, leaving the primitive pipeline.
+ * @param <R> the result value type
+ */
+public final class IntMapToObj<R> implements Publisher<R> {
+    final IntObservable source;
+    
+    final IntFunction<? extends R> mapper;
+    
+    public IntMapToObj(IntObservable source, IntFunction<? extends R> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+    
+    @Override
+    public void subscribe(Subscriber<? super R> s) {
+        source.subscribe(new MapToObjSubscriber<R>(s, mapper));
+    }
+    
+    static final class MapToObjSubscriber<R> implements IntSubscriber, Subscription {
+        final Subscriber<? super R> actual;
+        
+        final IntFunction<? extends R> mapper;
+        
+        Subscription s;
+        
+        boolean done;
+        
+        public MapToObjSubscriber(Subscriber<? super R> actual, IntFunction<? extends R> mapper) {
+            this.actual = actual;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(int t) {
+            if (done) {
+                return;
+            }
+            R v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable e) {
+                s.cancel();
+                onError(e);
+                return;
+            }
+            if (v == null) {
+                s.cancel();
+                onError(new NullPointerException("The mapper returned a null value"));
+                return;
+            }
+            actual.onNext(v);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+        
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
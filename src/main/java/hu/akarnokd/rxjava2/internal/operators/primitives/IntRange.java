@@ -0,0 +1,138 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.IntObservable;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
+import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
+
+/**
+ * Emits a range of int values.
+ */
+public final class IntRange extends IntObservable {
+    final int start;
+    /** The exclusive end, may have wrapped around if the range ends with the maximum value. */
+    final int end;
+    
+    public IntRange(int start, int count) {
+        this.start = start;
+        this.end = start + count;
+    }
+    
+    @Override
+    public void subscribe(IntSubscriber s) {
+        if (start == end) {
+            // an empty range completes without waiting for a request, as Observable.range does
+            s.onSubscribe(EmptySubscription.INSTANCE);
+            s.onComplete();
+            return;
+        }
+        s.onSubscribe(new RangeSubscription(s, start, end));
+    }
+    
+    static final class RangeSubscription extends AtomicLong implements Subscription {
+        /** */
+        private static final long serialVersionUID = -6230068211247830664L;
+
+        final IntSubscriber actual;
+        
+        final int end;
+        
+        int index;
+        
+        volatile boolean cancelled;
+        
+        public RangeSubscription(IntSubscriber actual, int start, int end) {
+            this.actual = actual;
+            this.index = start;
+            this.end = end;
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            if (BackpressureHelper.add(this, n) == 0L) {
+                if (n == Long.MAX_VALUE) {
+                    fastpath();
+                } else {
+                    slowpath(n);
+                }
+            }
+        }
+        
+        void fastpath() {
+            final int f = end;
+            final IntSubscriber a = actual;
+            
+            for (int i = index; i != f; i++) {
+                if (cancelled) {
+                    return;
+                }
+                a.onNext(i);
+            }
+            if (!cancelled) {
+                a.onComplete();
+            }
+        }
+        
+        void slowpath(long r) {
+            long e = 0L;
+            int i = index;
+            final int f = end;
+            final IntSubscriber a = actual;
+            
+            for (;;) {
+                
+                while (e != r && i != f) {
+                    if (cancelled) {
+                        return;
+                    }
+                    
+                    a.onNext(i);
+                    
+                    e++;
+                    i++;
+                }
+                
+                if (i == f) {
+                    if (!cancelled) {
+                        a.onComplete();
+                    }
+                    return;
+                }
+                
+                r = get();
+                if (e == r) {
+                    index = i;
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.IntObservable;
+import hu.akarnokd.rxjava2.functions.IntBinaryOperator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Emits the first int value of the source and then the accumulation of each further value
+ * with the previous result.
+ */
+public final class IntScan extends IntObservable {
+    final IntObservable source;
+    
+    final IntBinaryOperator accumulator;
+    
+    public IntScan(IntObservable source, IntBinaryOperator accumulator) {
+        this.source = source;
+        this.accumulator = accumulator;
+    }
+    
+    @Override
+    public void subscribe(IntSubscriber s) {
+        source.subscribe(new ScanSubscriber(s, accumulator));
+    }
+    
+    static final class ScanSubscriber implements IntSubscriber, Subscription {
+        final IntSubscriber actual;
+        
+        final IntBinaryOperator accumulator;
+        
+        Subscription s;
+        
+        int value;
+        
+        boolean hasValue;
+        
+        boolean done;
+        
+        public ScanSubscriber(IntSubscriber actual, IntBinaryOperator accumulator) {
+            this.actual = actual;
+            this.accumulator = accumulator;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(int t) {
+            if (done) {
+                return;
+            }
+            int v;
+            if (hasValue) {
+                try {
+                    v = accumulator.apply(value, t);
+                } catch (Throwable e) {
+                    s.cancel();
+                    onError(e);
+                    return;
+                }
+            } else {
+                v = t;
+                hasValue = true;
+            }
+            value = v;
+            actual.onNext(v);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+        
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
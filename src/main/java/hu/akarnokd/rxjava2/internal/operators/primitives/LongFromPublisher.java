@@ -0,0 +1,62 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.LongObservable;
+
+/**
+ * Unboxes the Long values of a Publisher.
+ */
+public final class LongFromPublisher extends LongObservable {
+    final Publisher<? extends Long> source;
+    
+    public LongFromPublisher(Publisher<? extends Long> source) {
+        this.source = source;
+    }
+    
+    @Override
+    public void subscribe(LongSubscriber s) {
+        source.subscribe(new UnboxingSubscriber(s));
+    }
+    
+    static final class UnboxingSubscriber implements Subscriber<Long> {
+        final LongSubscriber actual;
+        
+        public UnboxingSubscriber(LongSubscriber actual) {
+            this.actual = actual;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+        
+        @Override
+        public void onNext(Long t) {
+            actual.onNext(t);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+    }
+}
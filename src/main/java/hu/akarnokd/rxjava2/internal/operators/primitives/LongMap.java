@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.LongObservable;
+import hu.akarnokd.rxjava2.functions.LongUnaryOperator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Maps each long value of the source via a function.
+ */
+public final class LongMap extends LongObservable {
+    final LongObservable source;
+    
+    final LongUnaryOperator mapper;
+    
+    public LongMap(LongObservable source, LongUnaryOperator mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+    
+    @Override
+    public void subscribe(LongSubscriber s) {
+        source.subscribe(new MapSubscriber(s, mapper));
+    }
+    
+    static final class MapSubscriber implements LongSubscriber, Subscription {
+        final LongSubscriber actual;
+        
+        final LongUnaryOperator mapper;
+        
+        Subscription s;
+        
+        boolean done;
+        
+        public MapSubscriber(LongSubscriber actual, LongUnaryOperator mapper) {
+            this.actual = actual;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+        }
+        
+        @Override
+        public void onNext(long t) {
+            if (done) {
+                return;
+            }
+            long v;
+            try {
+                v = mapper.apply(t);
+            } catch (Throwable e) {
+                s.cancel();
+                onError(e);
+                return;
+            }
+            actual.onNext(v);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+        
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
+}
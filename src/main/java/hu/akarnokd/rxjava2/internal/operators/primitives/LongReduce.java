@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.primitives;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.LongObservable;
+import hu.akarnokd.rxjava2.functions.LongBinaryOperator;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Reduces the long values of the source into a single value emitted when the source
+ * completes, starting from an optional seed; without a seed, an empty source
+ * results in an empty sequence.
+ */
+public final class LongReduce extends LongObservable {
+    final LongObservable source;
+    
+    final LongBinaryOperator reducer;
+    
+    final boolean hasSeed;
+    
+    final long seed;
+    
+    public LongReduce(LongObservable source, LongBinaryOperator reducer) {
+        this.source = source;
+        this.reducer = reducer;
+        this.hasSeed = false;
+        this.seed = 0;
+    }
+
+    public LongReduce(LongObservable source, long seed, LongBinaryOperator reducer) {
+        this.source = source;
+        this.reducer = reducer;
+        this.hasSeed = true;
+        this.seed = seed;
+    }
+    
+    @Override
+    public void subscribe(LongSubscriber s) {
+        source.subscribe(new ReduceSubscriber(s, reducer, hasSeed, seed));
+    }
+    
+    static final class ReduceSubscriber extends AtomicInteger implements LongSubscriber, Subscription {
+        /** */
+        private static final long serialVersionUID = 7112603150978367140L;
+
+        final LongSubscriber actual;
+        
+        final LongBinaryOperator reducer;
+        
+        Subscription s;
+        
+        long value;
+        
+        boolean hasValue;
+        
+        boolean done;
+        
+        static final int REQUESTED = 1;
+        static final int VALUE = 2;
+        
+        public ReduceSubscriber(LongSubscriber actual, LongBinaryOperator reducer, boolean hasSeed, long seed) {
+            this.actual = actual;
+            this.reducer = reducer;
+            this.hasValue = hasSeed;
+            this.value = seed;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validateSubscription(this.s, s)) {
+                return;
+            }
+            this.s = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(long t) {
+            if (done) {
+                return;
+            }
+            if (hasValue) {
+                try {
+                    value = reducer.apply(value, t);
+                } catch (Throwable e) {
+                    s.cancel();
+                    onError(e);
+                }
+            } else {
+                value = t;
+                hasValue = true;
+            }
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+        
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (!hasValue) {
+                actual.onComplete();
+                return;
+            }
+            for (;;) {
+                int state = get();
+                if ((state & VALUE) != 0) {
+                    return;
+                }
+                if (state == REQUESTED) {
+                    if (compareAndSet(REQUESTED, REQUESTED | VALUE)) {
+                        actual.onNext(value);
+                        actual.onComplete();
+                        return;
+                    }
+                } else
+                if (compareAndSet(0, VALUE)) {
+                    return;
+                }
+            }
+        }
+        
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validateRequest(n)) {
+                return;
+            }
+            for (;;) {
+                int state = get();
+                if ((state & REQUESTED) != 0) {
+                    return;
+                }
+                if (state == VALUE) {
+                    if (compareAndSet(VALUE, REQUESTED | VALUE)) {
+                        actual.onNext(value);
+                        actual.onComplete();
+                        return;
+                    }
+                } else
+                if (compareAndSet(0, REQUESTED)) {
+                    return;
+                }
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            getAndSet(REQUESTED | VALUE);
+            s.cancel();
+        }
+    }
+}
@@ -68,6 +68,11 @@ public final class SingleOperatorFlatMap<T, R> implements SingleOperator<R, T> {
                 return;
             }
             
+            if (o instanceof SingleScalarSource) {
+                actual.onSuccess(((SingleScalarSource<? extends R>)o).value());
+                return;
+            }
+            
             o.subscribe(new SingleSubscriber<R>() {
                 @Override
                 public void onSubscribe(Disposable d) {
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.single;
+
+import hu.akarnokd.rxjava2.Single;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.internal.disposables.EmptyDisposable;
+
+/**
+ * Represents a constant scalar value.
+ * @param <T> the value type
+ */
+public final class SingleScalarSource<T> extends Single<T> {
+    private final T value;
+    public SingleScalarSource(final T value) {
+        super(new SingleOnSubscribe<T>() {
+            @Override
+            public void accept(SingleSubscriber<? super T> s) {
+                s.onSubscribe(EmptyDisposable.INSTANCE);
+                s.onSuccess(value);
+            }
+        });
+        this.value = value;
+    }
+    
+    public T value() {
+        return value;
+    }
+    
+    public <U> SingleOnSubscribe<U> scalarFlatMap(final Function<? super T, ? extends Single<? extends U>> mapper) {
+        return new SingleOnSubscribe<U>() {
+            @Override
+            public void accept(SingleSubscriber<? super U> s) {
+                Single<? extends U> other;
+                try {
+                    other = mapper.apply(value);
+                } catch (Throwable e) {
+                    s.onSubscribe(EmptyDisposable.INSTANCE);
+                    s.onError(e);
+                    return;
+                }
+                if (other == null) {
+                    s.onSubscribe(EmptyDisposable.INSTANCE);
+                    s.onError(new NullPointerException("The single returned by the mapper is null"));
+                    return;
+                }
+                if (other instanceof SingleScalarSource) {
+                    @SuppressWarnings("unchecked")
+                    SingleScalarSource<U> o = (SingleScalarSource<U>)other;
+                    s.onSubscribe(EmptyDisposable.INSTANCE);
+                    s.onSuccess(o.value);
+                } else {
+                    other.subscribe(s);
+                }
+            }
+        };
+    }
+}
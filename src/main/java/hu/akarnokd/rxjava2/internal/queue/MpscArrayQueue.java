@@ -0,0 +1,149 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/*
+ * The code was inspired by the similarly named JCTools class: 
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic
+ */
+
+package hu.akarnokd.rxjava2.internal.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Multi-Producer-Single-Consumer queue backed by a pre-allocated buffer.
+ * <p>
+ * The producers claim a slot by CAS-ing the producer index and then publish the element
+ * into it with an ordered store; a consumer seeing an empty slot while the producer index is ahead
+ * spins until the element becomes visible. The consumer side is wait free, the producer side is
+ * lock free. The capacity is rounded up to the next power of 2.
+ * 
+ * @param <E> the element type
+ */
+public final class MpscArrayQueue<E> extends BaseArrayQueue<E> {
+    /** */
+    private static final long serialVersionUID = 3491209446357217458L;
+    final AtomicLong producerIndex;
+    /** The cached limit for the producer index, avoids reading the consumer index on each offer. */
+    final AtomicLong producerLimit;
+    final AtomicLong consumerIndex;
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+        this.producerIndex = new AtomicLong();
+        this.producerLimit = new AtomicLong(mask + 1);
+        this.consumerIndex = new AtomicLong();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        // local load of field to avoid repeated loads after volatile reads
+        final int mask = this.mask;
+        long producerLimit = lvProducerLimit();
+        long index;
+        do {
+            index = lvProducerIndex();
+            if (index >= producerLimit) {
+                producerLimit = lvConsumerIndex() + mask + 1;
+                if (index >= producerLimit) {
+                    return false;
+                }
+                soProducerLimit(producerLimit);
+            }
+        } while (!casProducerIndex(index, index + 1));
+        
+        soElement(calcElementOffset(index, mask), e); // StoreStore
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        final long index = lvConsumerIndex();
+        final int offset = calcElementOffset(index);
+        E e = lvElement(offset);// LoadLoad
+        if (null == e) {
+            if (index != lvProducerIndex()) {
+                // a producer has claimed the slot but not yet published the element
+                do {
+                    e = lvElement(offset);
+                } while (e == null);
+            } else {
+                return null;
+            }
+        }
+        spElement(offset, null);
+        soConsumerIndex(index + 1); // ordered store -> atomic and ordered for size()
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        final long index = lvConsumerIndex();
+        final int offset = calcElementOffset(index);
+        E e = lvElement(offset);
+        if (null == e && index != lvProducerIndex()) {
+            do {
+                e = lvElement(offset);
+            } while (e == null);
+        }
+        return e;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return lvConsumerIndex() == lvProducerIndex();
+    }
+
+    @Override
+    public int size() {
+        /*
+         * It is possible for a thread to be interrupted or reschedule between the read of the producer and consumer
+         * indices, therefore protection is required to ensure size is within valid range. In the event of concurrent
+         * polls/offers to this method the size is OVER estimated as we read consumer index BEFORE the producer index.
+         */
+        long after = lvConsumerIndex();
+        while (true) {
+            final long before = after;
+            final long currentProducerIndex = lvProducerIndex();
+            after = lvConsumerIndex();
+            if (before == after) {
+                return (int) (currentProducerIndex - after);
+            }
+        }
+    }
+
+    private boolean casProducerIndex(long expect, long newIndex) {
+        return producerIndex.compareAndSet(expect, newIndex);
+    }
+    
+    private void soProducerLimit(long newLimit) {
+        producerLimit.lazySet(newLimit);
+    }
+
+    private void soConsumerIndex(long newIndex) {
+        consumerIndex.lazySet(newIndex);
+    }
+    
+    private long lvProducerLimit() {
+        return producerLimit.get();
+    }
+    private long lvConsumerIndex() {
+        return consumerIndex.get();
+    }
+    private long lvProducerIndex() {
+        return producerIndex.get();
+    }
+
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+/*
+ * The code was inspired by the similarly named JCTools class: 
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic
+ */
+
+package hu.akarnokd.rxjava2.internal.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Single-Producer-Multi-Consumer queue backed by a pre-allocated buffer.
+ * <p>
+ * The consumers claim an element by CAS-ing the consumer index and then clear its slot;
+ * the producer finding its slot not yet cleared while the queue is not full spins until
+ * the slot becomes free. The producer side is wait free as long as the queue is not full,
+ * the consumer side is lock free. The capacity is rounded up to the next power of 2.
+ * 
+ * @param <E> the element type
+ */
+public final class SpmcArrayQueue<E> extends BaseArrayQueue<E> {
+    /** */
+    private static final long serialVersionUID = -4474458447380429433L;
+    final AtomicLong producerIndex;
+    final AtomicLong consumerIndex;
+    /** The cached producer index, avoids reading the producer index on each poll. */
+    final AtomicLong producerIndexCache;
+    public SpmcArrayQueue(int capacity) {
+        super(capacity);
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = new AtomicLong();
+        this.producerIndexCache = new AtomicLong();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        // local load of field to avoid repeated loads after volatile reads
+        final int mask = this.mask;
+        final long index = lvProducerIndex();
+        final int offset = calcElementOffset(index, mask);
+        if (null != lvElement(offset)) {
+            if (index - lvConsumerIndex() > mask) {
+                return false;
+            }
+            // a consumer has claimed the element but not yet cleared the slot
+            while (null != lvElement(offset))
+                ;
+        }
+        spElement(offset, e);
+        soProducerIndex(index + 1); // ordered store -> atomic and ordered for size()
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long producerIndexCache = lvProducerIndexCache();
+        long index;
+        do {
+            index = lvConsumerIndex();
+            if (index >= producerIndexCache) {
+                long producerIndex = lvProducerIndex();
+                if (index >= producerIndex) {
+                    return null;
+                }
+                producerIndexCache = producerIndex;
+                svProducerIndexCache(producerIndex);
+            }
+        } while (!casConsumerIndex(index, index + 1));
+        
+        final int offset = calcElementOffset(index);
+        final E e = lvElement(offset);
+        soElement(offset, null);// StoreStore
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        long producerIndexCache = lvProducerIndexCache();
+        E e;
+        do {
+            long index = lvConsumerIndex();
+            if (index >= producerIndexCache) {
+                long producerIndex = lvProducerIndex();
+                if (index >= producerIndex) {
+                    return null;
+                }
+                producerIndexCache = producerIndex;
+                svProducerIndexCache(producerIndex);
+            }
+            // the element may have been taken and cleared meanwhile, retry with the next index
+            e = lvElement(calcElementOffset(index));
+        } while (e == null);
+        return e;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return lvConsumerIndex() == lvProducerIndex();
+    }
+
+    @Override
+    public int size() {
+        /*
+         * It is possible for a thread to be interrupted or reschedule between the read of the producer and consumer
+         * indices, therefore protection is required to ensure size is within valid range. In the event of concurrent
+         * polls/offers to this method the size is OVER estimated as we read consumer index BEFORE the producer index.
+         */
+        long after = lvConsumerIndex();
+        while (true) {
+            final long before = after;
+            final long currentProducerIndex = lvProducerIndex();
+            after = lvConsumerIndex();
+            if (before == after) {
+                return (int) (currentProducerIndex - after);
+            }
+        }
+    }
+
+    private boolean casConsumerIndex(long expect, long newIndex) {
+        return consumerIndex.compareAndSet(expect, newIndex);
+    }
+
+    private void soProducerIndex(long newIndex) {
+        producerIndex.lazySet(newIndex);
+    }
+    
+    private void svProducerIndexCache(long newIndex) {
+        producerIndexCache.set(newIndex);
+    }
+
+    private long lvProducerIndexCache() {
+        return producerIndexCache.get();
+    }
+    private long lvConsumerIndex() {
+        return consumerIndex.get();
+    }
+    private long lvProducerIndex() {
+        return producerIndex.get();
+    }
+
+}
@@ -16,19 +16,23 @@
 package hu.akarnokd.rxjava2.internal.schedulers;
 
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.*;
 
 import hu.akarnokd.rxjava2.Scheduler;
 import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.internal.disposables.*;
+import hu.akarnokd.rxjava2.plugins.*;
 
 /**
  * Holds a fixed pool of worker threads and assigns them
- * to requested Scheduler.Workers in a round-robin fashion. 
+ * to requested Scheduler.Workers according to an {@link EventLoopSelectionPolicy},
+ * round-robin by default. 
  */
 public final class ComputationScheduler extends Scheduler {
     /** Manages a fixed number of workers. */
     private static final String THREAD_NAME_PREFIX = "RxComputationThreadPool-";
+    /** The pool name reported to the SchedulerMetrics. */
+    static final String METRICS_POOL = "computation";
     private static final RxThreadFactory THREAD_FACTORY = new RxThreadFactory(THREAD_NAME_PREFIX);
     /** 
      * Key to setting the maximum number of computation scheduler threads.
@@ -49,24 +53,32 @@ public final class ComputationScheduler extends Scheduler {
         MAX_THREADS = max;
     }
     
+    /**
+     * Key to setting the event loop selection policy: {@code round-robin} (default),
+     * {@code least-loaded} or {@code two-choices}.
+     */
+    static final String KEY_SELECTION_POLICY = "rx2.computation-selection";
+    
     static final PoolWorker SHUTDOWN_WORKER;
     static {
-        SHUTDOWN_WORKER = new PoolWorker(new RxThreadFactory("RxComputationShutdown-"));
+        SHUTDOWN_WORKER = new PoolWorker(new RxThreadFactory("RxComputationShutdown-"), null);
         SHUTDOWN_WORKER.dispose();
     }
     
-    static final class FixedSchedulerPool {
+    static final class FixedSchedulerPool implements EventLoopSelectionPolicy.EventLoopLoads {
         final int cores;
 
         final PoolWorker[] eventLoops;
-        long n;
+        
+        final EventLoopSelectionPolicy policy;
 
-        FixedSchedulerPool(int maxThreads) {
+        FixedSchedulerPool(int maxThreads, EventLoopSelectionPolicy policy, ThreadFactory threadFactory, String poolName) {
             // initialize event loops
             this.cores = maxThreads;
+            this.policy = policy;
             this.eventLoops = new PoolWorker[maxThreads];
             for (int i = 0; i < maxThreads; i++) {
-                this.eventLoops[i] = new PoolWorker(THREAD_FACTORY);
+                this.eventLoops[i] = new PoolWorker(threadFactory, poolName);
             }
         }
 
@@ -75,8 +87,20 @@ public final class ComputationScheduler extends Scheduler {
             if (c == 0) {
                 return SHUTDOWN_WORKER;
             }
-            // simple round robin, improvements to come
-            return eventLoops[(int)(n++ % c)];
+            if (c == 1) {
+                return eventLoops[0];
+            }
+            return eventLoops[policy.select(this)];
+        }
+        
+        @Override
+        public int size() {
+            return cores;
+        }
+        
+        @Override
+        public int load(int index) {
+            return eventLoops[index].activeWorkers.get();
         }
         
         public void shutdown() {
@@ -86,15 +110,62 @@ public final class ComputationScheduler extends Scheduler {
         }
     }
     /** This will indicate no pool is active. */
-    static final FixedSchedulerPool NONE = new FixedSchedulerPool(0);
+    static final FixedSchedulerPool NONE = new FixedSchedulerPool(0, null, null, null);
 
     final AtomicReference<FixedSchedulerPool> pool;
     
+    final EventLoopSelectionPolicy policy;
+    
+    final int maxThreads;
+    
+    final ThreadFactory threadFactory;
+    
+    final String poolName;
+    
     /**
      * Create a scheduler with pool size equal to the available processor
-     * count and using least-recent worker selection policy.
+     * count and using the worker selection policy specified by the
+     * {@code rx2.computation-selection} system property.
      */
     public ComputationScheduler() {
+        this(EventLoopSelectionPolicies.fromName(System.getProperty(KEY_SELECTION_POLICY)));
+    }
+    
+    /**
+     * Create a scheduler with pool size equal to the available processor
+     * count and using the given worker selection policy.
+     * @param policy the policy picking the event loop of new Workers, not null
+     */
+    public ComputationScheduler(EventLoopSelectionPolicy policy) {
+        this(MAX_THREADS, THREAD_FACTORY, METRICS_POOL, policy);
+    }
+    
+    /**
+     * Create an isolated scheduler with the given number of event loops whose threads
+     * are created by the given factory and report to the {@link SchedulerMetrics}
+     * under the given pool name.
+     * @param maxThreads the number of event loops, positive
+     * @param threadFactory the factory creating the event loop threads, not null
+     * @param poolName the pool name reported to the SchedulerMetrics, not null
+     * @param policy the policy picking the event loop of new Workers, not null
+     */
+    public ComputationScheduler(int maxThreads, ThreadFactory threadFactory, String poolName, EventLoopSelectionPolicy policy) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads > 0 required but it was " + maxThreads);
+        }
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory is null");
+        }
+        if (poolName == null) {
+            throw new NullPointerException("poolName is null");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy is null");
+        }
+        this.maxThreads = maxThreads;
+        this.threadFactory = threadFactory;
+        this.poolName = poolName;
+        this.policy = policy;
         this.pool = new AtomicReference<FixedSchedulerPool>(NONE);
         start();
     }
@@ -118,7 +189,7 @@ public final class ComputationScheduler extends Scheduler {
     
     @Override
     public void start() {
-        FixedSchedulerPool update = new FixedSchedulerPool(MAX_THREADS);
+        FixedSchedulerPool update = new FixedSchedulerPool(maxThreads, policy, threadFactory, poolName);
         if (!pool.compareAndSet(NONE, update)) {
             update.shutdown();
         }
@@ -140,51 +211,64 @@ public final class ComputationScheduler extends Scheduler {
     
 
     private static class EventLoopWorker extends Scheduler.Worker {
-        private final ListCompositeResource<Disposable> serial;
-        private final SetCompositeResource<Disposable> timed;
-        private final ArrayCompositeResource<Disposable> both;
+        private final StripedCompositeResource<Disposable> tasks;
         private final PoolWorker poolWorker;
+        private final SchedulerMetrics metrics;
         
-        volatile boolean disposed;
+        volatile int disposed;
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<EventLoopWorker> DISPOSED =
+                AtomicIntegerFieldUpdater.newUpdater(EventLoopWorker.class, "disposed");
 
         EventLoopWorker(PoolWorker poolWorker) {
             this.poolWorker = poolWorker;
-            this.serial = new ListCompositeResource<Disposable>(Disposables.consumeAndDispose());
-            this.timed = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
-            this.both = new ArrayCompositeResource<Disposable>(2, Disposables.consumeAndDispose());
-            this.both.lazySet(0, serial);
-            this.both.lazySet(1, timed);
+            poolWorker.activeWorkers.getAndIncrement();
+            this.tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            SchedulerMetrics m = poolWorker.poolName != null ? RxJavaPlugins.getSchedulerMetrics() : null;
+            this.metrics = m;
+            if (m != null) {
+                m.onWorkerCreated(poolWorker.poolName);
+            }
         }
 
         @Override
         public void dispose() {
-            if (!disposed) {
-                disposed = true;
-                both.dispose();
+            if (disposed == 0 && DISPOSED.compareAndSet(this, 0, 1)) {
+                tasks.dispose();
+                poolWorker.activeWorkers.getAndDecrement();
+                if (metrics != null) {
+                    metrics.onWorkerDisposed(poolWorker.poolName);
+                }
             }
         }
 
         @Override
         public Disposable schedule(Runnable action) {
-            if (disposed) {
+            if (disposed != 0) {
                 return EmptyDisposable.INSTANCE;
             }
             
-            return poolWorker.scheduleActual(action, 0, null, serial);
+            return poolWorker.scheduleActual(action, 0, null, tasks);
         }
         @Override
         public Disposable schedule(Runnable action, long delayTime, TimeUnit unit) {
-            if (disposed) {
+            if (disposed != 0) {
                 return EmptyDisposable.INSTANCE;
             }
             
-            return poolWorker.scheduleActual(action, delayTime, unit, timed);
+            return poolWorker.scheduleActual(action, delayTime, unit, tasks);
         }
     }
     
     private static final class PoolWorker extends NewThreadWorker {
-        PoolWorker(ThreadFactory threadFactory) {
-            super(threadFactory);
+        /** The number of active EventLoopWorkers using this event loop. */
+        final AtomicInteger activeWorkers = new AtomicInteger();
+        /** The pool name reported to the SchedulerMetrics. */
+        final String poolName;
+        
+        PoolWorker(ThreadFactory threadFactory, String pool) {
+            super(threadFactory, pool);
+            this.poolName = pool;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.schedulers;
+
+import java.util.concurrent.atomic.*;
+
+import hu.akarnokd.rxjava2.internal.schedulers.EventLoopSelectionPolicy.EventLoopLoads;
+
+/**
+ * Factory methods for the standard event loop selection policies.
+ */
+public enum EventLoopSelectionPolicies {
+    ;
+    
+    /**
+     * Returns a new policy which hands out the event loops one after the other, regardless of their load.
+     * @return the new policy instance
+     */
+    public static EventLoopSelectionPolicy roundRobin() {
+        return new RoundRobin();
+    }
+    
+    /**
+     * Returns a new policy which picks the event loop with the fewest active Workers,
+     * starting the search at a rotating index so ties are spread out evenly.
+     * @return the new policy instance
+     */
+    public static EventLoopSelectionPolicy leastLoaded() {
+        return new LeastLoaded();
+    }
+    
+    /**
+     * Returns a new policy which picks two event loops at random and uses the
+     * less loaded one of them.
+     * @return the new policy instance
+     */
+    public static EventLoopSelectionPolicy randomTwoChoices() {
+        return new RandomTwoChoices();
+    }
+    
+    /**
+     * Returns the policy named by the given string: {@code round-robin},
+     * {@code least-loaded} or {@code two-choices}.
+     * @param name the policy name, null or unknown names select round-robin
+     * @return the new policy instance
+     */
+    public static EventLoopSelectionPolicy fromName(String name) {
+        if ("least-loaded".equals(name)) {
+            return leastLoaded();
+        }
+        if ("two-choices".equals(name)) {
+            return randomTwoChoices();
+        }
+        return roundRobin();
+    }
+    
+    static final class RoundRobin extends AtomicInteger implements EventLoopSelectionPolicy {
+        /** */
+        private static final long serialVersionUID = -3164306787442453591L;
+
+        @Override
+        public int select(EventLoopLoads loads) {
+            return (getAndIncrement() & Integer.MAX_VALUE) % loads.size();
+        }
+    }
+    
+    static final class LeastLoaded extends AtomicInteger implements EventLoopSelectionPolicy {
+        /** */
+        private static final long serialVersionUID = 5270939637707930263L;
+
+        @Override
+        public int select(EventLoopLoads loads) {
+            int n = loads.size();
+            int start = (getAndIncrement() & Integer.MAX_VALUE) % n;
+            
+            int minIndex = start;
+            int min = loads.load(start);
+            
+            for (int i = 1; i < n && min != 0; i++) {
+                int j = start + i;
+                if (j >= n) {
+                    j -= n;
+                }
+                int load = loads.load(j);
+                if (load < min) {
+                    min = load;
+                    minIndex = j;
+                }
+            }
+            return minIndex;
+        }
+    }
+    
+    static final class RandomTwoChoices extends AtomicLong implements EventLoopSelectionPolicy {
+        /** */
+        private static final long serialVersionUID = -1468429312960464036L;
+
+        public RandomTwoChoices() {
+            super(System.nanoTime());
+        }
+        
+        /**
+         * Generates the next pseudo-random value via the SplitMix64 algorithm
+         * which needs only an atomic add instead of a CAS loop.
+         * @return the next pseudo-random value
+         */
+        long nextLong() {
+            long z = addAndGet(0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+        
+        @Override
+        public int select(EventLoopLoads loads) {
+            int n = loads.size();
+            if (n == 1) {
+                return 0;
+            }
+            long r = nextLong();
+            
+            int a = (int)((r & Long.MAX_VALUE) % n);
+            // pick a second, distinct index
+            int b = (int)(((r >>> 32) & Integer.MAX_VALUE) % (n - 1));
+            if (b >= a) {
+                b++;
+            }
+            
+            return loads.load(b) < loads.load(a) ? b : a;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.schedulers;
+
+/**
+ * Picks the event loop a new Worker of a fixed-size Scheduler should be assigned to.
+ * <p>
+ * Implementations may be called concurrently.
+ */
+public interface EventLoopSelectionPolicy {
+    /**
+     * Returns the index of the event loop the next Worker should use.
+     * @param loads the current load of each event loop
+     * @return the index of the event loop, between 0 (inclusive) and {@code loads.size()} (exclusive)
+     */
+    int select(EventLoopLoads loads);
+    
+    /**
+     * Provides read access to the load of each event loop.
+     */
+    interface EventLoopLoads {
+        /**
+         * Returns the number of event loops.
+         * @return the number of event loops
+         */
+        int size();
+        
+        /**
+         * Returns the number of Workers currently using the given event loop.
+         * @param index the event loop index
+         * @return the number of active Workers
+         */
+        int load(int index);
+    }
+}
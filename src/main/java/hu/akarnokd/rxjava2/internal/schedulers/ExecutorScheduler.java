@@ -112,7 +112,7 @@ public final class ExecutorScheduler extends Scheduler {
         static final AtomicIntegerFieldUpdater<ExecutorWorker> WIP =
                 AtomicIntegerFieldUpdater.newUpdater(ExecutorWorker.class, "wip");
         
-        final SetCompositeResource<Disposable> tasks = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        final StripedCompositeResource<Disposable> tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
         
         public ExecutorWorker(Executor executor) {
             this.executor = executor;
@@ -0,0 +1,421 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.internal.disposables.*;
+import hu.akarnokd.rxjava2.internal.queue.MpscLinkedQueue;
+import hu.akarnokd.rxjava2.internal.util.Pow2;
+
+/**
+ * A Scheduler which keeps the delayed tasks of its Workers in a hashed timing wheel
+ * and hands them over to the Workers of another Scheduler once they are due.
+ * <p>
+ * Scheduling and cancelling a delayed task is O(1) and needs no Future, at the cost
+ * of the tasks being run at the first tick after their due time instead of precisely.
+ * Non-delayed tasks go directly to the other Scheduler's Worker.
+ */
+public final class HashedWheelTimerScheduler extends Scheduler {
+    private static final RxThreadFactory THREAD_FACTORY = new RxThreadFactory("RxHashedWheelTimer-");
+    
+    /** The Scheduler executing the tasks. */
+    final Scheduler executor;
+    
+    final long tickNanos;
+    
+    final int wheelSize;
+    
+    final AtomicReference<TimerWheel> wheel;
+    
+    /** This will indicate no wheel is active. */
+    static final TimerWheel NONE = new TimerWheel(1, 1);
+    static {
+        NONE.shutdown = true;
+    }
+    
+    /**
+     * Creates a timer Scheduler with the given tick duration and number of buckets
+     * which executes the tasks on the given Scheduler.
+     * @param executor the Scheduler executing the tasks
+     * @param tick the tick duration, positive
+     * @param unit the tick duration's unit
+     * @param wheelSize the number of buckets, rounded up to the next power of 2
+     */
+    public HashedWheelTimerScheduler(Scheduler executor, long tick, TimeUnit unit, int wheelSize) {
+        if (executor == null) {
+            throw new NullPointerException("executor is null");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null");
+        }
+        long t = unit.toNanos(tick);
+        if (t <= 0L) {
+            throw new IllegalArgumentException("tick > 0 required but it was " + tick + " " + unit);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30] but it was " + wheelSize);
+        }
+        this.executor = executor;
+        this.tickNanos = t;
+        this.wheelSize = Pow2.roundToPowerOfTwo(wheelSize);
+        this.wheel = new AtomicReference<TimerWheel>(NONE);
+        start();
+    }
+    
+    @Override
+    public Worker createWorker() {
+        return new TimerWorker(executor.createWorker(), wheel.get());
+    }
+    
+    @Override
+    public void start() {
+        TimerWheel update = new TimerWheel(tickNanos, wheelSize);
+        if (wheel.compareAndSet(NONE, update)) {
+            THREAD_FACTORY.newThread(update).start();
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        for (;;) {
+            TimerWheel curr = wheel.get();
+            if (curr == NONE) {
+                return;
+            }
+            if (wheel.compareAndSet(curr, NONE)) {
+                curr.shutdown();
+                return;
+            }
+        }
+    }
+    
+    static final class TimerWorker extends Scheduler.Worker {
+        final Scheduler.Worker actual;
+        
+        final TimerWheel wheel;
+        
+        final StripedCompositeResource<Disposable> tasks;
+        
+        volatile boolean disposed;
+        
+        public TimerWorker(Scheduler.Worker actual, TimerWheel wheel) {
+            this.actual = actual;
+            this.wheel = wheel;
+            this.tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        }
+        
+        @Override
+        public Disposable schedule(Runnable run) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            return actual.schedule(run);
+        }
+        
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            if (delay <= 0L) {
+                return actual.schedule(run);
+            }
+            TimerWheel w = wheel;
+            if (w.shutdown) {
+                return EmptyDisposable.INSTANCE;
+            }
+            
+            TimeoutTask t = new TimeoutTask(run, this, System.nanoTime() + unit.toNanos(delay));
+            tasks.add(t);
+            w.add(t);
+            return t;
+        }
+        
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                actual.dispose();
+            }
+        }
+    }
+    
+    /**
+     * A delayed task waiting in the wheel; its state is null while waiting,
+     * the Disposable of the executing Worker's task after expiry or DISPOSED.
+     */
+    static final class TimeoutTask extends AtomicReference<Disposable> implements Disposable {
+        /** */
+        private static final long serialVersionUID = -4183815519624003014L;
+
+        static final Disposable DISPOSED = new Disposable() {
+            @Override
+            public void dispose() { }
+        };
+        
+        static final Disposable EXPIRING = new Disposable() {
+            @Override
+            public void dispose() { }
+        };
+        
+        final Runnable action;
+        
+        final TimerWorker parent;
+        
+        /** The System.nanoTime() based due time. */
+        final long deadline;
+        
+        // the following fields are accessed only from the timer thread
+        
+        long remainingRounds;
+        
+        Bucket bucket;
+        
+        TimeoutTask prev;
+        
+        TimeoutTask next;
+        
+        public TimeoutTask(Runnable action, TimerWorker parent, long deadline) {
+            this.action = action;
+            this.parent = parent;
+            this.deadline = deadline;
+        }
+        
+        /**
+         * Hands the action over to the parent's executing Worker, unless disposed.
+         */
+        void expire() {
+            if (compareAndSet(null, EXPIRING)) {
+                parent.tasks.delete(this);
+                Disposable d = parent.actual.schedule(action);
+                if (!compareAndSet(EXPIRING, d)) {
+                    d.dispose();
+                }
+            }
+        }
+        
+        boolean isDisposed() {
+            return get() == DISPOSED;
+        }
+        
+        @Override
+        public void dispose() {
+            Disposable d = get();
+            if (d != DISPOSED) {
+                d = getAndSet(DISPOSED);
+                if (d == null) {
+                    parent.tasks.delete(this);
+                    parent.wheel.cancel(this);
+                } else
+                if (d != DISPOSED && d != EXPIRING) {
+                    d.dispose();
+                }
+            }
+        }
+    }
+    
+    /**
+     * A doubly-linked list of TimeoutTasks, accessed only from the timer thread.
+     */
+    static final class Bucket {
+        TimeoutTask head;
+        TimeoutTask tail;
+        
+        void add(TimeoutTask t) {
+            t.bucket = this;
+            TimeoutTask tl = tail;
+            if (tl == null) {
+                head = t;
+                tail = t;
+            } else {
+                tl.next = t;
+                t.prev = tl;
+                tail = t;
+            }
+        }
+        
+        TimeoutTask remove(TimeoutTask t) {
+            TimeoutTask n = t.next;
+            TimeoutTask p = t.prev;
+            if (p != null) {
+                p.next = n;
+            } else {
+                head = n;
+            }
+            if (n != null) {
+                n.prev = p;
+            } else {
+                tail = p;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+            return n;
+        }
+        
+        void expire() {
+            TimeoutTask t = head;
+            while (t != null) {
+                if (t.remainingRounds <= 0L) {
+                    TimeoutTask n = remove(t);
+                    t.expire();
+                    t = n;
+                } else {
+                    t.remainingRounds--;
+                    t = t.next;
+                }
+            }
+        }
+        
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+    
+    static final class TimerWheel implements Runnable {
+        final long tickNanos;
+        
+        final Bucket[] buckets;
+        
+        final int mask;
+        
+        /** The TimeoutTasks to be added to the buckets. */
+        final MpscLinkedQueue<TimeoutTask> pending;
+        
+        /** The disposed TimeoutTasks to be removed from the buckets. */
+        final MpscLinkedQueue<TimeoutTask> cancelled;
+        
+        volatile boolean shutdown;
+        
+        volatile Thread thread;
+        
+        /** The System.nanoTime() the wheel started at, set by the timer thread. */
+        long startTime;
+        
+        /** The number of ticks elapsed, accessed only from the timer thread. */
+        long tick;
+        
+        TimerWheel(long tickNanos, int wheelSize) {
+            this.tickNanos = tickNanos;
+            Bucket[] b = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                b[i] = new Bucket();
+            }
+            this.buckets = b;
+            this.mask = wheelSize - 1;
+            this.pending = new MpscLinkedQueue<TimeoutTask>();
+            this.cancelled = new MpscLinkedQueue<TimeoutTask>();
+        }
+        
+        void add(TimeoutTask t) {
+            pending.offer(t);
+        }
+        
+        void cancel(TimeoutTask t) {
+            cancelled.offer(t);
+        }
+        
+        void shutdown() {
+            shutdown = true;
+            LockSupport.unpark(thread);
+        }
+        
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            long start = System.nanoTime();
+            startTime = start;
+            
+            final long tn = tickNanos;
+            final Bucket[] bs = buckets;
+            final int m = mask;
+            
+            while (!shutdown) {
+                long deadline = start + tn * (tick + 1);
+                
+                for (;;) {
+                    long delta = deadline - System.nanoTime();
+                    if (delta <= 0L || shutdown) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, delta);
+                }
+                
+                if (shutdown) {
+                    break;
+                }
+                
+                removeCancelled();
+                transferPending();
+                
+                bs[(int)(tick & m)].expire();
+                
+                tick++;
+            }
+            
+            for (Bucket b : bs) {
+                b.clear();
+            }
+            while (pending.poll() != null);
+            while (cancelled.poll() != null);
+        }
+        
+        void removeCancelled() {
+            MpscLinkedQueue<TimeoutTask> q = cancelled;
+            for (;;) {
+                TimeoutTask t = q.poll();
+                if (t == null) {
+                    break;
+                }
+                Bucket b = t.bucket;
+                if (b != null) {
+                    b.remove(t);
+                }
+            }
+        }
+        
+        void transferPending() {
+            MpscLinkedQueue<TimeoutTask> q = pending;
+            final long tn = tickNanos;
+            final long start = startTime;
+            final long current = tick;
+            final int size = buckets.length;
+            
+            for (;;) {
+                TimeoutTask t = q.poll();
+                if (t == null) {
+                    break;
+                }
+                if (t.isDisposed()) {
+                    continue;
+                }
+                
+                long due = (t.deadline - start) / tn;
+                if (due < current) {
+                    // already late, run it with the current tick
+                    due = current;
+                }
+                t.remainingRounds = (due - current) / size;
+                buckets[(int)(due & mask)].add(t);
+            }
+        }
+    }
+}
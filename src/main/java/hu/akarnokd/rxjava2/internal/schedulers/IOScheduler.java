@@ -16,18 +16,25 @@
 
 package hu.akarnokd.rxjava2.internal.schedulers;
 
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import hu.akarnokd.rxjava2.Scheduler;
 import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.internal.disposables.*;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+import hu.akarnokd.rxjava2.plugins.*;
+import hu.akarnokd.rxjava2.schedulers.BoundedIOScheduler;
 
 /**
  * Scheduler that creates and caches a set of thread pools and reuses them if possible.
+ * <p>
+ * By default, the number of threads is unbounded. In bounded mode, at most {@code maxThreads}
+ * threads are created and once all of them are in use, new Workers share the least used
+ * thread and their tasks queue up behind the tasks of the other Workers on that thread.
  */
-public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
+public final class IOScheduler extends BoundedIOScheduler implements SchedulerLifecycle {
     private static final String WORKER_THREAD_NAME_PREFIX = "RxCachedThreadScheduler-";
     private static final RxThreadFactory WORKER_THREAD_FACTORY =
             new RxThreadFactory(WORKER_THREAD_NAME_PREFIX);
@@ -36,30 +43,52 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
     private static final RxThreadFactory EVICTOR_THREAD_FACTORY =
             new RxThreadFactory(EVICTOR_THREAD_NAME_PREFIX);
 
+    /** The pool name reported to the SchedulerMetrics. */
+    static final String METRICS_POOL = "io";
+
+    /** 
+     * Key to setting the maximum number of io scheduler threads.
+     * Zero or less is interpreted as unbounded.
+     */
+    static final String KEY_MAX_THREADS = "rx2.io-max-threads";
+    /** 
+     * Key to setting the keep-alive time of idle io scheduler threads, in seconds.
+     * Zero or less is interpreted as the default 60 seconds.
+     */
+    static final String KEY_KEEP_ALIVE_TIME = "rx2.io-keep-alive-time";
+    
     private static final long KEEP_ALIVE_TIME = 60;
     private static final TimeUnit KEEP_ALIVE_UNIT = TimeUnit.SECONDS;
     
     static final ThreadWorker SHUTDOWN_THREADWORKER;
     static {
-        SHUTDOWN_THREADWORKER = new ThreadWorker(new RxThreadFactory("RxCachedThreadSchedulerShutdown-"));
+        SHUTDOWN_THREADWORKER = new ThreadWorker(new RxThreadFactory("RxCachedThreadSchedulerShutdown-"), null);
         SHUTDOWN_THREADWORKER.dispose();
     }
     
     private static final class CachedWorkerPool {
         private final long keepAliveTime;
+        private final int maxThreads;
+        private final IOScheduler parent;
         private final ConcurrentLinkedQueue<ThreadWorker> expiringWorkerQueue;
         private final SetCompositeResource<Disposable> allWorkers;
+        /** The live workers in bounded mode, accessed while holding a lock on this. */
+        private final List<ThreadWorker> liveWorkers;
         private final ScheduledExecutorService evictorService;
         private final Future<?> evictorTask;
 
-        CachedWorkerPool(long keepAliveTime, TimeUnit unit) {
+        CachedWorkerPool(IOScheduler parent, int maxThreads, long keepAliveTime, long evictorPeriod, TimeUnit unit) {
+            this.parent = parent;
+            this.maxThreads = maxThreads;
             this.keepAliveTime = unit != null ? unit.toNanos(keepAliveTime) : 0L;
             this.expiringWorkerQueue = new ConcurrentLinkedQueue<ThreadWorker>();
             this.allWorkers = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            this.liveWorkers = maxThreads > 0 ? new ArrayList<ThreadWorker>() : null;
 
             ScheduledExecutorService evictor = null;
             Future<?> task = null;
             if (unit != null) {
+                long period = unit.toNanos(evictorPeriod);
                 evictor = Executors.newScheduledThreadPool(1, EVICTOR_THREAD_FACTORY);
                 try {
                     task = evictor.scheduleWithFixedDelay(
@@ -68,7 +97,7 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
                                 public void run() {
                                     evictExpiredWorkers();
                                 }
-                            }, this.keepAliveTime, this.keepAliveTime, TimeUnit.NANOSECONDS
+                            }, period, period, TimeUnit.NANOSECONDS
                     );
                 } catch (RejectedExecutionException ex) {
                     RxJavaPlugins.onError(ex);
@@ -82,20 +111,66 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
             if (allWorkers.isDisposed()) {
                 return SHUTDOWN_THREADWORKER;
             }
+            if (liveWorkers != null) {
+                return getBounded();
+            }
             while (!expiringWorkerQueue.isEmpty()) {
                 ThreadWorker threadWorker = expiringWorkerQueue.poll();
                 if (threadWorker != null) {
+                    parent.reused.getAndIncrement();
                     return threadWorker;
                 }
             }
 
             // No cached worker found, so create a new one.
-            ThreadWorker w = new ThreadWorker(WORKER_THREAD_FACTORY);
+            ThreadWorker w = new ThreadWorker(WORKER_THREAD_FACTORY, METRICS_POOL);
             allWorkers.add(w);
+            parent.created.getAndIncrement();
+            return w;
+        }
+        
+        synchronized ThreadWorker getBounded() {
+            ThreadWorker w = expiringWorkerQueue.poll();
+            if (w != null) {
+                w.users = 1;
+                parent.reused.getAndIncrement();
+                return w;
+            }
+            List<ThreadWorker> live = liveWorkers;
+            if (live.size() < maxThreads) {
+                w = new ThreadWorker(WORKER_THREAD_FACTORY, METRICS_POOL);
+                if (!allWorkers.add(w)) {
+                    return SHUTDOWN_THREADWORKER;
+                }
+                w.users = 1;
+                live.add(w);
+                parent.created.getAndIncrement();
+                return w;
+            }
+            // saturated: queue up behind the least used thread
+            w = live.get(0);
+            for (int i = 1; i < live.size(); i++) {
+                ThreadWorker u = live.get(i);
+                if (u.users < w.users) {
+                    w = u;
+                }
+            }
+            w.users++;
+            parent.queued.getAndIncrement();
             return w;
         }
 
         void release(ThreadWorker threadWorker) {
+            if (liveWorkers != null) {
+                synchronized (this) {
+                    if (--threadWorker.users != 0) {
+                        return;
+                    }
+                    threadWorker.setExpirationTime(now() + keepAliveTime);
+                    expiringWorkerQueue.offer(threadWorker);
+                }
+                return;
+            }
             // Refresh expire time before putting worker back in pool
             threadWorker.setExpirationTime(now() + keepAliveTime);
 
@@ -104,18 +179,32 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
 
         void evictExpiredWorkers() {
             if (!expiringWorkerQueue.isEmpty()) {
-                long currentTimestamp = now();
+                if (liveWorkers != null) {
+                    synchronized (this) {
+                        evictExpiredWorkersActual();
+                    }
+                } else {
+                    evictExpiredWorkersActual();
+                }
+            }
+        }
+        
+        void evictExpiredWorkersActual() {
+            long currentTimestamp = now();
 
-                for (ThreadWorker threadWorker : expiringWorkerQueue) {
-                    if (threadWorker.getExpirationTime() <= currentTimestamp) {
-                        if (expiringWorkerQueue.remove(threadWorker)) {
-                            allWorkers.remove(threadWorker);
+            for (ThreadWorker threadWorker : expiringWorkerQueue) {
+                if (threadWorker.getExpirationTime() <= currentTimestamp) {
+                    if (expiringWorkerQueue.remove(threadWorker)) {
+                        allWorkers.remove(threadWorker);
+                        if (liveWorkers != null) {
+                            liveWorkers.remove(threadWorker);
                         }
-                    } else {
-                        // Queue is ordered with the worker that will expire first in the beginning, so when we
-                        // find a non-expired worker we can stop evicting.
-                        break;
+                        parent.evicted.getAndIncrement();
                     }
+                } else {
+                    // Queue is ordered with the worker that will expire first in the beginning, so when we
+                    // find a non-expired worker we can stop evicting.
+                    break;
                 }
             }
         }
@@ -142,18 +231,84 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
     
     static final CachedWorkerPool NONE;
     static {
-        NONE = new CachedWorkerPool(0, null);
+        NONE = new CachedWorkerPool(null, 0, 0, 0, null);
         NONE.shutdown();
     }
     
+    final int maxThreads;
+    
+    final long keepAliveTime;
+    
+    final long evictorPeriod;
+    
+    final TimeUnit unit;
+    
+    final AtomicLong created = new AtomicLong();
+
+    final AtomicLong reused = new AtomicLong();
+    
+    final AtomicLong evicted = new AtomicLong();
+
+    final AtomicLong queued = new AtomicLong();
+    
+    /**
+     * Create a scheduler with the maximum number of threads specified by the
+     * {@code rx2.io-max-threads} system property (unbounded by default) and
+     * the keep-alive time specified by the {@code rx2.io-keep-alive-time}
+     * system property (60 seconds by default).
+     */
     public IOScheduler() {
+        this(Integer.getInteger(KEY_MAX_THREADS, 0), keepAliveTimeProperty(), KEEP_ALIVE_UNIT);
+    }
+    
+    /**
+     * Returns the keep-alive time set via the system property or the default
+     * if it is not set or is zero or less, so a bad value doesn't prevent the
+     * default io scheduler from being created.
+     * @return the keep-alive time in seconds, positive
+     */
+    static long keepAliveTimeProperty() {
+        long keepAlive = Long.getLong(KEY_KEEP_ALIVE_TIME, KEEP_ALIVE_TIME);
+        return keepAlive <= 0L ? KEEP_ALIVE_TIME : keepAlive;
+    }
+    
+    /**
+     * Create a scheduler with the given maximum number of threads and keep-alive time
+     * of idle threads; expired threads are evicted with the keep-alive time as period.
+     * @param maxThreads the maximum number of threads, zero or less means unbounded
+     * @param keepAliveTime the time an idle thread is kept around, positive
+     * @param unit the time unit
+     */
+    public IOScheduler(int maxThreads, long keepAliveTime, TimeUnit unit) {
+        this(maxThreads, keepAliveTime, keepAliveTime, unit);
+    }
+    
+    /**
+     * Create a scheduler with the given maximum number of threads, keep-alive time
+     * of idle threads and the period of checking for expired idle threads.
+     * @param maxThreads the maximum number of threads, zero or less means unbounded
+     * @param keepAliveTime the time an idle thread is kept around, positive
+     * @param evictorPeriod the period of evicting expired threads, positive
+     * @param unit the time unit
+     */
+    public IOScheduler(int maxThreads, long keepAliveTime, long evictorPeriod, TimeUnit unit) {
+        if (keepAliveTime <= 0L) {
+            throw new IllegalArgumentException("keepAliveTime > 0 required but it was " + keepAliveTime);
+        }
+        if (evictorPeriod <= 0L) {
+            throw new IllegalArgumentException("evictorPeriod > 0 required but it was " + evictorPeriod);
+        }
+        this.maxThreads = Math.max(0, maxThreads);
+        this.keepAliveTime = keepAliveTime;
+        this.evictorPeriod = evictorPeriod;
+        this.unit = Objects.requireNonNull(unit, "unit is null");
         this.pool = new AtomicReference<CachedWorkerPool>(NONE);
         start();
     }
     
     @Override
     public void start() {
-        CachedWorkerPool update = new CachedWorkerPool(KEEP_ALIVE_TIME, KEEP_ALIVE_UNIT);
+        CachedWorkerPool update = new CachedWorkerPool(this, maxThreads, keepAliveTime, evictorPeriod, unit);
         if (!pool.compareAndSet(NONE, update)) {
             update.shutdown();
         }
@@ -177,14 +332,41 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
         return new EventLoopWorker(pool.get());
     }
     
+    @Override
     public int size() {
         return pool.get().allWorkers.size();
     }
+    
+    @Override
+    public int maxThreads() {
+        return maxThreads;
+    }
+    
+    @Override
+    public long createdCount() {
+        return created.get();
+    }
+    
+    @Override
+    public long reusedCount() {
+        return reused.get();
+    }
+    
+    @Override
+    public long evictedCount() {
+        return evicted.get();
+    }
+    
+    @Override
+    public long queuedCount() {
+        return queued.get();
+    }
 
     private static final class EventLoopWorker extends Scheduler.Worker {
-        private final SetCompositeResource<Disposable> tasks;
+        private final StripedCompositeResource<Disposable> tasks;
         private final CachedWorkerPool pool;
         private final ThreadWorker threadWorker;
+        private final SchedulerMetrics metrics;
         @SuppressWarnings("unused")
         volatile int once;
         static final AtomicIntegerFieldUpdater<EventLoopWorker> ONCE_UPDATER
@@ -192,8 +374,13 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
 
         EventLoopWorker(CachedWorkerPool pool) {
             this.pool = pool;
-            this.tasks = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            this.tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
             this.threadWorker = pool.get();
+            SchedulerMetrics m = RxJavaPlugins.getSchedulerMetrics();
+            this.metrics = m;
+            if (m != null) {
+                m.onWorkerCreated(METRICS_POOL);
+            }
         }
 
         @Override
@@ -209,6 +396,9 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
 //                }, 0, TimeUnit.MILLISECONDS);
 
                 pool.release(threadWorker);
+                if (metrics != null) {
+                    metrics.onWorkerDisposed(METRICS_POOL);
+                }
             }
         }
 
@@ -225,9 +415,11 @@ public final class IOScheduler extends Scheduler implements SchedulerLifecycle {
 
     private static final class ThreadWorker extends NewThreadWorker {
         private long expirationTime;
+        /** The number of Workers using this thread in bounded mode, accessed while holding the pool's lock. */
+        int users;
 
-        ThreadWorker(ThreadFactory threadFactory) {
-            super(threadFactory);
+        ThreadWorker(ThreadFactory threadFactory, String pool) {
+            super(threadFactory, pool);
             this.expirationTime = 0L;
         }
 
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.schedulers;
+
+import java.util.concurrent.*;
+
+import hu.akarnokd.rxjava2.plugins.SchedulerMetrics.TaskListener;
+
+/**
+ * A single-threaded ScheduledThreadPoolExecutor which reports the events of its tasks
+ * to a {@link TaskListener}; only created when scheduler metrics are enabled so the 
+ * default executors carry no overhead.
+ */
+final class InstrumentedScheduledExecutor extends ScheduledThreadPoolExecutor {
+    final TaskListener listener;
+    
+    /** The start time of the current task; accessed from the single executor thread only. */
+    long startTime;
+    
+    public InstrumentedScheduledExecutor(ThreadFactory threadFactory, TaskListener listener) {
+        super(1, threadFactory, new RejectedHandler(listener));
+        this.listener = listener;
+    }
+    
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+        listener.onScheduled();
+        return task;
+    }
+    
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+        listener.onScheduled();
+        return task;
+    }
+    
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        long wait = 0L;
+        if (r instanceof Delayed) {
+            // the remaining delay of a task already due is how late it starts
+            wait = -((Delayed)r).getDelay(TimeUnit.NANOSECONDS);
+        }
+        listener.onStarted(wait);
+        startTime = System.nanoTime();
+    }
+    
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        listener.onFinished(System.nanoTime() - startTime);
+    }
+    
+    @Override
+    protected void terminated() {
+        listener.onShutdown();
+    }
+    
+    /**
+     * Purges the cancelled tasks and reports the counts to the listener.
+     */
+    void purgeAndReport() {
+        int before = getQueue().size();
+        purge();
+        int after = getQueue().size();
+        listener.onPurged(Math.max(0, before - after), after);
+    }
+    
+    static final class RejectedHandler implements RejectedExecutionHandler {
+        final TaskListener listener;
+        
+        public RejectedHandler(TaskListener listener) {
+            this.listener = listener;
+        }
+        
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            listener.onRejected();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor);
+        }
+    }
+}
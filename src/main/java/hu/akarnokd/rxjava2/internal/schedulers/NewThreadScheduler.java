@@ -24,6 +24,8 @@ import hu.akarnokd.rxjava2.Scheduler;
 public final class NewThreadScheduler extends Scheduler {
 
     private static final String THREAD_NAME_PREFIX = "RxNewThreadScheduler-";
+    /** The pool name reported to the SchedulerMetrics. */
+    static final String METRICS_POOL = "newThread";
     private static final RxThreadFactory THREAD_FACTORY = new RxThreadFactory(THREAD_NAME_PREFIX);
     private static final NewThreadScheduler INSTANCE = new NewThreadScheduler();
 
@@ -37,6 +39,6 @@ public final class NewThreadScheduler extends Scheduler {
 
     @Override
     public Worker createWorker() {
-        return new NewThreadWorker(THREAD_FACTORY);
+        return new NewThreadWorker(THREAD_FACTORY, METRICS_POOL);
     }
 }
\ No newline at end of file
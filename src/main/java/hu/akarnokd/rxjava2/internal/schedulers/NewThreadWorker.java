@@ -18,7 +18,7 @@ import java.util.concurrent.*;
 import hu.akarnokd.rxjava2.Scheduler;
 import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.internal.disposables.*;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.*;
 
 /**
  * Base class that manages a single-threaded ScheduledExecutorService as a
@@ -31,7 +31,19 @@ public class NewThreadWorker extends Scheduler.Worker implements Disposable {
     volatile boolean disposed;
     
     public NewThreadWorker(ThreadFactory threadFactory) {
-        ScheduledExecutorService exec = SchedulerPoolFactory.create(threadFactory);
+        this(threadFactory, "newThread");
+    }
+    
+    /**
+     * Creates the worker and its thread which reports its task events to the
+     * current {@link SchedulerMetrics} under the given pool name, if any.
+     * @param threadFactory the thread factory
+     * @param pool the pool name reported to the SchedulerMetrics, null to not report
+     */
+    public NewThreadWorker(ThreadFactory threadFactory, String pool) {
+        SchedulerMetrics metrics = pool != null ? RxJavaPlugins.getSchedulerMetrics() : null;
+        ScheduledExecutorService exec = SchedulerPoolFactory.create(threadFactory, 
+                metrics != null ? metrics.onThreadCreated(pool) : null);
         executor = exec;
     }
 
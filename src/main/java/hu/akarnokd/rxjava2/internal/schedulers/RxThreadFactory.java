@@ -16,20 +16,67 @@ package hu.akarnokd.rxjava2.internal.schedulers;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 
+import hu.akarnokd.rxjava2.functions.Consumer;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Creates threads named with a prefix and a sequence number, with the given
+ * priority and daemon flag and optionally running a hook on each new thread
+ * (i.e., to pin it to a CPU core via an affinity library) before it executes tasks.
+ */
 public final class RxThreadFactory extends AtomicLong implements ThreadFactory {
     /** */
     private static final long serialVersionUID = -7789753024099756196L;
     
     final String prefix;
     
+    final int priority;
+    
+    final boolean daemon;
+    
+    final Consumer<? super Thread> onStart;
+    
     public RxThreadFactory(String prefix) {
+        this(prefix, Thread.NORM_PRIORITY, true, null);
+    }
+    
+    /**
+     * Constructs a thread factory.
+     * @param prefix the thread name prefix
+     * @param priority the thread priority between {@link Thread#MIN_PRIORITY} and {@link Thread#MAX_PRIORITY}
+     * @param daemon the daemon flag of the threads
+     * @param onStart the hook called with the new thread on that thread before it runs anything, null if none
+     */
+    public RxThreadFactory(String prefix, int priority, boolean daemon, Consumer<? super Thread> onStart) {
+        if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) {
+            throw new IllegalArgumentException("priority out of range: " + priority);
+        }
         this.prefix = prefix;
+        this.priority = priority;
+        this.daemon = daemon;
+        this.onStart = onStart;
     }
     
     @Override
-    public Thread newThread(Runnable r) {
-        Thread t = new Thread(r, prefix + incrementAndGet());
-        t.setDaemon(true);
+    public Thread newThread(final Runnable r) {
+        Runnable run = r;
+        final Consumer<? super Thread> hook = onStart;
+        if (hook != null) {
+            run = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        hook.accept(Thread.currentThread());
+                    } catch (Throwable e) {
+                        RxJavaPlugins.onError(e);
+                    }
+                    r.run();
+                }
+            };
+        }
+        Thread t = new Thread(run, prefix + incrementAndGet());
+        t.setPriority(priority);
+        t.setDaemon(daemon);
         return t;
     }
     
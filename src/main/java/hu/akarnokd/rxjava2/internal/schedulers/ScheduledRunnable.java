@@ -98,6 +98,14 @@ public final class ScheduledRunnable extends AtomicReferenceArray<Object> implem
         return get(FUTURE_INDEX) != null;
     }
     
+    /**
+     * Returns true if this ScheduledRunnable has been disposed before it could run.
+     * @return true if this ScheduledRunnable has been disposed
+     */
+    public boolean isDisposed() {
+        return get(FUTURE_INDEX) == DISPOSED;
+    }
+    
     @Override
     @SuppressWarnings("unchecked")
     public void dispose() {
@@ -21,6 +21,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.SchedulerMetrics.TaskListener;
 
 /**
  * Manages the creating of ScheduledExecutorServices and sets up purging
@@ -68,6 +69,9 @@ public enum SchedulerPoolFactory {
                             for (ScheduledThreadPoolExecutor e : new ArrayList<ScheduledThreadPoolExecutor>(pools2.keySet())) {
                                 if (e.isShutdown()) {
                                     POOLS.remove(e);
+                                } else 
+                                if (e instanceof InstrumentedScheduledExecutor) {
+                                    ((InstrumentedScheduledExecutor)e).purgeAndReport();
                                 } else {
                                     e.purge();
                                 }
@@ -119,7 +123,23 @@ public enum SchedulerPoolFactory {
      * @return the ScheduledExecutorService
      */
     public static ScheduledExecutorService create(ThreadFactory factory) {
-        final ScheduledExecutorService exec = Executors.newScheduledThreadPool(1, factory);
+        return create(factory, null);
+    }
+    
+    /**
+     * Creates a ScheduledExecutorService with the given factory which reports 
+     * its task events to the given listener.
+     * @param factory the thread factory
+     * @param listener the listener to report the task events to, null to not report them
+     * @return the ScheduledExecutorService
+     */
+    public static ScheduledExecutorService create(ThreadFactory factory, TaskListener listener) {
+        final ScheduledExecutorService exec;
+        if (listener != null) {
+            exec = new InstrumentedScheduledExecutor(factory, listener);
+        } else {
+            exec = Executors.newScheduledThreadPool(1, factory);
+        }
         if (exec instanceof ScheduledThreadPoolExecutor) {
             ScheduledThreadPoolExecutor e = (ScheduledThreadPoolExecutor) exec;
             POOLS.put(e, exec);
@@ -18,7 +18,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import hu.akarnokd.rxjava2.Scheduler;
 import hu.akarnokd.rxjava2.disposables.*;
 import hu.akarnokd.rxjava2.internal.disposables.*;
-import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+import hu.akarnokd.rxjava2.plugins.*;
 
 public final class SingleScheduler extends Scheduler {
     
@@ -38,7 +38,9 @@ public final class SingleScheduler extends Scheduler {
     }
 
     static ScheduledExecutorService createExecutor() {
-        ScheduledExecutorService exec = SchedulerPoolFactory.create(new RxThreadFactory("RxSingleScheduler-"));
+        SchedulerMetrics metrics = RxJavaPlugins.getSchedulerMetrics();
+        ScheduledExecutorService exec = SchedulerPoolFactory.create(new RxThreadFactory("RxSingleScheduler-"),
+                metrics != null ? metrics.onThreadCreated("single") : null);
         return exec;
     }
     
@@ -112,13 +114,13 @@ public final class SingleScheduler extends Scheduler {
         
         final ScheduledExecutorService executor;
         
-        final SetCompositeResource<Disposable> tasks;
+        final StripedCompositeResource<Disposable> tasks;
         
         volatile boolean disposed;
         
         public ScheduledWorker(ScheduledExecutorService executor) {
             this.executor = executor;
-            this.tasks = new SetCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            this.tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
         }
         
         @Override
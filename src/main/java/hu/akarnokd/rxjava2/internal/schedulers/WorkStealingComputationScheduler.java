@@ -0,0 +1,373 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.schedulers;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.internal.disposables.*;
+import hu.akarnokd.rxjava2.internal.queue.MpscLinkedQueue;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Holds a fixed pool of threads where each Worker is homed on one of the threads
+ * but threads running out of work steal whole Workers (with their pending tasks)
+ * from the other threads.
+ * <p>
+ * The tasks of a Worker are still executed one at a time and in the order they
+ * were scheduled, but not necessarily on the same thread.
+ */
+public final class WorkStealingComputationScheduler extends Scheduler {
+    private static final String THREAD_NAME_PREFIX = "RxComputationStealingThreadPool-";
+    private static final RxThreadFactory THREAD_FACTORY = new RxThreadFactory(THREAD_NAME_PREFIX);
+    private static final RxThreadFactory TIMER_FACTORY = new RxThreadFactory("RxComputationStealingTimer-");
+    
+    /** 
+     * The maximum number of tasks a Worker may execute before yielding its thread 
+     * to the other Workers waiting there.
+     */
+    static final int BATCH_SIZE = 64;
+    
+    static final class StealingPool {
+        final Runner[] runners;
+        
+        final ScheduledExecutorService timer;
+        
+        final AtomicLong index = new AtomicLong();
+        
+        volatile boolean shutdown;
+        
+        StealingPool(int maxThreads) {
+            Runner[] a = new Runner[maxThreads];
+            for (int i = 0; i < maxThreads; i++) {
+                a[i] = new Runner(this, i);
+            }
+            this.runners = a;
+            if (maxThreads != 0) {
+                this.timer = SchedulerPoolFactory.create(TIMER_FACTORY);
+                for (Runner r : a) {
+                    THREAD_FACTORY.newThread(r).start();
+                }
+            } else {
+                this.timer = null;
+                this.shutdown = true;
+            }
+        }
+        
+        Runner nextHome() {
+            Runner[] a = runners;
+            return a[(int)(index.getAndIncrement() % a.length)];
+        }
+        
+        /**
+         * Enqueues a Worker which has tasks to run at its home thread and wakes up
+         * the home thread or, if it is busy, an idle thread which can steal it.
+         * @param w the worker to enqueue
+         */
+        void submit(StealingWorker w) {
+            Runner home = w.home;
+            home.ready.offer(w);
+            if (!home.wake()) {
+                wakeIdle(home.index);
+            }
+        }
+        
+        void wakeIdle(int exclude) {
+            Runner[] a = runners;
+            int n = a.length;
+            for (int i = 1; i < n; i++) {
+                int j = exclude + i;
+                if (j >= n) {
+                    j -= n;
+                }
+                if (a[j].wake()) {
+                    return;
+                }
+            }
+        }
+        
+        public void shutdown() {
+            shutdown = true;
+            for (Runner r : runners) {
+                r.parked.set(false);
+                LockSupport.unpark(r.thread);
+            }
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+    }
+    
+    /** This will indicate no pool is active. */
+    static final StealingPool NONE = new StealingPool(0);
+
+    final AtomicReference<StealingPool> pool;
+    
+    final int threads;
+    
+    /**
+     * Create a scheduler with pool size equal to the available processor
+     * count (or the value of the {@code rx2.computation-threads} system property).
+     */
+    public WorkStealingComputationScheduler() {
+        this(ComputationScheduler.MAX_THREADS);
+    }
+    
+    /**
+     * Create a scheduler with the given pool size.
+     * @param threads the number of threads, positive
+     */
+    public WorkStealingComputationScheduler(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads > 0 required but it was " + threads);
+        }
+        this.threads = threads;
+        this.pool = new AtomicReference<StealingPool>(NONE);
+        start();
+    }
+    
+    @Override
+    public Worker createWorker() {
+        StealingPool p = pool.get();
+        if (p.shutdown) {
+            return new StealingWorker(p, null);
+        }
+        return new StealingWorker(p, p.nextHome());
+    }
+    
+    @Override
+    public void start() {
+        StealingPool update = new StealingPool(threads);
+        if (!pool.compareAndSet(NONE, update)) {
+            update.shutdown();
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        for (;;) {
+            StealingPool curr = pool.get();
+            if (curr == NONE) {
+                return;
+            }
+            if (pool.compareAndSet(curr, NONE)) {
+                curr.shutdown();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Executes the ready Workers of its own queue and steals from the other Runners' queues
+     * when its own queue is empty.
+     */
+    static final class Runner implements Runnable {
+        final StealingPool pool;
+        
+        final int index;
+        
+        /** The Workers with pending tasks homed at this Runner. */
+        final ConcurrentLinkedQueue<StealingWorker> ready;
+        
+        /** Indicates the Runner has no work and is parked or about to park. */
+        final AtomicBoolean parked;
+        
+        volatile Thread thread;
+        
+        Runner(StealingPool pool, int index) {
+            this.pool = pool;
+            this.index = index;
+            this.ready = new ConcurrentLinkedQueue<StealingWorker>();
+            this.parked = new AtomicBoolean();
+        }
+        
+        /**
+         * Wakes up this Runner if it is parked.
+         * @return true if this call woke up the Runner
+         */
+        boolean wake() {
+            if (parked.get() && parked.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+        
+        StealingWorker next() {
+            StealingWorker w = ready.poll();
+            if (w != null) {
+                return w;
+            }
+            Runner[] a = pool.runners;
+            int n = a.length;
+            for (int i = 1; i < n; i++) {
+                int j = index + i;
+                if (j >= n) {
+                    j -= n;
+                }
+                w = a[j].ready.poll();
+                if (w != null) {
+                    // the stolen worker stays with this thread from now on
+                    w.home = this;
+                    return w;
+                }
+            }
+            return null;
+        }
+        
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            final StealingPool p = pool;
+            
+            while (!p.shutdown) {
+                StealingWorker w = next();
+                if (w != null) {
+                    w.run();
+                    continue;
+                }
+                
+                parked.set(true);
+                
+                // recheck to avoid missing a submission made before the flag was set
+                w = next();
+                if (w != null) {
+                    parked.set(false);
+                    w.run();
+                    continue;
+                }
+                
+                while (parked.get() && !p.shutdown) {
+                    LockSupport.park(this);
+                }
+            }
+        }
+    }
+    
+    static final class StealingWorker extends Scheduler.Worker implements Runnable {
+        final StealingPool pool;
+        
+        final MpscLinkedQueue<ScheduledRunnable> queue;
+        
+        final StripedCompositeResource<Disposable> tasks;
+        
+        final AtomicInteger wip;
+        
+        /** The Runner this worker submits itself to; changes when the worker gets stolen. */
+        volatile Runner home;
+        
+        volatile boolean disposed;
+        
+        StealingWorker(StealingPool pool, Runner home) {
+            this.pool = pool;
+            this.home = home;
+            this.queue = new MpscLinkedQueue<ScheduledRunnable>();
+            this.tasks = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+            this.wip = new AtomicInteger();
+        }
+        
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            if (disposed || home == null) {
+                return EmptyDisposable.INSTANCE;
+            }
+            
+            Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+            
+            final ScheduledRunnable sr = new ScheduledRunnable(decoratedRun, tasks);
+            tasks.add(sr);
+            
+            if (delay <= 0L) {
+                enqueue(sr);
+            } else {
+                try {
+                    Future<?> f = pool.timer.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            enqueue(sr);
+                        }
+                    }, delay, unit);
+                    sr.setFuture(f);
+                } catch (RejectedExecutionException ex) {
+                    dispose();
+                    RxJavaPlugins.onError(ex);
+                    return EmptyDisposable.INSTANCE;
+                }
+            }
+            
+            return sr;
+        }
+        
+        void enqueue(ScheduledRunnable sr) {
+            queue.offer(sr);
+            if (wip.getAndIncrement() == 0) {
+                pool.submit(this);
+            }
+        }
+        
+        @Override
+        public void run() {
+            int missed = 1;
+            int count = 0;
+            final MpscLinkedQueue<ScheduledRunnable> q = queue;
+            
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        clear();
+                        return;
+                    }
+                    
+                    ScheduledRunnable sr = q.poll();
+                    if (sr == null) {
+                        break;
+                    }
+                    
+                    if (!sr.isDisposed()) {
+                        sr.run();
+                    }
+                    
+                    if (++count == BATCH_SIZE) {
+                        // yield the thread but keep the wip claimed so the order is kept
+                        pool.submit(this);
+                        return;
+                    }
+                }
+                
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        void clear() {
+            while (queue.poll() != null);
+        }
+        
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                if (wip.getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+    }
+}
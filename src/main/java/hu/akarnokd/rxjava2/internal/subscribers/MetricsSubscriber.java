@@ -0,0 +1,188 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.subscribers;
+
+import java.util.concurrent.atomic.*;
+
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
+import hu.akarnokd.rxjava2.internal.util.BackpressureHelper;
+import hu.akarnokd.rxjava2.plugins.*;
+
+/**
+ * Sits between an instrumented operator and its downstream subscriber, counts the
+ * emissions and requests and exposes them, along with the operator's own gauges, as
+ * an OperatorProbe to the registered OperatorMetrics.
+ * <p>
+ * The operator should set its gauge via {@link #setGauge(Gauge)} before it calls
+ * {@link #onSubscribe(Subscription)}.
+ * 
+ * @param <T> the value type
+ */
+public final class MetricsSubscriber<T> implements Subscriber<T>, Subscription, OperatorProbe {
+    final Subscriber<? super T> actual;
+    
+    final OperatorMetrics metrics;
+    
+    final String name;
+    
+    Gauge gauge;
+    
+    Subscription s;
+    
+    volatile long emitted;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<MetricsSubscriber> EMITTED =
+            AtomicLongFieldUpdater.newUpdater(MetricsSubscriber.class, "emitted");
+    
+    volatile long requested;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<MetricsSubscriber> REQUESTED =
+            AtomicLongFieldUpdater.newUpdater(MetricsSubscriber.class, "requested");
+    
+    volatile int once;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<MetricsSubscriber> ONCE =
+            AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "once");
+    
+    public MetricsSubscriber(Subscriber<? super T> actual, OperatorMetrics metrics, String name) {
+        this.actual = actual;
+        this.metrics = metrics;
+        this.name = name;
+    }
+    
+    /**
+     * Sets the gauge reporting the operator's queue size and drop count.
+     * @param gauge the gauge
+     */
+    public void setGauge(Gauge gauge) {
+        this.gauge = gauge;
+    }
+    
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (SubscriptionHelper.validateSubscription(this.s, s)) {
+            return;
+        }
+        this.s = s;
+        metrics.onRegister(this);
+        actual.onSubscribe(this);
+    }
+    
+    @Override
+    public void onNext(T t) {
+        EMITTED.lazySet(this, emitted + 1);
+        actual.onNext(t);
+    }
+    
+    @Override
+    public void onError(Throwable t) {
+        unregister();
+        actual.onError(t);
+    }
+    
+    @Override
+    public void onComplete() {
+        unregister();
+        actual.onComplete();
+    }
+    
+    @Override
+    public void request(long n) {
+        if (n > 0L) {
+            BackpressureHelper.add(REQUESTED, this, n);
+        }
+        s.request(n);
+    }
+    
+    @Override
+    public void cancel() {
+        unregister();
+        s.cancel();
+    }
+    
+    void unregister() {
+        if (once == 0 && ONCE.compareAndSet(this, 0, 1)) {
+            metrics.onUnregister(this);
+        }
+    }
+    
+    @Override
+    public String name() {
+        return name;
+    }
+    
+    @Override
+    public long emitted() {
+        return emitted;
+    }
+    
+    @Override
+    public long requested() {
+        long r = requested;
+        if (r == Long.MAX_VALUE) {
+            return r;
+        }
+        return Math.max(0L, r - emitted);
+    }
+    
+    @Override
+    public int queueSize() {
+        Gauge g = gauge;
+        if (g == null) {
+            return -1;
+        }
+        try {
+            return g.queueSize();
+        } catch (Throwable ex) {
+            // the operator's queues are not meant to be inspected concurrently
+            return -1;
+        }
+    }
+    
+    @Override
+    public long dropped() {
+        Gauge g = gauge;
+        if (g == null) {
+            return -1L;
+        }
+        return g.dropped();
+    }
+    
+    @Override
+    public String toString() {
+        return "MetricsSubscriber[" + name + "]";
+    }
+    
+    /**
+     * Reads the queue size and drop count of an operator; called from the sampling thread.
+     */
+    public static abstract class Gauge {
+        /**
+         * Returns the number of values waiting in the operator's queue(s).
+         * @return the number of values waiting in the operator's queue(s)
+         */
+        public abstract int queueSize();
+        
+        /**
+         * Returns the number of values dropped by the operator, -1 if the operator doesn't drop.
+         * @return the number of values dropped by the operator
+         */
+        public long dropped() {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.subscriptions;
+
+import java.util.Queue;
+
+import org.reactivestreams.Subscription;
+
+/**
+ * A Subscription which is also a Queue and allows a downstream queue-drain operator
+ * to poll the upstream's values directly instead of receiving them through onNext
+ * and storing them in its own queue.
+ * 
+ * <p>The fusion is negotiated in onSubscribe via {@link #requestFusion(int)}
+ * before any request() call is made. If the mode established is
+ * <ul>
+ * <li>{@link #SYNC}: the upstream will never call onNext, onError or onComplete
+ * and the downstream should not call request(); poll() returning null indicates
+ * the source is exhausted and a thrown exception indicates an error,</li>
+ * <li>{@link #ASYNC}: the upstream signals the availability of values by calling
+ * onNext (with an unspecified, possibly null value) and terminates normally via
+ * onError and onComplete; poll() returning null indicates there are no
+ * values available at the moment; request() has to be called as usual,</li>
+ * <li>{@link #NONE}: the regular onXXX protocol applies and the Queue methods
+ * should not be called.</li>
+ * </ul>
+ * 
+ * <p>Only the poll, isEmpty, clear and (optionally) size methods of the Queue are expected to be
+ * called by the downstream and they should be called from one thread at a time.
+ * 
+ * @param <T> the value type
+ */
+public interface QueueSubscription<T> extends Queue<T>, Subscription {
+    /** Returned by {@link #requestFusion(int)} if the upstream doesn't support the requested mode. */
+    int NONE = 0;
+    /** Request a synchronous fusion mode or indicate the synchronous mode has been established. */
+    int SYNC = 1;
+    /** Request an asynchronous fusion mode or indicate the asynchronous mode has been established. */
+    int ASYNC = 2;
+    /** Request either the synchronous or the asynchronous fusion mode. */
+    int ANY = SYNC | ASYNC;
+    /** 
+     * Flag added to the requested mode indicating that poll() will be called from a different
+     * thread than the upstream runs on so it shouldn't run user-provided functions there.
+     */
+    int BOUNDARY = 4;
+    
+    /**
+     * Request a fusion mode from the upstream; must be called before any request() call.
+     * @param mode the requested fusion mode: {@link #SYNC}, {@link #ASYNC} or {@link #ANY}
+     * optionally combined with {@link #BOUNDARY}
+     * @return the established fusion mode, {@link #NONE}, {@link #SYNC} or {@link #ASYNC}
+     */
+    int requestFusion(int mode);
+}
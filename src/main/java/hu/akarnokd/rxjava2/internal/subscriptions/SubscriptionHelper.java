@@ -107,4 +107,39 @@ public enum SubscriptionHelper {
     public static Consumer<Subscription> consumeAndCancel() {
         return CONSUME_AND_CANCEL;
     }
+    
+    /**
+     * Hides the fusion capability of the given Subscription, if it is a QueueSubscription,
+     * so that operators passing the upstream Subscription through to their downstream
+     * don't let the downstream poll the upstream directly, bypassing the operator itself.
+     * @param s the upstream Subscription
+     * @return the same Subscription or a wrapper if it was a QueueSubscription
+     */
+    public static Subscription hideFusion(Subscription s) {
+        if (s instanceof QueueSubscription) {
+            return new HiddenSubscription(s);
+        }
+        return s;
+    }
+    
+    /**
+     * Forwards the request and cancel calls to the wrapped Subscription.
+     */
+    static final class HiddenSubscription implements Subscription {
+        final Subscription s;
+        
+        public HiddenSubscription(Subscription s) {
+            this.s = s;
+        }
+        
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+        
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+    }
 }
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.util;
+
+/**
+ * An append-only list of values, with optional timestamps, stored in linked array chunks
+ * for bounded replay buffers: a single producer appends values at the end and moves the 
+ * start forward to drop the oldest ones while any number of readers scan the chunks
+ * sequentially, each with its own {@link Cursor}.
+ * <p>
+ * The dropped values are not cleared because readers which started before the drop may
+ * still read them; at most chunkSize - 1 dropped values stay reachable via the first chunk.
+ */
+public final class ChunkedReplayList {
+    
+    /** The default number of values per chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    
+    final int chunkSize;
+    
+    final boolean timed;
+    
+    /** The last chunk, accessed by the producer only. */
+    Chunk tail;
+    
+    /** The chunk holding the first live value, written by the producer before start. */
+    volatile Chunk head;
+    
+    /** The absolute index of the first live value, written by the producer only. */
+    volatile long start;
+    
+    /** The absolute index after the last value, written by the producer after the value. */
+    volatile long end;
+    
+    /**
+     * Constructs an empty list.
+     * @param chunkSize the number of values per chunk, positive
+     * @param timed if true, a timestamp is stored along with each value
+     */
+    public ChunkedReplayList(int chunkSize, boolean timed) {
+        this.chunkSize = chunkSize;
+        this.timed = timed;
+        Chunk c = new Chunk(0L, chunkSize, timed);
+        this.tail = c;
+        this.head = c;
+    }
+    
+    /**
+     * Returns a chunk size fitting a buffer bounded to the given number of values:
+     * small enough to not retain too many dropped values, at most 
+     * {@link #DEFAULT_CHUNK_SIZE}.
+     * @param maxSize the maximum number of values the buffer holds
+     * @return the chunk size
+     */
+    public static int chunkSizeFor(int maxSize) {
+        return Math.max(4, Math.min(DEFAULT_CHUNK_SIZE, maxSize));
+    }
+    
+    /**
+     * Appends a value without a timestamp, producer only.
+     * @param value the value to append
+     */
+    public void add(Object value) {
+        add(value, 0L);
+    }
+    
+    /**
+     * Appends a value with a timestamp, producer only.
+     * @param value the value to append
+     * @param time the timestamp, ignored if the list is not timed
+     */
+    public void add(Object value, long time) {
+        long e = end;
+        Chunk t = tail;
+        int offset = (int)(e - t.base);
+        if (offset == chunkSize) {
+            Chunk n = new Chunk(e, chunkSize, timed);
+            t.next = n;
+            tail = n;
+            t = n;
+            offset = 0;
+        }
+        t.values[offset] = value;
+        if (timed) {
+            t.times[offset] = time;
+        }
+        end = e + 1;
+    }
+    
+    /**
+     * Returns the absolute index of the first live value.
+     * @return the absolute index of the first live value
+     */
+    public long start() {
+        return start;
+    }
+    
+    /**
+     * Returns the absolute index after the last value.
+     * @return the absolute index after the last value
+     */
+    public long end() {
+        return end;
+    }
+    
+    /**
+     * Drops the values before the given absolute index, producer only.
+     * @param newStart the absolute index of the new first live value, not beyond end
+     */
+    public void moveStart(long newStart) {
+        int cs = chunkSize;
+        Chunk h = head;
+        while (newStart - h.base >= cs) {
+            Chunk n = h.next;
+            if (n == null) {
+                break;
+            }
+            h = n;
+        }
+        head = h;
+        start = newStart;
+    }
+    
+    /**
+     * Returns the value at the given live absolute index, producer only.
+     * @param index the absolute index between start (inclusive) and end (exclusive)
+     * @return the value
+     */
+    public Object valueAt(long index) {
+        Chunk c = chunkOf(head, index);
+        return c.values[(int)(index - c.base)];
+    }
+    
+    /**
+     * Returns the timestamp at the given live absolute index, producer only.
+     * @param index the absolute index between start (inclusive) and end (exclusive)
+     * @return the timestamp
+     */
+    public long timeAt(long index) {
+        Chunk c = chunkOf(head, index);
+        return c.times[(int)(index - c.base)];
+    }
+    
+    Chunk chunkOf(Chunk c, long index) {
+        int cs = chunkSize;
+        while (index - c.base >= cs) {
+            c = c.next;
+        }
+        return c;
+    }
+    
+    /**
+     * Creates a Cursor pointing to the first live value.
+     * <p>This method is thread-safe.
+     * @return the new Cursor instance
+     */
+    public Cursor cursor() {
+        Cursor c = new Cursor();
+        reset(c);
+        return c;
+    }
+    
+    /**
+     * Points the Cursor to the first live value.
+     * <p>This method is thread-safe.
+     * @param c the Cursor to reset
+     */
+    public void reset(Cursor c) {
+        long s = start;
+        // head is written before start: a newer head than s means s has been dropped as well
+        Chunk h = head;
+        if (s < h.base) {
+            s = h.base;
+        }
+        c.chunk = h;
+        c.index = s;
+    }
+    
+    /**
+     * Returns the value at the Cursor's position which has to be before end.
+     * @param c the Cursor
+     * @return the value
+     */
+    public Object value(Cursor c) {
+        Chunk ch = chunkOf(c.chunk, c.index);
+        c.chunk = ch;
+        return ch.values[(int)(c.index - ch.base)];
+    }
+    
+    /**
+     * Returns the value at the given absolute index, which has to be between the Cursor's 
+     * position and end, without moving the Cursor.
+     * @param c the Cursor
+     * @param index the absolute index
+     * @return the value
+     */
+    public Object peek(Cursor c, long index) {
+        Chunk ch = chunkOf(c.chunk, index);
+        return ch.values[(int)(index - ch.base)];
+    }
+    
+    /**
+     * Returns the timestamp at the Cursor's position which has to be before end.
+     * @param c the Cursor
+     * @return the timestamp
+     */
+    public long time(Cursor c) {
+        Chunk ch = chunkOf(c.chunk, c.index);
+        c.chunk = ch;
+        return ch.times[(int)(c.index - ch.base)];
+    }
+    
+    /**
+     * A reader's position in the list: the absolute index of the next value to read
+     * and the chunk it is in (or a chunk before it).
+     */
+    public static final class Cursor {
+        Chunk chunk;
+        /** The absolute index of the next value to read. */
+        public long index;
+    }
+    
+    static final class Chunk {
+        final long base;
+        final Object[] values;
+        final long[] times;
+        volatile Chunk next;
+        
+        public Chunk(long base, int chunkSize, boolean timed) {
+            this.base = base;
+            this.values = new Object[chunkSize];
+            this.times = timed ? new long[chunkSize] : null;
+        }
+    }
+}
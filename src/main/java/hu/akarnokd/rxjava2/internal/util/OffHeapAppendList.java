@@ -0,0 +1,239 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import hu.akarnokd.rxjava2.ElementSerializer;
+
+/**
+ * An append-only list which stores its elements serialized in direct or memory-mapped
+ * ByteBuffer chunks outside the Java heap; a single producer adds elements
+ * while any number of readers deserialize them sequentially with their own {@link Cursor}.
+ * <p>
+ * Each element is stored as its int length followed by its bytes; an element which doesn't
+ * fit into the rest of the current chunk starts a new chunk (with a -1 length marker
+ * left behind if there is room for it) and an element larger than the chunk size gets
+ * a chunk of its own.
+ * <p>
+ * The direct buffers are released by the garbage collector once the list becomes unreachable;
+ * the memory-mapped file is left in place and is owned by the caller.
+ *
+ * @param <T> the element type
+ */
+public final class OffHeapAppendList<T> {
+    /** The default chunk size of 1 MB. */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    
+    final ElementSerializer<T> serializer;
+    
+    final int chunkSize;
+    
+    /** The backing file if memory-mapped, null if direct buffers are used. */
+    final File file;
+    
+    /** The chunks, replaced by a larger copy when full; written by the producer only. */
+    volatile AtomicReferenceArray<ByteBuffer> chunks;
+    
+    /** The number of elements, written by the producer after the element (release). */
+    volatile int size;
+    
+    /** 
+     * The chunk index (upper 32 bits) and offset (lower 32 bits) of the last element,
+     * -1 if empty; written by the producer before the size.
+     */
+    volatile long lastPosition = -1L;
+    
+    /** The number of chunks in use, accessed by the producer only. */
+    int chunkCount;
+    
+    /** The current chunk written by the producer. */
+    ByteBuffer tail;
+    
+    /** The end of the memory-mapped file, accessed by the producer only. */
+    long fileEnd;
+    
+    /**
+     * Constructs an empty list backed by direct ByteBuffers or by a memory-mapped file.
+     * @param serializer the element serializer
+     * @param chunkSize the size of the chunks in bytes
+     * @param file the file to map, overwritten from the start; null to use direct ByteBuffers
+     */
+    public OffHeapAppendList(ElementSerializer<T> serializer, int chunkSize, File file) {
+        this.serializer = serializer;
+        this.chunkSize = chunkSize;
+        this.file = file;
+        this.chunks = new AtomicReferenceArray<ByteBuffer>(16);
+    }
+    
+    /**
+     * Serializes and appends an element, producer only.
+     * @param element the element to add
+     * @throws UncheckedIOException if the memory-mapped file can't be extended
+     * @throws IllegalStateException if the serializer wrote a different number of bytes than its size
+     */
+    public void add(T element) {
+        ElementSerializer<T> s = serializer;
+        int len = s.size(element);
+        int recordSize = len + 4;
+        ByteBuffer t = tail;
+        if (t == null || t.remaining() < recordSize) {
+            if (t != null && t.remaining() >= 4) {
+                t.putInt(t.position(), -1);
+            }
+            t = newChunk(Math.max(chunkSize, recordSize));
+        }
+        int start = t.position();
+        t.position(start + 4);
+        boolean written = false;
+        try {
+            s.serialize(element, t);
+            if (t.position() - start - 4 != len) {
+                throw new IllegalStateException("The serializer wrote " + (t.position() - start - 4) + " bytes instead of " + len);
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                // roll back the partial record so the next element is appended in its place
+                t.position(start);
+            }
+        }
+        t.putInt(start, len);
+        lastPosition = ((long)(chunkCount - 1) << 32) | start;
+        size = size + 1;
+    }
+    
+    ByteBuffer newChunk(int capacity) {
+        ByteBuffer b;
+        if (file == null) {
+            b = ByteBuffer.allocateDirect(capacity);
+        } else {
+            try {
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try {
+                    // the mapping stays valid after the file is closed
+                    b = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, fileEnd, capacity);
+                } finally {
+                    raf.close();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            fileEnd += capacity;
+        }
+        AtomicReferenceArray<ByteBuffer> a = chunks;
+        int n = chunkCount;
+        if (n == a.length()) {
+            AtomicReferenceArray<ByteBuffer> c = new AtomicReferenceArray<ByteBuffer>(n * 2);
+            for (int i = 0; i < n; i++) {
+                c.lazySet(i, a.get(i));
+            }
+            a = c;
+            chunks = c;
+        }
+        a.lazySet(n, b);
+        chunkCount = n + 1;
+        tail = b;
+        return b;
+    }
+    
+    /**
+     * Returns the number of elements that can be read.
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Creates a Cursor pointing to the first element.
+     * @return the new Cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    /**
+     * Deserializes the element at the Cursor's position, which has to be less than
+     * {@link #size()}, and moves the Cursor to the next element.
+     * @param c the Cursor
+     * @return the element
+     */
+    public T next(Cursor c) {
+        ByteBuffer b = c.chunk;
+        if (b != null) {
+            b.limit(b.capacity());
+        }
+        if (b == null || c.offset + 4 > b.capacity() || b.getInt(c.offset) == -1) {
+            // the chunk is published before the size so reading size before this is enough
+            b = chunks.get(c.chunkIndex++).duplicate();
+            c.chunk = b;
+            c.offset = 0;
+        }
+        int start = c.offset + 4;
+        int end = start + b.getInt(c.offset);
+        b.limit(end);
+        b.position(start);
+        T v = serializer.deserialize(b);
+        c.offset = end;
+        c.index++;
+        return v;
+    }
+    
+    /**
+     * Deserializes the last element.
+     * @return the last element or null if the list is empty
+     */
+    public T last() {
+        long p = lastPosition;
+        if (p < 0L) {
+            return null;
+        }
+        ByteBuffer b = chunks.get((int)(p >>> 32)).duplicate();
+        int offset = (int)p;
+        int start = offset + 4;
+        b.limit(start + b.getInt(offset));
+        b.position(start);
+        return serializer.deserialize(b);
+    }
+    
+    /**
+     * A reader's position in the list.
+     */
+    public static final class Cursor {
+        /** The private view of the current chunk. */
+        ByteBuffer chunk;
+        /** The index of the next chunk. */
+        int chunkIndex;
+        /** The offset of the next element in the current chunk. */
+        int offset;
+        /** The index of the next element. */
+        public int index;
+    }
+    
+    /**
+     * Wraps an IOException of the memory-mapped storage so it can be signalled as an onError.
+     */
+    public static final class UncheckedIOException extends RuntimeException {
+        /** */
+        private static final long serialVersionUID = -1870958624524436374L;
+
+        public UncheckedIOException(IOException cause) {
+            super(cause);
+        }
+    }
+}
@@ -225,4 +225,16 @@ public final class OpenHashSet<T> {
     public boolean isEmpty() {
         return size == 0;
     }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the backing array of the set, containing nulls at the unused positions.
+     * @return the backing array
+     */
+    public Object[] keys() {
+        return keys;
+    }
 }
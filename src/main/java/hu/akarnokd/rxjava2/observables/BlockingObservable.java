@@ -17,6 +17,7 @@ import java.io.Closeable;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 import org.reactivestreams.*;
 
@@ -24,10 +25,13 @@ import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.Observer;
 import hu.akarnokd.rxjava2.Optional;
 import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
 import hu.akarnokd.rxjava2.functions.Consumer;
 import hu.akarnokd.rxjava2.internal.functions.Functions;
 import hu.akarnokd.rxjava2.internal.operators.*;
+import hu.akarnokd.rxjava2.internal.queue.*;
 import hu.akarnokd.rxjava2.internal.subscribers.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -47,11 +51,28 @@ public final class BlockingObservable<T> implements Publisher<T>, Iterable<T> {
     
     @Override
     public Iterator<T> iterator() {
-        return iterate(o);
+        return iterate(o, Observable.bufferSize());
+    }
+    
+    /**
+     * Returns an Iterator which prefetches the given number of values from the source
+     * and requests more in batches as the values are consumed.
+     * <p>
+     * The iterator blocks in hasNext() if no value is available; it should be
+     * disposed via its Disposable or Closeable interface if abandoned before
+     * reaching the end of the sequence.
+     * @param prefetch the number of values to prefetch, positive
+     * @return the new Iterator instance
+     */
+    public Iterator<T> iterator(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return iterate(o, prefetch);
     }
     
     public void forEach(Consumer<? super T> action) {
-        BlockingIterator<T> it = iterate(o);
+        BlockingIterator<T> it = iterate(o, Observable.bufferSize());
         while (it.hasNext()) {
             try {
                 action.accept(it.next());
@@ -62,90 +83,170 @@ public final class BlockingObservable<T> implements Publisher<T>, Iterable<T> {
         }
     }
     
-    static final <T> BlockingIterator<T> iterate(Publisher<? extends T> p) {
-        final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+    static final <T> BlockingIterator<T> iterate(Publisher<? extends T> p, int prefetch) {
+        BlockingIterator<T> it = new BlockingIterator<T>(prefetch);
+        
+        p.subscribe(it);
+        
+        return it;
+    }
+    
+    /**
+     * Subscribes to the source with a bounded prefetch and hands out the values
+     * queued in a single-producer single-consumer queue.
+     * <p>
+     * The consumer parks only if it finds the queue empty; the producer
+     * unparks it only if it is known to wait.
+     * @param <T> the value type
+     */
+    static final class BlockingIterator<T> extends AtomicReference<Subscription> 
+    implements Iterator<T>, Subscriber<T>, Closeable, Disposable {
+        /** */
+        private static final long serialVersionUID = -4826624779498010396L;
 
-        LambdaSubscriber<T> ls = new LambdaSubscriber<T>(
-            new Consumer<T>() {
-                @Override
-                public void accept(T v) {
-                    queue.offer(NotificationLite.<T>next(v));
-                }
-            },
-            new Consumer<Throwable>() {
-                @Override
-                public void accept(Throwable e) {
-                    queue.offer(NotificationLite.error(e));
-                }
-            },
-            new Runnable() {
-                @Override
-                public void run() {
-                    queue.offer(NotificationLite.complete());
-                }
-            },
-            new Consumer<Subscription>() {
-                @Override
-                public void accept(Subscription s) {
-                    s.request(Long.MAX_VALUE);
+        static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long n) {
+                
+            }
+            
+            @Override
+            public void cancel() {
+                
+            }
+        };
+        
+        final Queue<T> queue;
+        
+        final int prefetch;
+        
+        final int limit;
+        
+        /** Number of values the producer has queued, written by the producer only. */
+        volatile long produced;
+        
+        /** The thread waiting in hasNext() or null. */
+        volatile Thread waiter;
+        
+        volatile boolean done;
+        Throwable error;
+        
+        /** Number of values taken from the queue, accessed by the consumer only. */
+        long consumed;
+        
+        /** Number of values taken since the last replenishment, accessed by the consumer only. */
+        int consumedInBatch;
+        
+        public BlockingIterator(int prefetch) {
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            if (Pow2.isPowerOfTwo(prefetch)) {
+                this.queue = new SpscArrayQueue<T>(prefetch);
+            } else {
+                this.queue = new SpscExactArrayQueue<T>(prefetch);
+            }
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (!compareAndSet(null, s)) {
+                s.cancel();
+                if (get() != CANCELLED) {
+                    SubscriptionHelper.reportSubscriptionSet();
                 }
+                return;
             }
-        );
+            s.request(prefetch);
+        }
         
-        p.subscribe(ls);
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(t)) {
+                dispose();
+                onError(new MissingBackpressureException("Queue full?!"));
+                return;
+            }
+            // the volatile write orders the offer before the read of the waiter 
+            produced = produced + 1;
+            signalConsumer();
+        }
         
-        return new BlockingIterator<T>(queue, ls);
-    }
-    
-    static final class BlockingIterator<T> implements Iterator<T>, Closeable, Disposable {
-        final BlockingQueue<Object> queue;
-        final Disposable resource;
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            signalConsumer();
+        }
         
-        Object last;
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            signalConsumer();
+        }
         
-        public BlockingIterator(BlockingQueue<Object> queue, Disposable resource) {
-            this.queue = queue;
-            this.resource = resource;
+        void signalConsumer() {
+            Thread w = waiter;
+            if (w != null) {
+                LockSupport.unpark(w);
+            }
         }
+        
         @Override
         public boolean hasNext() {
-            if (last == null) { 
-                Object o = queue.poll();
-                if (o == null) {
-                    try {
-                        o = queue.take();
-                    } catch (InterruptedException ex) {
-                        resource.dispose();
-                        Thread.currentThread().interrupt();
-                        Exceptions.propagate(ex);
+            for (;;) {
+                boolean d = done;
+                boolean empty = queue.isEmpty();
+                if (d && empty) {
+                    Throwable e = error;
+                    if (e != null) {
+                        throw Exceptions.propagate(e);
                     }
+                    return false;
                 }
-                last = o;
-                if (NotificationLite.isError(o)) {
-                    resource.dispose();
-                    Throwable e = NotificationLite.getError(o);
-                    Exceptions.propagate(e);
+                if (!empty) {
+                    return true;
                 }
-                if (NotificationLite.isComplete(o)) {
-                    resource.dispose();
-                    return false;
+                
+                Thread current = Thread.currentThread();
+                waiter = current;
+                if (produced == consumed && !done) {
+                    LockSupport.park(this);
+                }
+                waiter = null;
+                
+                if (Thread.interrupted()) {
+                    dispose();
+                    current.interrupt();
+                    throw Exceptions.propagate(new InterruptedException());
                 }
-                return true;
-            }
-            Object o = last;
-            if (NotificationLite.isError(o)) {
-                Throwable e = NotificationLite.getError(o);
-                Exceptions.propagate(e);
             }
-            return !NotificationLite.isComplete(o);
         }
         
         @Override
         public T next() {
             if (hasNext()) {
-                Object o = last;
-                last = null;
-                return NotificationLite.getValue(o);
+                T v = queue.poll();
+                
+                consumed++;
+                int c = consumedInBatch + 1;
+                if (c == limit) {
+                    consumedInBatch = 0;
+                    get().request(c);
+                } else {
+                    consumedInBatch = c;
+                }
+                
+                return v;
             }
             throw new NoSuchElementException();
         }
@@ -157,12 +258,18 @@ public final class BlockingObservable<T> implements Publisher<T>, Iterable<T> {
         
         @Override
         public void close() {
-            resource.dispose();
+            dispose();
         }
         
         @Override
         public void dispose() {
-            resource.dispose();
+            Subscription s = get();
+            if (s != CANCELLED) {
+                s = getAndSet(CANCELLED);
+                if (s != CANCELLED && s != null) {
+                    s.cancel();
+                }
+            }
         }
     }
 
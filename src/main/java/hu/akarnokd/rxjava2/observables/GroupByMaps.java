@@ -0,0 +1,190 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.observables;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.annotations.Experimental;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+
+/**
+ * Factories of group maps for the groupBy overloads taking an evictingMapFactory.
+ * <p>
+ * The groupBy operator accesses these maps only from the thread delivering the source's
+ * signals, therefore none of the maps returned are thread-safe. Evicted groups are completed
+ * by the operator; expiration is checked whenever the map is accessed, i.e., when the 
+ * source emits a value.
+ */
+@Experimental
+public final class GroupByMaps {
+    
+    private GroupByMaps() {
+        throw new IllegalStateException("No instances");
+    }
+    
+    /**
+     * Returns a factory of non-evicting, non-thread-safe maps that avoid the overhead
+     * of the default ConcurrentHashMap when the source emits from a single thread at a time.
+     * @return the factory instance
+     */
+    public static Function<Consumer<Object>, Map<Object, Object>> unbounded() {
+        return create(Integer.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+    
+    /**
+     * Returns a factory of maps that keep at most the given number of groups by evicting
+     * the least recently accessed group.
+     * @param maxGroups the maximum number of active groups, positive
+     * @return the factory instance
+     */
+    public static Function<Consumer<Object>, Map<Object, Object>> lru(int maxGroups) {
+        validateMaxGroups(maxGroups);
+        return create(maxGroups, Long.MAX_VALUE, null);
+    }
+    
+    /**
+     * Returns a factory of maps that evict groups which didn't receive a value within the 
+     * given time, according to the given scheduler's clock.
+     * @param time the time a group may remain without receiving a value
+     * @param unit the time unit
+     * @param clock the scheduler whose clock is used
+     * @return the factory instance
+     */
+    public static Function<Consumer<Object>, Map<Object, Object>> expireAfterAccess(long time, TimeUnit unit, Scheduler clock) {
+        return expireAfterAccess(Integer.MAX_VALUE, time, unit, clock);
+    }
+    
+    /**
+     * Returns a factory of maps that keep at most the given number of groups by evicting
+     * the least recently accessed group and evict groups which didn't receive a value within 
+     * the given time, according to the given scheduler's clock.
+     * @param maxGroups the maximum number of active groups, positive
+     * @param time the time a group may remain without receiving a value
+     * @param unit the time unit
+     * @param clock the scheduler whose clock is used
+     * @return the factory instance
+     */
+    public static Function<Consumer<Object>, Map<Object, Object>> expireAfterAccess(int maxGroups, 
+            long time, TimeUnit unit, Scheduler clock) {
+        validateMaxGroups(maxGroups);
+        if (time <= 0L) {
+            throw new IllegalArgumentException("time > 0 required but it was " + time);
+        }
+        Objects.requireNonNull(unit, "unit is null");
+        Objects.requireNonNull(clock, "clock is null");
+        return create(maxGroups, unit.toNanos(time), clock);
+    }
+    
+    static void validateMaxGroups(int maxGroups) {
+        if (maxGroups <= 0) {
+            throw new IllegalArgumentException("maxGroups > 0 required but it was " + maxGroups);
+        }
+    }
+    
+    static Function<Consumer<Object>, Map<Object, Object>> create(final int maxSize, final long maxAge, final Scheduler clock) {
+        return new Function<Consumer<Object>, Map<Object, Object>>() {
+            @Override
+            public Map<Object, Object> apply(Consumer<Object> onEvict) {
+                return new EvictingMap(onEvict, maxSize, maxAge, clock);
+            }
+        };
+    }
+    
+    /**
+     * An access-ordered map that evicts its eldest entries, after each get and put, while it 
+     * has more than the maximum number of entries or the eldest hasn't been accessed within 
+     * the maximum age.
+     */
+    static final class EvictingMap extends LinkedHashMap<Object, Object> {
+        /** */
+        private static final long serialVersionUID = -1906524307232898297L;
+        
+        final Consumer<Object> onEvict;
+        final int maxSize;
+        final long maxAge;
+        final Scheduler clock;
+        /** The last access time of the keys in nanoseconds, null if the entries don't expire. */
+        final Map<Object, Long> lastAccess;
+        
+        public EvictingMap(Consumer<Object> onEvict, int maxSize, long maxAge, Scheduler clock) {
+            super(16, 0.75f, true);
+            this.onEvict = onEvict;
+            this.maxSize = maxSize;
+            this.maxAge = maxAge;
+            this.clock = clock;
+            this.lastAccess = clock != null ? new HashMap<Object, Long>() : null;
+        }
+        
+        @Override
+        public Object get(Object key) {
+            Object v = super.get(key);
+            evict(key, v != null);
+            return v;
+        }
+        
+        @Override
+        public Object put(Object key, Object value) {
+            Object v = super.put(key, value);
+            evict(key, true);
+            return v;
+        }
+        
+        @Override
+        public Object remove(Object key) {
+            if (lastAccess != null) {
+                lastAccess.remove(key);
+            }
+            return super.remove(key);
+        }
+        
+        @Override
+        public void clear() {
+            if (lastAccess != null) {
+                lastAccess.clear();
+            }
+            super.clear();
+        }
+        
+        void evict(Object key, boolean accessed) {
+            Map<Object, Long> la = lastAccess;
+            long now = 0L;
+            if (la != null) {
+                now = clock.now(TimeUnit.NANOSECONDS);
+                if (accessed) {
+                    la.put(key, now);
+                }
+            }
+            
+            Iterator<Map.Entry<Object, Object>> it = entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Object, Object> e = it.next();
+                Object k = e.getKey();
+                if (size() <= maxSize) {
+                    // the access order means the rest has been accessed more recently
+                    if (la == null || now - la.get(k) < maxAge) {
+                        break;
+                    }
+                }
+                it.remove();
+                if (la != null) {
+                    la.remove(k);
+                }
+                onEvict.accept(e.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.plugins;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * Receives the probes of the instrumented operators' subscriptions,
+ * registered via {@link RxJavaPlugins#setOperatorMetrics(OperatorMetrics)}.
+ * <p>
+ * The operators {@code observeOn}, {@code flatMap}, {@code groupBy}, {@code publish} and
+ * {@code onBackpressureBuffer} check for the registered instance when they are subscribed to;
+ * when none is set, they run uninstrumented. Note that the instrumentation disables the
+ * queue-fusion between the operator and its downstream.
+ * <p>
+ * The methods may be called from multiple threads concurrently and should not throw.
+ */
+@Experimental
+public interface OperatorMetrics {
+    /**
+     * Called when an instrumented operator has been subscribed to.
+     * @param probe the probe of the subscription
+     */
+    void onRegister(OperatorProbe probe);
+    
+    /**
+     * Called when the subscription of an instrumented operator terminated or has been cancelled.
+     * @param probe the probe of the subscription, the same instance that has been registered
+     */
+    void onUnregister(OperatorProbe probe);
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.plugins;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.annotations.Experimental;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.functions.Consumer;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+
+/**
+ * An OperatorMetrics implementation which keeps track of the live probes and, when sampled,
+ * hands a snapshot of each of them to a sink.
+ * <p>
+ * The sampling can be triggered manually via {@link #sample()} or periodically via
+ * {@link #start(Scheduler, long, TimeUnit)}.
+ */
+@Experimental
+public final class OperatorMetricsSampler implements OperatorMetrics {
+    
+    final Consumer<? super List<OperatorSample>> sink;
+    
+    /** The live probes and the emission count they had at the last sampling. */
+    final ConcurrentMap<OperatorProbe, long[]> probes;
+    
+    /**
+     * Constructs a sampler which hands the samples to the given sink.
+     * @param sink the sink receiving the list of samples, one per live probe
+     */
+    public OperatorMetricsSampler(Consumer<? super List<OperatorSample>> sink) {
+        this.sink = Objects.requireNonNull(sink, "sink is null");
+        this.probes = new ConcurrentHashMap<OperatorProbe, long[]>();
+    }
+    
+    @Override
+    public void onRegister(OperatorProbe probe) {
+        probes.put(probe, new long[1]);
+    }
+    
+    @Override
+    public void onUnregister(OperatorProbe probe) {
+        probes.remove(probe);
+    }
+    
+    /**
+     * Returns the number of live probes.
+     * @return the number of live probes
+     */
+    public int probeCount() {
+        return probes.size();
+    }
+    
+    /**
+     * Takes a snapshot of all live probes and hands them to the sink.
+     * @return the list of samples handed to the sink
+     */
+    public synchronized List<OperatorSample> sample() {
+        List<OperatorSample> list = new ArrayList<OperatorSample>(probes.size());
+        for (Map.Entry<OperatorProbe, long[]> e : probes.entrySet()) {
+            OperatorProbe p = e.getKey();
+            long[] last = e.getValue();
+            
+            long emitted = p.emitted();
+            long delta = emitted - last[0];
+            last[0] = emitted;
+            
+            list.add(new OperatorSample(p.name(), emitted, delta, p.requested(), p.queueSize(), p.dropped()));
+        }
+        list = Collections.unmodifiableList(list);
+        sink.accept(list);
+        return list;
+    }
+    
+    /**
+     * Starts sampling periodically on the given scheduler.
+     * @param scheduler the scheduler to run the sampling on
+     * @param period the sampling period
+     * @param unit the sampling period's time unit
+     * @return the Disposable that stops the sampling
+     */
+    public Disposable start(Scheduler scheduler, long period, TimeUnit unit) {
+        Objects.requireNonNull(scheduler, "scheduler is null");
+        Objects.requireNonNull(unit, "unit is null");
+        return scheduler.schedulePeriodicallyDirect(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, period, period, unit);
+    }
+    
+    /**
+     * A snapshot of a single probe's values.
+     */
+    public static final class OperatorSample {
+        final String name;
+        final long emitted;
+        final long emittedSinceLastSample;
+        final long requested;
+        final int queueSize;
+        final long dropped;
+        
+        public OperatorSample(String name, long emitted, long emittedSinceLastSample, 
+                long requested, int queueSize, long dropped) {
+            this.name = name;
+            this.emitted = emitted;
+            this.emittedSinceLastSample = emittedSinceLastSample;
+            this.requested = requested;
+            this.queueSize = queueSize;
+            this.dropped = dropped;
+        }
+        
+        public String name() {
+            return name;
+        }
+        
+        public long emitted() {
+            return emitted;
+        }
+        
+        /**
+         * Returns the number of values emitted since the previous sampling of the same probe.
+         * @return the number of values emitted since the previous sampling of the same probe
+         */
+        public long emittedSinceLastSample() {
+            return emittedSinceLastSample;
+        }
+        
+        public long requested() {
+            return requested;
+        }
+        
+        public int queueSize() {
+            return queueSize;
+        }
+        
+        public long dropped() {
+            return dropped;
+        }
+        
+        @Override
+        public String toString() {
+            return "OperatorSample[name=" + name + ", emitted=" + emitted 
+                    + ", emittedSinceLastSample=" + emittedSinceLastSample 
+                    + ", requested=" + requested + ", queueSize=" + queueSize 
+                    + ", dropped=" + dropped + "]";
+        }
+    }
+}
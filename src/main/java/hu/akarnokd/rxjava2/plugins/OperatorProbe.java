@@ -0,0 +1,57 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.plugins;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * A live view of a single subscription to an instrumented operator.
+ * <p>
+ * The values are read without synchronization and may be slightly stale;
+ * the gauges return -1 if the operator doesn't track them or they couldn't be determined.
+ */
+@Experimental
+public interface OperatorProbe {
+    /**
+     * Returns the name of the operator, for example {@code "observeOn"}.
+     * @return the name of the operator
+     */
+    String name();
+    
+    /**
+     * Returns the number of values emitted to the downstream so far.
+     * @return the number of values emitted to the downstream so far
+     */
+    long emitted();
+    
+    /**
+     * Returns the number of values requested by the downstream but not yet emitted,
+     * Long.MAX_VALUE if the downstream requested an unbounded amount.
+     * @return the outstanding request amount
+     */
+    long requested();
+    
+    /**
+     * Returns the number of values waiting in the operator's queue(s).
+     * @return the number of values waiting in the operator's queue(s) or -1
+     */
+    int queueSize();
+    
+    /**
+     * Returns the number of values the operator dropped so far.
+     * @return the number of values the operator dropped so far or -1
+     */
+    long dropped();
+}
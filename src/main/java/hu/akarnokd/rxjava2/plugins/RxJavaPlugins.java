@@ -48,6 +48,10 @@ public final class RxJavaPlugins {
     static volatile Function<Scheduler, Scheduler> onIOHandler;
 
     static volatile Function<Scheduler, Scheduler> onNewThreadHandler;
+    
+    static volatile SchedulerMetrics schedulerMetrics;
+    
+    static volatile OperatorMetrics operatorMetrics;
 
     /** Prevents changing the plugins. */
     private static volatile boolean lockdown;
@@ -106,6 +110,22 @@ public final class RxJavaPlugins {
         return onNewThreadHandler;
     }
 
+    /**
+     * Returns the current scheduler metrics receiver or null if not set.
+     * @return the current scheduler metrics receiver or null if not set
+     */
+    public static SchedulerMetrics getSchedulerMetrics() {
+        return schedulerMetrics;
+    }
+
+    /**
+     * Returns the current operator metrics receiver or null if not set.
+     * @return the current operator metrics receiver or null if not set
+     */
+    public static OperatorMetrics getOperatorMetrics() {
+        return operatorMetrics;
+    }
+
     public static Function<Runnable, Runnable> getScheduleHandler() {
         return onScheduleHandler;
     }
@@ -301,6 +321,9 @@ public final class RxJavaPlugins {
 
         setNewThreadSchedulerHandler(null);
         setInitNewThreadSchedulerHandler(null);
+        
+        setSchedulerMetrics(null);
+        setOperatorMetrics(null);
     }
 
     public static void setComputationSchedulerHandler(Function<Scheduler, Scheduler> handler) {
@@ -375,6 +398,30 @@ public final class RxJavaPlugins {
         onScheduleHandler = handler;
     }
 
+    /**
+     * Sets the receiver of the scheduler thread, worker and task events; the standard
+     * schedulers pick it up when they create their next thread or worker.
+     * @param metrics the metrics receiver, null to disable the reporting
+     */
+    public static void setSchedulerMetrics(SchedulerMetrics metrics) {
+        if (lockdown) {
+            throw new IllegalStateException("Plugins can't be changed anymore");
+        }
+        schedulerMetrics = metrics;
+    }
+
+    /**
+     * Sets the receiver of the instrumented operators' probes; the operators pick it up
+     * when they are subscribed to.
+     * @param metrics the metrics receiver, null to disable the instrumentation
+     */
+    public static void setOperatorMetrics(OperatorMetrics metrics) {
+        if (lockdown) {
+            throw new IllegalStateException("Plugins can't be changed anymore");
+        }
+        operatorMetrics = metrics;
+    }
+
     public static void setSingleSchedulerHandler(Function<Scheduler, Scheduler> handler) {
         if (lockdown) {
             throw new IllegalStateException("Plugins can't be changed anymore");
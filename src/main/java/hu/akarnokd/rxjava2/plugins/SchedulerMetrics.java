@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.plugins;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * Receives the lifecycle and task events of the standard schedulers' threads and workers,
+ * registered via {@link RxJavaPlugins#setSchedulerMetrics(SchedulerMetrics)}.
+ * <p>
+ * The standard schedulers pick up the registered instance when they create a thread or a
+ * worker, so it should be set before the schedulers are first used; when none is set,
+ * no events are generated at all.
+ * <p>
+ * The pool names are {@code "computation"}, {@code "io"}, {@code "single"} and {@code "newThread"};
+ * the workers of the latter are their own threads and are reported via {@link #onThreadCreated(String)} only.
+ * The methods may be called from multiple threads concurrently and should not throw.
+ */
+@Experimental
+public interface SchedulerMetrics {
+    /**
+     * Called when a pool starts a new backing thread.
+     * @param pool the pool name
+     * @return the listener to receive the events of the thread's tasks or null to not track them
+     */
+    TaskListener onThreadCreated(String pool);
+    
+    /**
+     * Called when a Scheduler.Worker is created.
+     * @param pool the pool name
+     */
+    void onWorkerCreated(String pool);
+    
+    /**
+     * Called when a Scheduler.Worker is disposed.
+     * @param pool the pool name
+     */
+    void onWorkerDisposed(String pool);
+    
+    /**
+     * Receives the events of the tasks run by a single backing thread.
+     */
+    interface TaskListener {
+        /**
+         * Called when a task has been submitted to the thread.
+         */
+        void onScheduled();
+        
+        /**
+         * Called when the thread rejected a task.
+         */
+        void onRejected();
+        
+        /**
+         * Called on the thread before a task starts running.
+         * @param waitNanos the time in nanoseconds the task waited after its due time
+         */
+        void onStarted(long waitNanos);
+        
+        /**
+         * Called on the thread after a task has run.
+         * @param runNanos the running time of the task in nanoseconds
+         */
+        void onFinished(long runNanos);
+        
+        /**
+         * Called after the periodic purge removed the cancelled tasks of the thread.
+         * @param purged the number of cancelled tasks removed
+         * @param queueSize the number of tasks still waiting
+         */
+        void onPurged(int purged, int queueSize);
+        
+        /**
+         * Called when the thread is shut down.
+         */
+        void onShutdown();
+    }
+}
@@ -0,0 +1,388 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.plugins;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * A SchedulerMetrics implementation which keeps counters and power-of-two latency histograms
+ * per pool and per backing thread.
+ * <p>
+ * Each thread updates its own counters only, the pool totals are summed up when read.
+ */
+@Experimental
+public final class SchedulerMetricsRecorder implements SchedulerMetrics {
+    
+    final ConcurrentMap<String, PoolMetrics> pools = new ConcurrentHashMap<String, PoolMetrics>();
+    
+    /**
+     * Returns the metrics of the given pool.
+     * @param pool the pool name
+     * @return the metrics, created if necessary
+     */
+    public PoolMetrics pool(String pool) {
+        PoolMetrics p = pools.get(pool);
+        if (p == null) {
+            p = new PoolMetrics(pool);
+            PoolMetrics q = pools.putIfAbsent(pool, p);
+            if (q != null) {
+                p = q;
+            }
+        }
+        return p;
+    }
+    
+    /**
+     * Returns the names of the pools which reported events so far.
+     * @return the set of pool names
+     */
+    public Set<String> poolNames() {
+        return Collections.unmodifiableSet(pools.keySet());
+    }
+    
+    @Override
+    public TaskListener onThreadCreated(String pool) {
+        PoolMetrics p = pool(pool);
+        ThreadMetrics t = new ThreadMetrics(p);
+        p.threads.add(t);
+        p.threadsCreated.getAndIncrement();
+        return t;
+    }
+    
+    @Override
+    public void onWorkerCreated(String pool) {
+        PoolMetrics p = pool(pool);
+        p.workersCreated.getAndIncrement();
+        p.activeWorkers.getAndIncrement();
+    }
+    
+    @Override
+    public void onWorkerDisposed(String pool) {
+        pool(pool).activeWorkers.getAndDecrement();
+    }
+    
+    /**
+     * The metrics of a pool: the totals of its live threads plus the ones already shut down.
+     */
+    public static final class PoolMetrics {
+        final String name;
+        
+        final CopyOnWriteArrayList<ThreadMetrics> threads = new CopyOnWriteArrayList<ThreadMetrics>();
+        
+        /** Accumulates the counters of the threads shut down. */
+        final ThreadMetrics retired;
+        
+        final AtomicLong threadsCreated = new AtomicLong();
+        
+        final AtomicLong workersCreated = new AtomicLong();
+        
+        final AtomicInteger activeWorkers = new AtomicInteger();
+        
+        PoolMetrics(String name) {
+            this.name = name;
+            this.retired = new ThreadMetrics(null);
+        }
+        
+        public String name() {
+            return name;
+        }
+        
+        /**
+         * Returns the metrics of the live threads.
+         * @return the list of thread metrics
+         */
+        public List<ThreadMetrics> threads() {
+            return Collections.unmodifiableList(threads);
+        }
+        
+        public int activeThreads() {
+            return threads.size();
+        }
+        
+        public long threadsCreated() {
+            return threadsCreated.get();
+        }
+        
+        public int activeWorkers() {
+            return activeWorkers.get();
+        }
+        
+        public long workersCreated() {
+            return workersCreated.get();
+        }
+        
+        public long scheduled() {
+            long n = retired.scheduled();
+            for (ThreadMetrics t : threads) {
+                n += t.scheduled();
+            }
+            return n;
+        }
+        
+        public long rejected() {
+            long n = retired.rejected();
+            for (ThreadMetrics t : threads) {
+                n += t.rejected();
+            }
+            return n;
+        }
+        
+        public long started() {
+            long n = retired.started();
+            for (ThreadMetrics t : threads) {
+                n += t.started();
+            }
+            return n;
+        }
+        
+        public long completed() {
+            long n = retired.completed();
+            for (ThreadMetrics t : threads) {
+                n += t.completed();
+            }
+            return n;
+        }
+        
+        public long purged() {
+            long n = retired.purged();
+            for (ThreadMetrics t : threads) {
+                n += t.purged();
+            }
+            return n;
+        }
+        
+        /**
+         * Returns the number of waiting tasks of the live threads as of their last purge.
+         * @return the number of waiting tasks
+         */
+        public int queueSize() {
+            int n = 0;
+            for (ThreadMetrics t : threads) {
+                n += t.queueSize();
+            }
+            return n;
+        }
+        
+        public LatencyHistogram waitTimes() {
+            LatencyHistogram h = new LatencyHistogram();
+            h.add(retired.waitTimes);
+            for (ThreadMetrics t : threads) {
+                h.add(t.waitTimes);
+            }
+            return h;
+        }
+        
+        public LatencyHistogram runTimes() {
+            LatencyHistogram h = new LatencyHistogram();
+            h.add(retired.runTimes);
+            for (ThreadMetrics t : threads) {
+                h.add(t.runTimes);
+            }
+            return h;
+        }
+    }
+    
+    /**
+     * The metrics of a single backing thread.
+     */
+    public static final class ThreadMetrics implements TaskListener {
+        final PoolMetrics parent;
+        
+        final AtomicLong scheduled = new AtomicLong();
+        
+        final AtomicLong rejected = new AtomicLong();
+        
+        final AtomicLong started = new AtomicLong();
+        
+        final AtomicLong completed = new AtomicLong();
+        
+        final AtomicLong purged = new AtomicLong();
+        
+        volatile int queueSize;
+        
+        /** Set when the thread's counters have been moved into the pool's retired totals. */
+        volatile boolean shutdown;
+        
+        final LatencyHistogram waitTimes = new LatencyHistogram();
+        
+        final LatencyHistogram runTimes = new LatencyHistogram();
+        
+        ThreadMetrics(PoolMetrics parent) {
+            this.parent = parent;
+        }
+        
+        @Override
+        public void onScheduled() {
+            scheduled.getAndIncrement();
+        }
+        
+        @Override
+        public void onRejected() {
+            if (shutdown) {
+                // a shut down thread still rejects tasks
+                parent.retired.rejected.getAndIncrement();
+            } else {
+                rejected.getAndIncrement();
+            }
+        }
+        
+        @Override
+        public void onStarted(long waitNanos) {
+            started.getAndIncrement();
+            waitTimes.record(waitNanos);
+        }
+        
+        @Override
+        public void onFinished(long runNanos) {
+            completed.getAndIncrement();
+            runTimes.record(runNanos);
+        }
+        
+        @Override
+        public void onPurged(int purged, int queueSize) {
+            this.purged.getAndAdd(purged);
+            this.queueSize = queueSize;
+        }
+        
+        @Override
+        public void onShutdown() {
+            PoolMetrics p = parent;
+            if (p.threads.remove(this)) {
+                shutdown = true;
+                ThreadMetrics r = p.retired;
+                r.scheduled.getAndAdd(scheduled.get());
+                r.rejected.getAndAdd(rejected.get());
+                r.started.getAndAdd(started.get());
+                r.completed.getAndAdd(completed.get());
+                r.purged.getAndAdd(purged.get());
+                r.waitTimes.add(waitTimes);
+                r.runTimes.add(runTimes);
+            }
+        }
+        
+        public long scheduled() {
+            return scheduled.get();
+        }
+        
+        public long rejected() {
+            return rejected.get();
+        }
+        
+        public long started() {
+            return started.get();
+        }
+        
+        public long completed() {
+            return completed.get();
+        }
+        
+        public long purged() {
+            return purged.get();
+        }
+        
+        /**
+         * Returns the number of waiting tasks as of the last purge.
+         * @return the number of waiting tasks
+         */
+        public int queueSize() {
+            return queueSize;
+        }
+        
+        public LatencyHistogram waitTimes() {
+            return waitTimes;
+        }
+        
+        public LatencyHistogram runTimes() {
+            return runTimes;
+        }
+    }
+    
+    /**
+     * Counts nanosecond latencies in power-of-two buckets: bucket i holds the values
+     * less than 2<sup>i</sup> and not less than 2<sup>i - 1</sup>.
+     */
+    public static final class LatencyHistogram {
+        final AtomicLongArray buckets = new AtomicLongArray(64);
+        
+        /**
+         * Records a latency; negative values count as zero.
+         * @param nanos the latency in nanoseconds
+         */
+        public void record(long nanos) {
+            int i = nanos <= 0L ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+            if (i > 63) {
+                i = 63;
+            }
+            buckets.getAndIncrement(i);
+        }
+        
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < 64; i++) {
+                long v = other.buckets.get(i);
+                if (v != 0L) {
+                    buckets.getAndAdd(i, v);
+                }
+            }
+        }
+        
+        /**
+         * Returns the number of values recorded.
+         * @return the number of values recorded
+         */
+        public long count() {
+            long n = 0L;
+            for (int i = 0; i < 64; i++) {
+                n += buckets.get(i);
+            }
+            return n;
+        }
+        
+        /**
+         * Returns the number of values in the given bucket.
+         * @param bucket the bucket index, 0..63
+         * @return the number of values in the bucket
+         */
+        public long bucket(int bucket) {
+            return buckets.get(bucket);
+        }
+        
+        /**
+         * Returns an upper bound of the given percentile of the values recorded.
+         * @param percentile the percentile, 0..100
+         * @return the exclusive upper bound of the bucket holding the percentile in nanoseconds
+         */
+        public long percentile(double percentile) {
+            long[] b = new long[64];
+            long n = 0L;
+            for (int i = 0; i < 64; i++) {
+                b[i] = buckets.get(i);
+                n += b[i];
+            }
+            long target = (long)Math.ceil(n * percentile / 100d);
+            long sum = 0L;
+            for (int i = 0; i < 64; i++) {
+                sum += b[i];
+                if (sum >= target && sum != 0L) {
+                    return i == 63 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import hu.akarnokd.rxjava2.Scheduler;
+
+/**
+ * An io Scheduler backed by a pool of cached threads which may be capped at a maximum
+ * number of threads; exposes the statistics of the thread pool.
+ * <p>
+ * Instances are created via {@link Schedulers#newBoundedIO(int, long, java.util.concurrent.TimeUnit)} and
+ * {@link Schedulers#newBoundedIO(int, long, long, java.util.concurrent.TimeUnit)}.
+ */
+public abstract class BoundedIOScheduler extends Scheduler {
+    /**
+     * Returns the number of threads currently in the pool, busy or idle.
+     * @return the number of threads currently in the pool
+     */
+    public abstract int size();
+    
+    /**
+     * Returns the maximum number of threads or zero if unbounded.
+     * @return the maximum number of threads or zero if unbounded
+     */
+    public abstract int maxThreads();
+    
+    /**
+     * Returns the number of threads created so far.
+     * @return the number of threads created so far
+     */
+    public abstract long createdCount();
+    
+    /**
+     * Returns the number of times an idle cached thread was handed to a new Worker.
+     * @return the number of times an idle cached thread was reused
+     */
+    public abstract long reusedCount();
+    
+    /**
+     * Returns the number of idle threads evicted after their keep-alive time.
+     * @return the number of idle threads evicted
+     */
+    public abstract long evictedCount();
+    
+    /**
+     * Returns the number of Workers which had to share a busy thread because
+     * the maximum number of threads was reached (bounded mode only).
+     * @return the number of Workers queued up behind a busy thread
+     */
+    public abstract long queuedCount();
+}
@@ -13,9 +13,10 @@
 
 package hu.akarnokd.rxjava2.schedulers;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.*;
 
 import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.functions.Consumer;
 import hu.akarnokd.rxjava2.internal.schedulers.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -94,6 +95,142 @@ public final class Schedulers {
         return new ExecutorScheduler(executor);
     }
     
+    /**
+     * Creates a new computation Scheduler whose idle threads steal the Workers (along with their
+     * pending tasks) queued up behind a busy thread; the tasks of a Worker still execute one at
+     * a time and in order.
+     * <p>
+     * To use it instead of the default {@link #computation()} Scheduler, install a handler
+     * before the Schedulers class is first accessed:
+     * <pre>
+     * RxJavaPlugins.setInitComputationSchedulerHandler(new Function&lt;Scheduler, Scheduler&gt;() {
+     *     public Scheduler apply(Scheduler s) {
+     *         s.shutdown();
+     *         return Schedulers.newWorkStealingComputation();
+     *     }
+     * });
+     * </pre>
+     * @return the new Scheduler instance, already started
+     */
+    public static Scheduler newWorkStealingComputation() {
+        return new WorkStealingComputationScheduler();
+    }
+    
+    /**
+     * Creates a new, isolated Scheduler with the given number of event loop threads named
+     * {@code name-1}, {@code name-2}, etc., handing out Workers round-robin.
+     * <p>
+     * The Scheduler can be shut down independently of the standard Schedulers and
+     * reports to the {@link hu.akarnokd.rxjava2.plugins.SchedulerMetrics} under the given name,
+     * which lets latency-sensitive pipelines run on dedicated threads without sharing
+     * event loops with {@link #computation()}.
+     * @param name the name of the pool and the prefix of its threads, not null
+     * @param threads the number of event loop threads, positive
+     * @return the new Scheduler instance, already started
+     * @see #newFixed(String, int, ThreadFactory)
+     */
+    public static Scheduler newFixed(String name, int threads) {
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        return newFixed(name, threads, new RxThreadFactory(name + "-"));
+    }
+    
+    /**
+     * Creates a new, isolated Scheduler with the given number of event loop threads
+     * created by the given thread factory, handing out Workers round-robin.
+     * @param name the pool name reported to the SchedulerMetrics, not null
+     * @param threads the number of event loop threads, positive
+     * @param threadFactory the factory creating the event loop threads, not null
+     * @return the new Scheduler instance, already started
+     * @see #newThreadFactory(String, int, boolean, Consumer)
+     */
+    public static Scheduler newFixed(String name, int threads, ThreadFactory threadFactory) {
+        return new ComputationScheduler(threads, threadFactory, name, EventLoopSelectionPolicies.roundRobin());
+    }
+    
+    /**
+     * Creates a ThreadFactory naming its threads with the given prefix and a sequence number,
+     * with the given priority and daemon flag.
+     * <p>
+     * The optional {@code onStart} hook is called with each new thread on that thread before
+     * it runs any task, for example to pin it to a CPU core via an affinity library;
+     * exceptions thrown by the hook are routed to {@link RxJavaPlugins#onError(Throwable)}.
+     * @param prefix the thread name prefix, not null
+     * @param priority the thread priority between {@link Thread#MIN_PRIORITY} and {@link Thread#MAX_PRIORITY}
+     * @param daemon the daemon flag of the threads
+     * @param onStart the hook called on each new thread before it runs tasks, null if none
+     * @return the new ThreadFactory
+     */
+    public static ThreadFactory newThreadFactory(String prefix, int priority, boolean daemon, Consumer<? super Thread> onStart) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix is null");
+        }
+        return new RxThreadFactory(prefix, priority, daemon, onStart);
+    }
+    
+    /**
+     * Creates a new io Scheduler which runs at most the given number of threads; once all
+     * threads are in use, new Workers share the least used thread and their tasks queue up
+     * behind the tasks already running there.
+     * <p>
+     * Idle threads are evicted after the given keep-alive time, checked with the same period.
+     * The default {@link #io()} Scheduler can be bounded via the {@code rx2.io-max-threads}
+     * system property.
+     * @param maxThreads the maximum number of threads, positive
+     * @param keepAliveTime the time an idle thread is kept around, positive
+     * @param unit the time unit
+     * @return the new Scheduler instance, already started
+     * @see #newBoundedIO(int, long, long, TimeUnit)
+     */
+    public static BoundedIOScheduler newBoundedIO(int maxThreads, long keepAliveTime, TimeUnit unit) {
+        return newBoundedIO(maxThreads, keepAliveTime, keepAliveTime, unit);
+    }
+    
+    /**
+     * Creates a new io Scheduler which runs at most the given number of threads and
+     * evicts idle threads after the keep-alive time, checking for them periodically.
+     * @param maxThreads the maximum number of threads, positive
+     * @param keepAliveTime the time an idle thread is kept around, positive
+     * @param evictorPeriod the period of evicting expired idle threads, positive
+     * @param unit the time unit
+     * @return the new Scheduler instance, already started
+     * @see BoundedIOScheduler
+     */
+    public static BoundedIOScheduler newBoundedIO(int maxThreads, long keepAliveTime, long evictorPeriod, TimeUnit unit) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads > 0 required but it was " + maxThreads);
+        }
+        return new IOScheduler(maxThreads, keepAliveTime, evictorPeriod, unit);
+    }
+    
+    /**
+     * Creates a new Scheduler which keeps delayed tasks in a hashed timing wheel with
+     * 1 millisecond ticks and 512 buckets and executes them on the computation Scheduler.
+     * @return the new Scheduler instance, already started
+     * @see #newHashedWheelTimer(Scheduler, long, TimeUnit, int)
+     */
+    public static Scheduler newHashedWheelTimer() {
+        return newHashedWheelTimer(computation(), 1, TimeUnit.MILLISECONDS, 512);
+    }
+    
+    /**
+     * Creates a new Scheduler which keeps delayed tasks in a hashed timing wheel and
+     * hands them to a Worker of the given executor Scheduler when they are due.
+     * <p>
+     * Scheduling and cancelling delayed tasks is O(1) which suits operators arming
+     * lots of mostly cancelled timers, such as timeout, delay and debounce; delayed
+     * tasks are run at the first tick after their due time.
+     * @param executor the Scheduler executing the tasks
+     * @param tick the tick duration, positive
+     * @param unit the tick duration's unit
+     * @param wheelSize the number of buckets in the wheel, rounded up to a power of 2
+     * @return the new Scheduler instance, already started
+     */
+    public static Scheduler newHashedWheelTimer(Scheduler executor, long tick, TimeUnit unit, int wheelSize) {
+        return new HashedWheelTimerScheduler(executor, tick, unit, wheelSize);
+    }
+    
     public static void shutdown() {
         computation().shutdown();
         io().shutdown();
@@ -13,6 +13,7 @@
 
 package hu.akarnokd.rxjava2.subjects;
 
+import java.io.File;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -20,10 +21,12 @@ import java.util.concurrent.atomic.*;
 
 import org.reactivestreams.*;
 
-import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.*;
+import hu.akarnokd.rxjava2.annotations.Experimental;
 import hu.akarnokd.rxjava2.internal.functions.Objects;
 import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.*;
+import hu.akarnokd.rxjava2.internal.util.ChunkedReplayList.Cursor;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 import hu.akarnokd.rxjava2.schedulers.Schedulers;
 
@@ -79,6 +82,54 @@ public final class ReplaySubject<T> extends Subject<T, T> {
         return createWithBuffer(buffer);
     }
     
+    /**
+     * Creates an unbounded ReplaySubject which stores the values serialized in 1 MB direct
+     * ByteBuffers outside the Java heap and deserializes them for each Subscriber.
+     * @param <T> the value type
+     * @param serializer the value serializer
+     * @return the new ReplaySubject instance
+     */
+    @Experimental
+    public static <T> ReplaySubject<T> createOffHeap(ElementSerializer<T> serializer) {
+        return createOffHeap(serializer, OffHeapAppendList.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an unbounded ReplaySubject which stores the values serialized in direct
+     * ByteBuffers of the given size outside the Java heap.
+     * @param <T> the value type
+     * @param serializer the value serializer
+     * @param chunkSize the size of each direct ByteBuffer in bytes
+     * @return the new ReplaySubject instance
+     */
+    @Experimental
+    public static <T> ReplaySubject<T> createOffHeap(ElementSerializer<T> serializer, int chunkSize) {
+        Objects.requireNonNull(serializer, "serializer is null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+        }
+        return createWithBuffer(new OffHeapReplayBuffer<T>(new OffHeapAppendList<T>(serializer, chunkSize, null)));
+    }
+
+    /**
+     * Creates an unbounded ReplaySubject which stores the values serialized in the given file,
+     * memory-mapped in regions of the given size; the file is overwritten and not deleted afterwards.
+     * @param <T> the value type
+     * @param serializer the value serializer
+     * @param file the file to store the values in
+     * @param chunkSize the size of each mapped region in bytes
+     * @return the new ReplaySubject instance
+     */
+    @Experimental
+    public static <T> ReplaySubject<T> createOffHeap(ElementSerializer<T> serializer, File file, int chunkSize) {
+        Objects.requireNonNull(serializer, "serializer is null");
+        Objects.requireNonNull(file, "file is null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+        }
+        return createWithBuffer(new OffHeapReplayBuffer<T>(new OffHeapAppendList<T>(serializer, chunkSize, file)));
+    }
+    
     static <T> ReplaySubject<T> createWithBuffer(ReplayBuffer<T> buffer) {
         State<T> state = new State<T>(buffer);
         return new ReplaySubject<T>(state);
@@ -282,7 +333,13 @@ public final class ReplaySubject<T> extends Subject<T, T> {
             }
 
             ReplayBuffer<T> b = buffer;
-            b.add(t);
+            try {
+                b.add(t);
+            } catch (Throwable ex) {
+                // an off-heap buffer may fail to serialize the value
+                onError(ex);
+                return;
+            }
             
             for (ReplaySubscription<T> rs : subscribers) {
                 b.replay(rs);
@@ -560,117 +617,77 @@ public final class ReplaySubject<T> extends Subject<T, T> {
         }
     }
     
-    static final class Node<T> extends AtomicReference<Node<T>> {
-        /** */
-        private static final long serialVersionUID = 6404226426336033100L;
-        
-        final T value;
-        
-        public Node(T value) {
-            this.value = value;
-        }
-    }
-    
-    static final class TimedNode<T> extends AtomicReference<TimedNode<T>> {
-        /** */
-        private static final long serialVersionUID = 6404226426336033100L;
-        
-        final T value;
-        final long time;
-        
-        public TimedNode(T value, long time) {
-            this.value = value;
-            this.time = time;
-        }
-    }
-    
-    static final class SizeBoundReplayBuffer<T> implements ReplayBuffer<T> {
+    static class SizeBoundReplayBuffer<T> implements ReplayBuffer<T> {
         final int maxSize;
-        int size;
         
-        volatile Node<Object> head;
-        
-        Node<Object> tail;
+        /** Holds the values and the terminal notification in array chunks. */
+        final ChunkedReplayList list;
         
         volatile boolean done;
         
         public SizeBoundReplayBuffer(int maxSize) {
+            this(maxSize, false);
+        }
+        
+        SizeBoundReplayBuffer(int maxSize, boolean timed) {
             this.maxSize = maxSize;
-            Node<Object> h = new Node<Object>(null);
-            this.tail = h;
-            this.head = h;
+            this.list = new ChunkedReplayList(ChunkedReplayList.chunkSizeFor(maxSize), timed);
         }
 
         void trim() {
-            if (size > maxSize) {
-                size--;
-                Node<Object> h = head;
-                head = h.get();
+            ChunkedReplayList l = list;
+            long s = l.start();
+            if (l.end() - s > maxSize) {
+                l.moveStart(s + 1);
             }
         }
         
         @Override
         public void add(T value) {
-            Object o = value;
-            Node<Object> n = new Node<Object>(o);
-            Node<Object> t = tail;
-
-            tail = n;
-            size++;
-            /*
-             *  FIXME not sure why lazySet doesn't work here
-             *  (testReplaySubjectEmissionSubscriptionRace hangs) 
-             *  must be the lack of StoreLoad barrier?
-             */
-            t.set(n); // releases both the tail and size
-            
+            list.add(value);
             trim();
         }
         
         @Override
         public void addFinal(Object notificationLite) {
-            Object o = notificationLite;
-            Node<Object> n = new Node<Object>(o);
-            Node<Object> t = tail;
-
-            tail = n;
-            size++;
-            t.lazySet(n); // releases both the tail and size
-            
+            list.add(notificationLite);
             done = true;
         }
         
+        /**
+         * Returns a Cursor pointing to the first value a new subscriber should receive.
+         * @return the Cursor
+         */
+        Cursor first() {
+            return list.cursor();
+        }
+        
         @Override
         @SuppressWarnings("unchecked")
         public T getValue() {
-            Node<Object> prev = null;
-            Node<Object> h = head;
-
-            for (;;) {
-                Node<Object> next = h.get();
-                if (next == null) {
-                    break;
-                }
-                prev = h;
-                h = next;
-            }
-            
-            Object v = h.value;
-            if (v == null) {
+            ChunkedReplayList l = list;
+            Cursor c = l.cursor();
+            long e = l.end();
+            long s = c.index;
+            if (s == e) {
                 return null;
             }
+            Object v = l.peek(c, e - 1);
             if (NotificationLite.isComplete(v) || NotificationLite.isError(v)) {
-                return (T)prev.value;
+                if (s == e - 1) {
+                    return null;
+                }
+                v = l.peek(c, e - 2);
             }
-            
             return (T)v;
         }
         
         @Override
         @SuppressWarnings("unchecked")
         public T[] getValues(T[] array) {
-            Node<Object> h = head;
-            int s = size();
+            ChunkedReplayList l = list;
+            Cursor c = l.cursor();
+            int s = size(c, l.end());
             
             if (s == 0) {
                 if (array.length != 0) {
@@ -681,12 +698,9 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                     array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
                 }
 
-                int i = 0;
-                while (i != s) {
-                    Node<Object> next = h.get();
-                    array[i] = (T)next.value;
-                    i++;
-                    h = next;
+                for (int i = 0; i != s; i++) {
+                    array[i] = (T)l.value(c);
+                    c.index++;
                 }
                 if (array.length > s) {
                     array[s] = null;
@@ -705,10 +719,11 @@ public final class ReplaySubject<T> extends Subject<T, T> {
             
             int missed = 1;
             final Subscriber<? super T> a = rs.actual;
+            final ChunkedReplayList l = list;
 
-            Node<Object> index = (Node<Object>)rs.index;
+            Cursor index = (Cursor)rs.index;
             if (index == null) {
-                index = head;
+                index = first();
             }
 
             for (;;) {
@@ -721,6 +736,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                 long r = rs.requested;
                 boolean unbounded = r == Long.MAX_VALUE;
                 long e = 0;
+                long end = l.end();
                 
                 for (;;) {
                     if (rs.cancelled) {
@@ -728,26 +744,27 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                         return;
                     }
                     
-                    Node<Object> n = index.get();
-                    
-                    if (n == null) {
-                        break;
+                    if (index.index == end) {
+                        end = l.end();
+                        if (index.index == end) {
+                            break;
+                        }
                     }
                     
-                    Object o = n.value;
+                    Object o = l.value(index);
                     
-                    if (done) {
-                        if (n.get() == null) {
-                            
-                            if (NotificationLite.isComplete(o)) {
-                                a.onComplete();
-                            } else {
-                                a.onError(NotificationLite.getError(o));
-                            }
-                            rs.index = null;
-                            rs.cancelled = true;
-                            return;
-                        }
+                    // the terminal notification can only be the last element
+                    if (NotificationLite.isComplete(o)) {
+                        a.onComplete();
+                        rs.index = null;
+                        rs.cancelled = true;
+                        return;
+                    }
+                    if (NotificationLite.isError(o)) {
+                        a.onError(NotificationLite.getError(o));
+                        rs.index = null;
+                        rs.cancelled = true;
+                        return;
                     }
                     
                     if (r == 0) {
@@ -761,7 +778,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                     r--;
                     e--;
                     
-                    index = n;
+                    index.index++;
                 }
                 
                 if (e != 0L) {
@@ -770,7 +787,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                     }
                 }
                 
-                if (index.get() != null && r != 0L) {
+                if (index.index != l.end() && r != 0L) {
                     continue;
                 }
                 
@@ -785,160 +802,121 @@ public final class ReplaySubject<T> extends Subject<T, T> {
         
         @Override
         public int size() {
-            int s = 0;
-            Node<Object> h = head;
-            while (s != Integer.MAX_VALUE) {
-                Node<Object> next = h.get();
-                if (next == null) {
-                    Object o = h.value;
-                    if (NotificationLite.isComplete(o) || NotificationLite.isError(o)) {
-                        s--;
-                    }
-                    break;
+            ChunkedReplayList l = list;
+            return size(l.cursor(), l.end());
+        }
+        
+        int size(Cursor c, long end) {
+            long s = end - c.index;
+            if (s != 0L) {
+                Object o = list.peek(c, end - 1);
+                if (NotificationLite.isComplete(o) || NotificationLite.isError(o)) {
+                    s--;
                 }
-                s++;
-                h = next;
             }
-            
-            return s;
+            return (int)Math.min(s, Integer.MAX_VALUE);
         }
     }
     
-    static final class SizeAndTimeBoundReplayBuffer<T> implements ReplayBuffer<T> {
-        final int maxSize;
+    static final class SizeAndTimeBoundReplayBuffer<T> extends SizeBoundReplayBuffer<T> {
         final long maxAge;
         final TimeUnit unit;
         final Scheduler scheduler;
-        int size;
-        
-        volatile TimedNode<Object> head;
-        
-        TimedNode<Object> tail;
-        
-        volatile boolean done;
-        
         
         public SizeAndTimeBoundReplayBuffer(int maxSize, long maxAge, TimeUnit unit, Scheduler scheduler) {
-            this.maxSize = maxSize;
+            super(maxSize, true);
             this.maxAge = maxAge;
             this.unit = unit;
             this.scheduler = scheduler;
-            TimedNode<Object> h = new TimedNode<Object>(null, 0L);
-            this.tail = h;
-            this.head = h;
         }
 
+        @Override
         void trim() {
-            if (size > maxSize) {
-                size--;
-                TimedNode<Object> h = head;
-                head = h.get();
-            }
-            long limit = scheduler.now(unit) - maxAge;
-            
-            TimedNode<Object> h = head;
-            
-            for (;;) {
-                TimedNode<Object> next = h.get();
-                if (next == null) {
-                    head = h;
-                    break;
-                }
-                
-                if (next.time > limit) {
-                    head = h;
-                    break;
-                }
-                
-                h = next;
-            }
-            
+            super.trim();
+            trimTime(scheduler.now(unit) - maxAge, 0);
         }
         
         void trimFinal() {
-            long limit = scheduler.now(unit) - maxAge;
-            
-            TimedNode<Object> h = head;
-            
-            for (;;) {
-                TimedNode<Object> next = h.get();
-                if (next.get() == null) {
-                    head = h;
-                    break;
-                }
-                
-                if (next.time > limit) {
-                    head = h;
-                    break;
-                }
-                
-                h = next;
+            trimTime(scheduler.now(unit) - maxAge, 1);
+        }
+        
+        /**
+         * Drops the values not younger than the limit but keeps the last keep values.
+         */
+        void trimTime(long limit, int keep) {
+            ChunkedReplayList l = list;
+            long s = l.start();
+            long e = l.end() - keep;
+            while (s < e && l.timeAt(s) <= limit) {
+                s++;
+                l.moveStart(s);
             }
         }
         
         @Override
         public void add(T value) {
-            Object o = value;
-            TimedNode<Object> n = new TimedNode<Object>(o, scheduler.now(unit));
-            TimedNode<Object> t = tail;
-
-            tail = n;
-            size++;
-            /*
-             *  FIXME not sure why lazySet doesn't work here
-             *  (testReplaySubjectEmissionSubscriptionRace hangs) 
-             *  must be the lack of StoreLoad barrier?
-             */
-            t.set(n); // releases both the tail and size
-            
+            list.add(value, scheduler.now(unit));
             trim();
         }
         
         @Override
         public void addFinal(Object notificationLite) {
-            Object o = notificationLite;
-            TimedNode<Object> n = new TimedNode<Object>(o, Long.MAX_VALUE);
-            TimedNode<Object> t = tail;
-
-            tail = n;
-            size++;
-            t.lazySet(n); // releases both the tail and size
+            list.add(notificationLite, Long.MAX_VALUE);
             trimFinal();
             
             done = true;
         }
         
         @Override
-        @SuppressWarnings("unchecked")
-        public T getValue() {
-            TimedNode<Object> prev = null;
-            TimedNode<Object> h = head;
-
-            for (;;) {
-                TimedNode<Object> next = h.get();
-                if (next == null) {
-                    break;
+        Cursor first() {
+            ChunkedReplayList l = list;
+            Cursor index = l.cursor();
+            if (!done) {
+                // skip old entries
+                long limit = scheduler.now(unit) - maxAge;
+                long end = l.end();
+                while (index.index != end && l.time(index) <= limit) {
+                    index.index++;
                 }
-                prev = h;
-                h = next;
-            }
-            
-            Object v = h.value;
-            if (v == null) {
-                return null;
             }
-            if (NotificationLite.isComplete(v) || NotificationLite.isError(v)) {
-                return (T)prev.value;
-            }
-            
-            return (T)v;
+            return index;
+        }
+    }
+    
+    static final class OffHeapReplayBuffer<T> implements ReplayBuffer<T> {
+        /** Holds the serialized values. */
+        final OffHeapAppendList<T> list;
+        
+        /** The terminal NotificationLite, written before done. */
+        Object terminal;
+        
+        volatile boolean done;
+        
+        public OffHeapReplayBuffer(OffHeapAppendList<T> list) {
+            this.list = list;
+        }
+        
+        @Override
+        public void add(T value) {
+            list.add(value);
+        }
+        
+        @Override
+        public void addFinal(Object notificationLite) {
+            terminal = notificationLite;
+            done = true;
+        }
+        
+        @Override
+        public T getValue() {
+            return list.last();
         }
         
         @Override
         @SuppressWarnings("unchecked")
         public T[] getValues(T[] array) {
-            TimedNode<Object> h = head;
-            int s = size();
+            OffHeapAppendList<T> l = list;
+            int s = l.size();
             
             if (s == 0) {
                 if (array.length != 0) {
@@ -948,13 +926,9 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                 if (array.length < s) {
                     array = (T[])Array.newInstance(array.getClass().getComponentType(), s);
                 }
-
-                int i = 0;
-                while (i != s) {
-                    TimedNode<Object> next = h.get();
-                    array[i] = (T)next.value;
-                    i++;
-                    h = next;
+                OffHeapAppendList.Cursor c = l.cursor();
+                for (int i = 0; i != s; i++) {
+                    array[i] = l.next(c);
                 }
                 if (array.length > s) {
                     array[s] = null;
@@ -965,7 +939,6 @@ public final class ReplaySubject<T> extends Subject<T, T> {
         }
         
         @Override
-        @SuppressWarnings("unchecked")
         public void replay(ReplaySubscription<T> rs) {
             if (rs.getAndIncrement() != 0) {
                 return;
@@ -973,32 +946,20 @@ public final class ReplaySubject<T> extends Subject<T, T> {
             
             int missed = 1;
             final Subscriber<? super T> a = rs.actual;
-
-            TimedNode<Object> index = (TimedNode<Object>)rs.index;
+            final OffHeapAppendList<T> l = list;
+            
+            OffHeapAppendList.Cursor index = (OffHeapAppendList.Cursor)rs.index;
             if (index == null) {
-                index = head;
-                if (!done) {
-                    // skip old entries
-                    long limit = scheduler.now(unit) - maxAge;
-                    TimedNode<Object> next = index.get();
-                    while (next != null) {
-                        long ts = next.time;
-                        if (ts > limit) {
-                            break;
-                        }
-                        index = next;
-                        next = index.get();
-                    }
-                }
+                index = l.cursor();
             }
-
+            
             for (;;) {
-
+                
                 if (rs.cancelled) {
                     rs.index = null;
                     return;
                 }
-
+                
                 long r = rs.requested;
                 boolean unbounded = r == Long.MAX_VALUE;
                 long e = 0;
@@ -1009,17 +970,11 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                         return;
                     }
                     
-                    TimedNode<Object> n = index.get();
-                    
-                    if (n == null) {
-                        break;
-                    }
-                    
-                    Object o = n.value;
+                    boolean d = done;
                     
-                    if (done) {
-                        if (n.get() == null) {
-                            
+                    if (index.index == l.size()) {
+                        if (d) {
+                            Object o = terminal;
                             if (NotificationLite.isComplete(o)) {
                                 a.onComplete();
                             } else {
@@ -1029,6 +984,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                             rs.cancelled = true;
                             return;
                         }
+                        break;
                     }
                     
                     if (r == 0) {
@@ -1037,12 +993,20 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                             break;
                         }
                     }
-
-                    a.onNext((T)o);
+                    
+                    T v;
+                    try {
+                        v = l.next(index);
+                    } catch (Throwable ex) {
+                        rs.index = null;
+                        rs.cancelled = true;
+                        a.onError(ex);
+                        return;
+                    }
+                    
+                    a.onNext(v);
                     r--;
                     e--;
-                    
-                    index = n;
                 }
                 
                 if (e != 0L) {
@@ -1051,7 +1015,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
                     }
                 }
                 
-                if (index.get() != null && r != 0L) {
+                if (index.index != l.size() && r != 0L) {
                     continue;
                 }
                 
@@ -1066,22 +1030,7 @@ public final class ReplaySubject<T> extends Subject<T, T> {
         
         @Override
         public int size() {
-            int s = 0;
-            TimedNode<Object> h = head;
-            while (s != Integer.MAX_VALUE) {
-                TimedNode<Object> next = h.get();
-                if (next == null) {
-                    Object o = h.value;
-                    if (NotificationLite.isComplete(o) || NotificationLite.isError(o)) {
-                        s--;
-                    }
-                    break;
-                }
-                s++;
-                h = next;
-            }
-            
-            return s;
+            return list.size();
         }
     }
-}
\ No newline at end of file
+}
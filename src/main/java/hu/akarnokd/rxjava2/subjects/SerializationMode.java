@@ -0,0 +1,35 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.subjects;
+
+import hu.akarnokd.rxjava2.annotations.Experimental;
+
+/**
+ * Specifies how a serialized Subject makes its Subscriber methods thread-safe.
+ */
+@Experimental
+public enum SerializationMode {
+    /**
+     * The emitting thread holds the Subject's monitor while it checks for an ongoing emission
+     * and the other threads queue their events inside the same monitor.
+     * Cheap when the events arrive mostly from one thread at a time.
+     */
+    BLOCKING,
+    /**
+     * The emission right is won through an atomic work-in-progress counter and the 
+     * other threads queue their events in a lock-free multi-producer queue.
+     * Scales better when many threads emit concurrently.
+     */
+    LOCK_FREE
+}
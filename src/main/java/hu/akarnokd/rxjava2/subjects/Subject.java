@@ -16,6 +16,8 @@ package hu.akarnokd.rxjava2.subjects;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.annotations.Experimental;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
 
 /**
  * Represents a Subscriber and an Observable (Publisher) at the same time, allowing
@@ -102,6 +104,25 @@ public abstract class Subject<T, R> extends Observable<R> implements Processor<T
         return new SerializedSubject<T, R>(this);
     }
     
+    /**
+     * Wraps this Subject and serializes the calls to the onSubscribe, onNext, onError and
+     * onComplete methods with the given serialization strategy, making them thread-safe.
+     * <p>The method is thread-safe.
+     * @param mode the serialization strategy
+     * @return the wrapped and serialized subject
+     */
+    @Experimental
+    public final Subject<T, R> toSerialized(SerializationMode mode) {
+        Objects.requireNonNull(mode, "mode is null");
+        if (mode == SerializationMode.BLOCKING) {
+            return toSerialized();
+        }
+        if (this instanceof LockFreeSerializedSubject) {
+            return this;
+        }
+        return new LockFreeSerializedSubject<T, R>(this);
+    }
+    
     /** An empty array to avoid allocation in getValues(). */
     private static final Object[] EMPTY = new Object[0];
     
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.subjects.nbp;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.internal.queue.MpscLinkedQueue;
+import hu.akarnokd.rxjava2.internal.util.NotificationLite;
+import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
+
+/**
+ * Serializes calls to the Subscriber methods without locking: the thread which
+ * increments the work-in-progress counter from zero emits directly, the others
+ * queue their events for it.
+ * <p>All other Publisher and Subject methods are thread-safe by design.
+ *
+ * @param <T> the source value type
+ * @param <R> the subject's result value type
+ */
+/* public */ final class NbpLockFreeSerializedSubject<T, R> extends NbpSubject<T, R> {
+    /** The actual subscriber to serialize Subscriber calls to. */
+    final NbpSubject<T, R> actual;
+    /** Holds the NotificationLite events missed by the emitting thread. */
+    final MpscLinkedQueue<Object> queue;
+    
+    volatile int wip;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<NbpLockFreeSerializedSubject> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(NbpLockFreeSerializedSubject.class, "wip");
+    
+    /** Makes sure only the first terminal event is accepted. */
+    volatile int once;
+    @SuppressWarnings("rawtypes")
+    static final AtomicIntegerFieldUpdater<NbpLockFreeSerializedSubject> ONCE =
+            AtomicIntegerFieldUpdater.newUpdater(NbpLockFreeSerializedSubject.class, "once");
+    
+    /** The terminal error, written before done. */
+    Throwable error;
+    /** Indicates a terminal event has been received and all further events will be dropped. */
+    volatile boolean done;
+    /** Indicates the terminal event has been emitted, accessed by the emitting thread only. */
+    boolean terminated;
+    
+    /**
+     * Constructor that wraps an actual subject.
+     * @param actual the subject wrapped
+     */
+    public NbpLockFreeSerializedSubject(final NbpSubject<T, R> actual) {
+        super(new hu.akarnokd.rxjava2.NbpObservable.NbpOnSubscribe<R>() {
+            @Override
+            public void accept(hu.akarnokd.rxjava2.NbpObservable.NbpSubscriber<? super R> s) {
+                actual.subscribe(s);
+            }
+        });
+        this.actual = actual;
+        this.queue = new MpscLinkedQueue<Object>();
+    }
+    
+    @Override
+    public void onSubscribe(Disposable s) {
+        // NO-OP
+    }
+    
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            return;
+        }
+        emit(NotificationLite.next(t));
+    }
+    
+    void emit(Object o) {
+        if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+            if (!done) {
+                NotificationLite.acceptFull(o, actual);
+            }
+            if (WIP.decrementAndGet(this) == 0) {
+                return;
+            }
+        } else {
+            queue.offer(o);
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+        }
+        drainLoop();
+    }
+    
+    @Override
+    public void onError(Throwable t) {
+        if (done || !ONCE.compareAndSet(this, 0, 1)) {
+            RxJavaPlugins.onError(t);
+            return;
+        }
+        error = t;
+        done = true;
+        if (WIP.getAndIncrement(this) == 0) {
+            drainLoop();
+        }
+    }
+    
+    @Override
+    public void onComplete() {
+        if (done || !ONCE.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        done = true;
+        if (WIP.getAndIncrement(this) == 0) {
+            drainLoop();
+        }
+    }
+    
+    /** Loops until all notifications in the queue has been processed. */
+    void drainLoop() {
+        int missed = 1;
+        
+        final MpscLinkedQueue<Object> q = queue;
+        final NbpSubject<T, R> a = actual;
+        
+        for (;;) {
+            
+            for (;;) {
+                if (terminated) {
+                    q.clear();
+                    break;
+                }
+                
+                boolean d = done;
+                
+                if (d) {
+                    Throwable e = error;
+                    if (e != null) {
+                        terminated = true;
+                        q.clear();
+                        a.onError(e);
+                        break;
+                    }
+                }
+                
+                Object o = q.poll();
+                
+                if (o == null) {
+                    if (d) {
+                        terminated = true;
+                        a.onComplete();
+                    }
+                    break;
+                }
+                
+                NotificationLite.acceptFull(o, a);
+            }
+            
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+    
+    @Override
+    public boolean hasSubscribers() {
+        return actual.hasSubscribers();
+    }
+    
+    @Override
+    public boolean hasThrowable() {
+        return actual.hasThrowable();
+    }
+    
+    @Override
+    public Throwable getThrowable() {
+        return actual.getThrowable();
+    }
+    
+    @Override
+    public boolean hasValue() {
+        return actual.hasValue();
+    }
+    
+    @Override
+    public R getValue() {
+        return actual.getValue();
+    }
+    
+    @Override
+    public Object[] getValues() {
+        return actual.getValues();
+    }
+    
+    @Override
+    public R[] getValues(R[] array) {
+        return actual.getValues(array);
+    }
+    
+    @Override
+    public boolean hasComplete() {
+        return actual.hasComplete();
+    }
+}
@@ -15,6 +15,9 @@ package hu.akarnokd.rxjava2.subjects.nbp;
 
 import hu.akarnokd.rxjava2.NbpObservable;
 import hu.akarnokd.rxjava2.NbpObservable.NbpSubscriber;
+import hu.akarnokd.rxjava2.annotations.Experimental;
+import hu.akarnokd.rxjava2.internal.functions.Objects;
+import hu.akarnokd.rxjava2.subjects.SerializationMode;
 
 /**
  * Represents a NbpSubscriber and a NbpObservable at the same time, allowing
@@ -101,6 +104,25 @@ public abstract class NbpSubject<T, R> extends NbpObservable<R> implements NbpSu
         return new NbpSerializedSubject<T, R>(this);
     }
     
+    /**
+     * Wraps this Subject and serializes the calls to the onSubscribe, onNext, onError and
+     * onComplete methods with the given serialization strategy, making them thread-safe.
+     * <p>The method is thread-safe.
+     * @param mode the serialization strategy
+     * @return the wrapped and serialized subject
+     */
+    @Experimental
+    public final NbpSubject<T, R> toSerialized(SerializationMode mode) {
+        Objects.requireNonNull(mode, "mode is null");
+        if (mode == SerializationMode.BLOCKING) {
+            return toSerialized();
+        }
+        if (this instanceof NbpLockFreeSerializedSubject) {
+            return this;
+        }
+        return new NbpLockFreeSerializedSubject<T, R>(this);
+    }
+    
     /** An empty array to avoid allocation in getValues(). */
     private static final Object[] EMPTY = new Object[0];
     
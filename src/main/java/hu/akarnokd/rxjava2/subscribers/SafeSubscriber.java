@@ -15,7 +15,7 @@ package hu.akarnokd.rxjava2.subscribers;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.exceptions.CompositeException;
-import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+import hu.akarnokd.rxjava2.internal.subscriptions.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
 /**
@@ -58,7 +58,7 @@ public final class SafeSubscriber<T> implements Subscriber<T> {
         }
         this.subscription = s;
         try {
-            actual.onSubscribe(s);
+            actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         } catch (Throwable e) {
             done = true;
             // can't call onError because the actual's state may be corrupt at this point
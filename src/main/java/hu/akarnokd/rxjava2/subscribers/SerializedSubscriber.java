@@ -15,6 +15,7 @@ package hu.akarnokd.rxjava2.subscribers;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.functions.Predicate;
+import hu.akarnokd.rxjava2.internal.subscriptions.SubscriptionHelper;
 import hu.akarnokd.rxjava2.internal.util.*;
 import hu.akarnokd.rxjava2.plugins.RxJavaPlugins;
 
@@ -58,7 +59,7 @@ public final class SerializedSubscriber<T> implements Subscriber<T> {
         }
         this.subscription = s;
         
-        actual.onSubscribe(s);
+        actual.onSubscribe(SubscriptionHelper.hideFusion(s));
     }
     
     @Override
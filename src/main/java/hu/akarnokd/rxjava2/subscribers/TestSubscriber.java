@@ -145,7 +145,7 @@ public class TestSubscriber<T> implements Subscriber<T>, Subscription, Disposabl
             s.cancel();
         }
         
-        actual.onSubscribe(s);
+        actual.onSubscribe(SubscriptionHelper.hideFusion(s));
         
         if (cancelled) {
             return;
@@ -0,0 +1,274 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.IntObservable.IntSubscriber;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class IntObservableTest {
+    
+    static final IntUnaryOperator PLUS_ONE = new IntUnaryOperator() {
+        @Override
+        public int apply(int t) {
+            return t + 1;
+        }
+    };
+    
+    static final IntPredicate EVEN = new IntPredicate() {
+        @Override
+        public boolean test(int t) {
+            return (t & 1) == 0;
+        }
+    };
+    
+    static final IntBinaryOperator SUM = new IntBinaryOperator() {
+        @Override
+        public int apply(int t1, int t2) {
+            return t1 + t2;
+        }
+    };
+    
+    @Test
+    public void range() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 5).boxed().subscribe(ts);
+        
+        ts.assertValues(1, 2, 3, 4, 5);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void rangeEmpty() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 0).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void rangeEmptyCompletesWithoutRequest() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        IntObservable.range(1, 0).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void rangeToMaxValue() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(Integer.MAX_VALUE - 1, 2).boxed().subscribe(ts);
+        
+        ts.assertValues(Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        ts.assertComplete();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeOverflow() {
+        IntObservable.range(Integer.MAX_VALUE - 1, 3);
+    }
+
+    @Test
+    public void rangeBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        IntObservable.range(1, 5).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(2);
+        
+        ts.assertValues(1, 2);
+        ts.assertNotComplete();
+        
+        ts.request(3);
+        
+        ts.assertValues(1, 2, 3, 4, 5);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void mapFilter() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        IntObservable.range(1, 10).map(PLUS_ONE).filter(EVEN).boxed().subscribe(ts);
+        
+        ts.request(3);
+        
+        ts.assertValues(2, 4, 6);
+        ts.assertNotComplete();
+        
+        ts.request(10);
+        
+        ts.assertValues(2, 4, 6, 8, 10);
+        ts.assertComplete();
+    }
+
+    @Test
+    public void mapThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 10).map(new IntUnaryOperator() {
+            @Override
+            public int apply(int t) {
+                if (t == 3) {
+                    throw new TestException();
+                }
+                return t;
+            }
+        }).boxed().subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void scan() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 4).scan(SUM).boxed().subscribe(ts);
+        
+        ts.assertValues(1, 3, 6, 10);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void reduce() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 4).reduce(SUM).boxed().subscribe(ts);
+        
+        ts.assertValue(10);
+        ts.assertComplete();
+    }
+
+    @Test
+    public void reduceEmpty() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 0).reduce(SUM).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void reduceSeedBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        IntObservable.range(1, 4).reduce(100, SUM).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNotComplete();
+        
+        ts.request(1);
+        
+        ts.assertValue(110);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void sumMinMax() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable source = IntObservable.fromPublisher(Observable.just(3, -1, 7, 2));
+        
+        Observable.concat(source.sum().boxed(), source.min().boxed(), source.max().boxed()).subscribe(ts);
+        
+        ts.assertValues(11, -1, 7);
+        ts.assertComplete();
+    }
+
+    @Test
+    public void sumEmpty() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        IntObservable.range(1, 0).sum().boxed().subscribe(ts);
+        
+        ts.assertValue(0);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void asLongSumDoesntOverflow() {
+        TestSubscriber<Long> ts = new TestSubscriber<Long>();
+        
+        IntObservable.fromPublisher(Observable.just(Integer.MAX_VALUE, Integer.MAX_VALUE))
+        .asLong().sum().boxed().subscribe(ts);
+        
+        ts.assertValue(2L * Integer.MAX_VALUE);
+    }
+    
+    @Test
+    public void mapToObj() {
+        TestSubscriber<String> ts = new TestSubscriber<String>();
+        
+        IntObservable.range(1, 3).mapToObj(new IntFunction<String>() {
+            @Override
+            public String apply(int i) {
+                return "" + i;
+            }
+        }).subscribe(ts);
+        
+        ts.assertValues("1", "2", "3");
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void primitiveSubscriber() {
+        final List<Object> list = new ArrayList<Object>();
+        
+        IntObservable.range(1, 1000).filter(EVEN).sum().subscribe(new IntSubscriber() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(int t) {
+                list.add(t);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                list.add(t);
+            }
+            
+            @Override
+            public void onComplete() {
+                list.add("Done");
+            }
+        });
+        
+        assertEquals(Arrays.<Object>asList(250500, "Done"), list);
+    }
+}
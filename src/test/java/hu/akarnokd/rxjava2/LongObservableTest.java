@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.schedulers.TestScheduler;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class LongObservableTest {
+    
+    @Test
+    public void rangeToMaxValue() {
+        TestSubscriber<Long> ts = new TestSubscriber<Long>();
+        
+        LongObservable.range(Long.MAX_VALUE - 2, 3).boxed().subscribe(ts);
+        
+        ts.assertValues(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        ts.assertComplete();
+    }
+
+    @Test
+    public void rangeEmptyCompletesWithoutRequest() {
+        TestSubscriber<Long> ts = new TestSubscriber<Long>((Long)null);
+        
+        LongObservable.range(1, 0).boxed().subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeOverflow() {
+        LongObservable.range(Long.MAX_VALUE - 1, 3);
+    }
+    
+    @Test
+    public void mapFilterScan() {
+        TestSubscriber<Long> ts = new TestSubscriber<Long>();
+        
+        LongObservable.range(1, 6)
+        .map(new LongUnaryOperator() {
+            @Override
+            public long apply(long t) {
+                return t * 10;
+            }
+        })
+        .filter(new LongPredicate() {
+            @Override
+            public boolean test(long t) {
+                return t > 20;
+            }
+        })
+        .scan(new LongBinaryOperator() {
+            @Override
+            public long apply(long t1, long t2) {
+                return t1 + t2;
+            }
+        })
+        .boxed()
+        .subscribe(ts);
+        
+        ts.assertValues(30L, 70L, 120L, 180L);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void sumMinMax() {
+        TestSubscriber<Long> ts = new TestSubscriber<Long>();
+        
+        LongObservable source = LongObservable.fromPublisher(Observable.just(5L, -3L, 9L));
+        
+        Observable.concat(source.sum().boxed(), source.min().boxed(), source.max().boxed()).subscribe(ts);
+        
+        ts.assertValues(11L, -3L, 9L);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void interval() {
+        TestScheduler scheduler = new TestScheduler();
+        TestSubscriber<Long> ts = new TestSubscriber<Long>();
+        
+        LongObservable.interval(1, 1, TimeUnit.SECONDS, scheduler).boxed().subscribe(ts);
+        
+        scheduler.advanceTimeBy(3, TimeUnit.SECONDS);
+        
+        ts.assertValues(0L, 1L, 2L);
+        ts.assertNotComplete();
+        
+        ts.cancel();
+        
+        scheduler.advanceTimeBy(3, TimeUnit.SECONDS);
+        
+        ts.assertValues(0L, 1L, 2L);
+    }
+
+    @Test
+    public void intervalMissingBackpressure() {
+        TestScheduler scheduler = new TestScheduler();
+        TestSubscriber<Long> ts = new TestSubscriber<Long>((Long)null);
+        
+        LongObservable.interval(1, 1, TimeUnit.SECONDS, scheduler).boxed().subscribe(ts);
+        
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        
+        ts.assertNoValues();
+        ts.assertError(MissingBackpressureException.class);
+    }
+    
+    @Test
+    public void mapToObjNullFails() {
+        TestSubscriber<Object> ts = new TestSubscriber<Object>();
+        
+        LongObservable.range(1, 3).mapToObj(new LongFunction<Object>() {
+            @Override
+            public Object apply(long i) {
+                return null;
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(NullPointerException.class);
+    }
+}
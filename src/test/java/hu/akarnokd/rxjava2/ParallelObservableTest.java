@@ -0,0 +1,349 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class ParallelObservableTest {
+    
+    static final BiFunction<Integer, Integer, Integer> SUM = new BiFunction<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+    
+    static final Supplier<Integer> ZERO = new Supplier<Integer>() {
+        @Override
+        public Integer get() {
+            return 0;
+        }
+    };
+    
+    static List<Integer> list(int start, int count) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = start; i < start + count; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+    
+    @Test
+    public void sequential() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000)
+        .parallel(4)
+        .sequential()
+        .subscribe(ts);
+        
+        ts.assertValueCount(1000);
+        ts.assertValueSet(list(1, 1000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void sequentialNonFused() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000).asObservable()
+        .parallel(3, 16)
+        .sequential(8)
+        .subscribe(ts);
+        
+        ts.assertValueCount(1000);
+        ts.assertValueSet(list(1, 1000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void sequentialBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 100)
+        .parallel(2)
+        .sequential()
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(10);
+        
+        ts.assertValueCount(10);
+        ts.assertNotComplete();
+        
+        ts.request(90);
+        
+        ts.assertValueCount(100);
+        ts.assertValueSet(list(1, 100));
+        ts.assertComplete();
+    }
+
+    @Test
+    public void mapFilter() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10)
+        .parallel(2)
+        .map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return v * 10;
+            }
+        })
+        .filter(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                return v % 20 == 0;
+            }
+        })
+        .sequential()
+        .subscribe(ts);
+        
+        ts.assertValueSet(Arrays.asList(20, 40, 60, 80, 100));
+        ts.assertValueCount(5);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void runOn() {
+        for (int n = 1; n <= 8; n *= 2) {
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            
+            final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+            
+            Observable.range(1, 100000)
+            .parallel(n)
+            .runOn(Schedulers.computation())
+            .map(new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer v) {
+                    threads.add(Thread.currentThread().getName());
+                    return v;
+                }
+            })
+            .sequential()
+            .subscribe(ts);
+            
+            ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            
+            ts.assertValueCount(100000);
+            ts.assertNoErrors();
+            ts.assertComplete();
+            
+            Set<Integer> set = new HashSet<Integer>(ts.values());
+            assertEquals(100000, set.size());
+            
+            assertTrue(threads.toString(), threads.size() <= n);
+            for (String name : threads) {
+                assertTrue(name, name.startsWith("RxComputation"));
+            }
+        }
+    }
+
+    @Test
+    public void reduceFull() {
+        for (int n = 1; n <= 8; n++) {
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            
+            Observable.range(1, 10)
+            .parallel(n)
+            .reduce(SUM)
+            .subscribe(ts);
+            
+            ts.assertValue(55);
+            ts.assertNoErrors();
+            ts.assertComplete();
+        }
+    }
+
+    @Test
+    public void reduceFullAsync() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000)
+        .parallel(4)
+        .runOn(Schedulers.computation())
+        .reduce(SUM)
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertValue(500500);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void reduceFullEmpty() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.<Integer>empty()
+        .parallel(3)
+        .reduce(SUM)
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void reducePerRail() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10)
+        .parallel(2)
+        .reduce(ZERO, SUM)
+        .sequential()
+        .subscribe(ts);
+        
+        // the values are dispatched round-robin: 1, 3, 5, 7, 9 and 2, 4, 6, 8, 10
+        ts.assertValueSet(Arrays.asList(25, 30));
+        ts.assertValueCount(2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void sorted() {
+        List<Integer> values = list(1, 1000);
+        Collections.shuffle(values);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.fromIterable(values)
+        .parallel(4)
+        .runOn(Schedulers.computation())
+        .sorted(Functions.<Integer>naturalOrder())
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertValueSequence(list(1, 1000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void sortedBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.fromArray(5, 3, 1, 4, 2, 6)
+        .parallel(2)
+        .sorted(Functions.<Integer>naturalOrder())
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(2);
+        
+        ts.assertValues(1, 2);
+        ts.assertNotComplete();
+        
+        ts.request(4);
+        
+        ts.assertValues(1, 2, 3, 4, 5, 6);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void error() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.<Integer>error(new TestException())
+        .parallel(3)
+        .sequential()
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+
+    @Test
+    public void mapperThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10)
+        .parallel(2)
+        .map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                if (v == 5) {
+                    throw new TestException();
+                }
+                return v;
+            }
+        })
+        .reduce(SUM)
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+
+    @Test
+    public void cancelStopsSource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000000)
+        .parallel(2)
+        .sequential()
+        .take(5)
+        .subscribe(ts);
+        
+        ts.assertValueCount(5);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void wrongNumberOfSubscribers() {
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10)
+        .parallel(3)
+        .subscribe(new Subscriber[] { ts1, ts2 });
+        
+        ts1.assertNoValues();
+        ts1.assertError(IllegalArgumentException.class);
+        ts2.assertNoValues();
+        ts2.assertError(IllegalArgumentException.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroParallelism() {
+        Observable.range(1, 10).parallel(0);
+    }
+}
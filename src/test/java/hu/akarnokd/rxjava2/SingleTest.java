@@ -450,5 +450,49 @@ public class SingleTest {
     	ts.assertNoErrors();
     	ts.assertComplete();
     }
+    
+    @Test
+    public void flatMapScalarShortcut() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        
+        Single<Integer> source = Single.create(new SingleOnSubscribe<Integer>() {
+            @Override
+            public void accept(SingleSubscriber<? super Integer> s) {
+                subscriptions.getAndIncrement();
+                s.onSubscribe(EmptyDisposable.INSTANCE);
+                s.onSuccess(1);
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        source.flatMap(new Function<Integer, Single<Integer>>() {
+            @Override
+            public Single<Integer> apply(Integer v) {
+                return Single.just(v + 1);
+            }
+        }).toFlowable().subscribe(ts);
+        
+        ts.assertValue(2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        assertEquals(1, subscriptions.get());
+    }
+    
+    @Test
+    public void flatMapOnScalar() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Single.just(1).flatMap(new Function<Integer, Single<Integer>>() {
+            @Override
+            public Single<Integer> apply(Integer v) {
+                return Single.just(v + 1).delay(10, TimeUnit.MILLISECONDS);
+            }
+        }).toFlowable().subscribe(ts);
+        
+        ts.awaitTerminalEvent();
+        ts.assertValue(2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
 }
-
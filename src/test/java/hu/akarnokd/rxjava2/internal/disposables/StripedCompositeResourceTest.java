@@ -0,0 +1,213 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.disposables;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.exceptions.*;
+
+public class StripedCompositeResourceTest {
+    
+    static Disposable counting(final AtomicInteger counter) {
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                counter.getAndIncrement();
+            }
+        };
+    }
+    
+    @Test
+    public void addDeleteRemove() {
+        AtomicInteger counter = new AtomicInteger();
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        
+        Disposable d1 = counting(counter);
+        Disposable d2 = counting(counter);
+        Disposable d3 = counting(counter);
+        
+        assertTrue(c.add(d1));
+        assertTrue(c.add(d2));
+        assertTrue(c.add(d3));
+        assertEquals(3, c.size());
+        
+        assertTrue(c.delete(d1));
+        assertFalse(c.delete(d1));
+        assertEquals(0, counter.get());
+        
+        assertTrue(c.remove(d2));
+        assertFalse(c.remove(d2));
+        assertEquals(1, counter.get());
+        assertEquals(1, c.size());
+        
+        c.dispose();
+        
+        assertTrue(c.isDisposed());
+        assertEquals(2, counter.get());
+        assertEquals(0, c.size());
+    }
+    
+    @Test
+    public void addAfterDispose() {
+        AtomicInteger counter = new AtomicInteger();
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        
+        c.dispose();
+        
+        assertFalse(c.add(counting(counter)));
+        assertEquals(1, counter.get());
+        
+        c.dispose();
+        
+        assertEquals(1, counter.get());
+    }
+    
+    @Test
+    public void clear() {
+        AtomicInteger counter = new AtomicInteger();
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        
+        for (int i = 0; i < 100; i++) {
+            c.add(counting(counter));
+        }
+        
+        c.clear();
+        
+        assertEquals(100, counter.get());
+        assertEquals(0, c.size());
+        assertFalse(c.isDisposed());
+        
+        assertTrue(c.add(counting(counter)));
+        assertEquals(1, c.size());
+    }
+    
+    @Test
+    public void hashStripe() {
+        AtomicInteger counter = new AtomicInteger();
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose(), 1);
+        
+        int n = StripedCompositeResource.ARRAY_LIMIT * 64;
+        List<Disposable> list = new ArrayList<Disposable>();
+        for (int i = 0; i < n; i++) {
+            Disposable d = counting(counter);
+            list.add(d);
+            assertTrue(c.add(d));
+        }
+        assertEquals(n, c.size());
+        
+        for (int i = 0; i < n; i += 2) {
+            assertTrue(c.delete(list.get(i)));
+            assertFalse(c.delete(list.get(i)));
+        }
+        assertEquals(n / 2, c.size());
+        assertEquals(0, counter.get());
+        
+        assertTrue(c.remove(list.get(1)));
+        assertEquals(1, counter.get());
+        
+        c.clear();
+        
+        assertEquals(n / 2, counter.get());
+        assertEquals(0, c.size());
+        
+        for (int i = 0; i < n; i++) {
+            c.add(counting(counter));
+        }
+        
+        c.dispose();
+        
+        assertEquals(n + n / 2, counter.get());
+        assertEquals(0, c.size());
+        
+        assertFalse(c.add(counting(counter)));
+        assertEquals(n + n / 2 + 1, counter.get());
+    }
+    
+    @Test
+    public void stripesRounded() {
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose(), 3);
+        
+        assertEquals(4, c.length());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void stripesPositive() {
+        new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose(), 0);
+    }
+    
+    @Test
+    public void disposeErrors() {
+        StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose(), 1);
+        
+        for (int i = 0; i < 2; i++) {
+            c.add(new Disposable() {
+                @Override
+                public void dispose() {
+                    throw new TestException();
+                }
+            });
+        }
+        
+        try {
+            c.dispose();
+            fail("Should have thrown");
+        } catch (CompositeException ex) {
+            assertEquals(2, ex.size());
+        }
+    }
+    
+    @Test
+    public void concurrentAddDelete() throws Exception {
+        final StripedCompositeResource<Disposable> c = new StripedCompositeResource<Disposable>(Disposables.consumeAndDispose());
+        final AtomicInteger counter = new AtomicInteger();
+        final int n = 10000;
+        final CountDownLatch cdl = new CountDownLatch(2);
+        
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                List<Disposable> list = new ArrayList<Disposable>();
+                for (int i = 0; i < n; i++) {
+                    Disposable d = counting(counter);
+                    c.add(d);
+                    if (i % 2 == 0) {
+                        list.add(d);
+                    }
+                }
+                for (Disposable d : list) {
+                    c.delete(d);
+                }
+                cdl.countDown();
+            }
+        };
+        
+        new Thread(r).start();
+        new Thread(r).start();
+        
+        cdl.await();
+        
+        assertEquals(n, c.size());
+        
+        c.dispose();
+        
+        assertEquals(n, counter.get());
+    }
+}
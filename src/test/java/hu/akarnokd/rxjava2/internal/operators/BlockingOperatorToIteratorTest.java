@@ -13,16 +13,20 @@
 
 package hu.akarnokd.rxjava2.internal.operators;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
-import java.util.Iterator;
+import java.io.*;
+import java.util.*;
 
 import org.junit.*;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.LongConsumer;
 import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subjects.PublishSubject;
 
 public class BlockingOperatorToIteratorTest {
 
@@ -80,4 +84,94 @@ public class BlockingOperatorToIteratorTest {
             System.out.println(string);
         }
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void prefetchBoundsRequests() {
+        final List<Long> requests = new ArrayList<Long>();
+        
+        Iterator<Integer> it = Observable.range(1, 20)
+        .doOnRequest(new LongConsumer() {
+            @Override
+            public void accept(long n) {
+                requests.add(n);
+            }
+        })
+        .toBlocking().iterator(8);
+        
+        assertEquals(Arrays.asList(8L), requests);
+        
+        for (int i = 1; i <= 20; i++) {
+            assertTrue(it.hasNext());
+            assertEquals(i, it.next().intValue());
+        }
+        assertFalse(it.hasNext());
+        
+        assertEquals(Arrays.asList(8L, 6L, 6L, 6L), requests);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositivePrefetch() {
+        Observable.just(1).toBlocking().iterator(0);
+    }
+
+    @Test(timeout = 10000)
+    public void asyncSource() {
+        Iterator<Integer> it = Observable.range(1, 100000)
+        .subscribeOn(Schedulers.computation())
+        .toBlocking().iterator(16);
+        
+        int expected = 1;
+        while (it.hasNext()) {
+            assertEquals(expected++, it.next().intValue());
+        }
+        assertEquals(100001, expected);
+    }
+    
+    @Test
+    public void valuesBeforeErrorDelivered() {
+        Iterator<Integer> it = Observable.range(1, 3)
+        .concatWith(Observable.<Integer>error(new TestException()))
+        .toBlocking().iterator(2);
+        
+        assertEquals(1, it.next().intValue());
+        assertEquals(2, it.next().intValue());
+        assertEquals(3, it.next().intValue());
+        try {
+            it.hasNext();
+            fail("Should have thrown");
+        } catch (TestException ex) {
+            // expected
+        }
+    }
+    
+    @Test
+    public void disposeCancelsUpstream() throws IOException {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        
+        Iterator<Integer> it = ps.toBlocking().iterator(4);
+        
+        assertTrue(ps.hasSubscribers());
+        
+        ps.onNext(1);
+        assertEquals(1, it.next().intValue());
+        
+        ((Closeable)it).close();
+        
+        assertFalse(ps.hasSubscribers());
+    }
+    
+    @Test(timeout = 10000)
+    public void interruptWhileWaiting() {
+        Iterator<Integer> it = Observable.<Integer>never().toBlocking().iterator();
+        
+        Thread.currentThread().interrupt();
+        try {
+            it.hasNext();
+            fail("Should have thrown");
+        } catch (RuntimeException ex) {
+            assertTrue(ex.toString(), ex.getCause() instanceof InterruptedException);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
+}
@@ -16,6 +16,8 @@ package hu.akarnokd.rxjava2.internal.operators;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -23,10 +25,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.*;
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.exceptions.TestException;
 import hu.akarnokd.rxjava2.functions.Consumer;
 import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
+import hu.akarnokd.rxjava2.internal.util.OffHeapAppendList;
 import hu.akarnokd.rxjava2.schedulers.Schedulers;
 import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
 
@@ -288,4 +292,122 @@ public class CachedObservableTest {
         ts.assertNotComplete();
         ts.assertError(TestException.class);
     }
-}
\ No newline at end of file
+    
+    static final ElementSerializer<Integer> INT_SERIALIZER = new ElementSerializer<Integer>() {
+        @Override
+        public int size(Integer element) {
+            return 4;
+        }
+        @Override
+        public void serialize(Integer element, ByteBuffer out) {
+            out.putInt(element);
+        }
+        @Override
+        public Integer deserialize(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+    
+    @Test
+    public void testOffHeapColdReplayBackpressure() {
+        // 3 elements per 32 byte chunk
+        CachedObservable<Integer> source = CachedObservable.from(Observable.range(0, 1000), 
+                new OffHeapAppendList<Integer>(INT_SERIALIZER, 32, null));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        ts.request(10);
+        source.subscribe(ts);
+        
+        assertTrue("Source is not connected!", source.isConnected());
+        ts.assertValues(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        ts.assertNotComplete();
+        
+        ts.request(Long.MAX_VALUE);
+        ts.assertValueCount(1000);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        assertEquals(1001, source.cachedEventCount());
+        
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>();
+        source.subscribe(ts2);
+        ts2.assertValueCount(1000);
+        ts2.assertComplete();
+        assertEquals(ts.values(), ts2.values());
+    }
+    
+    @Test
+    public void testOffHeapAsyncAndError() {
+        Observable<Integer> source = Observable.range(1, 10000)
+                .concatWith(Observable.<Integer>error(new TestException()))
+                .subscribeOn(Schedulers.computation())
+                .cache(INT_SERIALIZER, 1024);
+        
+        for (int i = 0; i < 3; i++) {
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            source.subscribe(ts);
+            
+            ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            ts.assertValueCount(10000);
+            ts.assertError(TestException.class);
+        }
+    }
+    
+    @Test
+    public void testOffHeapMappedFile() throws Exception {
+        File f = File.createTempFile("cache", ".bin");
+        try {
+            Observable<Integer> source = Observable.range(0, 10000).cache(INT_SERIALIZER, f, 4096);
+            
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            source.subscribe(ts);
+            ts.assertValueCount(10000);
+            ts.assertComplete();
+            
+            TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>();
+            source.subscribe(ts2);
+            assertEquals(ts.values(), ts2.values());
+            assertEquals(Integer.valueOf(9999), ts2.values().get(9999));
+            
+            assertTrue(f.length() >= 80000);
+        } finally {
+            f.delete();
+        }
+    }
+    
+    @Test
+    public void testOffHeapSerializerCrash() {
+        final AtomicInteger cancelled = new AtomicInteger();
+        Observable<Integer> source = Observable.range(0, 10)
+                .doOnCancel(new Runnable() {
+                    @Override
+                    public void run() {
+                        cancelled.getAndIncrement();
+                    }
+                })
+                .cache(new ElementSerializer<Integer>() {
+            @Override
+            public int size(Integer element) {
+                if (element == 5) {
+                    throw new TestException();
+                }
+                return 4;
+            }
+            @Override
+            public void serialize(Integer element, ByteBuffer out) {
+                out.putInt(element);
+            }
+            @Override
+            public Integer deserialize(ByteBuffer in) {
+                return in.getInt();
+            }
+        }, 64);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.assertValues(0, 1, 2, 3, 4);
+        ts.assertError(TestException.class);
+        assertEquals(1, cancelled.get());
+    }
+}
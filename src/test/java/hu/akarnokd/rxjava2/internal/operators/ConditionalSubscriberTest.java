@@ -0,0 +1,233 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.functions.Predicate;
+import hu.akarnokd.rxjava2.internal.subscribers.ConditionalSubscriber;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class ConditionalSubscriberTest {
+    
+    static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer v) {
+            return (v & 1) == 0;
+        }
+    };
+    
+    static List<Integer> list(int start, int count) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = start; i < start + count; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+    
+    /**
+     * Requests a fixed amount upfront, accepts only even values and counts 
+     * how many times onNext (instead of onNextIf) was called.
+     */
+    static final class EvenConditionalSubscriber implements ConditionalSubscriber<Integer> {
+        final long initialRequest;
+        final List<Integer> values = new ArrayList<Integer>();
+        int plainOnNext;
+        int dropped;
+        boolean completed;
+        Throwable error;
+        
+        public EvenConditionalSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription s) {
+            s.request(initialRequest);
+        }
+        
+        @Override
+        public void onNext(Integer t) {
+            plainOnNext++;
+            values.add(t);
+        }
+        
+        @Override
+        public boolean onNextIf(Integer t) {
+            if (EVEN.test(t)) {
+                values.add(t);
+                return true;
+            }
+            dropped++;
+            return false;
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+        
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+    
+    @Test
+    public void rangeDoesNotCountDroppedItems() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(5);
+        
+        Observable.range(1, 100).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10), cs.values);
+        assertEquals(0, cs.plainOnNext);
+        assertEquals(5, cs.dropped);
+        assertFalse(cs.completed);
+        assertNull(cs.error);
+    }
+
+    @Test
+    public void rangeUnboundedConditional() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(Long.MAX_VALUE);
+        
+        Observable.range(1, 10).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10), cs.values);
+        assertEquals(0, cs.plainOnNext);
+        assertTrue(cs.completed);
+    }
+
+    @Test
+    public void rangeCompletesWhenLastItemDropped() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(3);
+        
+        Observable.range(1, 5).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4), cs.values);
+        assertTrue(cs.completed);
+    }
+
+    @Test
+    public void iterableDoesNotCountDroppedItems() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(5);
+        
+        Observable.fromIterable(list(1, 100)).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10), cs.values);
+        assertEquals(0, cs.plainOnNext);
+        assertEquals(5, cs.dropped);
+        assertFalse(cs.completed);
+    }
+
+    @Test
+    public void iterableCompletesWhenLastItemDropped() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(3);
+        
+        Observable.fromIterable(list(1, 5)).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4), cs.values);
+        assertTrue(cs.completed);
+    }
+
+    @Test
+    public void arrayDoesNotCountDroppedItems() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(3);
+        
+        Observable.fromArray(1, 2, 3, 4, 5, 6, 7, 8).subscribe(cs);
+        
+        assertEquals(Arrays.asList(2, 4, 6), cs.values);
+        assertEquals(0, cs.plainOnNext);
+        assertFalse(cs.completed);
+    }
+
+    @Test
+    public void filterForwardsToConditionalDownstream() {
+        EvenConditionalSubscriber cs = new EvenConditionalSubscriber(3);
+        
+        Observable.range(1, 100).filter(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                return v % 3 == 0;
+            }
+        }).subscribe(cs);
+        
+        assertEquals(Arrays.asList(6, 12, 18), cs.values);
+        assertEquals(0, cs.plainOnNext);
+    }
+
+    @Test
+    public void chainBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 100)
+        .filter(EVEN)
+        .skipWhile(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                return v < 10;
+            }
+        })
+        .distinct()
+        .takeWhile(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                return v < 20;
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(2);
+        ts.assertValues(10, 12);
+        ts.assertNotComplete();
+        
+        ts.request(2);
+        ts.assertValues(10, 12, 14, 16);
+        ts.assertNotComplete();
+        
+        ts.request(2);
+        ts.assertValues(10, 12, 14, 16, 18);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void chainIterableBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.fromIterable(Arrays.asList(1, 2, 2, 3, 4, 4, 5, 6))
+        .distinct()
+        .filter(EVEN)
+        .subscribe(ts);
+        
+        ts.request(1);
+        ts.assertValues(2);
+        
+        ts.request(1);
+        ts.assertValues(2, 4);
+        ts.assertNotComplete();
+        
+        ts.request(1);
+        ts.assertValues(2, 4, 6);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+}
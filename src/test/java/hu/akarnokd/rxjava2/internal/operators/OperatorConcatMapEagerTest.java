@@ -0,0 +1,225 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subjects.PublishSubject;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class OperatorConcatMapEagerTest {
+    
+    static Function<Integer, Publisher<Integer>> toSubject(final List<PublishSubject<Integer>> subjects) {
+        return new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return subjects.get(v);
+            }
+        };
+    }
+    
+    static List<PublishSubject<Integer>> subjects(int n) {
+        List<PublishSubject<Integer>> list = new ArrayList<PublishSubject<Integer>>();
+        for (int i = 0; i < n; i++) {
+            list.add(PublishSubject.<Integer>create());
+        }
+        return list;
+    }
+    
+    @Test
+    public void simple() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 3).concatMapEager(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.range(v * 10, 2);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValues(10, 11, 20, 21, 30, 31);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void subscribesEagerlyEmitsInOrder() {
+        List<PublishSubject<Integer>> subjects = subjects(3);
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(0, 3).concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        for (PublishSubject<Integer> ps : subjects) {
+            assertTrue(ps.hasSubscribers());
+        }
+        
+        subjects.get(2).onNext(3);
+        subjects.get(2).onComplete();
+        subjects.get(1).onNext(2);
+        
+        ts.assertNoValues();
+        
+        subjects.get(0).onNext(1);
+        
+        ts.assertValues(1);
+        
+        subjects.get(0).onComplete();
+        
+        ts.assertValues(1, 2);
+        ts.assertNotComplete();
+        
+        subjects.get(1).onComplete();
+        
+        ts.assertValues(1, 2, 3);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void maxConcurrency() {
+        List<PublishSubject<Integer>> subjects = subjects(3);
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(0, 3).concatMapEager(toSubject(subjects), 2, 16).subscribe(ts);
+        
+        assertTrue(subjects.get(0).hasSubscribers());
+        assertTrue(subjects.get(1).hasSubscribers());
+        assertFalse(subjects.get(2).hasSubscribers());
+        
+        subjects.get(1).onNext(2);
+        subjects.get(0).onComplete();
+        
+        assertTrue(subjects.get(2).hasSubscribers());
+        ts.assertValues(2);
+    }
+    
+    @Test
+    public void backpressure() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 3).concatMapEager(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.range(v * 100, 10);
+            }
+        }, 3, 4).subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(5);
+        ts.assertValues(100, 101, 102, 103, 104);
+        
+        ts.request(20);
+        assertEquals(25, ts.valueCount());
+        assertEquals(304, ts.values().get(24).intValue());
+        ts.assertNotComplete();
+        
+        ts.request(5);
+        assertEquals(30, ts.valueCount());
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void innerErrorCancelsOthers() {
+        List<PublishSubject<Integer>> subjects = subjects(3);
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(0, 3).concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        subjects.get(0).onNext(1);
+        subjects.get(2).onError(new TestException());
+        
+        ts.assertValues(1);
+        ts.assertError(TestException.class);
+        
+        for (PublishSubject<Integer> ps : subjects) {
+            assertFalse(ps.hasSubscribers());
+        }
+    }
+    
+    @Test
+    public void mapperThrows() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        source.concatMapEager(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                throw new TestException();
+            }
+        }).subscribe(ts);
+        
+        source.onNext(1);
+        
+        assertFalse(source.hasSubscribers());
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void cancel() {
+        List<PublishSubject<Integer>> subjects = subjects(3);
+        PublishSubject<Integer> source = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        source.concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        source.onNext(0);
+        source.onNext(1);
+        
+        ts.cancel();
+        
+        assertFalse(source.hasSubscribers());
+        for (PublishSubject<Integer> ps : subjects) {
+            assertFalse(ps.hasSubscribers());
+        }
+    }
+    
+    @Test
+    public void asyncInnersKeepOrder() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(0, 200).concatMapEager(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.just(v).subscribeOn(Schedulers.computation());
+            }
+        }, 16, 1).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertNoErrors();
+        ts.assertComplete();
+        ts.assertValueCount(200);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, ts.values().get(i).intValue());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxConcurrency() {
+        Observable.just(1).concatMapEager(toSubject(subjects(1)), 0, 16);
+    }
+}
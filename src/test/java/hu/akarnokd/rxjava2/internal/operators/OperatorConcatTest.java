@@ -21,7 +21,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
-import org.junit.Test;
+import org.junit.*;
 import org.mockito.InOrder;
 import org.reactivestreams.*;
 
@@ -29,6 +29,7 @@ import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.Observer;
 import hu.akarnokd.rxjava2.disposables.BooleanDisposable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
 import hu.akarnokd.rxjava2.schedulers.*;
@@ -825,5 +826,117 @@ public class OperatorConcatTest {
             assertEquals((Integer)999, ts.values().get(999));
         }
     }
+
+    @Test
+    public void concatMapScalarEmptyCallableShortcuts() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).concatMap(new Function<Integer, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return Observable.just(t);
+                        case 1:
+                            return Observable.empty();
+                        default:
+                            return Observable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void concatMapScalarEmptyCallableShortcutsBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 10).concatMap(new Function<Integer, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return Observable.just(t);
+                        case 1:
+                            return Observable.empty();
+                        default:
+                            return Observable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(2);
+        
+        ts.assertValues(20, 3);
+        ts.assertNotComplete();
+        
+        ts.request(10);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void concatMapCallableShortcutThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).concatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
     
-}
\ No newline at end of file
+    @Test
+    public void concatMapOnScalarAndEmptySource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.just(1).concatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(Observable.empty(), Observable.<Integer>empty().concatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        }));
+    }
+}
@@ -18,7 +18,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.*;
@@ -546,4 +546,117 @@ public class OperatorFlatMapTest {
             ts.assertValueCount(n * 2);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void flatMapScalarEmptyCallableShortcuts() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).flatMap(new Function<Integer, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return Observable.just(t);
+                        case 1:
+                            return Observable.empty();
+                        default:
+                            return Observable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void flatMapScalarEmptyCallableShortcutsBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 10).flatMap(new Function<Integer, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return Observable.just(t);
+                        case 1:
+                            return Observable.empty();
+                        default:
+                            return Observable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(2);
+        
+        ts.assertValues(20, 3);
+        ts.assertNotComplete();
+        
+        ts.request(10);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void flatMapCallableShortcutThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).flatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void flatMapOnScalarAndEmptySource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.just(1).flatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(Observable.empty(), Observable.<Integer>empty().flatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        }));
+    }
+}
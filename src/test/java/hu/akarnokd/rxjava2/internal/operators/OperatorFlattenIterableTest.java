@@ -0,0 +1,205 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.subjects.PublishSubject;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class OperatorFlattenIterableTest {
+    
+    static final Function<Integer, Iterable<Integer>> PAIR = new Function<Integer, Iterable<Integer>>() {
+        @Override
+        public Iterable<Integer> apply(Integer v) {
+            return Arrays.asList(v, v + 1);
+        }
+    };
+    
+    @Test
+    public void normal() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 3).flatMapIterable(PAIR).subscribe(ts);
+        
+        ts.assertValues(1, 2, 2, 3, 3, 4);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void normalNotFused() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 3).asObservable().concatMapIterable(PAIR).subscribe(ts);
+        
+        ts.assertValues(1, 2, 2, 3, 3, 4);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void emptyIterables() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000).flatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                return v % 500 == 0 ? Collections.singletonList(v) : Collections.<Integer>emptyList();
+            }
+        }, 16).subscribe(ts);
+        
+        ts.assertValues(500, 1000);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void backpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 3).asObservable().flatMapIterable(PAIR, 2).subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(1);
+        ts.assertValues(1);
+        
+        ts.request(2);
+        ts.assertValues(1, 2, 2);
+        ts.assertNotComplete();
+        
+        ts.request(3);
+        ts.assertValues(1, 2, 2, 3, 3, 4);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void longSource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(0, 10000).asObservable().concatMapIterable(PAIR, 4).subscribe(ts);
+        
+        ts.assertValueCount(20000);
+        ts.assertComplete();
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(i / 2 + i % 2, ts.values().get(i).intValue());
+        }
+    }
+    
+    @Test
+    public void mapperThrows() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        ps.flatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                throw new TestException();
+            }
+        }).subscribe(ts);
+        
+        ps.onNext(1);
+        
+        assertFalse(ps.hasSubscribers());
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void iteratorThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.just(1).flatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                return new Iterable<Integer>() {
+                    @Override
+                    public Iterator<Integer> iterator() {
+                        return new Iterator<Integer>() {
+                            @Override
+                            public boolean hasNext() {
+                                return true;
+                            }
+                            
+                            @Override
+                            public Integer next() {
+                                throw new TestException();
+                            }
+                            
+                            @Override
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+                };
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void nullElement() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.just(1).flatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                return Arrays.asList(1, null);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValues(1);
+        ts.assertError(NullPointerException.class);
+    }
+    
+    @Test
+    public void cancelMidIterable() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1L);
+        
+        ps.flatMapIterable(PAIR).subscribe(ts);
+        
+        ps.onNext(1);
+        
+        ts.assertValues(1);
+        
+        ts.cancel();
+        
+        assertFalse(ps.hasSubscribers());
+    }
+    
+    @Test
+    public void upstreamError() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        ps.flatMapIterable(PAIR).subscribe(ts);
+        
+        ps.onNext(1);
+        ps.onError(new TestException());
+        
+        ts.assertValues(1, 2);
+        ts.assertError(TestException.class);
+    }
+}
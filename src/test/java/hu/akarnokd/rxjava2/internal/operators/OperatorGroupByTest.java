@@ -31,9 +31,11 @@ import hu.akarnokd.rxjava2.Optional;
 import hu.akarnokd.rxjava2.Try;
 import hu.akarnokd.rxjava2.exceptions.TestException;
 import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
 import hu.akarnokd.rxjava2.internal.subscriptions.*;
-import hu.akarnokd.rxjava2.observables.GroupedObservable;
-import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.observables.*;
+import hu.akarnokd.rxjava2.schedulers.*;
+import hu.akarnokd.rxjava2.subjects.PublishSubject;
 import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
 
 public class OperatorGroupByTest {
@@ -1595,4 +1597,150 @@ public class OperatorGroupByTest {
         ts2.assertNoErrors();
         ts2.assertNotComplete();
     }
-}
\ No newline at end of file
+    
+    static <K, V> Consumer<GroupedObservable<K, V>> collectGroups(final List<TestSubscriber<V>> list) {
+        return new Consumer<GroupedObservable<K, V>>() {
+            @Override
+            public void accept(GroupedObservable<K, V> g) {
+                TestSubscriber<V> ts = new TestSubscriber<V>();
+                list.add(ts);
+                g.subscribe(ts);
+            }
+        };
+    }
+    
+    @Test
+    public void evictingLru() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        
+        List<TestSubscriber<Integer>> groups = new ArrayList<TestSubscriber<Integer>>();
+        
+        ps.groupBy(Functions.<Integer>identity(), Functions.<Integer>identity(), 16, GroupByMaps.lru(2))
+        .subscribe(OperatorGroupByTest.<Integer, Integer>collectGroups(groups));
+        
+        ps.onNext(1);
+        ps.onNext(2);
+        
+        assertEquals(2, groups.size());
+        groups.get(0).assertNotComplete();
+        
+        ps.onNext(3);
+        
+        groups.get(0).assertValues(1);
+        groups.get(0).assertComplete();
+        groups.get(1).assertNotComplete();
+        
+        ps.onNext(2);
+        ps.onNext(1);
+        
+        assertEquals(4, groups.size());
+        groups.get(1).assertNotComplete();
+        groups.get(2).assertValues(3);
+        groups.get(2).assertComplete();
+        groups.get(3).assertValues(1);
+        
+        ps.onComplete();
+        
+        groups.get(1).assertValues(2, 2);
+        groups.get(1).assertComplete();
+        groups.get(3).assertComplete();
+    }
+    
+    @Test
+    public void evictingExpireAfterAccess() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> ps = PublishSubject.create();
+        
+        List<TestSubscriber<Integer>> groups = new ArrayList<TestSubscriber<Integer>>();
+        
+        ps.groupBy(Functions.<Integer>identity(), Functions.<Integer>identity(), 16, 
+                GroupByMaps.expireAfterAccess(1, TimeUnit.SECONDS, scheduler))
+        .subscribe(OperatorGroupByTest.<Integer, Integer>collectGroups(groups));
+        
+        ps.onNext(1);
+        
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        
+        ps.onNext(2);
+        
+        scheduler.advanceTimeBy(600, TimeUnit.MILLISECONDS);
+        
+        ps.onNext(2);
+        
+        groups.get(0).assertValues(1);
+        groups.get(0).assertComplete();
+        groups.get(1).assertValues(2, 2);
+        groups.get(1).assertNotComplete();
+        
+        ps.onNext(1);
+        
+        assertEquals(3, groups.size());
+        groups.get(2).assertValues(1);
+    }
+    
+    @Test
+    public void evictingMapGroupCancelled() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        
+        List<TestSubscriber<Integer>> groups = new ArrayList<TestSubscriber<Integer>>();
+        
+        ps.groupBy(Functions.<Integer>identity(), Functions.<Integer>identity(), 16, GroupByMaps.unbounded())
+        .subscribe(OperatorGroupByTest.<Integer, Integer>collectGroups(groups));
+        
+        ps.onNext(1);
+        
+        groups.get(0).cancel();
+        
+        ps.onNext(1);
+        
+        assertEquals(2, groups.size());
+        groups.get(0).assertValues(1);
+        groups.get(1).assertValues(1);
+        
+        ps.onComplete();
+        
+        groups.get(0).assertNotComplete();
+        groups.get(1).assertComplete();
+    }
+    
+    @Test
+    public void evictedAllGroupsCancelsUpstreamIfMainCancelled() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> ps = PublishSubject.create();
+        
+        List<TestSubscriber<Integer>> groups = new ArrayList<TestSubscriber<Integer>>();
+        
+        ps.groupBy(Functions.<Integer>identity(), Functions.<Integer>identity(), 16, 
+                GroupByMaps.expireAfterAccess(1, TimeUnit.SECONDS, scheduler))
+        .take(1)
+        .subscribe(OperatorGroupByTest.<Integer, Integer>collectGroups(groups));
+        
+        ps.onNext(1);
+        
+        assertTrue(ps.hasSubscribers());
+        
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+        
+        ps.onNext(2);
+        
+        groups.get(0).assertValues(1);
+        groups.get(0).assertComplete();
+        assertFalse(ps.hasSubscribers());
+    }
+    
+    @Test
+    public void evictingMapFactoryReturnsNull() {
+        TestSubscriber<GroupedObservable<Integer, Integer>> ts = new TestSubscriber<GroupedObservable<Integer, Integer>>();
+        
+        Observable.just(1).groupBy(Functions.<Integer>identity(), Functions.<Integer>identity(), 16, 
+                new Function<Consumer<Object>, Map<Object, Object>>() {
+            @Override
+            public Map<Object, Object> apply(Consumer<Object> t) {
+                return null;
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(NullPointerException.class);
+    }
+}
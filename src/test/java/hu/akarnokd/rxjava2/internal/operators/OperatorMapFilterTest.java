@@ -0,0 +1,186 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class OperatorMapFilterTest {
+    
+    static final Function<Integer, Integer> PLUS_ONE = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer v) {
+            return v + 1;
+        }
+    };
+    
+    static final Predicate<Integer> IS_EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer v) {
+            return v % 2 == 0;
+        }
+    };
+    
+    @Test
+    public void mapMapFilterMap() {
+        TestSubscriber<String> ts = new TestSubscriber<String>();
+        
+        Observable.range(1, 10)
+        .map(PLUS_ONE)
+        .map(PLUS_ONE)
+        .filter(IS_EVEN)
+        .map(new Function<Integer, String>() {
+            @Override
+            public String apply(Integer v) {
+                return "" + v;
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues("4", "6", "8", "10", "12");
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void longChain() {
+        Observable<Integer> o = Observable.range(1, 1000);
+        for (int i = 0; i < 50; i++) {
+            o = o.map(PLUS_ONE).map(PLUS_ONE).filter(IS_EVEN);
+        }
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        o.subscribe(ts);
+        
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 2; i <= 1000; i += 2) {
+            expected.add(i + 100);
+        }
+        
+        ts.assertValueSequence(expected);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void intermediateStagesStayUsable() {
+        Observable<Integer> first = Observable.range(1, 5).map(PLUS_ONE);
+        Observable<Integer> second = first.filter(IS_EVEN);
+        Observable<Integer> third = second.map(PLUS_ONE);
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts3 = new TestSubscriber<Integer>();
+        
+        first.subscribe(ts1);
+        second.subscribe(ts2);
+        third.subscribe(ts3);
+        
+        ts1.assertValues(2, 3, 4, 5, 6);
+        ts2.assertValues(2, 4, 6);
+        ts3.assertValues(3, 5, 7);
+    }
+    
+    @Test
+    public void backpressureWithDroppedElements() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 20).map(PLUS_ONE).filter(IS_EVEN).map(PLUS_ONE).subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(3);
+        
+        ts.assertValues(3, 5, 7);
+        ts.assertNotTerminated();
+        
+        ts.request(10);
+        
+        ts.assertValues(3, 5, 7, 9, 11, 13, 15, 17, 19, 21);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void backpressureNonConditionalSource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 20).skip(0).filter(IS_EVEN).map(PLUS_ONE).subscribe(ts);
+        
+        ts.request(3);
+        
+        ts.assertValues(3, 5, 7);
+        ts.assertNotTerminated();
+    }
+    
+    @Test
+    public void mapperThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 5).map(PLUS_ONE).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                if (v == 3) {
+                    throw new TestException();
+                }
+                return v;
+            }
+        }).filter(IS_EVEN).subscribe(ts);
+        
+        ts.assertValue(2);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void predicateThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 5).map(PLUS_ONE).filter(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer v) {
+                if (v == 3) {
+                    throw new TestException();
+                }
+                return true;
+            }
+        }).subscribe(ts);
+        
+        ts.assertValue(2);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void mapperReturnsNull() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 5).filter(IS_EVEN).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return null;
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(NullPointerException.class);
+    }
+}
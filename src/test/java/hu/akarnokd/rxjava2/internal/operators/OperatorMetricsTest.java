@@ -0,0 +1,233 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.*;
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
+import hu.akarnokd.rxjava2.observables.*;
+import hu.akarnokd.rxjava2.plugins.*;
+import hu.akarnokd.rxjava2.plugins.OperatorMetricsSampler.OperatorSample;
+import hu.akarnokd.rxjava2.schedulers.*;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class OperatorMetricsTest {
+    
+    final List<List<OperatorSample>> samples = new ArrayList<List<OperatorSample>>();
+    
+    OperatorMetricsSampler sampler;
+    
+    @Before
+    public void before() {
+        sampler = new OperatorMetricsSampler(new Consumer<List<OperatorSample>>() {
+            @Override
+            public void accept(List<OperatorSample> t) {
+                samples.add(t);
+            }
+        });
+        RxJavaPlugins.setOperatorMetrics(sampler);
+    }
+    
+    @After
+    public void after() {
+        RxJavaPlugins.reset();
+    }
+    
+    OperatorSample single(String name) {
+        List<OperatorSample> list = sampler.sample();
+        OperatorSample result = null;
+        for (OperatorSample s : list) {
+            if (s.name().equals(name)) {
+                assertNull("Multiple samples of " + name + ": " + list, result);
+                result = s;
+            }
+        }
+        assertNotNull("No sample of " + name + ": " + list, result);
+        return result;
+    }
+    
+    @Test
+    public void observeOn() {
+        TestScheduler scheduler = Schedulers.test();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(5L);
+        
+        Observable.range(1, 10).asObservable().observeOn(scheduler).subscribe(ts);
+        
+        OperatorSample s = single("observeOn");
+        assertEquals(0, s.emitted());
+        assertEquals(5, s.requested());
+        assertEquals(10, s.queueSize());
+        assertEquals(-1, s.dropped());
+        
+        scheduler.triggerActions();
+        
+        s = single("observeOn");
+        assertEquals(5, s.emitted());
+        assertEquals(5, s.emittedSinceLastSample());
+        assertEquals(0, s.requested());
+        assertEquals(5, s.queueSize());
+        
+        ts.request(10);
+        scheduler.triggerActions();
+        
+        ts.assertValueCount(10);
+        ts.assertComplete();
+        
+        assertEquals(0, sampler.probeCount());
+    }
+    
+    @Test
+    public void flatMap() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(3L);
+        
+        Observable.range(1, 3).flatMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer v) {
+                return Observable.range(v * 10, 4).asObservable();
+            }
+        }).subscribe(ts);
+        
+        OperatorSample s = single("flatMap");
+        assertEquals(3, s.emitted());
+        assertEquals(0, s.requested());
+        assertEquals(9, s.queueSize());
+        
+        ts.cancel();
+        
+        assertEquals(0, sampler.probeCount());
+    }
+    
+    @Test
+    public void groupBy() {
+        TestSubscriber<GroupedObservable<Integer, Integer>> ts = new TestSubscriber<GroupedObservable<Integer, Integer>>();
+        
+        Observable.range(1, 10).concatWith(Observable.<Integer>never()).groupBy(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return v % 3;
+            }
+        }).subscribe(ts);
+        
+        OperatorSample s = single("groupBy");
+        assertEquals(3, s.emitted());
+        assertEquals(Long.MAX_VALUE, s.requested());
+        assertEquals(10, s.queueSize());
+    }
+    
+    @Test
+    public void onBackpressureBuffer() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2L);
+        
+        Observable.range(1, 10).onBackpressureBuffer(16).subscribe(ts);
+        
+        OperatorSample s = single("onBackpressureBuffer");
+        assertEquals(2, s.emitted());
+        assertEquals(0, s.requested());
+        assertEquals(8, s.queueSize());
+        assertEquals(0, s.dropped());
+    }
+    
+    @Test
+    public void onBackpressureBufferDropOldest() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1L);
+        
+        Observable.range(1, 10).concatWith(Observable.<Integer>never())
+        .onBackpressureBuffer(4, Functions.emptyRunnable(), BackpressureOverflow.Strategy.DROP_OLDEST).subscribe(ts);
+        
+        OperatorSample s = single("onBackpressureBuffer");
+        assertEquals(1, s.emitted());
+        assertEquals(0, s.requested());
+        assertEquals(4, s.queueSize());
+        assertEquals(5, s.dropped());
+    }
+    
+    @Test
+    public void publish() {
+        ConnectableObservable<Integer> co = Observable.range(1, 10).publish(8);
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>(2L);
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>(4L);
+        
+        co.subscribe(ts1);
+        co.subscribe(ts2);
+        
+        assertEquals(2, sampler.probeCount());
+        
+        co.connect();
+        
+        ts1.assertValueCount(2);
+        ts2.assertValueCount(2);
+        
+        long emitted = 0;
+        long requested = 0;
+        for (OperatorSample s : sampler.sample()) {
+            assertEquals("publish", s.name());
+            emitted += s.emitted();
+            requested += s.requested();
+            assertEquals(8, s.queueSize());
+        }
+        assertEquals(4, emitted);
+        assertEquals(2, requested);
+        
+        ts1.cancel();
+        
+        assertEquals(1, sampler.probeCount());
+    }
+    
+    @Test
+    public void noMetrics() {
+        RxJavaPlugins.setOperatorMetrics(null);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).onBackpressureBuffer().observeOn(Schedulers.trampoline()).subscribe(ts);
+        
+        ts.assertValueCount(10);
+        assertEquals(0, sampler.probeCount());
+    }
+    
+    @Test
+    public void periodicSampling() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1L);
+        Observable.range(1, 10).onBackpressureBuffer().subscribe(ts);
+        
+        Disposable d = sampler.start(scheduler, 1, TimeUnit.SECONDS);
+        
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(1, samples.size());
+        assertEquals(1, samples.get(0).get(0).emittedSinceLastSample());
+        
+        ts.request(3);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(2, samples.size());
+        assertEquals(3, samples.get(1).get(0).emittedSinceLastSample());
+        
+        d.dispose();
+        
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(2, samples.size());
+    }
+}
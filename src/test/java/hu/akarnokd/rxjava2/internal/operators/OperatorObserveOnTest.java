@@ -798,4 +798,93 @@ public class OperatorObserveOnTest {
         assertEquals(Arrays.asList(128L), requests);
     }
     
-}
\ No newline at end of file
+    @Test
+    public void customReplenishLimit() {
+        TestScheduler scheduler = new TestScheduler();
+        final List<Long> requests = new ArrayList<Long>();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 100)
+        .doOnRequest(new LongConsumer() {
+            @Override
+            public void accept(long n) {
+                requests.add(n);
+            }
+        })
+        .observeOn(scheduler, false, 16, 4)
+        .subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValueCount(100);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        assertEquals(16L, requests.get(0).longValue());
+        for (int i = 1; i < requests.size(); i++) {
+            assertEquals(4L, requests.get(i).longValue());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void limitBiggerThanBufferSize() {
+        Observable.range(1, 10).observeOn(Schedulers.computation(), false, 16, 17);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveEmitBatch() {
+        Observable.range(1, 10).observeOn(Schedulers.computation(), false, 16, 12, 0);
+    }
+    
+    void emitBatchYields(Observable<Integer> source) {
+        final TestScheduler scheduler = new TestScheduler();
+        final List<Integer> list = new ArrayList<Integer>();
+        
+        source
+        .observeOn(scheduler, false, 16, 12, 4)
+        .subscribe(new Observer<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                if (t == 1) {
+                    scheduler.createWorker().schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            list.add(-1);
+                        }
+                    });
+                }
+                list.add(t);
+            }
+            
+            @Override
+            public void onError(Throwable e) {
+                e.printStackTrace();
+            }
+            
+            @Override
+            public void onComplete() {
+                list.add(0);
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        assertEquals(Arrays.asList(1, 2, 3, 4, -1, 5, 6, 7, 8, 9, 10, 0), list);
+    }
+
+    @Test
+    public void emitBatchYieldsSync() {
+        emitBatchYields(Observable.range(1, 10));
+    }
+
+    @Test
+    public void emitBatchYieldsAsync() {
+        emitBatchYields(Observable.range(1, 10).doOnRequest(new LongConsumer() {
+            @Override
+            public void accept(long n) {
+                // hides the fusion
+            }
+        }));
+    }
+}
@@ -16,14 +16,17 @@ package hu.akarnokd.rxjava2.internal.operators;
 import static org.junit.Assert.*;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.reactivestreams.*;
 
 import hu.akarnokd.rxjava2.*;
-import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
+import hu.akarnokd.rxjava2.exceptions.*;
+import hu.akarnokd.rxjava2.internal.functions.Functions;
 import hu.akarnokd.rxjava2.internal.subscriptions.BooleanSubscription;
 import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subjects.PublishSubject;
 import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
 
 public class OperatorOnBackpressureBufferTest {
@@ -145,6 +148,186 @@ public class OperatorOnBackpressureBufferTest {
 //        assertTrue(s.isUnsubscribed());
     }
 
+    @Test
+    public void dropOldest() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        final AtomicInteger overflows = new AtomicInteger();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        ps.onBackpressureBuffer(3, new Runnable() {
+            @Override
+            public void run() {
+                overflows.getAndIncrement();
+            }
+        }, BackpressureOverflow.Strategy.DROP_OLDEST).subscribe(ts);
+        
+        for (int i = 1; i <= 5; i++) {
+            ps.onNext(i);
+        }
+        
+        ts.assertNoValues();
+        assertEquals(2, overflows.get());
+        
+        ts.request(2);
+        ts.assertValues(3, 4);
+        
+        ps.onNext(6);
+        ps.onComplete();
+        
+        ts.assertNotComplete();
+        
+        ts.request(10);
+        ts.assertValues(3, 4, 5, 6);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void dropLatest() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        final AtomicInteger overflows = new AtomicInteger();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        ps.onBackpressureBuffer(3, new Runnable() {
+            @Override
+            public void run() {
+                overflows.getAndIncrement();
+            }
+        }, BackpressureOverflow.Strategy.DROP_LATEST).subscribe(ts);
+        
+        for (int i = 1; i <= 5; i++) {
+            ps.onNext(i);
+        }
+        ps.onComplete();
+        
+        assertEquals(2, overflows.get());
+        
+        ts.request(10);
+        ts.assertValues(1, 2, 3);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void overflowError() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        ps.onBackpressureBuffer(3, Functions.emptyRunnable(), BackpressureOverflow.Strategy.ERROR).subscribe(ts);
+        
+        for (int i = 1; i <= 4; i++) {
+            ps.onNext(i);
+        }
+        
+        assertFalse(ps.hasSubscribers());
+        ts.assertNoValues();
+        ts.assertError(MissingBackpressureException.class);
+    }
+    
+    @Test
+    public void overflowActionThrows() {
+        PublishSubject<Integer> ps = PublishSubject.create();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        ps.onBackpressureBuffer(1, new Runnable() {
+            @Override
+            public void run() {
+                throw new TestException();
+            }
+        }, BackpressureOverflow.Strategy.DROP_OLDEST).subscribe(ts);
+        
+        ps.onNext(1);
+        ps.onNext(2);
+        
+        assertFalse(ps.hasSubscribers());
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void ringWrapsAround() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 100).onBackpressureBuffer(7, Functions.emptyRunnable(), BackpressureOverflow.Strategy.DROP_OLDEST)
+        .subscribe(ts);
+        
+        ts.request(3);
+        ts.assertValues(94, 95, 96);
+        ts.request(10);
+        ts.assertValues(94, 95, 96, 97, 98, 99, 100);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void nbpToObservableDropOldest() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        NbpObservable.range(1, 10).toObservable(3, BackpressureOverflow.Strategy.DROP_OLDEST).subscribe(ts);
+        
+        ts.request(10);
+        ts.assertValues(8, 9, 10);
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void nbpToObservableStrategies() {
+        int n = Observable.bufferSize();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        NbpObservable.range(1, n + 10).toObservable(BackpressureStrategy.DROP_LATEST).subscribe(ts);
+        ts.request(n + 10);
+        assertEquals(n, ts.valueCount());
+        assertEquals(1, ts.values().get(0).intValue());
+        ts.assertComplete();
+        
+        ts = new TestSubscriber<Integer>((Long)null);
+        NbpObservable.range(1, n + 10).toObservable(BackpressureStrategy.DROP_OLDEST).subscribe(ts);
+        ts.request(n + 10);
+        assertEquals(n, ts.valueCount());
+        assertEquals(11, ts.values().get(0).intValue());
+        ts.assertComplete();
+        
+        ts = new TestSubscriber<Integer>((Long)null);
+        NbpObservable.range(1, n + 10).toObservable(BackpressureStrategy.ERROR).subscribe(ts);
+        ts.assertError(MissingBackpressureException.class);
+    }
+
+    @Test
+    public void exactRequestCompletes() {
+        for (BackpressureOverflow.Strategy strategy : BackpressureOverflow.Strategy.values()) {
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>(0L);
+            
+            Observable.range(1, 3).onBackpressureBuffer(16, Functions.emptyRunnable(), strategy).subscribe(ts);
+            
+            ts.assertNoValues();
+            ts.assertNotComplete();
+            
+            ts.request(3);
+            
+            ts.assertValues(1, 2, 3);
+            ts.assertNoErrors();
+            ts.assertComplete();
+        }
+    }
+    
+    @Test
+    public void exactRequestInStepsCompletes() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(0L);
+        
+        Observable.range(1, 3).onBackpressureBuffer(16, Functions.emptyRunnable(), BackpressureOverflow.Strategy.DROP_LATEST).subscribe(ts);
+        
+        ts.request(2);
+        
+        ts.assertValues(1, 2);
+        ts.assertNotComplete();
+        
+        ts.request(1);
+        
+        ts.assertValues(1, 2, 3);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
     static final Observable<Long> infinite = Observable.create(new Publisher<Long>() {
 
         @Override
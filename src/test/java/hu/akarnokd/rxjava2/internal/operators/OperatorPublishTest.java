@@ -22,8 +22,10 @@ import java.util.concurrent.atomic.*;
 import org.junit.Test;
 import org.reactivestreams.*;
 
+import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.Observable;
 import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.exceptions.MissingBackpressureException;
 import hu.akarnokd.rxjava2.functions.*;
 import hu.akarnokd.rxjava2.internal.subscriptions.EmptySubscription;
 import hu.akarnokd.rxjava2.observables.ConnectableObservable;
@@ -416,4 +418,112 @@ public class OperatorPublishTest {
             }
         }
     }
-}
\ No newline at end of file
+    @Test
+    public void isolatedSlowSubscriberDropLatest() {
+        ConnectableObservable<Integer> co = Observable.range(1, 100)
+                .publish(16, 4, BackpressureOverflow.Strategy.DROP_LATEST);
+        
+        TestSubscriber<Integer> fast = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> slow = new TestSubscriber<Integer>((Long)null);
+        
+        co.subscribe(fast);
+        co.subscribe(slow);
+        
+        co.connect();
+        
+        fast.assertValueCount(100);
+        fast.assertNoErrors();
+        fast.assertComplete();
+        
+        slow.assertNoValues();
+        slow.assertNotComplete();
+        
+        slow.request(10);
+        
+        slow.assertValues(1, 2, 3, 4);
+        slow.assertNoErrors();
+        slow.assertComplete();
+    }
+
+    @Test
+    public void isolatedSlowSubscriberDropOldest() {
+        ConnectableObservable<Integer> co = Observable.range(1, 100)
+                .publish(16, 4, BackpressureOverflow.Strategy.DROP_OLDEST);
+        
+        TestSubscriber<Integer> fast = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> slow = new TestSubscriber<Integer>((Long)null);
+        
+        co.subscribe(fast);
+        co.subscribe(slow);
+        
+        co.connect();
+        
+        fast.assertValueCount(100);
+        fast.assertComplete();
+        
+        slow.request(10);
+        
+        slow.assertValues(97, 98, 99, 100);
+        slow.assertNoErrors();
+        slow.assertComplete();
+    }
+
+    @Test
+    public void isolatedSlowSubscriberError() {
+        ConnectableObservable<Integer> co = Observable.range(1, 100)
+                .publish(16, 4, BackpressureOverflow.Strategy.ERROR);
+        
+        TestSubscriber<Integer> fast = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> slow = new TestSubscriber<Integer>((Long)null);
+        
+        co.subscribe(fast);
+        co.subscribe(slow);
+        
+        co.connect();
+        
+        fast.assertValueCount(100);
+        fast.assertNoErrors();
+        fast.assertComplete();
+        
+        slow.assertNoValues();
+        slow.assertError(MissingBackpressureException.class);
+    }
+    
+    @Test
+    public void isolatedExactRequestCompletes() {
+        for (BackpressureOverflow.Strategy strategy : BackpressureOverflow.Strategy.values()) {
+            ConnectableObservable<Integer> co = Observable.range(1, 3).publish(16, 16, strategy);
+            
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>(0L);
+            
+            co.subscribe(ts);
+            
+            co.connect();
+            
+            ts.assertNoValues();
+            ts.assertNotComplete();
+            
+            ts.request(3);
+            
+            ts.assertValues(1, 2, 3);
+            ts.assertNoErrors();
+            ts.assertComplete();
+        }
+    }
+    
+    @Test
+    public void slowSubscriberThrottlesWithoutIsolation() {
+        ConnectableObservable<Integer> co = Observable.range(1, 100).publish(16);
+        
+        TestSubscriber<Integer> fast = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> slow = new TestSubscriber<Integer>(5L);
+        
+        co.subscribe(fast);
+        co.subscribe(slow);
+        
+        co.connect();
+        
+        fast.assertValues(1, 2, 3, 4, 5);
+        slow.assertValues(1, 2, 3, 4, 5);
+    }
+}
@@ -733,11 +733,11 @@ public class OperatorReplayTest {
     @Test
     public void testBoundedReplayBuffer() {
         BoundedReplayBuffer<Integer> buf = new BoundedReplayBuffer<Integer>();
-        buf.addLast(new Node(1, 0));
-        buf.addLast(new Node(2, 1));
-        buf.addLast(new Node(3, 2));
-        buf.addLast(new Node(4, 3));
-        buf.addLast(new Node(5, 4));
+        buf.addLast(1);
+        buf.addLast(2);
+        buf.addLast(3);
+        buf.addLast(4);
+        buf.addLast(5);
         
         List<Integer> values = new ArrayList<Integer>();
         buf.collect(values);
@@ -752,14 +752,57 @@ public class OperatorReplayTest {
         buf.collect(values);
         Assert.assertTrue(values.isEmpty());
 
-        buf.addLast(new Node(5, 5));
-        buf.addLast(new Node(6, 6));
+        buf.addLast(5);
+        buf.addLast(6);
         buf.collect(values);
         
         Assert.assertEquals(Arrays.asList(5, 6), values);
         
     }
     
+    @Test
+    public void testBoundedReplayBufferAcrossChunks() {
+        SizeBoundReplayBuffer<Integer> buf = new SizeBoundReplayBuffer<Integer>(5);
+        for (int i = 0; i < 100; i++) {
+            buf.next(i);
+        }
+        
+        List<Integer> values = new ArrayList<Integer>();
+        buf.collect(values);
+        Assert.assertEquals(Arrays.asList(95, 96, 97, 98, 99), values);
+        Assert.assertEquals(5, buf.size);
+        
+        buf.error(new TestException());
+        Assert.assertTrue(buf.hasError());
+    }
+    
+    @Test
+    public void testSizeBoundLaggingSubscriberAcrossChunks() {
+        ConnectableObservable<Integer> co = Observable.range(0, 100).replay(8);
+        
+        TestSubscriber<Integer> lagging = new TestSubscriber<Integer>((Long)null);
+        co.subscribe(lagging);
+        TestSubscriber<Integer> driver = new TestSubscriber<Integer>();
+        co.subscribe(driver);
+        co.connect();
+        
+        driver.assertValueCount(100);
+        driver.assertComplete();
+        
+        TestSubscriber<Integer> late = new TestSubscriber<Integer>();
+        co.subscribe(late);
+        late.assertValues(92, 93, 94, 95, 96, 97, 98, 99);
+        late.assertComplete();
+        
+        lagging.request(3);
+        lagging.assertValues(0, 1, 2);
+        lagging.assertNotComplete();
+        
+        lagging.request(Long.MAX_VALUE);
+        lagging.assertValueCount(100);
+        lagging.assertComplete();
+    }
+    
     @Test
     public void testTimedAndSizedTruncation() {
         TestScheduler test = Schedulers.test();
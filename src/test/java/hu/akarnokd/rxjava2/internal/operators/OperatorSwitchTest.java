@@ -634,4 +634,105 @@ public class OperatorSwitchTest {
         assertEquals(Long.MAX_VALUE, (long) requests.get(requests.size()-1));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void switchMapScalarEmptyCallableShortcuts() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).switchMap(new Function<Integer, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return Observable.just(t);
+                        case 1:
+                            return Observable.empty();
+                        default:
+                            return Observable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void switchMapScalarShortcutBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 9).switchMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.just(t);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNotComplete();
+        
+        ts.request(1);
+        
+        ts.assertValue(1);
+        ts.assertNotComplete();
+        
+        ts.request(1);
+        
+        ts.assertValues(1, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void switchMapCallableShortcutThrows() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).switchMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void switchMapOnScalarAndEmptySource() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.just(1).switchMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(Observable.empty(), Observable.<Integer>empty().switchMap(new Function<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> apply(Integer t) {
+                return Observable.range(t, 2);
+            }
+        }));
+    }
+}
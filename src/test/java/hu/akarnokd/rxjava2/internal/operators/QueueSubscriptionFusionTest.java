@@ -0,0 +1,389 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.*;
+
+import hu.akarnokd.rxjava2.Observable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.internal.subscriptions.QueueSubscription;
+import hu.akarnokd.rxjava2.observables.GroupedObservable;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class QueueSubscriptionFusionTest {
+    
+    static List<Integer> list(int start, int count) {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = start; i < start + count; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+    
+    /**
+     * Requests the given fusion mode in onSubscribe and records the outcome.
+     */
+    static final class FusionProbe<T> implements Subscriber<T> {
+        final int requestedMode;
+        QueueSubscription<T> qs;
+        int mode = -1;
+        
+        public FusionProbe(int requestedMode) {
+            this.requestedMode = requestedMode;
+        }
+        
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (s instanceof QueueSubscription) {
+                qs = (QueueSubscription<T>)s;
+                mode = qs.requestFusion(requestedMode);
+            } else {
+                mode = QueueSubscription.NONE;
+            }
+        }
+        
+        @Override
+        public void onNext(T t) {
+            fail("Should not be called in sync-fused mode: " + t);
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            fail("Should not be called in sync-fused mode: " + t);
+        }
+        
+        @Override
+        public void onComplete() {
+            fail("Should not be called in sync-fused mode");
+        }
+    }
+    
+    @Test
+    public void rangeSyncFused() {
+        FusionProbe<Integer> probe = new FusionProbe<Integer>(QueueSubscription.ANY);
+        
+        Observable.range(1, 5).subscribe(probe);
+        
+        assertEquals(QueueSubscription.SYNC, probe.mode);
+        assertFalse(probe.qs.isEmpty());
+        assertEquals(5, probe.qs.size());
+        for (int i = 1; i <= 5; i++) {
+            assertEquals((Integer)i, probe.qs.poll());
+        }
+        assertNull(probe.qs.poll());
+        assertTrue(probe.qs.isEmpty());
+    }
+    
+    @Test
+    public void rangeRejectsAsyncOnly() {
+        FusionProbe<Integer> probe = new FusionProbe<Integer>(QueueSubscription.ASYNC);
+        
+        Observable.range(1, 5).subscribe(probe);
+        
+        assertEquals(QueueSubscription.NONE, probe.mode);
+    }
+    
+    @Test
+    public void arraySyncFusedClear() {
+        FusionProbe<Integer> probe = new FusionProbe<Integer>(QueueSubscription.SYNC);
+        
+        Observable.fromArray(1, 2, 3).subscribe(probe);
+        
+        assertEquals(QueueSubscription.SYNC, probe.mode);
+        assertEquals((Integer)1, probe.qs.poll());
+        probe.qs.clear();
+        assertTrue(probe.qs.isEmpty());
+        assertNull(probe.qs.poll());
+    }
+    
+    @Test
+    public void iterableSyncFused() {
+        FusionProbe<Integer> probe = new FusionProbe<Integer>(QueueSubscription.ANY);
+        
+        Observable.fromIterable(Arrays.asList(1, 2, 3)).subscribe(probe);
+        
+        assertEquals(QueueSubscription.SYNC, probe.mode);
+        assertEquals((Integer)1, probe.qs.poll());
+        assertEquals((Integer)2, probe.qs.poll());
+        assertFalse(probe.qs.isEmpty());
+        assertEquals((Integer)3, probe.qs.poll());
+        assertTrue(probe.qs.isEmpty());
+        assertNull(probe.qs.poll());
+    }
+    
+    @Test
+    public void passThroughOperatorHidesFusion() {
+        FusionProbe<Integer> probe = new FusionProbe<Integer>(QueueSubscription.ANY);
+        
+        Observable.range(1, 5).skip(1).subscribe(probe);
+        
+        assertEquals(QueueSubscription.NONE, probe.mode);
+    }
+    
+    @Test
+    public void rangeObserveOn() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000).observeOn(Schedulers.single()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueSequence(list(1, 1000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void rangeObserveOnBackpressured() throws InterruptedException {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 10).observeOn(Schedulers.single()).subscribe(ts);
+        
+        ts.request(5);
+        
+        Thread.sleep(100);
+        
+        ts.assertValueSequence(list(1, 5));
+        ts.assertNotTerminated();
+        
+        ts.request(5);
+
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueSequence(list(1, 10));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void mapBetweenRangeAndObserveOnIsApplied() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 5).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return v * 10;
+            }
+        }).observeOn(Schedulers.single()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValues(10, 20, 30, 40, 50);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void arrayNullElementObserveOn() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.fromArray(1, null, 3).observeOn(Schedulers.single()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValue(1);
+        ts.assertError(NullPointerException.class);
+    }
+    
+    @Test
+    public void iterableObserveOnBackpressured() throws InterruptedException {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.fromIterable(list(1, 20)).observeOn(Schedulers.single()).subscribe(ts);
+        
+        ts.request(10);
+        Thread.sleep(100);
+        ts.assertValueSequence(list(1, 10));
+        
+        ts.request(10);
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueSequence(list(1, 20));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void observeOnObserveOn() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10000)
+        .observeOn(Schedulers.computation())
+        .observeOn(Schedulers.single())
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueSequence(list(1, 10000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void observeOnObserveOnError() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10).concatWith(Observable.<Integer>error(new TestException()))
+        .observeOn(Schedulers.computation())
+        .observeOn(Schedulers.single(), true)
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueSequence(list(1, 10));
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void flatMapFusedInners() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 100).flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.range(v * 100, 100);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValueSequence(list(100, 10000));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void flatMapFusedInnersBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.range(1, 3).flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.range(v * 10, 5);
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        
+        ts.request(7);
+        
+        ts.assertValues(10, 11, 12, 13, 14, 20, 21);
+        ts.assertNotTerminated();
+        
+        ts.request(8);
+        
+        ts.assertValues(10, 11, 12, 13, 14, 20, 21, 22, 23, 24, 30, 31, 32, 33, 34);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void flatMapAsyncFusedInners() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 100).flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.range(v, 100).observeOn(Schedulers.computation());
+            }
+        }).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueCount(10000);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void flatMapFusedInnerError() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 2).flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer v) {
+                return Observable.fromArray(v, null);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValue(1);
+        ts.assertError(NullPointerException.class);
+    }
+    
+    @Test
+    public void zipFused() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.zip(Observable.range(1, 1000), Observable.fromIterable(list(1, 1000)), 
+                new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer a, Integer b) {
+                return a + b;
+            }
+        }).subscribe(ts);
+        
+        ts.assertValueCount(1000);
+        assertEquals((Integer)2, ts.values().get(0));
+        assertEquals((Integer)2000, ts.values().get(999));
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void zipFusedAndAsyncBackpressured() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>((Long)null);
+        
+        Observable.zip(Observable.range(1, 5), Observable.range(1, 10).observeOn(Schedulers.single()), 
+                new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer a, Integer b) {
+                return a * b;
+            }
+        }).subscribe(ts);
+        
+        ts.request(2);
+        
+        ts.awaitTerminalEvent(200, TimeUnit.MILLISECONDS);
+        ts.assertValues(1, 4);
+        ts.assertNotTerminated();
+        
+        ts.request(10);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValues(1, 4, 9, 16, 25);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void groupByObserveOnFused() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 10000).groupBy(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return v & 3;
+            }
+        }).flatMap(new Function<GroupedObservable<Integer, Integer>, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(GroupedObservable<Integer, Integer> g) {
+                return g.observeOn(Schedulers.computation());
+            }
+        }).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueCount(10000);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+}
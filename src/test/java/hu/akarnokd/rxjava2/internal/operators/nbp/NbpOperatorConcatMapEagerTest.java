@@ -0,0 +1,171 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.NbpObservable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.schedulers.Schedulers;
+import hu.akarnokd.rxjava2.subjects.nbp.NbpPublishSubject;
+import hu.akarnokd.rxjava2.subscribers.nbp.NbpTestSubscriber;
+
+public class NbpOperatorConcatMapEagerTest {
+    
+    static Function<Integer, NbpObservable<Integer>> toSubject(final List<NbpPublishSubject<Integer>> subjects) {
+        return new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return subjects.get(v);
+            }
+        };
+    }
+    
+    static List<NbpPublishSubject<Integer>> subjects(int n) {
+        List<NbpPublishSubject<Integer>> list = new ArrayList<NbpPublishSubject<Integer>>();
+        for (int i = 0; i < n; i++) {
+            list.add(NbpPublishSubject.<Integer>create());
+        }
+        return list;
+    }
+    
+    @Test
+    public void simple() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 3).concatMapEager(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return NbpObservable.range(v * 10, 2);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValues(10, 11, 20, 21, 30, 31);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void subscribesEagerlyEmitsInOrder() {
+        List<NbpPublishSubject<Integer>> subjects = subjects(3);
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(0, 3).concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        for (NbpPublishSubject<Integer> ps : subjects) {
+            assertTrue(ps.hasSubscribers());
+        }
+        
+        subjects.get(2).onNext(3);
+        subjects.get(2).onComplete();
+        subjects.get(1).onNext(2);
+        
+        ts.assertNoValues();
+        
+        subjects.get(0).onNext(1);
+        subjects.get(0).onComplete();
+        
+        ts.assertValues(1, 2);
+        ts.assertNotComplete();
+        
+        subjects.get(1).onComplete();
+        
+        ts.assertValues(1, 2, 3);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void maxConcurrency() {
+        List<NbpPublishSubject<Integer>> subjects = subjects(3);
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(0, 3).concatMapEager(toSubject(subjects), 2, 16).subscribe(ts);
+        
+        assertTrue(subjects.get(0).hasSubscribers());
+        assertTrue(subjects.get(1).hasSubscribers());
+        assertFalse(subjects.get(2).hasSubscribers());
+        
+        subjects.get(1).onNext(2);
+        subjects.get(0).onComplete();
+        
+        assertTrue(subjects.get(2).hasSubscribers());
+        ts.assertValues(2);
+    }
+    
+    @Test
+    public void innerErrorCancelsOthers() {
+        List<NbpPublishSubject<Integer>> subjects = subjects(3);
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(0, 3).concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        subjects.get(0).onNext(1);
+        subjects.get(2).onError(new TestException());
+        
+        ts.assertValues(1);
+        ts.assertError(TestException.class);
+        
+        for (NbpPublishSubject<Integer> ps : subjects) {
+            assertFalse(ps.hasSubscribers());
+        }
+    }
+    
+    @Test
+    public void dispose() {
+        List<NbpPublishSubject<Integer>> subjects = subjects(3);
+        NbpPublishSubject<Integer> source = NbpPublishSubject.create();
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        source.concatMapEager(toSubject(subjects)).subscribe(ts);
+        
+        source.onNext(0);
+        source.onNext(1);
+        
+        ts.dispose();
+        
+        assertFalse(source.hasSubscribers());
+        for (NbpPublishSubject<Integer> ps : subjects) {
+            assertFalse(ps.hasSubscribers());
+        }
+    }
+    
+    @Test
+    public void asyncInnersKeepOrder() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(0, 200).concatMapEager(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer v) {
+                return NbpObservable.just(v).subscribeOn(Schedulers.computation());
+            }
+        }, 16, 1).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertNoErrors();
+        ts.assertComplete();
+        ts.assertValueCount(200);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, ts.values().get(i).intValue());
+        }
+    }
+}
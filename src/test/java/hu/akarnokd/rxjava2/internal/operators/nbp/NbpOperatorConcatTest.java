@@ -21,12 +21,13 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
-import org.junit.Test;
+import org.junit.*;
 import org.mockito.InOrder;
 
 import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.NbpObservable.*;
 import hu.akarnokd.rxjava2.disposables.*;
+import hu.akarnokd.rxjava2.exceptions.TestException;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.internal.disposables.EmptyDisposable;
 import hu.akarnokd.rxjava2.schedulers.*;
@@ -751,5 +752,79 @@ public class NbpOperatorConcatTest {
             assertEquals((Integer)999, ts.values().get(999));
         }
     }
+
+    @Test
+    public void concatMapScalarEmptyCallableShortcuts() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).concatMap(new Function<Integer, NbpObservable<Integer>>() {
+                    @Override
+                    public NbpObservable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return NbpObservable.just(t);
+                        case 1:
+                            return NbpObservable.empty();
+                        default:
+                            return NbpObservable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void concatMapCallableShortcutThrows() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).concatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
     
-}
\ No newline at end of file
+    @Test
+    public void concatMapOnScalarAndEmptySource() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.just(1).concatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(NbpObservable.empty(), NbpObservable.<Integer>empty().concatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        }));
+    }
+}
@@ -18,7 +18,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.*;
@@ -544,4 +544,79 @@ public class NbpOperatorFlatMapTest {
             ts.assertValueCount(n * 2);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void flatMapScalarEmptyCallableShortcuts() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).flatMap(new Function<Integer, NbpObservable<Integer>>() {
+                    @Override
+                    public NbpObservable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return NbpObservable.just(t);
+                        case 1:
+                            return NbpObservable.empty();
+                        default:
+                            return NbpObservable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void flatMapCallableShortcutThrows() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).flatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void flatMapOnScalarAndEmptySource() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.just(1).flatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(NbpObservable.empty(), NbpObservable.<Integer>empty().flatMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        }));
+    }
+}
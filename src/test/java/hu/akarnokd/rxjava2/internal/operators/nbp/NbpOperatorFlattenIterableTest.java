@@ -0,0 +1,114 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.NbpObservable;
+import hu.akarnokd.rxjava2.NbpObservable.NbpSubscriber;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.Function;
+import hu.akarnokd.rxjava2.subjects.nbp.NbpPublishSubject;
+import hu.akarnokd.rxjava2.subscribers.nbp.NbpTestSubscriber;
+
+public class NbpOperatorFlattenIterableTest {
+    
+    static final Function<Integer, Iterable<Integer>> PAIR = new Function<Integer, Iterable<Integer>>() {
+        @Override
+        public Iterable<Integer> apply(Integer v) {
+            return Arrays.asList(v, v + 1);
+        }
+    };
+    
+    @Test
+    public void normal() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 3).flatMapIterable(PAIR).subscribe(ts);
+        
+        ts.assertValues(1, 2, 2, 3, 3, 4);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void mapperThrows() {
+        NbpPublishSubject<Integer> ps = NbpPublishSubject.create();
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        ps.concatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                throw new TestException();
+            }
+        }).subscribe(ts);
+        
+        ps.onNext(1);
+        
+        assertFalse(ps.hasSubscribers());
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void nullElement() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.just(1).flatMapIterable(new Function<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer v) {
+                return Arrays.asList(1, null);
+            }
+        }).subscribe(ts);
+        
+        ts.assertValues(1);
+        ts.assertError(NullPointerException.class);
+    }
+    
+    @Test
+    public void disposeMidIterable() {
+        final NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).flatMapIterable(PAIR).subscribe(new NbpSubscriber<Integer>() {
+            @Override
+            public void onSubscribe(Disposable d) {
+                ts.onSubscribe(d);
+            }
+            
+            @Override
+            public void onNext(Integer t) {
+                ts.onNext(t);
+                ts.dispose();
+            }
+            
+            @Override
+            public void onError(Throwable e) {
+                ts.onError(e);
+            }
+            
+            @Override
+            public void onComplete() {
+                ts.onComplete();
+            }
+        });
+        
+        ts.assertValues(1);
+        ts.assertNotComplete();
+    }
+}
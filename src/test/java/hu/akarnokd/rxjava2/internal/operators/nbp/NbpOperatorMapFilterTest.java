@@ -0,0 +1,112 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.operators.nbp;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.NbpObservable;
+import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.functions.*;
+import hu.akarnokd.rxjava2.subscribers.nbp.NbpTestSubscriber;
+
+public class NbpOperatorMapFilterTest {
+    
+    static final Function<Integer, Integer> PLUS_ONE = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer v) {
+            return v + 1;
+        }
+    };
+    
+    static final Predicate<Integer> IS_EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer v) {
+            return v % 2 == 0;
+        }
+    };
+    
+    @Test
+    public void mapMapFilterMap() {
+        NbpTestSubscriber<String> ts = new NbpTestSubscriber<String>();
+        
+        NbpObservable.range(1, 10)
+        .map(PLUS_ONE)
+        .map(PLUS_ONE)
+        .filter(IS_EVEN)
+        .map(new Function<Integer, String>() {
+            @Override
+            public String apply(Integer v) {
+                return "" + v;
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues("4", "6", "8", "10", "12");
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void intermediateStagesStayUsable() {
+        NbpObservable<Integer> first = NbpObservable.range(1, 5).map(PLUS_ONE);
+        NbpObservable<Integer> second = first.filter(IS_EVEN);
+        NbpObservable<Integer> third = second.map(PLUS_ONE);
+        
+        NbpTestSubscriber<Integer> ts1 = new NbpTestSubscriber<Integer>();
+        NbpTestSubscriber<Integer> ts2 = new NbpTestSubscriber<Integer>();
+        NbpTestSubscriber<Integer> ts3 = new NbpTestSubscriber<Integer>();
+        
+        first.subscribe(ts1);
+        second.subscribe(ts2);
+        third.subscribe(ts3);
+        
+        ts1.assertValues(2, 3, 4, 5, 6);
+        ts2.assertValues(2, 4, 6);
+        ts3.assertValues(3, 5, 7);
+    }
+    
+    @Test
+    public void mapperThrows() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 5).map(PLUS_ONE).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                if (v == 3) {
+                    throw new TestException();
+                }
+                return v;
+            }
+        }).filter(IS_EVEN).subscribe(ts);
+        
+        ts.assertValue(2);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void mapperReturnsNull() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 5).filter(IS_EVEN).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer v) {
+                return null;
+            }
+        }).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(NullPointerException.class);
+    }
+}
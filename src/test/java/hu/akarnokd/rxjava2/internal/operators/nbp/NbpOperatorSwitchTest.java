@@ -17,7 +17,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.*;
@@ -479,4 +479,79 @@ public class NbpOperatorSwitchTest {
         
         Assert.assertEquals(250, ts.valueCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void switchMapScalarEmptyCallableShortcuts() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).switchMap(new Function<Integer, NbpObservable<Integer>>() {
+                    @Override
+                    public NbpObservable<Integer> apply(final Integer t) {
+                        switch (t % 3) {
+                        case 0:
+                            return NbpObservable.just(t);
+                        case 1:
+                            return NbpObservable.empty();
+                        default:
+                            return NbpObservable.fromCallable(new Callable<Integer>() {
+                                @Override
+                                public Integer call() {
+                                    return t * 10;
+                                }
+                            });
+                        }
+                    }
+                })
+        .subscribe(ts);
+        
+        ts.assertValues(20, 3, 50, 6, 80, 9);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void switchMapCallableShortcutThrows() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.range(1, 10).switchMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        throw new TestException();
+                    }
+                });
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void switchMapOnScalarAndEmptySource() {
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>();
+        
+        NbpObservable.just(1).switchMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        })
+        .subscribe(ts);
+        
+        ts.assertValues(1, 2);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        
+        Assert.assertSame(NbpObservable.empty(), NbpObservable.<Integer>empty().switchMap(new Function<Integer, NbpObservable<Integer>>() {
+            @Override
+            public NbpObservable<Integer> apply(Integer t) {
+                return NbpObservable.range(t, 2);
+            }
+        }));
+    }
+}
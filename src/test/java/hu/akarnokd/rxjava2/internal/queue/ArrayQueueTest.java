@@ -0,0 +1,188 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.internal.queue;
+
+import static org.junit.Assert.*;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+public class ArrayQueueTest {
+    
+    void boundedOfferPoll(Queue<Integer> q) {
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+        assertNull(q.peek());
+        
+        for (int i = 0; i < 16; i++) {
+            assertTrue(q.offer(i));
+        }
+        assertFalse(q.offer(16));
+        assertEquals(16, q.size());
+        
+        assertEquals(0, q.peek().intValue());
+        
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, q.poll().intValue());
+        }
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+        
+        // wrap around
+        for (int i = 0; i < 100; i++) {
+            assertTrue(q.offer(i));
+            assertTrue(q.offer(i + 1));
+            assertEquals(i, q.poll().intValue());
+            assertEquals(i + 1, q.poll().intValue());
+        }
+        
+        q.offer(1);
+        q.offer(2);
+        q.clear();
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+    }
+    
+    @Test
+    public void mpscOfferPoll() {
+        boundedOfferPoll(new MpscArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void spmcOfferPoll() {
+        boundedOfferPoll(new SpmcArrayQueue<Integer>(16));
+    }
+
+    @Test
+    public void capacityRoundedUp() {
+        Queue<Integer> q = new MpscArrayQueue<Integer>(10);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(q.offer(i));
+        }
+        assertFalse(q.offer(16));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void mpscNullRejected() {
+        new MpscArrayQueue<Integer>(16).offer(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void spmcNullRejected() {
+        new SpmcArrayQueue<Integer>(16).offer(null);
+    }
+    
+    @Test(timeout = 20000)
+    public void mpscConcurrentProducers() throws Exception {
+        final MpscArrayQueue<Integer> q = new MpscArrayQueue<Integer>(64);
+        final int producers = 4;
+        final int perProducer = 25000;
+        
+        ExecutorService exec = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                final int base = p * perProducer;
+                exec.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < perProducer; i++) {
+                            while (!q.offer(base + i)) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                });
+            }
+            
+            int[] last = new int[producers];
+            for (int p = 0; p < producers; p++) {
+                last[p] = -1;
+            }
+            int received = 0;
+            while (received != producers * perProducer) {
+                Integer v = q.poll();
+                if (v != null) {
+                    int p = v / perProducer;
+                    int i = v % perProducer;
+                    // items of the same producer arrive in order
+                    assertEquals(last[p] + 1, i);
+                    last[p] = i;
+                    received++;
+                } else {
+                    Thread.yield();
+                }
+            }
+            
+            assertTrue(q.isEmpty());
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void spmcConcurrentConsumers() throws Exception {
+        final SpmcArrayQueue<Integer> q = new SpmcArrayQueue<Integer>(64);
+        final int consumers = 4;
+        final int total = 100000;
+        final boolean[] seen = new boolean[total];
+        final CountDownLatch cdl = new CountDownLatch(consumers);
+        final ConcurrentLinkedQueue<Integer> duplicates = new ConcurrentLinkedQueue<Integer>();
+        final int perConsumer = total / consumers;
+        
+        ExecutorService exec = Executors.newFixedThreadPool(consumers);
+        try {
+            for (int c = 0; c < consumers; c++) {
+                exec.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        int received = 0;
+                        while (received != perConsumer) {
+                            Integer v = q.poll();
+                            if (v != null) {
+                                synchronized (seen) {
+                                    if (seen[v]) {
+                                        duplicates.offer(v);
+                                    }
+                                    seen[v] = true;
+                                }
+                                received++;
+                            } else {
+                                Thread.yield();
+                            }
+                        }
+                        cdl.countDown();
+                    }
+                });
+            }
+            
+            for (int i = 0; i < total; i++) {
+                while (!q.offer(i)) {
+                    Thread.yield();
+                }
+            }
+            
+            assertTrue(cdl.await(15, TimeUnit.SECONDS));
+            
+            assertTrue(duplicates.toString(), duplicates.isEmpty());
+            for (int i = 0; i < total; i++) {
+                assertTrue("" + i, seen[i]);
+            }
+            assertTrue(q.isEmpty());
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.internal.schedulers.IOScheduler;
+
+public class BoundedIOSchedulerTest extends AbstractSchedulerConcurrencyTests {
+    
+    static Scheduler scheduler;
+    
+    @BeforeClass
+    public static void beforeClass() {
+        scheduler = Schedulers.newBoundedIO(4, 60, TimeUnit.SECONDS);
+    }
+    
+    @AfterClass
+    public static void afterClass() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    static String threadName(Worker w) throws InterruptedException {
+        final String[] name = { null };
+        final CountDownLatch cdl = new CountDownLatch(1);
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                name[0] = Thread.currentThread().getName();
+                cdl.countDown();
+            }
+        });
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        return name[0];
+    }
+    
+    @Test
+    public void threadCountCapped() throws InterruptedException {
+        BoundedIOScheduler s = Schedulers.newBoundedIO(2, 60, TimeUnit.SECONDS);
+        try {
+            List<Worker> workers = new ArrayList<Worker>();
+            Set<String> names = new HashSet<String>();
+            for (int i = 0; i < 5; i++) {
+                Worker w = s.createWorker();
+                workers.add(w);
+                names.add(threadName(w));
+            }
+            
+            assertEquals(2, names.size());
+            assertEquals(2, s.size());
+            assertEquals(2, s.createdCount());
+            assertEquals(3, s.queuedCount());
+            assertEquals(0, s.reusedCount());
+            
+            for (Worker w : workers) {
+                w.dispose();
+            }
+            
+            Worker w = s.createWorker();
+            threadName(w);
+            w.dispose();
+            
+            assertEquals(2, s.createdCount());
+            assertEquals(1, s.reusedCount());
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void saturatedWorkersQueueUp() throws InterruptedException {
+        BoundedIOScheduler s = Schedulers.newBoundedIO(1, 60, TimeUnit.SECONDS);
+        try {
+            Worker w1 = s.createWorker();
+            Worker w2 = s.createWorker();
+            
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(1);
+            
+            w1.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                }
+            });
+            
+            w2.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            
+            assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+            
+            release.countDown();
+            
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            
+            w1.dispose();
+            w2.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void idleThreadsEvicted() throws InterruptedException {
+        BoundedIOScheduler s = Schedulers.newBoundedIO(2, 50, 10, TimeUnit.MILLISECONDS);
+        try {
+            Worker w = s.createWorker();
+            threadName(w);
+            w.dispose();
+            
+            assertEquals(1, s.size());
+            
+            for (int i = 0; i < 100 && s.evictedCount() == 0; i++) {
+                Thread.sleep(20);
+            }
+            
+            assertEquals(1, s.evictedCount());
+            assertEquals(0, s.size());
+            
+            w = s.createWorker();
+            threadName(w);
+            w.dispose();
+            
+            assertEquals(2, s.createdCount());
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void maxThreadsPositive() {
+        Schedulers.newBoundedIO(0, 60, TimeUnit.SECONDS);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void keepAlivePositive() {
+        new IOScheduler(1, 0, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void nonPositiveKeepAlivePropertyUsesDefault() throws InterruptedException {
+        for (String v : new String[] { "0", "-5" }) {
+            System.setProperty("rx2.io-keep-alive-time", v);
+            try {
+                IOScheduler s = new IOScheduler();
+                try {
+                    final CountDownLatch cdl = new CountDownLatch(1);
+                    s.createWorker().schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            cdl.countDown();
+                        }
+                    });
+                    assertTrue(cdl.await(5, TimeUnit.SECONDS));
+                } finally {
+                    s.shutdown();
+                }
+            } finally {
+                System.clearProperty("rx2.io-keep-alive-time");
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.internal.schedulers.*;
+import hu.akarnokd.rxjava2.internal.schedulers.EventLoopSelectionPolicy.EventLoopLoads;
+
+public class EventLoopSelectionPolicyTest {
+    
+    static EventLoopLoads loads(final int... values) {
+        return new EventLoopLoads() {
+            @Override
+            public int size() {
+                return values.length;
+            }
+            
+            @Override
+            public int load(int index) {
+                return values[index];
+            }
+        };
+    }
+    
+    @Test
+    public void roundRobin() {
+        EventLoopSelectionPolicy p = EventLoopSelectionPolicies.roundRobin();
+        EventLoopLoads l = loads(5, 0, 3);
+        
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 3, p.select(l));
+        }
+    }
+
+    @Test
+    public void leastLoaded() {
+        EventLoopSelectionPolicy p = EventLoopSelectionPolicies.leastLoaded();
+        
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, p.select(loads(5, 0, 3)));
+            assertEquals(2, p.select(loads(5, 4, 3, 6)));
+        }
+    }
+
+    @Test
+    public void leastLoadedSpreadsTies() {
+        EventLoopSelectionPolicy p = EventLoopSelectionPolicies.leastLoaded();
+        EventLoopLoads l = loads(0, 0, 0);
+        
+        assertEquals(0, p.select(l));
+        assertEquals(1, p.select(l));
+        assertEquals(2, p.select(l));
+    }
+
+    @Test
+    public void randomTwoChoices() {
+        EventLoopSelectionPolicy p = EventLoopSelectionPolicies.randomTwoChoices();
+        
+        for (int i = 0; i < 100; i++) {
+            // the two choices are always distinct so the idle one wins
+            assertEquals(1, p.select(loads(5, 0)));
+            
+            int j = p.select(loads(1, 1, 1, 1, 1));
+            assertTrue(j >= 0 && j < 5);
+            
+            // the most loaded can never win against another one
+            assertNotEquals(3, p.select(loads(1, 1, 1, 9)));
+            
+            assertEquals(0, p.select(loads(7)));
+        }
+    }
+
+    @Test
+    public void fromName() {
+        EventLoopLoads l = loads(5, 0, 3);
+        
+        assertEquals(1, EventLoopSelectionPolicies.fromName("least-loaded").select(l));
+        assertEquals(1, EventLoopSelectionPolicies.fromName("two-choices").select(loads(5, 0)));
+        
+        EventLoopSelectionPolicy p = EventLoopSelectionPolicies.fromName(null);
+        assertEquals(0, p.select(l));
+        assertEquals(1, p.select(l));
+    }
+    
+    @Test
+    public void schedulerWithEachPolicy() throws InterruptedException {
+        EventLoopSelectionPolicy[] policies = { 
+                EventLoopSelectionPolicies.roundRobin(),
+                EventLoopSelectionPolicies.leastLoaded(),
+                EventLoopSelectionPolicies.randomTwoChoices()
+        };
+        
+        for (EventLoopSelectionPolicy p : policies) {
+            Scheduler s = new ComputationScheduler(p);
+            try {
+                int n = 100;
+                final CountDownLatch cdl = new CountDownLatch(n);
+                for (int i = 0; i < n; i++) {
+                    final Scheduler.Worker w = s.createWorker();
+                    w.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            assertTrue(Thread.currentThread().getName().startsWith("RxComputationThreadPool"));
+                            cdl.countDown();
+                            w.dispose();
+                        }
+                    });
+                }
+                
+                assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            } finally {
+                s.shutdown();
+            }
+        }
+    }
+}
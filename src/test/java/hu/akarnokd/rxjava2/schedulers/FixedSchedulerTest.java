@@ -0,0 +1,142 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.functions.Consumer;
+
+public class FixedSchedulerTest extends AbstractSchedulerConcurrencyTests {
+    
+    static Scheduler scheduler;
+    
+    @BeforeClass
+    public static void beforeClass() {
+        scheduler = Schedulers.newFixed("RxFixedTest", 2);
+    }
+    
+    @AfterClass
+    public static void afterClass() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    static Thread thread(Worker w) throws InterruptedException {
+        final Thread[] thread = { null };
+        final CountDownLatch cdl = new CountDownLatch(1);
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                thread[0] = Thread.currentThread();
+                cdl.countDown();
+            }
+        });
+        assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        return thread[0];
+    }
+    
+    @Test
+    public void namedThreadsRoundRobin() throws InterruptedException {
+        Scheduler s = Schedulers.newFixed("pricing", 2);
+        try {
+            Set<String> names = new HashSet<String>();
+            for (int i = 0; i < 4; i++) {
+                Worker w = s.createWorker();
+                try {
+                    names.add(thread(w).getName());
+                } finally {
+                    w.dispose();
+                }
+            }
+            assertEquals(new HashSet<String>(Arrays.asList("pricing-1", "pricing-2")), names);
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void threadFactoryOptions() throws InterruptedException {
+        final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+        Scheduler s = Schedulers.newFixed("hot", 1, Schedulers.newThreadFactory("hot-", Thread.MAX_PRIORITY, false, new Consumer<Thread>() {
+            @Override
+            public void accept(Thread t) {
+                started.add(t.getName());
+            }
+        }));
+        try {
+            Worker w = s.createWorker();
+            try {
+                Thread t = thread(w);
+                
+                assertEquals("hot-1", t.getName());
+                assertEquals(Thread.MAX_PRIORITY, t.getPriority());
+                assertFalse(t.isDaemon());
+                assertEquals(Arrays.asList("hot-1"), started);
+            } finally {
+                w.dispose();
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void independentShutdown() throws InterruptedException {
+        Scheduler s1 = Schedulers.newFixed("first", 1);
+        Scheduler s2 = Schedulers.newFixed("second", 1);
+        try {
+            s1.shutdown();
+            
+            Worker w = s2.createWorker();
+            try {
+                assertEquals("second-1", thread(w).getName());
+            } finally {
+                w.dispose();
+            }
+            
+            s1.start();
+            
+            w = s1.createWorker();
+            try {
+                assertTrue(thread(w).getName().startsWith("first-"));
+            } finally {
+                w.dispose();
+            }
+        } finally {
+            s1.shutdown();
+            s2.shutdown();
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void threadsPositive() {
+        Schedulers.newFixed("none", 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void priorityInRange() {
+        Schedulers.newThreadFactory("prio-", Thread.MAX_PRIORITY + 1, true, null);
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.*;
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.disposables.Disposable;
+import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
+
+public class HashedWheelTimerSchedulerTest extends AbstractSchedulerConcurrencyTests {
+    
+    static Scheduler scheduler;
+    
+    @BeforeClass
+    public static void beforeClass() {
+        scheduler = Schedulers.newHashedWheelTimer();
+    }
+    
+    @AfterClass
+    public static void afterClass() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    @Test
+    public void delayedTasksRunAfterTheirDelay() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        try {
+            final CountDownLatch cdl = new CountDownLatch(1);
+            final long[] runAt = { 0L };
+            long start = System.nanoTime();
+            
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    runAt[0] = System.nanoTime();
+                    cdl.countDown();
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+            
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            
+            assertTrue("Ran too early: " + (runAt[0] - start), runAt[0] - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void delayedTasksRunInDueOrder() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        try {
+            final List<Integer> list = Collections.synchronizedList(new ArrayList<Integer>());
+            final CountDownLatch cdl = new CountDownLatch(4);
+            
+            int[] delays = { 40, 10, 30, 20 };
+            for (final int d : delays) {
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        list.add(d);
+                        cdl.countDown();
+                    }
+                }, d, TimeUnit.MILLISECONDS);
+            }
+            
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            
+            assertEquals(Arrays.asList(10, 20, 30, 40), list);
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void delayLongerThanOneRound() throws InterruptedException {
+        Scheduler s = Schedulers.newHashedWheelTimer(Schedulers.computation(), 1, TimeUnit.MILLISECONDS, 8);
+        try {
+            Worker w = s.createWorker();
+            final CountDownLatch cdl = new CountDownLatch(1);
+            long start = System.nanoTime();
+            
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+            
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+            
+            w.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelledTasksDontRun() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        try {
+            final AtomicInteger count = new AtomicInteger();
+            Runnable r = new Runnable() {
+                @Override
+                public void run() {
+                    count.getAndIncrement();
+                }
+            };
+            
+            List<Disposable> list = new ArrayList<Disposable>();
+            for (int i = 0; i < 1000; i++) {
+                list.add(w.schedule(r, 20, TimeUnit.MILLISECONDS));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                list.get(i).dispose();
+            }
+            
+            Thread.sleep(200);
+            
+            assertEquals(500, count.get());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void disposedWorkerCancelsDelayedTasks() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        final AtomicInteger count = new AtomicInteger();
+        
+        for (int i = 0; i < 100; i++) {
+            w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    count.getAndIncrement();
+                }
+            }, 20, TimeUnit.MILLISECONDS);
+        }
+        
+        w.dispose();
+        
+        Thread.sleep(200);
+        
+        assertEquals(0, count.get());
+    }
+    
+    @Test
+    public void timeoutOperator() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 1000)
+        .timeout(1, TimeUnit.MINUTES, scheduler)
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertValueCount(1000);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void timeoutOperatorFires() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.<Integer>never()
+        .timeout(20, TimeUnit.MILLISECONDS, scheduler)
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertNoValues();
+        ts.assertError(TimeoutException.class);
+    }
+
+    @Test
+    public void delayOperator() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.range(1, 5)
+        .delay(10, TimeUnit.MILLISECONDS, scheduler)
+        .subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        
+        ts.assertValues(1, 2, 3, 4, 5);
+        ts.assertNoErrors();
+        ts.assertComplete();
+    }
+
+    @Test
+    public void shutdownWorkerRejectsDelayedTasks() {
+        Scheduler s = Schedulers.newHashedWheelTimer();
+        s.shutdown();
+        
+        Worker w = s.createWorker();
+        try {
+            final AtomicInteger count = new AtomicInteger();
+            Disposable d = w.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    count.getAndIncrement();
+                }
+            }, 1, TimeUnit.MILLISECONDS);
+            
+            assertNotNull(d);
+            assertEquals(0, count.get());
+        } finally {
+            w.dispose();
+        }
+    }
+}
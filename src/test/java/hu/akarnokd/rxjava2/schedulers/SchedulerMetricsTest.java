@@ -0,0 +1,207 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.Scheduler;
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.internal.schedulers.*;
+import hu.akarnokd.rxjava2.plugins.*;
+import hu.akarnokd.rxjava2.plugins.SchedulerMetricsRecorder.*;
+
+public class SchedulerMetricsTest {
+    
+    SchedulerMetricsRecorder recorder;
+    
+    @Before
+    public void before() {
+        recorder = new SchedulerMetricsRecorder();
+        RxJavaPlugins.setSchedulerMetrics(recorder);
+    }
+    
+    @After
+    public void after() {
+        RxJavaPlugins.reset();
+    }
+    
+    void runTasks(Scheduler scheduler, int n) throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        try {
+            final CountDownLatch cdl = new CountDownLatch(n);
+            for (int i = 0; i < n; i++) {
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        cdl.countDown();
+                    }
+                }, i % 2, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+        } finally {
+            w.dispose();
+        }
+    }
+    
+    void awaitCompleted(PoolMetrics p, long n) throws InterruptedException {
+        // the task is counted after the latch has been released
+        for (int i = 0; i < 500 && p.completed() != n; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(n, p.completed());
+    }
+    
+    @Test
+    public void computation() throws InterruptedException {
+        ComputationScheduler s = new ComputationScheduler();
+        try {
+            PoolMetrics p = recorder.pool("computation");
+            assertEquals(Runtime.getRuntime().availableProcessors(), p.activeThreads());
+            
+            runTasks(s, 100);
+            
+            awaitCompleted(p, 100);
+            assertEquals(100, p.scheduled());
+            assertEquals(100, p.started());
+            assertEquals(0, p.rejected());
+            assertEquals(1, p.workersCreated());
+            assertEquals(0, p.activeWorkers());
+            assertEquals(100, p.waitTimes().count());
+            assertEquals(100, p.runTimes().count());
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void fixed() throws InterruptedException {
+        Scheduler s = Schedulers.newFixed("pricing", 2);
+        try {
+            PoolMetrics p = recorder.pool("pricing");
+            assertEquals(2, p.activeThreads());
+            
+            runTasks(s, 10);
+            
+            awaitCompleted(p, 10);
+            assertEquals(10, p.scheduled());
+            assertEquals(1, p.workersCreated());
+            assertEquals(0, recorder.pool("computation").scheduled());
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void io() throws InterruptedException {
+        IOScheduler s = new IOScheduler();
+        try {
+            runTasks(s, 10);
+            runTasks(s, 10);
+            
+            PoolMetrics p = recorder.pool("io");
+            awaitCompleted(p, 20);
+            assertEquals(2, p.workersCreated());
+            // the second worker reuses the cached thread
+            assertEquals(1, p.threadsCreated());
+        } finally {
+            s.shutdown();
+        }
+        
+        PoolMetrics p = recorder.pool("io");
+        for (int i = 0; i < 500 && p.activeThreads() != 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, p.activeThreads());
+        // the counters of the shut down thread are kept
+        assertEquals(20, p.completed());
+    }
+    
+    @Test
+    public void single() throws InterruptedException {
+        SingleScheduler s = new SingleScheduler();
+        try {
+            runTasks(s, 10);
+            
+            final CountDownLatch cdl = new CountDownLatch(1);
+            s.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    cdl.countDown();
+                }
+            });
+            assertTrue(cdl.await(5, TimeUnit.SECONDS));
+            
+            PoolMetrics p = recorder.pool("single");
+            awaitCompleted(p, 11);
+            assertEquals(1, p.threadsCreated());
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void newThreadRejected() {
+        NewThreadWorker w = new NewThreadWorker(new RxThreadFactory("TestMetrics-"), "test");
+        w.dispose();
+        
+        w.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+        
+        PoolMetrics p = recorder.pool("test");
+        assertEquals(1, p.threadsCreated());
+        assertEquals(1, p.rejected());
+    }
+    
+    @Test
+    public void disabled() throws InterruptedException {
+        RxJavaPlugins.reset();
+        
+        ComputationScheduler s = new ComputationScheduler();
+        try {
+            runTasks(s, 10);
+        } finally {
+            s.shutdown();
+        }
+        assertTrue(recorder.poolNames().isEmpty());
+    }
+    
+    @Test
+    public void histogram() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        h.record(0);
+        h.record(1);
+        h.record(1000);
+        h.record(1023);
+        h.record(1024);
+        
+        assertEquals(6, h.count());
+        assertEquals(2, h.bucket(0));
+        assertEquals(1, h.bucket(1));
+        assertEquals(2, h.bucket(10));
+        assertEquals(1, h.bucket(11));
+        
+        assertEquals(1L, h.percentile(10));
+        assertEquals(1024L, h.percentile(80));
+        assertEquals(2048L, h.percentile(100));
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2015 David Karnok and Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+
+package hu.akarnokd.rxjava2.schedulers;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+import hu.akarnokd.rxjava2.*;
+import hu.akarnokd.rxjava2.Scheduler.Worker;
+import hu.akarnokd.rxjava2.internal.schedulers.WorkStealingComputationScheduler;
+
+public class WorkStealingComputationSchedulerTest extends AbstractSchedulerConcurrencyTests {
+    
+    static Scheduler scheduler;
+    
+    @BeforeClass
+    public static void beforeClass() {
+        scheduler = new WorkStealingComputationScheduler(4);
+    }
+    
+    @AfterClass
+    public static void afterClass() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    @Test
+    public void idleThreadStealsWorkerBehindBlockedOne() throws InterruptedException {
+        Scheduler s = new WorkStealingComputationScheduler(2);
+        try {
+            // workers are homed round-robin so w0 and w2 share a thread
+            Worker w0 = s.createWorker();
+            Worker w1 = s.createWorker();
+            Worker w2 = s.createWorker();
+            
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch blocking = new CountDownLatch(1);
+            final CountDownLatch stolen = new CountDownLatch(1);
+            
+            w0.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    blocking.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        // ignored
+                    }
+                }
+            });
+            
+            assertTrue(blocking.await(5, TimeUnit.SECONDS));
+            
+            w2.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    stolen.countDown();
+                }
+            });
+            
+            try {
+                assertTrue("The task behind the blocked worker did not run", stolen.await(2, TimeUnit.SECONDS));
+            } finally {
+                release.countDown();
+            }
+            
+            w0.dispose();
+            w1.dispose();
+            w2.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+    
+    @Test
+    public void workerKeepsOrderAcrossThreads() throws InterruptedException {
+        int n = 10000;
+        final List<Integer> list = new ArrayList<Integer>();
+        final CountDownLatch cdl = new CountDownLatch(n);
+        
+        List<Worker> workers = new ArrayList<Worker>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(scheduler.createWorker());
+        }
+        try {
+            Worker w = workers.get(0);
+            for (int i = 0; i < n; i++) {
+                final int j = i;
+                w.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        list.add(j);
+                        cdl.countDown();
+                    }
+                });
+                // keep the other threads busy so that they steal
+                workers.get(1 + (i % 7)).schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        Thread.yield();
+                    }
+                });
+            }
+            
+            assertTrue(cdl.await(10, TimeUnit.SECONDS));
+        } finally {
+            for (Worker w : workers) {
+                w.dispose();
+            }
+        }
+        
+        synchronized (list) {
+            assertEquals(n, list.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, list.get(i).intValue());
+            }
+        }
+    }
+    
+    @Test
+    public void disposedWorkerDropsPendingTasks() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final boolean[] run = { false };
+        
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                blocking.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+            }
+        });
+        w.schedule(new Runnable() {
+            @Override
+            public void run() {
+                run[0] = true;
+            }
+        });
+        
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        
+        w.dispose();
+        release.countDown();
+        
+        Thread.sleep(100);
+        
+        assertFalse(run[0]);
+    }
+    
+    @Test(timeout = 80000)
+    public void testCancelledTaskRetention() throws InterruptedException {
+        Worker w = scheduler.createWorker();
+        try {
+            ExecutorSchedulerTest.testCancelledRetention(w, false);
+        } finally {
+            w.dispose();
+        }
+        w = scheduler.createWorker();
+        try {
+            ExecutorSchedulerTest.testCancelledRetention(w, true);
+        } finally {
+            w.dispose();
+        }
+    }
+}
@@ -17,6 +17,8 @@ import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
@@ -28,6 +30,7 @@ import org.reactivestreams.*;
 import hu.akarnokd.rxjava2.*;
 import hu.akarnokd.rxjava2.disposables.Disposable;
 import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.internal.util.OffHeapAppendList;
 import hu.akarnokd.rxjava2.functions.Function;
 import hu.akarnokd.rxjava2.schedulers.*;
 import hu.akarnokd.rxjava2.subscribers.TestSubscriber;
@@ -907,4 +910,217 @@ public class ReplaySubjectTest {
         ts.assertComplete();
         ts.assertNoErrors();
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testSizeBoundAcrossChunks() {
+        ReplaySubject<Integer> rs = ReplaySubject.createWithSize(10);
+        
+        TestSubscriber<Integer> lagging = new TestSubscriber<Integer>((Long)null);
+        rs.subscribe(lagging);
+        
+        for (int i = 0; i < 200; i++) {
+            rs.onNext(i);
+        }
+        
+        assertEquals(10, rs.size());
+        assertEquals((Integer)199, rs.getValue());
+        
+        Object[] values = rs.getValues();
+        assertEquals(10, values.length);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(190 + i, values[i]);
+        }
+        
+        TestSubscriber<Integer> late = new TestSubscriber<Integer>();
+        rs.subscribe(late);
+        late.assertValues(190, 191, 192, 193, 194, 195, 196, 197, 198, 199);
+        
+        // the lagging subscriber still receives the dropped values it was behind on
+        lagging.request(7);
+        lagging.assertValues(0, 1, 2, 3, 4, 5, 6);
+        lagging.request(200);
+        lagging.assertValueCount(200);
+        lagging.assertNotComplete();
+        
+        rs.onComplete();
+        
+        assertEquals(10, rs.size());
+        assertEquals((Integer)199, rs.getValue());
+        lagging.assertComplete();
+        late.assertComplete();
+    }
+    
+    @Test
+    public void testTimeBoundAcrossChunks() {
+        TestScheduler scheduler = Schedulers.test();
+        ReplaySubject<Integer> rs = ReplaySubject.createWithTime(10, TimeUnit.MILLISECONDS, scheduler);
+        
+        for (int i = 0; i < 150; i++) {
+            rs.onNext(i);
+            scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        }
+        
+        assertEquals(10, rs.size());
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        rs.subscribe(ts);
+        
+        ts.assertValues(141, 142, 143, 144, 145, 146, 147, 148, 149);
+        
+        scheduler.advanceTimeBy(1, TimeUnit.DAYS);
+        rs.onError(new TestException());
+        
+        assertEquals(0, rs.size());
+        assertNull(rs.getValue());
+        ts.assertError(TestException.class);
+    }
+    
+    static final ElementSerializer<String> STRING_SERIALIZER = new ElementSerializer<String>() {
+        @Override
+        public int size(String element) {
+            return element.length() * 2;
+        }
+        @Override
+        public void serialize(String element, ByteBuffer out) {
+            for (int i = 0; i < element.length(); i++) {
+                out.putChar(element.charAt(i));
+            }
+        }
+        @Override
+        public String deserialize(ByteBuffer in) {
+            StringBuilder b = new StringBuilder();
+            while (in.hasRemaining()) {
+                b.append(in.getChar());
+            }
+            return b.toString();
+        }
+    };
+    
+    @Test
+    public void testOffHeap() {
+        // the 16 byte chunks force chunk switches with and without the end marker and oversized chunks
+        ReplaySubject<String> rs = ReplaySubject.createOffHeap(STRING_SERIALIZER, 16);
+        
+        assertNull(rs.getValue());
+        assertEquals(0, rs.getValues().length);
+        
+        TestSubscriber<String> ts = new TestSubscriber<String>((Long)null);
+        rs.subscribe(ts);
+        
+        String[] values = { "a", "", "abcde", "abcdefghijklmnopqrstuvwxyz", "ab", "abcdef", "x" };
+        for (String v : values) {
+            rs.onNext(v);
+        }
+        
+        assertEquals(values.length, rs.size());
+        assertEquals("x", rs.getValue());
+        assertArrayEquals(values, rs.getValues(new String[0]));
+        
+        ts.assertNoValues();
+        ts.request(3);
+        ts.assertValues("a", "", "abcde");
+        
+        rs.onError(new TestException());
+        ts.assertNotTerminated();
+        
+        ts.request(Long.MAX_VALUE);
+        ts.assertValues(values);
+        ts.assertError(TestException.class);
+        
+        TestSubscriber<String> ts2 = new TestSubscriber<String>();
+        rs.subscribe(ts2);
+        ts2.assertValues(values);
+        ts2.assertError(TestException.class);
+        
+        assertEquals(values.length, rs.size());
+        assertEquals("x", rs.getValue());
+    }
+    
+    @Test
+    public void testOffHeapMappedFile() throws Exception {
+        File f = File.createTempFile("replay", ".bin");
+        try {
+            ReplaySubject<String> rs = ReplaySubject.createOffHeap(STRING_SERIALIZER, f, 1024);
+            
+            for (int i = 0; i < 1000; i++) {
+                rs.onNext("value" + i);
+            }
+            rs.onComplete();
+            
+            TestSubscriber<String> ts = new TestSubscriber<String>();
+            rs.subscribe(ts);
+            
+            ts.assertValueCount(1000);
+            ts.assertComplete();
+            assertEquals("value0", ts.values().get(0));
+            assertEquals("value999", ts.values().get(999));
+            assertEquals("value999", rs.getValue());
+        } finally {
+            f.delete();
+        }
+    }
+
+    /** Writes half of "bad" and then crashes. */
+    static final ElementSerializer<String> CRASHING_SERIALIZER = new ElementSerializer<String>() {
+        @Override
+        public int size(String element) {
+            return STRING_SERIALIZER.size(element);
+        }
+        @Override
+        public void serialize(String element, ByteBuffer out) {
+            if ("bad".equals(element)) {
+                out.putChar('b');
+                throw new TestException();
+            }
+            STRING_SERIALIZER.serialize(element, out);
+        }
+        @Override
+        public String deserialize(ByteBuffer in) {
+            return STRING_SERIALIZER.deserialize(in);
+        }
+    };
+    
+    @Test
+    public void testOffHeapSerializerCrash() {
+        ReplaySubject<String> rs = ReplaySubject.createOffHeap(CRASHING_SERIALIZER, 16);
+        
+        TestSubscriber<String> ts = new TestSubscriber<String>();
+        rs.subscribe(ts);
+        
+        rs.onNext("one");
+        rs.onNext("bad");
+        rs.onNext("two");
+        rs.onComplete();
+        
+        ts.assertValues("one");
+        ts.assertError(TestException.class);
+        
+        TestSubscriber<String> ts2 = new TestSubscriber<String>();
+        rs.subscribe(ts2);
+        
+        ts2.assertValues("one");
+        ts2.assertError(TestException.class);
+        assertEquals("one", rs.getValue());
+    }
+    
+    @Test
+    public void testOffHeapListRollsBackCrashedRecord() {
+        OffHeapAppendList<String> list = new OffHeapAppendList<String>(CRASHING_SERIALIZER, 16, null);
+        
+        list.add("one");
+        try {
+            list.add("bad");
+            fail("Should have thrown");
+        } catch (TestException expected) {
+            // expected
+        }
+        list.add("two");
+        
+        assertEquals(2, list.size());
+        assertEquals("two", list.last());
+        
+        OffHeapAppendList.Cursor c = list.cursor();
+        assertEquals("one", list.next(c));
+        assertEquals("two", list.next(c));
+    }
+}
@@ -15,6 +15,9 @@ package hu.akarnokd.rxjava2.subjects;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import hu.akarnokd.rxjava2.exceptions.TestException;
@@ -413,4 +416,92 @@ public class SerializedSubjectTest {
         Subject<Object, Object> s2 = s1.toSerialized();
         assertSame(s1, s2);
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void lockFreeBasic() {
+        Subject<String, String> subject = PublishSubject.<String>create().toSerialized(SerializationMode.LOCK_FREE);
+        TestSubscriber<String> ts = new TestSubscriber<String>();
+        subject.subscribe(ts);
+        subject.onNext("hello");
+        subject.onComplete();
+        subject.onNext("world");
+        ts.awaitTerminalEvent();
+        ts.assertValue("hello");
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void lockFreeModeSelection() {
+        Subject<Object, Object> s = PublishSubject.create();
+        Subject<Object, Object> s1 = s.toSerialized(SerializationMode.LOCK_FREE);
+        assertTrue(s1 instanceof LockFreeSerializedSubject);
+        assertSame(s1, s1.toSerialized(SerializationMode.LOCK_FREE));
+        assertTrue(s.toSerialized(SerializationMode.BLOCKING) instanceof SerializedSubject);
+    }
+    
+    @Test
+    public void lockFreeErrorCutsAhead() {
+        final Subject<Integer, Integer> subject = PublishSubject.<Integer>create().toSerialized(SerializationMode.LOCK_FREE);
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                super.onNext(t);
+                if (t == 1) {
+                    // reentrant calls are queued by the emitting thread
+                    subject.onNext(2);
+                    subject.onError(new TestException());
+                    subject.onComplete();
+                }
+            }
+        };
+        subject.subscribe(ts);
+        subject.onNext(1);
+        
+        ts.assertValue(1);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void lockFreeConcurrentEmission() throws InterruptedException {
+        final Subject<Integer, Integer> subject = PublishSubject.<Integer>create().toSerialized(SerializationMode.LOCK_FREE);
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                int c = concurrent.incrementAndGet();
+                if (c > maxConcurrent.get()) {
+                    maxConcurrent.set(c);
+                }
+                super.onNext(t);
+                concurrent.decrementAndGet();
+            }
+        };
+        subject.subscribe(ts);
+        
+        final int n = 4;
+        final int count = 10000;
+        final CountDownLatch cdl = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count; j++) {
+                        subject.onNext(j);
+                    }
+                    cdl.countDown();
+                }
+            }.start();
+        }
+        
+        assertTrue(cdl.await(10, TimeUnit.SECONDS));
+        subject.onComplete();
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueCount(n * count);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        assertEquals(1, maxConcurrent.get());
+    }
+}
@@ -15,9 +15,13 @@ package hu.akarnokd.rxjava2.subjects.nbp;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import hu.akarnokd.rxjava2.exceptions.TestException;
+import hu.akarnokd.rxjava2.subjects.SerializationMode;
 import hu.akarnokd.rxjava2.subscribers.nbp.NbpTestSubscriber;
 
 public class NbpSerializedSubjectTest {
@@ -413,4 +417,92 @@ public class NbpSerializedSubjectTest {
         NbpSubject<Object, Object> s2 = s1.toSerialized();
         assertSame(s1, s2);
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void lockFreeBasic() {
+        NbpSubject<String, String> subject = NbpPublishSubject.<String>create().toSerialized(SerializationMode.LOCK_FREE);
+        NbpTestSubscriber<String> ts = new NbpTestSubscriber<String>();
+        subject.subscribe(ts);
+        subject.onNext("hello");
+        subject.onComplete();
+        subject.onNext("world");
+        ts.awaitTerminalEvent();
+        ts.assertValue("hello");
+        ts.assertComplete();
+    }
+    
+    @Test
+    public void lockFreeModeSelection() {
+        NbpSubject<Object, Object> s = NbpPublishSubject.create();
+        NbpSubject<Object, Object> s1 = s.toSerialized(SerializationMode.LOCK_FREE);
+        assertTrue(s1 instanceof NbpLockFreeSerializedSubject);
+        assertSame(s1, s1.toSerialized(SerializationMode.LOCK_FREE));
+        assertTrue(s.toSerialized(SerializationMode.BLOCKING) instanceof NbpSerializedSubject);
+    }
+    
+    @Test
+    public void lockFreeErrorCutsAhead() {
+        final NbpSubject<Integer, Integer> subject = NbpPublishSubject.<Integer>create().toSerialized(SerializationMode.LOCK_FREE);
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                super.onNext(t);
+                if (t == 1) {
+                    // reentrant calls are queued by the emitting thread
+                    subject.onNext(2);
+                    subject.onError(new TestException());
+                    subject.onComplete();
+                }
+            }
+        };
+        subject.subscribe(ts);
+        subject.onNext(1);
+        
+        ts.assertValue(1);
+        ts.assertError(TestException.class);
+        ts.assertNotComplete();
+    }
+    
+    @Test
+    public void lockFreeConcurrentEmission() throws InterruptedException {
+        final NbpSubject<Integer, Integer> subject = NbpPublishSubject.<Integer>create().toSerialized(SerializationMode.LOCK_FREE);
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        NbpTestSubscriber<Integer> ts = new NbpTestSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                int c = concurrent.incrementAndGet();
+                if (c > maxConcurrent.get()) {
+                    maxConcurrent.set(c);
+                }
+                super.onNext(t);
+                concurrent.decrementAndGet();
+            }
+        };
+        subject.subscribe(ts);
+        
+        final int n = 4;
+        final int count = 10000;
+        final CountDownLatch cdl = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count; j++) {
+                        subject.onNext(j);
+                    }
+                    cdl.countDown();
+                }
+            }.start();
+        }
+        
+        assertTrue(cdl.await(10, TimeUnit.SECONDS));
+        subject.onComplete();
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertValueCount(n * count);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        assertEquals(1, maxConcurrent.get());
+    }
+}